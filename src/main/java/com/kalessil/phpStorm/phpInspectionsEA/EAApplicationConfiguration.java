@@ -5,14 +5,24 @@ import com.kalessil.phpStorm.phpInspectionsEA.options.OptionsComponent;
 import com.kalessil.phpStorm.phpInspectionsEA.settings.ComparisonStyle;
 import org.jetbrains.annotations.Nls;
 import org.jetbrains.annotations.NonNls;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import javax.swing.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 public class EAApplicationConfiguration implements Configurable {
     private boolean SEND_CRASH_REPORTS;
     private boolean COMPARISON_STYLE_REGULAR;
     private boolean COMPARISON_STYLE_YODA;
+    private int ANALYSIS_BUDGET;
+    private final List<String> ANALYSIS_BUDGETS = new ArrayList<>();
+    private boolean REPORT_BUDGET_EXHAUSTION;
+    private int PROFILE_SUPPRESSION_THRESHOLD;
+    private int PROFILE_BOOST_THRESHOLD;
 
     @Nullable
     @Override
@@ -24,6 +34,14 @@ public class EAApplicationConfiguration implements Configurable {
         COMPARISON_STYLE_REGULAR              = comparisonStyle == ComparisonStyle.REGULAR;
         COMPARISON_STYLE_YODA                 = comparisonStyle == ComparisonStyle.YODA;
 
+        ANALYSIS_BUDGET          = settings.getAnalysisBudget();
+        REPORT_BUDGET_EXHAUSTION = settings.getReportBudgetExhaustion();
+        ANALYSIS_BUDGETS.clear();
+        settings.getAnalysisBudgets().forEach((inspection, milliseconds) -> ANALYSIS_BUDGETS.add(inspection + ':' + milliseconds));
+
+        PROFILE_SUPPRESSION_THRESHOLD = settings.getProfileSuppressionThreshold();
+        PROFILE_BOOST_THRESHOLD       = settings.getProfileBoostThreshold();
+
         return OptionsComponent.create(component -> {
             component.addPanel("Anonymous data collect", panelComponent ->
                 panelComponent.addCheckbox("Automatically collect crash-reports", SEND_CRASH_REPORTS, (isSelected) -> SEND_CRASH_REPORTS = isSelected)
@@ -36,6 +54,26 @@ public class EAApplicationConfiguration implements Configurable {
                     radioComponent.addOption("Yoda comparison style", COMPARISON_STYLE_YODA, (isSelected) -> COMPARISON_STYLE_YODA = isSelected);
                 }
             ));
+
+            /* analysis budget */
+            component.addPanel("Analysis budget", panelComponent -> {
+                panelComponent.addSpinner("Per inspection and file, ms (0 - unlimited):", ANALYSIS_BUDGET, (input) -> ANALYSIS_BUDGET = input);
+                panelComponent.addCheckbox("Report inspections stopped by the budget", REPORT_BUDGET_EXHAUSTION, (isSelected) -> REPORT_BUDGET_EXHAUSTION = isSelected);
+                panelComponent.addList(
+                    "Per inspection budgets, ms (override the above):",
+                    ANALYSIS_BUDGETS,
+                    null,
+                    null,
+                    "Adding an inspection budget...",
+                    "Inspection short name and milliseconds, e.g. 'NotOptimalIfConditionsInspection:200'"
+                );
+            });
+
+            /* execution profile weighting of performance findings */
+            component.addPanel("Execution profile", panelComponent -> {
+                panelComponent.addSpinner("Suppress performance findings in functions below, \u2030 of the profiled time (0 - never):", PROFILE_SUPPRESSION_THRESHOLD, (input) -> PROFILE_SUPPRESSION_THRESHOLD = input);
+                panelComponent.addSpinner("Report performance findings as errors in functions from, \u2030 of the profiled time (0 - never):", PROFILE_BOOST_THRESHOLD, (input) -> PROFILE_BOOST_THRESHOLD = input);
+            });
         });
     }
 
@@ -45,7 +83,12 @@ public class EAApplicationConfiguration implements Configurable {
         final ComparisonStyle comparisonStyle = settings.getComparisonStyle();
 
         return SEND_CRASH_REPORTS != settings.getSendCrashReports() ||
-               COMPARISON_STYLE_YODA != (comparisonStyle == ComparisonStyle.YODA);
+               COMPARISON_STYLE_YODA != (comparisonStyle == ComparisonStyle.YODA) ||
+               ANALYSIS_BUDGET != settings.getAnalysisBudget() ||
+               !parseBudgets(ANALYSIS_BUDGETS).equals(settings.getAnalysisBudgets()) ||
+               REPORT_BUDGET_EXHAUSTION != settings.getReportBudgetExhaustion() ||
+               PROFILE_SUPPRESSION_THRESHOLD != settings.getProfileSuppressionThreshold() ||
+               PROFILE_BOOST_THRESHOLD != settings.getProfileBoostThreshold();
     }
 
     @Override
@@ -53,6 +96,28 @@ public class EAApplicationConfiguration implements Configurable {
         final EASettings settings = EASettings.getInstance();
         settings.setSendCrashReports(SEND_CRASH_REPORTS);
         settings.setComparisonStyle(COMPARISON_STYLE_REGULAR ? ComparisonStyle.REGULAR : ComparisonStyle.YODA);
+        settings.setAnalysisBudget(ANALYSIS_BUDGET);
+        settings.setAnalysisBudgets(parseBudgets(ANALYSIS_BUDGETS));
+        settings.setReportBudgetExhaustion(REPORT_BUDGET_EXHAUSTION);
+        settings.setProfileSuppressionThreshold(PROFILE_SUPPRESSION_THRESHOLD);
+        settings.setProfileBoostThreshold(PROFILE_BOOST_THRESHOLD);
+    }
+
+    /* 'ShortName:milliseconds' entries, malformed ones are skipped */
+    @NotNull
+    private static Map<String, Integer> parseBudgets(@NotNull List<String> entries) {
+        final Map<String, Integer> budgets = new TreeMap<>();
+        for (final String entry : entries) {
+            final int separator = entry.lastIndexOf(':');
+            if (separator > 0) {
+                try {
+                    budgets.put(entry.substring(0, separator).trim(), Math.max(0, Integer.parseInt(entry.substring(separator + 1).trim())));
+                } catch (NumberFormatException malformed) {
+                    /* skipped */
+                }
+            }
+        }
+        return budgets;
     }
 
     @Override
@@ -9,13 +9,23 @@ import org.jdom.Element;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 @State(name = "EASettings", storages = @Storage(file = "$APP_CONFIG$/ea_extended.xml"))
 public class EASettings implements PersistentStateComponent<Element> {
     private ComparisonStyle comparisonStyle;
     private String sendCrashReports;
 
+    private int analysisBudget                 = 1000;
+    private boolean reportBudgetExhaustion     = false;
+    private final Map<String, Integer> budgets = new ConcurrentHashMap<>();
+
+    private int profileSuppressionThreshold = 1;
+    private int profileBoostThreshold       = 100;
+
     private String versionOldest;
     private String version;
     private String uuid;
@@ -44,6 +54,16 @@ public class EASettings implements PersistentStateComponent<Element> {
         if (this.comparisonStyle != null) {
             element.setAttribute("comparisonStyle", this.comparisonStyle.getValue());
         }
+        element.setAttribute("analysisBudget", String.valueOf(this.analysisBudget));
+        element.setAttribute("reportBudgetExhaustion", this.reportBudgetExhaustion ? "true" : "false");
+        for (final Map.Entry<String, Integer> entry : this.budgets.entrySet()) {
+            final Element budget = new Element("budget");
+            budget.setAttribute("inspection", entry.getKey());
+            budget.setAttribute("milliseconds", String.valueOf(entry.getValue()));
+            element.addContent(budget);
+        }
+        element.setAttribute("profileSuppressionThreshold", String.valueOf(this.profileSuppressionThreshold));
+        element.setAttribute("profileBoostThreshold", String.valueOf(this.profileBoostThreshold));
 
         return element;
     }
@@ -71,6 +91,33 @@ public class EASettings implements PersistentStateComponent<Element> {
         this.comparisonStyle              = comparisonStyleValue == null || comparisonStyleValue.equals(ComparisonStyle.REGULAR.getValue())
                                                 ? ComparisonStyle.REGULAR
                                                 : ComparisonStyle.YODA;
+
+        /* analysis budget: global and per inspection (by short name), in milliseconds; a second by default */
+        final String analysisBudgetValue = element.getAttributeValue("analysisBudget");
+        this.analysisBudget              = analysisBudgetValue == null ? 1000 : parseBudget(analysisBudgetValue, 1000);
+        this.reportBudgetExhaustion      = "true".equals(element.getAttributeValue("reportBudgetExhaustion"));
+        this.budgets.clear();
+        for (final Element budget : element.getChildren("budget")) {
+            final String inspection = budget.getAttributeValue("inspection");
+            final String value      = budget.getAttributeValue("milliseconds");
+            if (inspection != null && value != null) {
+                this.budgets.put(inspection, parseBudget(value, this.analysisBudget));
+            }
+        }
+
+        /* execution profile weighting thresholds, in per mille of the total profiled cost */
+        final String suppressionValue    = element.getAttributeValue("profileSuppressionThreshold");
+        final String boostValue          = element.getAttributeValue("profileBoostThreshold");
+        this.profileSuppressionThreshold = suppressionValue == null ? 1 : parseBudget(suppressionValue, 1);
+        this.profileBoostThreshold       = boostValue == null ? 100 : parseBudget(boostValue, 100);
+    }
+
+    private static int parseBudget(@NotNull String value, int fallback) {
+        try {
+            return Math.max(0, Integer.parseInt(value));
+        } catch (NumberFormatException failure) {
+            return fallback;
+        }
     }
 
     public void setVersion(@NotNull String version) {
@@ -100,4 +147,56 @@ public class EASettings implements PersistentStateComponent<Element> {
     public ComparisonStyle getComparisonStyle() {
         return this.comparisonStyle;
     }
+
+    /* 0 disables the budget */
+    public int getAnalysisBudget() {
+        return this.analysisBudget;
+    }
+    public void setAnalysisBudget(int milliseconds) {
+        this.analysisBudget = Math.max(0, milliseconds);
+    }
+
+    public int getAnalysisBudget(@NotNull String inspectionShortName) {
+        return this.budgets.getOrDefault(inspectionShortName, this.analysisBudget);
+    }
+    public void setAnalysisBudget(@NotNull String inspectionShortName, @Nullable Integer milliseconds) {
+        if (milliseconds == null) {
+            this.budgets.remove(inspectionShortName);
+        } else {
+            this.budgets.put(inspectionShortName, Math.max(0, milliseconds));
+        }
+    }
+
+    /* explicitly configured per inspection budgets, by inspection short name */
+    @NotNull
+    public Map<String, Integer> getAnalysisBudgets() {
+        return new TreeMap<>(this.budgets);
+    }
+    public void setAnalysisBudgets(@NotNull Map<String, Integer> budgets) {
+        this.budgets.clear();
+        budgets.forEach(this::setAnalysisBudget);
+    }
+
+    public boolean getReportBudgetExhaustion() {
+        return this.reportBudgetExhaustion;
+    }
+    public void setReportBudgetExhaustion(boolean value) {
+        this.reportBudgetExhaustion = value;
+    }
+
+    /* 0 disables the suppression */
+    public int getProfileSuppressionThreshold() {
+        return this.profileSuppressionThreshold;
+    }
+    public void setProfileSuppressionThreshold(int perMille) {
+        this.profileSuppressionThreshold = Math.max(0, perMille);
+    }
+
+    /* 0 disables the boosting */
+    public int getProfileBoostThreshold() {
+        return this.profileBoostThreshold;
+    }
+    public void setProfileBoostThreshold(int perMille) {
+        this.profileBoostThreshold = Math.max(0, perMille);
+    }
 }
@@ -0,0 +1,96 @@
+package com.kalessil.phpStorm.phpInspectionsEA.actions;
+
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import com.kalessil.phpStorm.phpInspectionsEA.openApi.ClassDependencyGraph;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Shows project-wide coupling metrics from the classes dependency graph: the most coupled classes and dependency cycles.
+ */
+public class ClassCouplingReportAction extends AnAction {
+    private static final String title = "Classes Coupling";
+    private static final int limit    = 10;
+
+    @Override
+    public void update(@NotNull AnActionEvent event) {
+        event.getPresentation().setEnabled(event.getProject() != null);
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent event) {
+        final Project project = event.getProject();
+        if (project == null || project.isDisposed()) {
+            return;
+        }
+        if (DumbService.isDumb(project)) {
+            DumbService.getInstance(project).showDumbModeNotification("The report is not available until indices are built");
+            return;
+        }
+
+        final StringBuilder report = new StringBuilder();
+        final boolean completed    = ProgressManager.getInstance().runProcessWithProgressSynchronously(
+                () -> ApplicationManager.getApplication().runReadAction(() -> this.buildReport(project, report)),
+                title,
+                true,
+                project
+        );
+        if (completed) {
+            Messages.showInfoMessage(project, report.toString(), title);
+        }
+    }
+
+    private void buildReport(@NotNull Project project, @NotNull StringBuilder report) {
+        final ClassDependencyGraph graph = ClassDependencyGraph.getInstance(project);
+        final List<String> classes       = graph.getClasses();
+        report.append("Classes: ").append(classes.size()).append('\n');
+
+        this.appendTop(report, "Highest efferent coupling (Ce)", classes, graph::getEfferentCoupling);
+        this.appendTop(report, "Highest afferent coupling (Ca)", classes, graph::getAfferentCoupling);
+
+        report.append("\nMost unstable classes (I = Ce / (Ca + Ce)):\n");
+        classes.stream()
+                .filter(fqn -> graph.getEfferentCoupling(fqn) > 0)
+                .sorted(Comparator.comparingDouble((String fqn) -> graph.getInstability(fqn)).reversed().thenComparing(Comparator.naturalOrder()))
+                .limit(limit)
+                .forEach(fqn -> report.append(String.format("  %.2f  %s%n", graph.getInstability(fqn), fqn)));
+
+        final List<List<String>> cycles = graph.getCycles();
+        report.append("\nDependency cycles: ").append(cycles.size()).append('\n');
+        cycles.stream()
+                .sorted(Comparator.comparingInt((List<String> cycle) -> cycle.size()).reversed())
+                .limit(limit)
+                .forEach(cycle -> report.append("  ").append(String.join(", ", cycle)).append('\n'));
+    }
+
+    private void appendTop(
+            @NotNull StringBuilder report,
+            @NotNull String header,
+            @NotNull List<String> classes,
+            @NotNull ToIntFunction<String> metric
+    ) {
+        report.append('\n').append(header).append(":\n");
+        classes.stream()
+                .sorted(Comparator.comparingInt(metric).reversed().thenComparing(Comparator.naturalOrder()))
+                .limit(limit)
+                .forEach(fqn -> report.append(String.format("  %d  %s%n", metric.applyAsInt(fqn), fqn)));
+    }
+}
@@ -0,0 +1,37 @@
+package com.kalessil.phpStorm.phpInspectionsEA.actions;
+
+import com.intellij.codeInsight.daemon.DaemonCodeAnalyzer;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.project.Project;
+import com.kalessil.phpStorm.phpInspectionsEA.openApi.ExecutionProfile;
+import org.jetbrains.annotations.NotNull;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Drops the imported execution profile: performance findings are reported without weighting again.
+ */
+public class ClearExecutionProfileAction extends AnAction {
+    @Override
+    public void update(@NotNull AnActionEvent event) {
+        final Project project = event.getProject();
+        event.getPresentation().setEnabled(project != null && ExecutionProfile.getInstance(project).isLoaded());
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent event) {
+        final Project project = event.getProject();
+        if (project != null && !project.isDisposed()) {
+            ExecutionProfile.getInstance(project).clear();
+            DaemonCodeAnalyzer.getInstance(project).restart();
+        }
+    }
+}
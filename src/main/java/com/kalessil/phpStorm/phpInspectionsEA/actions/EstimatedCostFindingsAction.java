@@ -0,0 +1,152 @@
+package com.kalessil.phpStorm.phpInspectionsEA.actions;
+
+import com.intellij.codeInspection.InspectionProfile;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.util.Computable;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.profile.codeInspection.InspectionProjectProfileManager;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.search.FileTypeIndex;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.jetbrains.php.lang.PhpFileType;
+import com.jetbrains.php.lang.psi.elements.Function;
+import com.kalessil.phpStorm.phpInspectionsEA.openApi.ExecutionProfile;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.ExecutionFrequencyUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Top performance findings of the project by the statically estimated execution frequency, for projects without
+ * execution profiles. Enabled performance inspections of the current profile are used.
+ */
+public class EstimatedCostFindingsAction extends AnAction {
+    private static final String title = "Performance Findings by Estimated Cost";
+    private static final int limit    = 30;
+
+    @Override
+    public void update(@NotNull AnActionEvent event) {
+        event.getPresentation().setEnabled(event.getProject() != null);
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent event) {
+        final Project project = event.getProject();
+        if (project == null || project.isDisposed()) {
+            return;
+        }
+        if (DumbService.isDumb(project)) {
+            DumbService.getInstance(project).showDumbModeNotification("The report is not available until indices are built");
+            return;
+        }
+
+        final StringBuilder report = new StringBuilder();
+        final boolean completed    = ProgressManager.getInstance().runProcessWithProgressSynchronously(
+                () -> this.buildReport(project, report),
+                title,
+                true,
+                project
+        );
+        if (completed) {
+            Messages.showInfoMessage(project, report.toString(), title);
+        }
+    }
+
+    private void buildReport(@NotNull Project project, @NotNull StringBuilder report) {
+        final ProgressIndicator indicator = ProgressManager.getInstance().getProgressIndicator();
+        final InspectionProfile tools     = InspectionProjectProfileManager.getInstance(project).getCurrentProfile();
+        final List<VirtualFile> files     = new ArrayList<>(ApplicationManager.getApplication().runReadAction(
+                (Computable<Collection<VirtualFile>>) () -> FileTypeIndex.getFiles(PhpFileType.INSTANCE, GlobalSearchScope.projectScope(project))
+        ));
+
+        /* the top findings are kept in a min-heap, so the heaviest ones survive */
+        final PriorityQueue<Finding> top = new PriorityQueue<>(Comparator.comparingDouble((Finding finding) -> finding.weight));
+        for (int position = 0; position < files.size(); ++position) {
+            ProgressManager.checkCanceled();
+            final VirtualFile file = files.get(position);
+            if (indicator != null) {
+                indicator.setFraction((double) position / files.size());
+                indicator.setText2(file.getPresentableUrl());
+            }
+            ApplicationManager.getApplication().runReadAction(() -> this.inspect(project, file, tools, top));
+        }
+
+        report.append(String.format("Inspected files: %d, the heaviest findings by estimated executions:%n", files.size()));
+        final List<Finding> findings = new ArrayList<>(top);
+        findings.sort(Comparator.comparingDouble((Finding finding) -> finding.weight).reversed());
+        for (final Finding finding : findings) {
+            report.append(String.format("%n%10.0f  %s (%s:%d)%n            %s%n", finding.weight, finding.context, finding.file, finding.line, finding.message));
+        }
+        if (findings.isEmpty()) {
+            report.append("\nNo performance findings.\n");
+        }
+    }
+
+    private void inspect(@NotNull Project project, @NotNull VirtualFile file, @NotNull InspectionProfile tools, @NotNull PriorityQueue<Finding> top) {
+        final PsiFile psiFile = file.isValid() ? PsiManager.getInstance(project).findFile(file) : null;
+        if (psiFile == null) {
+            return;
+        }
+        final Document document = PsiDocumentManager.getInstance(project).getDocument(psiFile);
+        for (final ProblemDescriptor problem : PerformanceFindingsCollector.collect(psiFile, tools)) {
+            final PsiElement target = problem.getPsiElement();
+            if (target == null) {
+                continue;
+            }
+            final double weight = ExecutionFrequencyUtil.getWeight(problem);
+            if (top.size() < limit || weight > top.peek().weight) {
+                final Function function = ExecutionProfile.getProfiledFunction(target);
+                top.add(new Finding(
+                        weight,
+                        function == null ? psiFile.getName() : function.getFQN(),
+                        psiFile.getName(),
+                        document == null ? 0 : document.getLineNumber(target.getTextOffset()) + 1,
+                        problem.getDescriptionTemplate().replace("[EA] ", "")
+                ));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        }
+    }
+
+    private static final class Finding {
+        private final double weight;
+        @NotNull
+        private final String context;
+        @NotNull
+        private final String file;
+        private final int line;
+        @NotNull
+        private final String message;
+
+        private Finding(double weight, @NotNull String context, @NotNull String file, int line, @NotNull String message) {
+            this.weight  = weight;
+            this.context = context;
+            this.file    = file;
+            this.line    = line;
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.kalessil.phpStorm.phpInspectionsEA.actions;
+
+import com.intellij.ide.util.PropertiesComponent;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.util.Computable;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.search.FilenameIndex;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.hierarhy.PreloadListUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.*;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Generates (or updates the generated block of) preload.php: opcache_compile_file(...) calls for classes of the
+ * entry namespaces and their dependencies, in the linking order. Classes which would fail to link are reported.
+ */
+public class GeneratePreloadScriptAction extends AnAction {
+    private static final String title         = "Generate Preloading Script";
+    private static final String namespacesKey = "PhpInspectionsEA.preloading.namespaces";
+    private static final String fileName      = "preload.php";
+    private static final String blockStart    = "/* Php Inspections (EA Extended): generated preloading list, start */";
+    private static final String blockEnd      = "/* Php Inspections (EA Extended): generated preloading list, end */";
+    private static final int limit            = 20;
+
+    @Override
+    public void update(@NotNull AnActionEvent event) {
+        event.getPresentation().setEnabled(event.getProject() != null);
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent event) {
+        final Project project = event.getProject();
+        if (project == null || project.isDisposed()) {
+            return;
+        }
+        if (DumbService.isDumb(project)) {
+            DumbService.getInstance(project).showDumbModeNotification("The preloading script can not be generated until indices are built");
+            return;
+        }
+
+        /* entry namespaces are remembered per project */
+        final PropertiesComponent properties = PropertiesComponent.getInstance(project);
+        final String input                   = Messages.showInputDialog(
+                project,
+                "Entry namespaces (comma-separated):",
+                title,
+                null,
+                properties.getValue(namespacesKey, "\\App\\"),
+                null
+        );
+        final List<String> namespaces = input == null ? Collections.emptyList() : this.parseNamespaces(input);
+        if (namespaces.isEmpty()) {
+            return;
+        }
+        properties.setValue(namespacesKey, String.join(", ", namespaces));
+
+        final VirtualFile baseDirectory = project.getBaseDir();
+        if (baseDirectory == null) {
+            return;
+        }
+        /* the project root script, otherwise the user decides: nested or vendor copies must not be rewritten silently */
+        final VirtualFile[] existing = new VirtualFile[] {baseDirectory.findChild(fileName)};
+        if ((existing[0] == null || existing[0].isDirectory()) && !this.chooseScript(project, baseDirectory, existing)) {
+            return;
+        }
+
+        final PreloadListUtil.Result[] result = new PreloadListUtil.Result[1];
+        final boolean completed               = ProgressManager.getInstance().runProcessWithProgressSynchronously(
+                () -> ApplicationManager.getApplication().runReadAction(() -> {
+                    result[0] = PreloadListUtil.build(project, namespaces);
+                }),
+                title,
+                true,
+                project
+        );
+        if (!completed || result[0] == null) {
+            return;
+        }
+
+        final VirtualFile script = this.writeScript(project, existing[0], baseDirectory, result[0].getFiles());
+        if (script == null) {
+            Messages.showErrorDialog(project, "Could not write " + fileName, title);
+            return;
+        }
+
+        final StringBuilder report = new StringBuilder();
+        report.append(String.format("%s classes (%s files) were written to %s.%n", result[0].getClasses().size(), result[0].getFiles().size(), script.getPresentableUrl()));
+        final Map<String, String> failures = result[0].getFailures();
+        if (failures.isEmpty()) {
+            Messages.showInfoMessage(project, report.toString(), title);
+        } else {
+            report.append(String.format("%nClasses which would fail to link at preload time (%s):%n", failures.size()));
+            failures.entrySet().stream()
+                    .limit(limit)
+                    .forEach(entry -> report.append("  ").append(entry.getKey()).append(": ").append(entry.getValue()).append('\n'));
+            if (failures.size() > limit) {
+                report.append("  ...\n");
+            }
+            Messages.showWarningDialog(project, report.toString(), title);
+        }
+    }
+
+    /* `App, \Domain\` => `\App\`, `\Domain\` */
+    @NotNull
+    private List<String> parseNamespaces(@NotNull String input) {
+        final List<String> result = new ArrayList<>();
+        for (final String part : input.split(",")) {
+            String namespace = part.trim();
+            if (!namespace.isEmpty()) {
+                namespace = (namespace.startsWith("\\") ? "" : "\\") + namespace;
+                namespace = namespace.endsWith("\\") ? namespace : namespace + '\\';
+                result.add(namespace);
+            }
+        }
+        return result;
+    }
+
+    /* false if cancelled; the chosen copy is stored in the holder, null for creating a new script in the project root */
+    private boolean chooseScript(@NotNull Project project, @NotNull VirtualFile baseDirectory, @NotNull VirtualFile[] holder) {
+        holder[0] = null;
+        final List<VirtualFile> candidates = new ArrayList<>(ApplicationManager.getApplication().runReadAction(
+                (Computable<Collection<VirtualFile>>) () -> FilenameIndex.getVirtualFilesByName(project, fileName, GlobalSearchScope.projectScope(project))
+        ));
+        candidates.removeIf(VirtualFile::isDirectory);
+        if (candidates.isEmpty()) {
+            return true;
+        }
+        candidates.sort(Comparator.comparing(VirtualFile::getPath));
+        final List<String> options = new ArrayList<>();
+        options.add("Create " + fileName + " in the project root");
+        for (final VirtualFile candidate : candidates) {
+            final String path = FileUtil.getRelativePath(baseDirectory.getPath(), candidate.getPath(), '/');
+            options.add("Update " + (path == null ? candidate.getPresentableUrl() : path));
+        }
+        final int choice = Messages.showChooseDialog(
+                project,
+                "There is no " + fileName + " in the project root, but the project contains other copies:",
+                title,
+                null,
+                options.toArray(new String[options.size()]),
+                options.get(0)
+        );
+        if (choice > 0) {
+            holder[0] = candidates.get(choice - 1);
+        }
+        return choice >= 0;
+    }
+
+    @Nullable
+    private VirtualFile writeScript(
+            @NotNull Project project,
+            @Nullable VirtualFile existing,
+            @Nullable VirtualFile baseDirectory,
+            @NotNull List<VirtualFile> files
+    ) {
+        final VirtualFile[] script = new VirtualFile[] {existing};
+        WriteCommandAction.runWriteCommandAction(project, title, null, () -> {
+            try {
+                if (script[0] == null && baseDirectory != null) {
+                    script[0] = baseDirectory.createChildData(this, fileName);
+                }
+            } catch (final IOException failure) {
+                script[0] = null;
+            }
+            final Document document = script[0] == null ? null : FileDocumentManager.getInstance().getDocument(script[0]);
+            if (document != null) {
+                final String block = this.buildBlock(script[0].getParent(), files);
+                final String text  = document.getText();
+                final int start    = text.indexOf(blockStart);
+                final int end      = start == -1 ? -1 : text.indexOf(blockEnd, start);
+                if (start != -1 && end != -1) {
+                    document.replaceString(start, end + blockEnd.length(), block);
+                } else if (text.trim().isEmpty()) {
+                    document.setText("<?php\n\n" + block + '\n');
+                } else {
+                    document.insertString(text.length(), (text.endsWith("\n") ? "\n" : "\n\n") + block + '\n');
+                }
+                FileDocumentManager.getInstance().saveDocument(document);
+            } else {
+                script[0] = null;
+            }
+        });
+        return script[0];
+    }
+
+    @NotNull
+    private String buildBlock(@NotNull VirtualFile directory, @NotNull List<VirtualFile> files) {
+        final StringBuilder block = new StringBuilder(blockStart).append('\n');
+        for (final VirtualFile file : files) {
+            final String path = FileUtil.getRelativePath(directory.getPath(), file.getPath(), '/');
+            if (path != null) {
+                block.append(String.format("opcache_compile_file(__DIR__ . '/%s');\n", path.replace("'", "\\'")));
+            }
+        }
+        return block.append(blockEnd).toString();
+    }
+}
@@ -0,0 +1,138 @@
+package com.kalessil.phpStorm.phpInspectionsEA.actions;
+
+import com.intellij.codeInspection.InspectionProfile;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectFileIndex;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.profile.codeInspection.InspectionProjectProfileManager;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.jetbrains.php.PhpIndex;
+import com.jetbrains.php.lang.psi.elements.Function;
+import com.jetbrains.php.lang.psi.elements.Method;
+import com.jetbrains.php.lang.psi.elements.PhpClass;
+import com.kalessil.phpStorm.phpInspectionsEA.openApi.ExecutionProfile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Hot findings: performance findings in the most expensive project functions of the imported execution profile,
+ * ordered by the functions cost. Enabled performance inspections of the current profile are used.
+ */
+public class HotPerformanceFindingsAction extends AnAction {
+    private static final String title  = "Hot Performance Findings";
+    private static final int functions = 50;
+    private static final int findings  = 30;
+
+    @Override
+    public void update(@NotNull AnActionEvent event) {
+        final Project project = event.getProject();
+        event.getPresentation().setEnabled(project != null && ExecutionProfile.getInstance(project).isLoaded());
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent event) {
+        final Project project = event.getProject();
+        if (project == null || project.isDisposed()) {
+            return;
+        }
+        if (DumbService.isDumb(project)) {
+            DumbService.getInstance(project).showDumbModeNotification("The report is not available until indices are built");
+            return;
+        }
+
+        final StringBuilder report = new StringBuilder();
+        final boolean completed    = ProgressManager.getInstance().runProcessWithProgressSynchronously(
+                () -> ApplicationManager.getApplication().runReadAction(() -> this.buildReport(project, report)),
+                title,
+                true,
+                project
+        );
+        if (completed) {
+            Messages.showInfoMessage(project, report.toString(), title);
+        }
+    }
+
+    private void buildReport(@NotNull Project project, @NotNull StringBuilder report) {
+        final ExecutionProfile profile = ExecutionProfile.getInstance(project);
+        final InspectionProfile tools  = InspectionProjectProfileManager.getInstance(project).getCurrentProfile();
+        final PhpIndex index           = PhpIndex.getInstance(project);
+        final ProjectFileIndex files   = ProjectRootManager.getInstance(project).getFileIndex();
+        report.append("Profile: ").append(profile.getSource()).append('\n');
+
+        int reported = 0;
+        for (final String fqn : profile.getHottest(functions)) {
+            ProgressManager.checkCanceled();
+            final Function function = this.resolve(fqn, index, files);
+            if (function == null) {
+                continue;
+            }
+            final List<ProblemDescriptor> problems = PerformanceFindingsCollector.collect(function, tools);
+            if (problems.isEmpty()) {
+                continue;
+            }
+
+            final PsiFile file      = function.getContainingFile();
+            final Document document = PsiDocumentManager.getInstance(project).getDocument(file);
+            report.append(String.format("%n%5.1f%%  %s (%s)%n", profile.getShare(fqn) * 100, fqn, file.getName()));
+            for (final ProblemDescriptor problem : problems) {
+                final PsiElement target = problem.getPsiElement();
+                final int line          = document == null || target == null ? 0 : document.getLineNumber(target.getTextOffset()) + 1;
+                report.append(String.format("    line %d: %s%n", line, problem.getDescriptionTemplate().replace("[EA] ", "")));
+                if (++reported >= findings) {
+                    report.append("    ...\n");
+                    return;
+                }
+            }
+        }
+        if (reported == 0) {
+            report.append(String.format("%nNo performance findings in the %d most expensive functions.%n", functions));
+        }
+    }
+
+    /* `\Namespace\function` or `\Namespace\Class.method`, project files only */
+    @Nullable
+    private Function resolve(@NotNull String fqn, @NotNull PhpIndex index, @NotNull ProjectFileIndex files) {
+        final List<Function> candidates = new ArrayList<>();
+        final int separator             = fqn.lastIndexOf('.');
+        if (separator == -1) {
+            candidates.addAll(index.getFunctionsByFQN(fqn));
+        } else {
+            for (final PhpClass clazz : index.getClassesByFQN(fqn.substring(0, separator))) {
+                final Method method = clazz.findOwnMethodByName(fqn.substring(separator + 1));
+                if (method != null) {
+                    candidates.add(method);
+                }
+            }
+        }
+        for (final Function candidate : candidates) {
+            final VirtualFile file = candidate.getContainingFile().getVirtualFile();
+            if (file != null && files.isInContent(file)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+}
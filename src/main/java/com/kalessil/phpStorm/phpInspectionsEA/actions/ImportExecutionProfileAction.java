@@ -0,0 +1,98 @@
+package com.kalessil.phpStorm.phpInspectionsEA.actions;
+
+import com.intellij.codeInsight.daemon.DaemonCodeAnalyzer;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.fileChooser.FileChooser;
+import com.intellij.openapi.fileChooser.FileChooserDescriptorFactory;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.kalessil.phpStorm.phpInspectionsEA.openApi.ExecutionProfile;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.ExecutionProfileUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Imports an Xdebug cachegrind (optionally gzipped) or XHProf/Tideways JSON profile: performance findings are
+ * weighted by the functions cost until the profile is cleared or replaced.
+ */
+public class ImportExecutionProfileAction extends AnAction {
+    private static final String title = "Import Execution Profile";
+
+    @Override
+    public void update(@NotNull AnActionEvent event) {
+        event.getPresentation().setEnabled(event.getProject() != null);
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent event) {
+        final Project project = event.getProject();
+        if (project == null || project.isDisposed()) {
+            return;
+        }
+        final VirtualFile file = FileChooser.chooseFile(FileChooserDescriptorFactory.createSingleFileNoJarsDescriptor(), project, null);
+        if (file == null) {
+            return;
+        }
+
+        final ExecutionProfileUtil.Profile[] profile = new ExecutionProfileUtil.Profile[1];
+        final String[] failure                       = new String[1];
+        final boolean completed                      = ProgressManager.getInstance().runProcessWithProgressSynchronously(
+                () -> {
+                    try (final Reader reader = this.open(file)) {
+                        profile[0] = ExecutionProfileUtil.parse(reader);
+                    } catch (final IOException | RuntimeException error) {
+                        failure[0] = error.getMessage() == null ? error.getClass().getSimpleName() : error.getMessage();
+                    }
+                },
+                title,
+                true,
+                project
+        );
+        if (!completed) {
+            return;
+        }
+        if (profile[0] == null || profile[0].getCosts().isEmpty()) {
+            Messages.showErrorDialog(
+                    project,
+                    String.format("%s does not contain PHP functions costs%s", file.getPresentableUrl(), failure[0] == null ? "." : ": " + failure[0]),
+                    title
+            );
+            return;
+        }
+
+        ExecutionProfile.getInstance(project).load(file.getPresentableUrl(), profile[0]);
+        DaemonCodeAnalyzer.getInstance(project).restart();
+        Messages.showInfoMessage(
+                project,
+                String.format("%s functions were imported, performance findings are weighted by the profile now.", profile[0].getCosts().size()),
+                title
+        );
+    }
+
+    @NotNull
+    private Reader open(@NotNull VirtualFile file) throws IOException {
+        final InputStream stream = file.getInputStream();
+        return new InputStreamReader(
+                "gz".equalsIgnoreCase(file.getExtension()) ? new GZIPInputStream(stream) : stream,
+                StandardCharsets.UTF_8
+        );
+    }
+}
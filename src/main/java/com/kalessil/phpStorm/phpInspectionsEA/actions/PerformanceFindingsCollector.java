@@ -0,0 +1,62 @@
+package com.kalessil.phpStorm.phpInspectionsEA.actions;
+
+import com.intellij.codeInsight.daemon.HighlightDisplayKey;
+import com.intellij.codeInspection.InspectionManager;
+import com.intellij.codeInspection.InspectionProfile;
+import com.intellij.codeInspection.LocalInspectionTool;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.codeInspection.ex.InspectionToolWrapper;
+import com.intellij.codeInspection.ex.LocalInspectionToolWrapper;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiElementVisitor;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiRecursiveElementWalkingVisitor;
+import com.kalessil.phpStorm.phpInspectionsEA.openApi.ExecutionProfile;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Runs the enabled performance inspections of the current inspection profile over a function or a file, for reports.
+ * Problems are collected as reported by the inspections, without execution profile weighting.
+ */
+final class PerformanceFindingsCollector {
+    @NotNull
+    static List<ProblemDescriptor> collect(@NotNull PsiElement scope, @NotNull InspectionProfile tools) {
+        final PsiFile file                     = scope.getContainingFile();
+        final ProblemsHolder holder            = new ProblemsHolder(InspectionManager.getInstance(file.getProject()), file, false);
+        final List<PsiElementVisitor> visitors = new ArrayList<>();
+        for (final InspectionToolWrapper wrapper : tools.getInspectionTools(file)) {
+            final HighlightDisplayKey key = HighlightDisplayKey.find(wrapper.getShortName());
+            if (
+                wrapper instanceof LocalInspectionToolWrapper &&
+                key != null && tools.isToolEnabled(key, file) &&
+                ExecutionProfile.isPerformanceInspection(wrapper.getShortName())
+            ) {
+                final LocalInspectionTool tool = ((LocalInspectionToolWrapper) wrapper).getTool();
+                visitors.add(tool.buildVisitor(holder, false));
+            }
+        }
+        scope.accept(new PsiRecursiveElementWalkingVisitor() {
+            @Override
+            public void visitElement(@NotNull PsiElement element) {
+                visitors.forEach(element::accept);
+                super.visitElement(element);
+            }
+        });
+        visitors.clear();
+
+        return holder.getResults();
+    }
+}
@@ -0,0 +1,170 @@
+package com.kalessil.phpStorm.phpInspectionsEA.fixers;
+
+import com.intellij.codeInspection.CommonProblemDescriptor;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.codeInspection.QuickFix;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Pair;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Applies text replacement fixes in batch under a modal progress: for each file the edits are computed in a read
+ * action and applied as document edits in a write command of that file, only one file's edits are held at a time.
+ */
+final class BatchFixesApplier {
+    private static final String title = "Applying fixes";
+
+    static void apply(
+            @NotNull Project project,
+            @NotNull TextReplacementFix fix,
+            @NotNull CommonProblemDescriptor[] descriptors,
+            @NotNull List<PsiElement> psiElementsToIgnore,
+            @Nullable Runnable refreshViews
+    ) {
+        final PsiDocumentManager documents = PsiDocumentManager.getInstance(project);
+        documents.commitAllDocuments();
+
+        /* group the problems per file, each of them is fixed by own fix instance (replacements are differing) */
+        final Map<PsiFile, List<ProblemDescriptor>> problems = new LinkedHashMap<>();
+        for (final CommonProblemDescriptor descriptor : descriptors) {
+            if (descriptor instanceof ProblemDescriptor) {
+                final PsiElement element = ((ProblemDescriptor) descriptor).getPsiElement();
+                if (element != null && element.isValid() && !psiElementsToIgnore.contains(element)) {
+                    problems.computeIfAbsent(element.getContainingFile(), file -> new ArrayList<>()).add((ProblemDescriptor) descriptor);
+                }
+            }
+        }
+
+        /* files are processed one by one: edits are computed in a read action, applied in own write command, released */
+        final PsiFile[] files = problems.keySet().toArray(new PsiFile[problems.size()]);
+        ProgressManager.getInstance().runProcessWithProgressSynchronously(
+                () -> {
+                    final ProgressIndicator indicator = ProgressManager.getInstance().getProgressIndicator();
+                    for (int position = 0; position < files.length; ++position) {
+                        ProgressManager.checkCanceled();
+                        final PsiFile file = files[position];
+                        if (indicator != null) {
+                            indicator.setFraction((double) position / files.length);
+                        }
+                        final List<Edit> edits = collectEdits(fix, problems.remove(file));
+                        if (!edits.isEmpty()) {
+                            ApplicationManager.getApplication().invokeAndWait(
+                                    () -> applyEdits(project, fix, file, edits, psiElementsToIgnore),
+                                    ModalityState.defaultModalityState()
+                            );
+                            edits.clear();
+                        }
+                    }
+                },
+                title,
+                true,
+                project
+        );
+        problems.clear();
+
+        if (refreshViews != null) {
+            refreshViews.run();
+        }
+    }
+
+    @NotNull
+    static private List<Edit> collectEdits(@NotNull TextReplacementFix fix, @NotNull List<ProblemDescriptor> descriptors) {
+        final List<Edit> result = new ArrayList<>();
+        ApplicationManager.getApplication().runReadAction(() -> {
+            for (final ProblemDescriptor descriptor : descriptors) {
+                final TextReplacementFix own = findFix(fix, descriptor);
+                final PsiElement element     = descriptor.getPsiElement();
+                if (own != null && element != null && element.isValid()) {
+                    final Pair<TextRange, String> replacement = own.getReplacement(descriptor);
+                    if (replacement != null) {
+                        result.add(new Edit(element, replacement.getFirst(), replacement.getSecond()));
+                    }
+                }
+            }
+        });
+        return result;
+    }
+
+    @Nullable
+    static private TextReplacementFix findFix(@NotNull TextReplacementFix fix, @NotNull ProblemDescriptor descriptor) {
+        final QuickFix[] fixes = descriptor.getFixes();
+        if (fixes != null) {
+            for (final QuickFix candidate : fixes) {
+                if (candidate != null && candidate.getClass() == fix.getClass()) {
+                    return (TextReplacementFix) candidate;
+                }
+            }
+        }
+        return null;
+    }
+
+    static private void applyEdits(
+            @NotNull Project project,
+            @NotNull TextReplacementFix fix,
+            @NotNull PsiFile file,
+            @NotNull List<Edit> edits,
+            @NotNull List<PsiElement> psiElementsToIgnore
+    ) {
+        if (project.isDisposed() || !file.isValid()) {
+            return;
+        }
+        WriteCommandAction.runWriteCommandAction(project, fix.getFamilyName(), null, () -> {
+            final PsiDocumentManager documents = PsiDocumentManager.getInstance(project);
+            final Document document            = documents.getDocument(file);
+            if (document != null) {
+                applyEdits(document, edits, psiElementsToIgnore);
+                documents.commitDocument(document);
+            }
+        }, file);
+    }
+
+    static private void applyEdits(@NotNull Document document, @NotNull List<Edit> edits, @NotNull List<PsiElement> psiElementsToIgnore) {
+        /* apply from the end of file, so offsets are not shifting; nested/overlapping edits are skipped */
+        edits.sort((first, second) -> Integer.compare(second.range.getStartOffset(), first.range.getStartOffset()));
+        int boundary = document.getTextLength();
+        for (final Edit edit : edits) {
+            if (edit.range.getEndOffset() <= boundary) {
+                document.replaceString(edit.range.getStartOffset(), edit.range.getEndOffset(), edit.text);
+                psiElementsToIgnore.add(edit.element);
+                boundary = edit.range.getStartOffset();
+            }
+        }
+    }
+
+    private static final class Edit {
+        @NotNull
+        private final PsiElement element;
+        @NotNull
+        private final TextRange range;
+        @NotNull
+        private final String text;
+
+        private Edit(@NotNull PsiElement element, @NotNull TextRange range, @NotNull String text) {
+            this.element = element;
+            this.range   = range;
+            this.text    = text;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.kalessil.phpStorm.phpInspectionsEA.fixers;
+
+import com.intellij.codeInspection.BatchQuickFix;
+import com.intellij.codeInspection.CommonProblemDescriptor;
+import com.intellij.codeInspection.LocalQuickFix;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Pair;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiElement;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Quick-fixes which can be expressed as a plain text replacement: "fix all" applies them file by file
+ * as batched document edits (see BatchFixesApplier) instead of replacing PSI one element at a time.
+ */
+public interface TextReplacementFix extends LocalQuickFix, BatchQuickFix<CommonProblemDescriptor> {
+    /* the file range to replace and the replacement text, null if the fix is not applicable anymore */
+    @Nullable
+    Pair<TextRange, String> getReplacement(@NotNull ProblemDescriptor descriptor);
+
+    /* the regular fix of one problem, executed in a write command */
+    void applyReplacement(@NotNull Project project, @NotNull ProblemDescriptor descriptor);
+
+    /* the batch fix is running a modal progress and own write commands, hence not in a write action */
+    @Override
+    default boolean startInWriteAction() {
+        return false;
+    }
+
+    @Override
+    default void applyFix(@NotNull Project project, @NotNull ProblemDescriptor descriptor) {
+        final PsiElement target = descriptor.getPsiElement();
+        if (target != null && target.isValid() && !project.isDisposed()) {
+            WriteCommandAction.runWriteCommandAction(
+                    project,
+                    this.getFamilyName(),
+                    null,
+                    () -> this.applyReplacement(project, descriptor),
+                    target.getContainingFile()
+            );
+        }
+    }
+
+    @Override
+    default void applyFix(
+            @NotNull Project project,
+            @NotNull CommonProblemDescriptor[] descriptors,
+            @NotNull List<PsiElement> psiElementsToIgnore,
+            @Nullable Runnable refreshViews
+    ) {
+        BatchFixesApplier.apply(project, this, descriptors, psiElementsToIgnore, refreshViews);
+    }
+}
@@ -1,12 +1,14 @@
 package com.kalessil.phpStorm.phpInspectionsEA.fixers;
 
-import com.intellij.codeInspection.LocalQuickFix;
 import com.intellij.codeInspection.ProblemDescriptor;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Pair;
+import com.intellij.openapi.util.TextRange;
 import com.intellij.psi.PsiElement;
 import com.jetbrains.php.lang.psi.PhpPsiElementFactory;
 import com.jetbrains.php.lang.psi.elements.ParenthesizedExpression;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /*
  * This file is part of the Php Inspections (EA Extended) package.
@@ -17,7 +19,7 @@ import org.jetbrains.annotations.NotNull;
  * file that was distributed with this source code.
  */
 
-public class UseSuggestedReplacementFixer implements LocalQuickFix {
+public class UseSuggestedReplacementFixer implements TextReplacementFix {
     private static final String title = "Use suggested replacement";
 
     final private String expression;
@@ -40,7 +42,7 @@ public class UseSuggestedReplacementFixer implements LocalQuickFix {
     }
 
     @Override
-    public void applyFix(@NotNull Project project, @NotNull ProblemDescriptor descriptor) {
+    public void applyReplacement(@NotNull Project project, @NotNull ProblemDescriptor descriptor) {
         final PsiElement expression = descriptor.getPsiElement();
         if (expression != null && !project.isDisposed()) {
             final PsiElement replacement = PhpPsiElementFactory
@@ -51,4 +53,11 @@ public class UseSuggestedReplacementFixer implements LocalQuickFix {
             }
         }
     }
+
+    @Nullable
+    @Override
+    public Pair<TextRange, String> getReplacement(@NotNull ProblemDescriptor descriptor) {
+        final PsiElement expression = descriptor.getPsiElement();
+        return expression == null ? null : Pair.create(expression.getTextRange(), this.expression);
+    }
 }
@@ -0,0 +1,98 @@
+package com.kalessil.phpStorm.phpInspectionsEA.indexers;
+
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import com.jetbrains.php.lang.PhpFileType;
+import com.jetbrains.php.lang.psi.PhpFile;
+import com.jetbrains.php.lang.psi.elements.ClassReference;
+import com.jetbrains.php.lang.psi.elements.PhpClass;
+import com.jetbrains.php.lang.psi.elements.PhpNamedElement;
+import gnu.trove.THashMap;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Indexes classes outgoing dependencies: the key is the class FQN, the value is a ';'-separated list
+ * of FQNs of classes referenced in the class.
+ */
+public class ClassDependenciesIndexer extends FileBasedIndexExtension<String, String> {
+    public static final ID<String, String> identity = ID.create("kalessil.phpStorm.phpInspectionsEA.class_dependencies");
+
+    @NotNull
+    @Override
+    public ID<String, String> getName() {
+        return identity;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, String, FileContent> getIndexer() {
+        return file -> collect(file.getPsiFile());
+    }
+
+    /* also used for re-collecting dependencies of modified files */
+    @NotNull
+    public static Map<String, String> collect(@NotNull PsiFile file) {
+        final Map<String, String> result = new THashMap<>();
+        if (file instanceof PhpFile) {
+            for (final PhpNamedElement element : ((PhpFile) file).getTopLevelDefs().values()) {
+                if (element instanceof PhpClass) {
+                    final Set<String> references = new TreeSet<>();
+                    for (final ClassReference reference : PsiTreeUtil.findChildrenOfType(element, ClassReference.class)) {
+                        final String fqn = reference.getFQN();
+                        if (fqn != null && !fqn.isEmpty()) {
+                            references.add(fqn);
+                        }
+                    }
+                    result.merge(element.getFQN(), String.join(";", references), (one, two) -> one + ';' + two);
+                    references.clear();
+                }
+            }
+        }
+        return result;
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @NotNull
+    @Override
+    public DataExternalizer<String> getValueExternalizer() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return file -> file.getFileType() == PhpFileType.INSTANCE;
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+}
@@ -0,0 +1,137 @@
+package com.kalessil.phpStorm.phpInspectionsEA.indexers;
+
+import com.intellij.json.psi.*;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import gnu.trove.THashMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Indexes composer.json autoload/autoload-dev sections: the key is an absolute directory path, the value is
+ * a ';'-separated list of "psr-4:<namespace prefix>", "psr-0:<namespace prefix>" or "classmap:" mappings.
+ */
+public class ComposerAutoloadIndexer extends FileBasedIndexExtension<String, String> {
+    public static final ID<String, String> identity = ID.create("kalessil.phpStorm.phpInspectionsEA.composer_autoload");
+    private final KeyDescriptor<String> descriptor  = new EnumeratorStringDescriptor();
+
+    @NotNull
+    @Override
+    public ID<String, String> getName() {
+        return identity;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, String, FileContent> getIndexer() {
+        return file -> {
+            final Map<String, String> result = new THashMap<>();
+            final PsiFile psiFile            = file.getPsiFile();
+            final VirtualFile directory      = file.getFile().getParent();
+            if (psiFile instanceof JsonFile && directory != null) {
+                final JsonValue manifest = ((JsonFile) psiFile).getTopLevelValue();
+                if (manifest instanceof JsonObject) {
+                    for (final String section : new String[] {"autoload", "autoload-dev"}) {
+                        final JsonProperty property = ((JsonObject) manifest).findProperty(section);
+                        if (property != null && property.getValue() instanceof JsonObject) {
+                            extractMappings(result, directory.getPath(), (JsonObject) property.getValue());
+                        }
+                    }
+                }
+            }
+            return result;
+        };
+    }
+
+    static private void extractMappings(@NotNull Map<String, String> storage, @NotNull String root, @NotNull JsonObject autoload) {
+        for (final String standard : new String[] {"psr-4", "psr-0"}) {
+            final JsonProperty property = autoload.findProperty(standard);
+            if (property != null && property.getValue() instanceof JsonObject) {
+                for (final JsonProperty mapping : ((JsonObject) property.getValue()).getPropertyList()) {
+                    final String prefix = mapping.getName();
+                    for (final String directory : extractPaths(mapping.getValue())) {
+                        storage.merge(normalizePath(root, directory), standard + ':' + prefix, (one, two) -> one + ';' + two);
+                    }
+                }
+            }
+        }
+        final JsonProperty classmap = autoload.findProperty("classmap");
+        if (classmap != null) {
+            for (final String directory : extractPaths(classmap.getValue())) {
+                storage.merge(normalizePath(root, directory), "classmap:", (one, two) -> one + ';' + two);
+            }
+        }
+    }
+
+    @NotNull
+    static private List<String> extractPaths(@Nullable JsonValue value) {
+        final List<String> result = new ArrayList<>();
+        if (value instanceof JsonStringLiteral) {
+            result.add(((JsonStringLiteral) value).getValue());
+        } else if (value instanceof JsonArray) {
+            for (final JsonValue entry : ((JsonArray) value).getValueList()) {
+                if (entry instanceof JsonStringLiteral) {
+                    result.add(((JsonStringLiteral) entry).getValue());
+                }
+            }
+        }
+        return result;
+    }
+
+    @NotNull
+    static private String normalizePath(@NotNull String root, @NotNull String directory) {
+        String path = directory.replace('\\', '/');
+        while (path.startsWith("./")) {
+            path = path.substring(2);
+        }
+        while (path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        return path.isEmpty() || path.equals(".") ? root : root + '/' + path;
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return descriptor;
+    }
+
+    @NotNull
+    @Override
+    public DataExternalizer<String> getValueExternalizer() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return file -> file.getName().equals("composer.json");
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+}
@@ -0,0 +1,92 @@
+package com.kalessil.phpStorm.phpInspectionsEA.indexers;
+
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.EnumeratorIntegerDescriptor;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import com.jetbrains.php.lang.PhpFileType;
+import com.jetbrains.php.lang.psi.PhpFile;
+import com.jetbrains.php.lang.psi.elements.GroupStatement;
+import com.jetbrains.php.lang.psi.elements.Method;
+import com.jetbrains.php.lang.psi.elements.PhpClass;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.ExpressionSemanticUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.StructuralFingerprintUtil;
+import gnu.trove.THashMap;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Indexes methods bodies structural fingerprints: the key is the fingerprint, the value is a ';'-separated list
+ * of methods FQNs having the fingerprint.
+ */
+public class MethodFingerprintIndexer extends FileBasedIndexExtension<Integer, String> {
+    public static final ID<Integer, String> identity = ID.create("kalessil.phpStorm.phpInspectionsEA.method_fingerprints");
+
+    @NotNull
+    @Override
+    public ID<Integer, String> getName() {
+        return identity;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<Integer, String, FileContent> getIndexer() {
+        return file -> {
+            final Map<Integer, String> result = new THashMap<>();
+            final PsiFile psiFile             = file.getPsiFile();
+            if (psiFile instanceof PhpFile) {
+                /* not only top-level definitions: classes in braced namespaces and conditional declarations as well */
+                for (final PhpClass clazz : PsiTreeUtil.findChildrenOfType(psiFile, PhpClass.class)) {
+                    for (final Method method : clazz.getOwnMethods()) {
+                        final GroupStatement body = method.isAbstract() ? null : ExpressionSemanticUtil.getGroupStatement(method);
+                        if (body != null && ExpressionSemanticUtil.countExpressionsInGroup(body) > 0) {
+                            result.merge(StructuralFingerprintUtil.fingerprint(body), method.getFQN(), (one, two) -> one + ';' + two);
+                        }
+                    }
+                }
+            }
+            return result;
+        };
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<Integer> getKeyDescriptor() {
+        return EnumeratorIntegerDescriptor.INSTANCE;
+    }
+
+    @NotNull
+    @Override
+    public DataExternalizer<String> getValueExternalizer() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @Override
+    public int getVersion() {
+        return 2;
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return file -> file.getFileType() == PhpFileType.INSTANCE;
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+}
@@ -1,22 +1,15 @@
 package com.kalessil.phpStorm.phpInspectionsEA.inspectors;
 
 import com.intellij.codeInspection.ProblemsHolder;
-import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiElementVisitor;
 import com.jetbrains.php.lang.psi.elements.ArrayCreationExpression;
-import com.jetbrains.php.lang.psi.elements.ArrayHashElement;
-import com.jetbrains.php.lang.psi.elements.PhpPsiElement;
-import com.jetbrains.php.lang.psi.elements.StringLiteralExpression;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.PhpLanguageLevel;
-import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiTypesUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.ArrayLiteralSummaryUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.ReportingUtil;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /*
  * This file is part of the Php Inspections (EA Extended) package.
  *
@@ -55,8 +48,8 @@ final public class PackedHashtableOptimizationInspector extends BasePhpInspectio
                     return;
                 }
                 /* requires at least 3 children - let array to grow enough */
-                final PsiElement[] children = expression.getChildren();
-                if (children.length < 3) {
+                final ArrayLiteralSummaryUtil.Summary summary = ArrayLiteralSummaryUtil.getSummary(expression);
+                if (summary.size() < 3) {
                     return;
                 }
 
@@ -65,59 +58,12 @@ final public class PackedHashtableOptimizationInspector extends BasePhpInspectio
                     return;
                 }
 
-                /* step 1: collect indexes and verify array structure */
-                final List<PhpPsiElement> indexes = new ArrayList<>();
-                for (final PsiElement pairCandidate : children) {
-                    if (pairCandidate instanceof ArrayHashElement) {
-                        final PhpPsiElement key = ((ArrayHashElement) pairCandidate).getKey();
-                        if ((key instanceof StringLiteralExpression && key.getFirstPsiChild() == null) || OpenapiTypesUtil.isNumber(key)) {
-                            indexes.add(key);
-                            continue;
-                        }
-                    }
-                    break;
-                }
-                if (indexes.size() != children.length) {
-                    indexes.clear();
+                /* all keys should be integers or integer-like strings literals */
+                if (!summary.hasIntegerKeysOnly()) {
                     return;
                 }
-
-                /* step 2: analyze collected indexes */
-                // if string literal is not numeric => stop
-                boolean hasStringIndexes       = false;
-                boolean hasIncreasingIndexes   = true;
-                int lastIndex                  = Integer.MIN_VALUE;
-                for (PhpPsiElement index : indexes) {
-                    final String numericIndex;
-                    final int integerIndex;
-
-                    /* extract text representation of the index */
-                    if (index instanceof StringLiteralExpression) {
-                        hasStringIndexes = true;
-                        numericIndex     = ((StringLiteralExpression) index).getContents();
-
-                        /* '01' and etc cases can not be converted */
-                        if (numericIndex.length() > 1 && '0' == numericIndex.charAt(0)) {
-                            indexes.clear();
-                            return;
-                        }
-                    } else {
-                        numericIndex = index.getText().replaceAll("\\s+", "");
-                    }
-
-                    /* try converting into integer */
-                    try {
-                        integerIndex = Integer.parseInt(numericIndex);
-                    } catch (NumberFormatException error) {
-                        indexes.clear();
-                        return;
-                    }
-
-                    if (integerIndex < lastIndex) {
-                        hasIncreasingIndexes = false;
-                    }
-                    lastIndex = integerIndex;
-                }
+                final boolean hasIncreasingIndexes = summary.hasIncreasingKeys();
+                final boolean hasStringIndexes     = summary.hasStringKeys();
 
                 /* report if criteria are met */
                 if (!hasIncreasingIndexes) {
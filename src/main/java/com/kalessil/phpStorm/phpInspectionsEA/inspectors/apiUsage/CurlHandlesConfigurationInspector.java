@@ -0,0 +1,94 @@
+package com.kalessil.phpStorm.phpInspectionsEA.inspectors.apiUsage;
+
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiElementVisitor;
+import com.jetbrains.php.lang.psi.PhpFile;
+import com.jetbrains.php.lang.psi.elements.Function;
+import com.jetbrains.php.lang.psi.elements.FunctionReference;
+import com.jetbrains.php.lang.psi.elements.Variable;
+import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
+import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.CurlHandlesModelUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiTypesUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.PhpLanguageUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.ReportingUtil;
+import org.jetbrains.annotations.NotNull;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+public class CurlHandlesConfigurationInspector extends BasePhpInspection {
+    private static final String messageTimeout   = "The cURL handle has no CURLOPT_TIMEOUT (or CURLOPT_TIMEOUT_MS) set, a slow peer can block the worker.";
+    private static final String messageKeepAlive = "Connections reuse is disabled (%s) for a handle executed in a loop, each iteration opens a new connection.";
+
+    @NotNull
+    @Override
+    public String getShortName() {
+        return "CurlHandlesConfigurationInspection";
+    }
+
+    @NotNull
+    @Override
+    public String getDisplayName() {
+        return "cURL handles configuration";
+    }
+
+    @Override
+    @NotNull
+    public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
+        return new BasePhpElementVisitor() {
+            @Override
+            public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
+                final String functionName = reference.getName();
+                if (functionName != null && (functionName.equals("curl_exec") || functionName.equals("curl_multi_add_handle"))) {
+                    final PsiElement[] arguments = reference.getParameters();
+                    final int position           = functionName.equals("curl_exec") ? 0 : 1;
+                    if (arguments.length > position && arguments[position] instanceof Variable && this.isFromRootNamespace(reference)) {
+                        final String variable                    = ((Variable) arguments[position]).getName();
+                        final CurlHandlesModelUtil.Handle handle = CurlHandlesModelUtil.getModel(reference).getHandle(variable);
+                        if (handle == null) {
+                            return;
+                        }
+
+                        /* timeouts: only handles created in the scope and not configured elsewhere */
+                        if (handle.getCreation() != null && handle.isComplete() && !handle.hasOption("CURLOPT_TIMEOUT", "CURLOPT_TIMEOUT_MS")) {
+                            holder.registerProblem(reference, ReportingUtil.wrapReportedMessage(messageTimeout));
+                        }
+
+                        /* keep-alive: disabled connections reuse hurts when the handle is executed repeatedly */
+                        if (this.isInLoop(reference)) {
+                            for (final CurlHandlesModelUtil.Option option : handle.getOptions()) {
+                                final String name = option.getName();
+                                if (name.equals("CURLOPT_FORBID_REUSE") || name.equals("CURLOPT_FRESH_CONNECT")) {
+                                    final PsiElement value = option.getValue();
+                                    if (PhpLanguageUtil.isTrue(value) || value.getText().equals("1")) {
+                                        holder.registerProblem(reference, String.format(ReportingUtil.wrapReportedMessage(messageKeepAlive), name));
+                                        break;
+                                    }
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+
+            private boolean isInLoop(@NotNull PsiElement expression) {
+                PsiElement parent = expression.getParent();
+                while (parent != null && !(parent instanceof PhpFile) && !(parent instanceof Function)) {
+                    if (OpenapiTypesUtil.isLoop(parent)) {
+                        return true;
+                    }
+                    parent = parent.getParent();
+                }
+                return false;
+            }
+        };
+    }
+}
@@ -10,17 +10,13 @@ import com.jetbrains.php.lang.psi.elements.*;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.ExpressionSemanticUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.FormatStringsUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.InternalFunctionsMetadata;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiEquivalenceUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiTypesUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.ReportingUtil;
-import org.apache.commons.lang.StringUtils;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 /*
  * This file is part of the Php Inspections (EA Extended) package.
  *
@@ -46,22 +42,6 @@ public class PrintfScanfArgumentsInspector extends BasePhpInspection {
         return "*printf/*scanf arguments count mismatches";
     }
 
-    private static final Map<String, Integer> functions = new HashMap<>();
-    static {
-        /* pairs function name -> pattern position */
-        functions.put("printf",  0);
-        functions.put("sprintf", 0);
-        functions.put("sscanf",  1);
-        functions.put("fprintf", 1);
-        functions.put("fscanf",  1);
-    }
-
-    final static private Pattern regexPlaceHolders;
-    static {
-        // raw regex: %((\d+)\$)?[+-]?(?:[ 0]|\\?'.)?-?\d*(?:\.\d+)?[\[sducoxXbgGeEfF]
-        regexPlaceHolders = Pattern.compile("%((\\d+|\\*)\\$)?[+-]?(?:[ 0]|\\\\?'.)?-?\\d*(?:\\.\\d+)?[\\[sducoxXbgGeEfF]");
-    }
-
     @Override
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
@@ -69,12 +49,12 @@ public class PrintfScanfArgumentsInspector extends BasePhpInspection {
             @Override
             public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
                 final String functionName = reference.getName();
-                if (functionName == null || !functions.containsKey(functionName)) {
+                final int neededPosition  = functionName == null ? -1 : InternalFunctionsMetadata.getFormatPosition(functionName);
+                if (neededPosition < 0) {
                     return;
                 }
 
                 /* resolve needed parameter */
-                final int neededPosition              = functions.get(functionName);
                 final int minimumArgumentsForAnalysis = neededPosition + 1;
                 StringLiteralExpression pattern       = null;
                 final PsiElement[] params             = reference.getParameters();
@@ -88,34 +68,15 @@ public class PrintfScanfArgumentsInspector extends BasePhpInspection {
 
                 final String content = pattern.getContents().trim();
                 if (!content.isEmpty()) {
-                    /* find valid placeholders and extract positions specifiers as well */
-                    int countWithoutPositionSpecifier = 0;
-                    int maxPositionSpecifier          = 0;
-                    int countParsedAll                = 0;
-
-                    /* do normalization: %%, inline variables */
-                    final String contentAdapted = content.replace("%%", "");
-                    final String contentNoVars  = contentAdapted.replaceAll("\\$\\{?\\$?[a-zA-Z0-9]+\\}?", "");
-                    if (contentAdapted.length() != contentNoVars.length()) {
+                    /* formats with inline variables are modified at runtime */
+                    final FormatStringsUtil.PrintfFormat format = FormatStringsUtil.parsePrintf(content);
+                    if (format.hasInlineVariables()) {
                         return;
                     }
-
-                    final Matcher regexMatcher = regexPlaceHolders.matcher(contentAdapted);
-                    while (regexMatcher.find()) {
-                        ++countParsedAll;
-
-                        if (null != regexMatcher.group(2)) {
-                            maxPositionSpecifier = Math.max(maxPositionSpecifier, Integer.parseInt(regexMatcher.group(2)));
-                            continue;
-                        }
-
-                        ++countWithoutPositionSpecifier;
-                    }
-                    final int expectedParametersCount = minimumArgumentsForAnalysis + Math.max(countWithoutPositionSpecifier, maxPositionSpecifier);
+                    final int expectedParametersCount = minimumArgumentsForAnalysis + format.getArgumentsCount();
 
                     /* check for pattern validity */
-                    final int parametersInPattern = StringUtils.countMatches(content.replace("%%", "").replace("%*",""), "%");
-                    if (countParsedAll != parametersInPattern) {
+                    if (!format.isValid()) {
                         holder.registerProblem(
                                 params[neededPosition],
                                 ReportingUtil.wrapReportedMessage(messagePattern),
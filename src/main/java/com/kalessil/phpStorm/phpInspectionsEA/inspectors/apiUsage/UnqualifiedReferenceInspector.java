@@ -1,10 +1,11 @@
 package com.kalessil.phpStorm.phpInspectionsEA.inspectors.apiUsage;
 
-import com.intellij.codeInspection.LocalQuickFix;
 import com.intellij.codeInspection.ProblemDescriptor;
 import com.intellij.codeInspection.ProblemsHolder;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.Condition;
+import com.intellij.openapi.util.Pair;
+import com.intellij.openapi.util.TextRange;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiElementVisitor;
 import com.intellij.psi.PsiFile;
@@ -15,10 +16,13 @@ import com.jetbrains.php.lang.lexer.PhpTokenTypes;
 import com.jetbrains.php.lang.psi.PhpFile;
 import com.jetbrains.php.lang.psi.PhpPsiElementFactory;
 import com.jetbrains.php.lang.psi.elements.*;
+import com.kalessil.phpStorm.phpInspectionsEA.fixers.TextReplacementFix;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.PhpLanguageLevel;
 import com.kalessil.phpStorm.phpInspectionsEA.options.OptionsComponent;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.InternalFunctionsMetadata;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.KnownNamesFilterUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiResolveUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiTypesUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.ReportingUtil;
@@ -44,9 +48,7 @@ public class UnqualifiedReferenceInspector extends BasePhpInspection {
     public boolean REPORT_ALL_FUNCTIONS = false;
     public boolean REPORT_CONSTANTS     = false;
 
-    final private static Set<String> falsePositives              = new HashSet<>();
-    final private static Set<String> advancedOpcode              = new HashSet<>();
-    final private static Map<String, Integer> callbacksPositions = new HashMap<>();
+    final private static Set<String> falsePositives = new HashSet<>();
     static {
         falsePositives.add("true");
         falsePositives.add("TRUE");
@@ -63,54 +65,6 @@ public class UnqualifiedReferenceInspector extends BasePhpInspection {
         falsePositives.add("__TRAIT__");
         falsePositives.add("__METHOD__");
         falsePositives.add("__NAMESPACE__");
-
-        callbacksPositions.put("call_user_func", 0);
-        callbacksPositions.put("call_user_func_array", 0);
-        callbacksPositions.put("array_filter", 1);
-        callbacksPositions.put("array_map", 0);
-        callbacksPositions.put("array_walk", 1);
-        callbacksPositions.put("array_reduce", 1);
-
-        /* https://github.com/php/php-src/blob/f2db305fa4e9bd7d04d567822687ec714aedcdb5/Zend/zend_compile.c#L3872 */
-        advancedOpcode.add("array_slice");
-        advancedOpcode.add("assert");
-        advancedOpcode.add("boolval");
-        advancedOpcode.add("call_user_func");
-        advancedOpcode.add("call_user_func_array");
-        advancedOpcode.add("chr");
-        advancedOpcode.add("count");
-        advancedOpcode.add("defined");
-        advancedOpcode.add("doubleval");
-        advancedOpcode.add("floatval");
-        advancedOpcode.add("func_get_args");
-        advancedOpcode.add("func_num_args");
-        advancedOpcode.add("get_called_class");
-        advancedOpcode.add("get_class");
-        advancedOpcode.add("gettype");
-        advancedOpcode.add("in_array");
-        advancedOpcode.add("intval");
-        advancedOpcode.add("is_array");
-        advancedOpcode.add("is_bool");
-        advancedOpcode.add("is_double");
-        advancedOpcode.add("is_float");
-        advancedOpcode.add("is_int");
-        advancedOpcode.add("is_integer");
-        advancedOpcode.add("is_long");
-        advancedOpcode.add("is_null");
-        advancedOpcode.add("is_object");
-        advancedOpcode.add("is_real");
-        advancedOpcode.add("is_resource");
-        advancedOpcode.add("is_string");
-        advancedOpcode.add("ord");
-        advancedOpcode.add("strlen");
-        advancedOpcode.add("strval");
-        advancedOpcode.add("function_exists");
-        advancedOpcode.add("is_callable");
-        advancedOpcode.add("extension_loaded");
-        advancedOpcode.add("dirname");
-        advancedOpcode.add("constant");
-        advancedOpcode.add("define");
-        advancedOpcode.add("array_key_exists");
     }
 
     final private static Condition<PsiElement> PARENT_NAMESPACE = new Condition<PsiElement>() {
@@ -140,11 +94,12 @@ public class UnqualifiedReferenceInspector extends BasePhpInspection {
                 if (functionName != null && !functionName.isEmpty()) {
                     /* ensure php version is at least PHP 7.0; makes sense only with PHP7+ opcode */
                     if (PhpLanguageLevel.get(holder.getProject()).atLeast(PhpLanguageLevel.PHP700)) {
-                        if (REPORT_ALL_FUNCTIONS || advancedOpcode.contains(functionName)) {
+                        if (REPORT_ALL_FUNCTIONS || InternalFunctionsMetadata.isOpcodeSpecialized(functionName)) {
                             this.analyzeReference(reference, functionName);
                         }
-                        if (callbacksPositions.containsKey(functionName)) {
-                            this.analyzeCallback(reference, functionName);
+                        final int callbackPosition = InternalFunctionsMetadata.getCallbackPosition(functionName);
+                        if (callbackPosition >= 0) {
+                            this.analyzeCallback(reference, functionName, callbackPosition);
                         }
                     }
                 }
@@ -155,24 +110,24 @@ public class UnqualifiedReferenceInspector extends BasePhpInspection {
                 final String constantName = reference.getName();
                 if (constantName != null && !constantName.isEmpty() && REPORT_CONSTANTS) {
                     /* ensure php version is at least PHP 7.0; makes sense only with PHP7+ opcode */
-                    if (PhpLanguageLevel.get(holder.getProject()).atLeast(PhpLanguageLevel.PHP700)) {
+                    final Project project = holder.getProject();
+                    if (PhpLanguageLevel.get(project).atLeast(PhpLanguageLevel.PHP700) && KnownNamesFilterUtil.mayBeConstant(project, constantName)) {
                         this.analyzeReference(reference, constantName);
                     }
                 }
             }
 
-            private void analyzeCallback(@NotNull FunctionReference reference, @NotNull String functionName) {
+            private void analyzeCallback(@NotNull FunctionReference reference, @NotNull String functionName, int callbackPosition) {
                 final PsiElement[] arguments = reference.getParameters();
                 if (arguments.length >= 2) {
-                    final Integer callbackPosition = callbacksPositions.get(functionName);
                     if (arguments[callbackPosition] instanceof StringLiteralExpression) {
                         final StringLiteralExpression callback = (StringLiteralExpression) arguments[callbackPosition];
                         if (callback.getFirstPsiChild() == null) {
                             final String function     = callback.getContents();
                             final boolean isCandidate = !function.startsWith("\\") && !function.contains("::");
-                            if (isCandidate && (REPORT_ALL_FUNCTIONS || advancedOpcode.contains(function))) {
-                                final PhpIndex index = PhpIndex.getInstance(holder.getProject());
-                                if (!index.getFunctionsByFQN('\\' + functionName).isEmpty()) {
+                            if (isCandidate && (REPORT_ALL_FUNCTIONS || InternalFunctionsMetadata.isOpcodeSpecialized(function))) {
+                                final Project project = holder.getProject();
+                                if (KnownNamesFilterUtil.mayBeFunction(project, function) && !PhpIndex.getInstance(project).getFunctionsByFQN('\\' + function).isEmpty()) {
                                     holder.registerProblem(
                                             callback,
                                             String.format(ReportingUtil.wrapReportedMessage(messagePattern), function),
@@ -263,7 +218,7 @@ public class UnqualifiedReferenceInspector extends BasePhpInspection {
         };
     }
 
-    private static final class TheLocalFix implements LocalQuickFix {
+    private static final class TheLocalFix implements TextReplacementFix {
         private static final String title = "Use the qualified reference";
 
         @NotNull
@@ -279,7 +234,7 @@ public class UnqualifiedReferenceInspector extends BasePhpInspection {
         }
 
         @Override
-        public void applyFix(@NotNull Project project, @NotNull ProblemDescriptor descriptor) {
+        public void applyReplacement(@NotNull Project project, @NotNull ProblemDescriptor descriptor) {
             final PsiElement target = descriptor.getPsiElement();
             if (target != null && !project.isDisposed()) {
                 if (target instanceof FunctionReference || target instanceof ConstantReference) {
@@ -297,6 +252,21 @@ public class UnqualifiedReferenceInspector extends BasePhpInspection {
                 }
             }
         }
+
+        @Nullable
+        @Override
+        public Pair<TextRange, String> getReplacement(@NotNull ProblemDescriptor descriptor) {
+            final PsiElement target = descriptor.getPsiElement();
+            if (target instanceof FunctionReference || target instanceof ConstantReference) {
+                return Pair.create(TextRange.from(target.getFirstChild().getTextRange().getStartOffset(), 0), "\\");
+            } else if (target instanceof StringLiteralExpression) {
+                final StringLiteralExpression expression = (StringLiteralExpression) target;
+                final String quote                       = expression.isSingleQuote() ? "'" : "\"";
+                final String rootNs                      = expression.isSingleQuote() ? "\\" : "\\\\";
+                return Pair.create(target.getTextRange(), quote + rootNs + expression.getContents() + quote);
+            }
+            return null;
+        }
     }
 
     public JComponent createOptionsPanel() {
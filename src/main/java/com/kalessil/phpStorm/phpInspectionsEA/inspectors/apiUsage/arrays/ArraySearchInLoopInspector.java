@@ -0,0 +1,269 @@
+package com.kalessil.phpStorm.phpInspectionsEA.inspectors.apiUsage.arrays;
+
+import com.intellij.codeInspection.LocalQuickFix;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.*;
+import com.intellij.psi.tree.IElementType;
+import com.jetbrains.php.lang.lexer.PhpTokenTypes;
+import com.jetbrains.php.lang.psi.PhpPsiElementFactory;
+import com.jetbrains.php.lang.psi.elements.*;
+import com.jetbrains.php.lang.psi.resolve.types.PhpType;
+import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
+import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+public class ArraySearchInLoopInspector extends BasePhpInspection {
+    private static final String message = "'%s(...)' scans the same array in every iteration, consider flipping it before the loop and using 'isset(...)' instead.";
+
+    private static final String numericPattern = "^[+-]?(\\d+\\.?\\d*|\\.\\d+)([eE][+-]?\\d+)?$";
+
+    @NotNull
+    @Override
+    public String getShortName() {
+        return "ArraySearchInLoopInspection";
+    }
+
+    @NotNull
+    @Override
+    public String getDisplayName() {
+        return "Linear array search in loop";
+    }
+
+    @Override
+    @NotNull
+    public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
+        return new BasePhpElementVisitor() {
+            @Override
+            public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
+                final String functionName = reference.getName();
+                if (functionName != null && (functionName.equals("in_array") || functionName.equals("array_search"))) {
+                    final PsiElement[] arguments = reference.getParameters();
+                    final boolean isStrict       = arguments.length == 3 && PhpLanguageUtil.isTrue(arguments[2]);
+                    if (
+                        (arguments.length == 2 || isStrict || (arguments.length == 3 && PhpLanguageUtil.isFalse(arguments[2]))) &&
+                        getLookupTarget(reference) != null
+                    ) {
+                        final PsiElement loop = LoopInvarianceUtil.getEnclosingLoop(reference);
+                        if (loop != null) {
+                            final Set<String> modified = LoopInvarianceUtil.getModifiedVariables(loop);
+                            if (
+                                modified != null &&
+                                LoopInvarianceUtil.isInvariant(arguments[1], modified) &&
+                                !LoopInvarianceUtil.isInvariant(arguments[0], modified) &&
+                                this.isLookupCompatible(reference, arguments[0], arguments[1], isStrict)
+                            ) {
+                                holder.registerProblem(
+                                        reference,
+                                        String.format(ReportingUtil.wrapReportedMessage(message), functionName),
+                                        loop.getParent() instanceof GroupStatement ? new UseFlippedArrayFix(holder.getProject(), loop, reference) : null
+                                );
+                            }
+                        }
+                    }
+                }
+            }
+
+            /* array_flip keeps int and string values only; numeric strings are becoming integer keys */
+            private boolean isLookupCompatible(
+                    @NotNull FunctionReference reference,
+                    @NotNull PsiElement needle,
+                    @NotNull PsiElement haystack,
+                    boolean isStrict
+            ) {
+                final String needleType = this.getType(needle, false);
+                if (needleType == null) {
+                    return false;
+                }
+
+                final ArrayCreationExpression literal = this.getArrayLiteral(reference, haystack);
+                if (literal != null) {
+                    final ArrayLiteralSummaryUtil.Summary summary = ArrayLiteralSummaryUtil.getSummary(literal);
+                    boolean isCompatible                          = summary.size() > 0;
+                    for (int position = 0; isCompatible && position < summary.size(); ++position) {
+                        final PsiElement value = summary.getValue(position);
+                        if (needleType.equals(Types.strString)) {
+                            isCompatible = value instanceof StringLiteralExpression &&
+                                           ((StringLiteralExpression) value).getFirstPsiChild() == null &&
+                                           !((StringLiteralExpression) value).getContents().trim().matches(numericPattern);
+                        } else {
+                            isCompatible = OpenapiTypesUtil.isNumber(value) && value.getText().replaceAll("\\s+", "").matches("^-?\\d+$");
+                        }
+                    }
+                    return isCompatible;
+                }
+
+                /* types only: numeric strings in string arrays are not known, so the loose comparison is not safe */
+                final String elementsType = this.getType(haystack, true);
+                return needleType.equals(elementsType) && (isStrict || elementsType.equals(Types.strInteger));
+            }
+
+            @Nullable
+            private ArrayCreationExpression getArrayLiteral(@NotNull FunctionReference reference, @NotNull PsiElement haystack) {
+                if (haystack instanceof ArrayCreationExpression) {
+                    return (ArrayCreationExpression) haystack;
+                }
+                /* parameters default values are not reliable */
+                if (haystack instanceof Variable) {
+                    final Function scope = ExpressionSemanticUtil.getScope(reference);
+                    if (scope != null) {
+                        final String variableName = ((Variable) haystack).getName();
+                        for (final Parameter parameter : scope.getParameters()) {
+                            if (parameter.getName().equals(variableName)) {
+                                return null;
+                            }
+                        }
+                    }
+                }
+                final Set<PsiElement> values = PossibleValuesDiscoveryUtil.discover(haystack);
+                final PsiElement value       = values.size() == 1 ? values.iterator().next() : null;
+                values.clear();
+                return value instanceof ArrayCreationExpression ? (ArrayCreationExpression) value : null;
+            }
+
+            /* `string` or `int` (for arrays: of the elements), null if not one of them */
+            @Nullable
+            private String getType(@NotNull PsiElement expression, boolean isArray) {
+                if (expression instanceof PhpTypedElement) {
+                    final PhpType resolved = OpenapiResolveUtil.resolveType((PhpTypedElement) expression, holder.getProject());
+                    if (resolved != null) {
+                        final Set<String> types = resolved.filterUnknown().getTypes().stream()
+                                .filter(type -> !isArray || type.endsWith("[]"))
+                                .map(type -> Types.getType(isArray ? type.substring(0, type.length() - 2) : type))
+                                .collect(Collectors.toSet());
+                        if (types.size() == 1 && resolved.filterUnknown().getTypes().size() == 1) {
+                            final String type = types.iterator().next();
+                            return type.equals(Types.strString) || type.equals(Types.strInteger) ? type : null;
+                        }
+                    }
+                }
+                return null;
+            }
+        };
+    }
+
+    /* `in_array(...)` itself, or the `false !== array_search(...)`-like comparison */
+    @Nullable
+    static private PsiElement getLookupTarget(@NotNull FunctionReference reference) {
+        if ("in_array".equals(reference.getName())) {
+            return reference;
+        }
+        final PsiElement parent = reference.getParent();
+        if (parent instanceof BinaryExpression) {
+            final BinaryExpression binary = (BinaryExpression) parent;
+            final IElementType operation  = binary.getOperationType();
+            if (operation == PhpTokenTypes.opIDENTICAL || operation == PhpTokenTypes.opNOT_IDENTICAL) {
+                final PsiElement second = OpenapiElementsUtil.getSecondOperand(binary, reference);
+                if (PhpLanguageUtil.isFalse(second)) {
+                    return binary;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static final class UseFlippedArrayFix implements LocalQuickFix {
+        private static final String title = "Flip the array before the loop and use 'isset(...)'";
+
+        private final SmartPsiElementPointer<PsiElement> loop;
+        private final SmartPsiElementPointer<FunctionReference> call;
+
+        UseFlippedArrayFix(@NotNull Project project, @NotNull PsiElement loop, @NotNull FunctionReference call) {
+            super();
+            final SmartPointerManager factory = SmartPointerManager.getInstance(project);
+
+            this.loop = factory.createSmartPsiElementPointer(loop);
+            this.call = factory.createSmartPsiElementPointer(call);
+        }
+
+        @NotNull
+        @Override
+        public String getName() {
+            return title;
+        }
+
+        @NotNull
+        @Override
+        public String getFamilyName() {
+            return title;
+        }
+
+        @Override
+        public void applyFix(@NotNull final Project project, @NotNull final ProblemDescriptor descriptor) {
+            final PsiElement loop        = this.loop.getElement();
+            final FunctionReference call = this.call.getElement();
+            final PsiElement target      = call == null ? null : getLookupTarget(call);
+            if (loop == null || target == null || project.isDisposed()) {
+                return;
+            }
+
+            final PsiElement[] arguments = call.getParameters();
+            final PsiElement haystack    = arguments[1];
+            String variableName          = this.findFlippedVariable(loop, haystack);
+            if (variableName == null) {
+                variableName = LoopInvarianceUtil.getHoistedVariableName(
+                        loop,
+                        haystack instanceof Variable ? ((Variable) haystack).getName() + "Flipped" : "flipped"
+                );
+                final PsiElement statement = PhpPsiElementFactory.createStatement(
+                        project,
+                        String.format("%s = %sarray_flip(%s);", variableName, call.getImmediateNamespaceName(), haystack.getText())
+                );
+                loop.getParent().addBefore(statement, loop);
+            }
+
+            final boolean isInverted     = target instanceof BinaryExpression &&
+                                           ((BinaryExpression) target).getOperationType() == PhpTokenTypes.opIDENTICAL;
+            final String lookup          = String.format("%sisset(%s[%s])", isInverted ? "!" : "", variableName, arguments[0].getText());
+            final PsiElement replacement = PhpPsiElementFactory
+                    .createPhpPsiFromText(project, ParenthesizedExpression.class, '(' + lookup + ')')
+                    .getArgument();
+            if (replacement != null) {
+                target.replace(replacement);
+            }
+        }
+
+        /* re-use `$flipped = array_flip(<the same array>);` right before the loop, e.g. created for another search */
+        @Nullable
+        private String findFlippedVariable(@NotNull PsiElement loop, @NotNull PsiElement haystack) {
+            PsiElement previous = loop.getPrevSibling();
+            while (previous instanceof PsiWhiteSpace || previous instanceof PsiComment) {
+                previous = previous.getPrevSibling();
+            }
+            if (OpenapiTypesUtil.isStatementImpl(previous)) {
+                final PsiElement assignment = ((Statement) previous).getFirstPsiChild();
+                if (OpenapiTypesUtil.isAssignment(assignment)) {
+                    final PsiElement variable = ((AssignmentExpression) assignment).getVariable();
+                    final PsiElement value    = ((AssignmentExpression) assignment).getValue();
+                    if (variable instanceof Variable && OpenapiTypesUtil.isFunctionReference(value)) {
+                        final FunctionReference flip     = (FunctionReference) value;
+                        final PsiElement[] flipArguments = flip.getParameters();
+                        if (
+                            "array_flip".equals(flip.getName()) &&
+                            flipArguments.length == 1 &&
+                            OpenapiEquivalenceUtil.areEqual(flipArguments[0], haystack)
+                        ) {
+                            return variable.getText();
+                        }
+                    }
+                }
+            }
+            return null;
+        }
+    }
+}
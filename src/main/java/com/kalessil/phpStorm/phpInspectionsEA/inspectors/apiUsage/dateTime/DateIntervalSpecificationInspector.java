@@ -9,11 +9,10 @@ import com.jetbrains.php.lang.psi.elements.StringLiteralExpression;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.ExpressionSemanticUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.FormatStringsUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.ReportingUtil;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.regex.Pattern;
-
 /*
  * This file is part of the Php Inspections (EA Extended) package.
  *
@@ -27,13 +26,6 @@ import java.util.regex.Pattern;
 public class DateIntervalSpecificationInspector extends BasePhpInspection {
     private static final String message = "Date interval specification seems to be invalid.";
 
-    private static final Pattern regexDateTimeAlike;
-    private static final Pattern regexRegular;
-    static {
-        regexDateTimeAlike = Pattern.compile("^P\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}$");
-        regexRegular       = Pattern.compile("^P((\\d+Y)?(\\d+M)?(\\d+D)?(\\d+W)?)?(T(?=\\d)(\\d+H)?(\\d+M)?(\\d+S)?)?$");
-    }
-
     @NotNull
     @Override
     public String getShortName() {
@@ -64,8 +56,7 @@ public class DateIntervalSpecificationInspector extends BasePhpInspection {
                     /* now try getting string literal and test against valid patterns */
                     final StringLiteralExpression pattern = ExpressionSemanticUtil.resolveAsStringLiteral(params[0]);
                     if (pattern != null && pattern.getFirstPsiChild() == null) {
-                        final String input = pattern.getContents();
-                        if (!regexRegular.matcher(input).find() && !regexDateTimeAlike.matcher(input).find()) {
+                        if (!FormatStringsUtil.isValidDateIntervalSpecification(pattern.getContents())) {
                             holder.registerProblem(
                                     pattern,
                                     ReportingUtil.wrapReportedMessage(message)
@@ -56,6 +56,11 @@ public class CascadeStringReplacementInspector extends BasePhpInspection {
         return "Cascading 'str_replace(...)' calls";
     }
 
+    @Override
+    protected boolean isFunctionLocal() {
+        return true;
+    }
+
     @Override
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
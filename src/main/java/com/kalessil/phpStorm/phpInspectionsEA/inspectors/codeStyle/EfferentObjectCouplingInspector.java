@@ -3,17 +3,25 @@ package com.kalessil.phpStorm.phpInspectionsEA.inspectors.codeStyle;
 import com.intellij.codeInspection.ProblemsHolder;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiElementVisitor;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.indexing.FileBasedIndex;
 import com.jetbrains.php.lang.psi.elements.ClassReference;
 import com.jetbrains.php.lang.psi.elements.PhpClass;
+import com.kalessil.phpStorm.phpInspectionsEA.indexers.ClassDependenciesIndexer;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.options.OptionsComponent;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.NamedElementUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.ReportingUtil;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import javax.swing.*;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -52,10 +60,13 @@ public class EfferentObjectCouplingInspector extends BasePhpInspection {
             public void visitPhpClass(@NotNull PhpClass clazz) {
                 final PsiElement nameIdentifier = NamedElementUtil.getNameIdentifier(clazz);
                 if (nameIdentifier != null) {
-                    final Set<String> references = PsiTreeUtil.findChildrenOfType(clazz, ClassReference.class).stream()
-                            .map(ClassReference::getFQN)
-                            .collect(Collectors.toSet());
-                    final int count = references.size();
+                    /* the file index knows named top-level classes, others are collected here */
+                    final Set<String> references = this.getIndexedDependencies(clazz);
+                    final int count              = references != null ? references.size() :
+                            PsiTreeUtil.findChildrenOfType(clazz, ClassReference.class).stream()
+                                    .map(ClassReference::getFQN)
+                                    .collect(Collectors.toSet())
+                                    .size();
                     if (count >= optionCouplingLimit) {
                         holder.registerProblem(
                                 nameIdentifier,
@@ -64,6 +75,30 @@ public class EfferentObjectCouplingInspector extends BasePhpInspection {
                     }
                 }
             }
+
+            /* dependencies of the class, as indexed for its file; null if the class is not indexed */
+            @Nullable
+            private Set<String> getIndexedDependencies(@NotNull PhpClass clazz) {
+                final VirtualFile file = clazz.getContainingFile().getVirtualFile();
+                if (file == null) {
+                    return null;
+                }
+                final Project project    = holder.getProject();
+                final List<String> values = FileBasedIndex.getInstance()
+                        .getValues(ClassDependenciesIndexer.identity, clazz.getFQN(), GlobalSearchScope.fileScope(project, file));
+                if (values.isEmpty()) {
+                    return null;
+                }
+                final Set<String> result = new HashSet<>();
+                for (final String value : values) {
+                    for (final String dependency : value.split(";")) {
+                        if (!dependency.isEmpty()) {
+                            result.add(dependency);
+                        }
+                    }
+                }
+                return result;
+            }
         };
     }
 
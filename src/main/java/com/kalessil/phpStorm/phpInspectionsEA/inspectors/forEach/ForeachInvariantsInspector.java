@@ -47,6 +47,11 @@ public class ForeachInvariantsInspector extends BasePhpInspection {
         return "Foreach usage possible";
     }
 
+    @Override
+    protected boolean isFunctionLocal() {
+        return true;
+    }
+
     @Override
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
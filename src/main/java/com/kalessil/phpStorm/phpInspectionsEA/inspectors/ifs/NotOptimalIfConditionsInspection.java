@@ -12,6 +12,7 @@ import com.jetbrains.php.lang.psi.elements.*;
 import com.kalessil.phpStorm.phpInspectionsEA.inspectors.ifs.strategy.AndOrWordsUsageStrategy;
 import com.kalessil.phpStorm.phpInspectionsEA.inspectors.ifs.utils.ExpressionCostEstimateUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.inspectors.ifs.utils.ExpressionsCouplingCheckUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.openApi.AnalysisBudget;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.PhpLanguageLevel;
@@ -59,6 +60,11 @@ public class NotOptimalIfConditionsInspection extends BasePhpInspection {
         return "Non-optimal if conditions";
     }
 
+    @Override
+    protected boolean isFunctionLocal() {
+        return true;
+    }
+
     final private static Set<String> functionsSet = new HashSet<>();
     static {
             functionsSet.add("array_key_exists");
@@ -108,6 +114,11 @@ public class NotOptimalIfConditionsInspection extends BasePhpInspection {
                 }
 
                 for (final ElseIf objElseIf : ifStatement.getElseIfBranches()) {
+                    /* long elseif-chains can be expensive, stop here if the analysis budget is exhausted */
+                    if (AnalysisBudget.isExhausted()) {
+                        objAllConditions.clear();
+                        return;
+                    }
                     objConditionsFromStatement = this.inspectExpressionsOrder(objElseIf.getCondition(), arrOperationHolder);
                     if (objConditionsFromStatement != null) {
                         objAllConditions.addAll(objConditionsFromStatement);
@@ -310,23 +321,16 @@ public class NotOptimalIfConditionsInspection extends BasePhpInspection {
                     }
                 }
 
-                /* scan for duplicates */
-                for (final PsiElement expression : callsExtracted) {
-                    if (expression != null) {
-                        /* put a stub */
-                        callsExtracted.set(callsExtracted.indexOf(expression), null);
-                        /* search duplicates in current scope */
-                        for (final PsiElement innerLoopExpression : callsExtracted) {
-                            if (innerLoopExpression != null && OpenapiEquivalenceUtil.areEqual(innerLoopExpression, expression)) {
-                                holder.registerProblem(
-                                        innerLoopExpression,
-                                        ReportingUtil.wrapReportedMessage(messageDuplicateConditionPart)
-                                );
-                                callsExtracted.set(callsExtracted.indexOf(innerLoopExpression), null);
-                            }
-                        }
+                /* scan for duplicates: everything after the first call in a group is a duplicate */
+                for (final List<PsiElement> group : OpenapiEquivalenceUtil.groupEqual(callsExtracted)) {
+                    for (final PsiElement duplicate : group.subList(1, group.size())) {
+                        holder.registerProblem(
+                                duplicate,
+                                ReportingUtil.wrapReportedMessage(messageDuplicateConditionPart)
+                        );
                     }
                 }
+                callsExtracted.clear();
             }
 
             private List<String> getPreviouslyModifiedVariables(@NotNull If ifStatement) {
@@ -19,6 +19,7 @@ import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.PhpLanguageLevel;
 import com.kalessil.phpStorm.phpInspectionsEA.options.OptionsComponent;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.KnownNamesFilterUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiResolveUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiTypesUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.ReportingUtil;
@@ -145,7 +146,7 @@ public class ClassConstantCanBeUsedInspector extends BasePhpInspection {
                     }
 
                     /* if we could find an appropriate candidate and resolved the class => report (case must match) */
-                    if (1 == namesToLookup.size()) {
+                    if (1 == namesToLookup.size() && KnownNamesFilterUtil.mayBeClass(project, namesToLookup.iterator().next())) {
                         final String fqn             = namesToLookup.iterator().next();
                         final PhpIndex index         = PhpIndex.getInstance(project);
                         final List<PhpClass> classes = OpenapiResolveUtil.resolveClassesAndInterfacesByFQN(fqn, index);
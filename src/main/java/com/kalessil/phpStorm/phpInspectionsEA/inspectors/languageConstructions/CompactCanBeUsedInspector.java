@@ -10,6 +10,7 @@ import com.jetbrains.php.lang.psi.PhpPsiElementFactory;
 import com.jetbrains.php.lang.psi.elements.*;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.ArrayLiteralSummaryUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.ReportingUtil;
 import org.jetbrains.annotations.NotNull;
 
@@ -46,27 +47,21 @@ public class CompactCanBeUsedInspector extends BasePhpInspection {
         return new BasePhpElementVisitor() {
             @Override
             public void visitPhpArrayCreationExpression(@NotNull ArrayCreationExpression expression) {
-                final List<String> variables = new ArrayList<>();
-                for (final PsiElement pairCandidate : expression.getChildren()) {
-                    /* match array structure */
-                    if (!(pairCandidate instanceof ArrayHashElement)) {
-                        return;
-                    }
+                final ArrayLiteralSummaryUtil.Summary summary = ArrayLiteralSummaryUtil.getSummary(expression);
+                final List<String> variables                  = new ArrayList<>();
+                for (int position = 0; position < summary.size(); ++position) {
                     /* match pair structure */
-                    final ArrayHashElement pair = (ArrayHashElement) pairCandidate;
-                    final PhpPsiElement key     = pair.getKey();
-                    final PhpPsiElement value   = pair.getValue();
-                    if (!(key instanceof StringLiteralExpression) || !(value instanceof Variable)) {
+                    final PhpPsiElement value = summary.getValue(position);
+                    if (summary.getKeyKind(position) != ArrayLiteralSummaryUtil.KEY_STRING || !(value instanceof Variable)) {
                         return;
                     }
                     /* match index and variable */
-                    final String index    = ((StringLiteralExpression) key).getContents();
                     final String variable = value.getName();
-                    if (variable == null || !variable.equals(index)) {
+                    if (variable == null || !variable.equals(summary.getLiteralKey(position))) {
                         return;
                     }
 
-                    variables.add(key.getText());
+                    variables.add(summary.getKey(position).getText());
                 }
 
                 if (variables.size() > 1) {
@@ -0,0 +1,1528 @@
+package com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.explosiveStrategy;
+
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.util.containers.SLRUMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Backtracking complexity analysis of PCRE patterns: the pattern is compiled into an NFA (epsilon-transitions
+ * are eliminated, but alternative epsilon-paths are kept as parallel transitions), which is checked for
+ * exponential (EDA) and polynomial (IDA) degrees of ambiguity. Findings are confirmed by simulating the
+ * attack string: the prefix, the pumped part and a suffix making the match fail.
+ *
+ * The analysis is budgeted: unsupported syntax (back-references, recursion, conditionals) and too large
+ * automatons are giving no result. Lookarounds and most anchors are approximated as empty strings.
+ */
+final class BacktrackingAnalyzer {
+    private static final int MAX_NODES          = 2000;
+    private static final int MAX_STATES         = 400;
+    private static final int MAX_PRODUCT_STATES = 40000;
+    private static final int MAX_TRIPLE_STATES  = 60000;
+    private static final int MAX_PAIRS_WORK     = 1000000;
+    private static final int MAX_PATHS_WORK     = 50000;
+    private static final int MAX_SUBSETS        = 256;
+    private static final int MAX_PUMPS          = 32;
+    private static final int MAX_REPETITIONS    = 16;
+
+    private static final Result none = new Result(0, "", "", "");
+
+    private static final SLRUMap<String, Optional<Result>> results = new SLRUMap<>(256, 256);
+
+    /* null if the pattern can not be analyzed */
+    @Nullable
+    static Result analyze(@NotNull String pattern, @Nullable String modifiers) {
+        final String key = (modifiers == null ? "" : modifiers) + '/' + pattern;
+        synchronized (results) {
+            final Optional<Result> cached = results.get(key);
+            if (cached != null) {
+                return cached.orElse(null);
+            }
+        }
+        Result result;
+        try {
+            final Parser parser = new Parser(pattern, modifiers == null ? "" : modifiers);
+            result              = new Automaton(Nfa.compile(parser.parse()), parser.properties).analyze();
+        } catch (final GiveUp giveUp) {
+            result = null;
+        }
+        synchronized (results) {
+            results.put(key, Optional.ofNullable(result));
+        }
+        return result;
+    }
+
+    static final class Result {
+        /* 0: no super-linear backtracking, Integer.MAX_VALUE: exponential, otherwise the polynomial degree */
+        private final int degree;
+        private final String prefix;
+        private final String pump;
+        private final String suffix;
+
+        private Result(int degree, @NotNull String prefix, @NotNull String pump, @NotNull String suffix) {
+            this.degree = degree;
+            this.prefix = prefix;
+            this.pump   = pump;
+            this.suffix = suffix;
+        }
+
+        boolean isVulnerable() {
+            return this.degree > 1;
+        }
+
+        boolean isExponential() {
+            return this.degree == Integer.MAX_VALUE;
+        }
+
+        int getDegree() {
+            return this.degree;
+        }
+
+        /* the attack string is prefix, followed by repeated pump, followed by suffix */
+        @NotNull
+        String getPrefix() {
+            return this.prefix;
+        }
+
+        @NotNull
+        String getPump() {
+            return this.pump;
+        }
+
+        @NotNull
+        String getSuffix() {
+            return this.suffix;
+        }
+    }
+
+    /* thrown on unsupported syntax and exhausted budgets */
+    private static final class GiveUp extends RuntimeException {
+        private static final GiveUp instance = new GiveUp();
+
+        private GiveUp() {
+            super(null, null, false, false);
+        }
+    }
+
+    /* sorted, non-overlapping inclusive ranges; code points above MAX_CODE_POINT are unicode properties */
+    private static final class CharSet {
+        private static final int MAX_CODE_POINT = 0x10FFFF;
+        private static final int MAX_CODE       = MAX_CODE_POINT + 256;
+
+        private static final int[] digits     = {'0', '9'};
+        private static final int[] words      = {'0', '9', 'A', 'Z', '_', '_', 'a', 'z'};
+        private static final int[] spaces     = {'\t', '\r', ' ', ' '};
+        private static final int[] horizontal = {'\t', '\t', ' ', ' ', 0xA0, 0xA0};
+        private static final int[] vertical   = {'\n', '\r', 0x85, 0x85, 0x2028, 0x2029};
+        private static final int[] newLine    = {'\n', '\n'};
+
+        @NotNull
+        private static int[] of(int code) {
+            return new int[]{code, code};
+        }
+
+        @NotNull
+        private static int[] union(@NotNull int[] one, @NotNull int[] two) {
+            final int[] merged = new int[one.length + two.length];
+            int first = 0, second = 0, size = 0;
+            while (first < one.length || second < two.length) {
+                final int[] source = second >= two.length || (first < one.length && one[first] <= two[second]) ? one : two;
+                final int index    = source == one ? first : second;
+                if (size > 0 && source[index] <= merged[size - 1] + 1) {
+                    merged[size - 1] = Math.max(merged[size - 1], source[index + 1]);
+                } else {
+                    merged[size++] = source[index];
+                    merged[size++] = source[index + 1];
+                }
+                if (source == one) {
+                    first += 2;
+                } else {
+                    second += 2;
+                }
+            }
+            return Arrays.copyOf(merged, size);
+        }
+
+        @NotNull
+        private static int[] complement(@NotNull int[] set) {
+            final int[] result = new int[set.length + 2];
+            int size = 0, from = 0;
+            for (int index = 0; index < set.length; index += 2) {
+                if (set[index] > from) {
+                    result[size++] = from;
+                    result[size++] = set[index] - 1;
+                }
+                from = set[index + 1] + 1;
+            }
+            if (from <= MAX_CODE) {
+                result[size++] = from;
+                result[size++] = MAX_CODE;
+            }
+            return Arrays.copyOf(result, size);
+        }
+
+        @NotNull
+        private static int[] intersection(@NotNull int[] one, @NotNull int[] two) {
+            final int[] result = new int[one.length + two.length];
+            int first = 0, second = 0, size = 0;
+            while (first < one.length && second < two.length) {
+                final int from = Math.max(one[first], two[second]);
+                final int to   = Math.min(one[first + 1], two[second + 1]);
+                if (from <= to) {
+                    result[size++] = from;
+                    result[size++] = to;
+                }
+                if (one[first + 1] < two[second + 1]) {
+                    first += 2;
+                } else {
+                    second += 2;
+                }
+            }
+            return Arrays.copyOf(result, size);
+        }
+
+        private static boolean intersects(@NotNull int[] one, @NotNull int[] two) {
+            int first = 0, second = 0;
+            while (first < one.length && second < two.length) {
+                if (Math.max(one[first], two[second]) <= Math.min(one[first + 1], two[second + 1])) {
+                    return true;
+                }
+                if (one[first + 1] < two[second + 1]) {
+                    first += 2;
+                } else {
+                    second += 2;
+                }
+            }
+            return false;
+        }
+
+        private static boolean contains(@NotNull int[] set, int code) {
+            for (int index = 0; index < set.length && set[index] <= code; index += 2) {
+                if (code <= set[index + 1]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /* ASCII letters get both cases */
+        @NotNull
+        private static int[] caseless(@NotNull int[] set) {
+            final int[] lower = intersection(set, new int[]{'a', 'z'});
+            final int[] upper = intersection(set, new int[]{'A', 'Z'});
+            for (int index = 0; index < lower.length; ++index) {
+                lower[index] -= 'a' - 'A';
+            }
+            for (int index = 0; index < upper.length; ++index) {
+                upper[index] += 'a' - 'A';
+            }
+            return union(set, union(lower, upper));
+        }
+
+        /* a readable member of the set, -1 if the set is empty */
+        private static int pick(@NotNull int[] set) {
+            if (set.length == 0) {
+                return -1;
+            }
+            for (final int candidate : new int[]{'a', '0', 'A', ' ', '_', '-', '.', '!'}) {
+                if (contains(set, candidate)) {
+                    return candidate;
+                }
+            }
+            for (int candidate = '!'; candidate <= '~'; ++candidate) {
+                if (contains(set, candidate)) {
+                    return candidate;
+                }
+            }
+            return set[0];
+        }
+    }
+
+    /* regex syntax tree */
+    private static final class Term {
+        private static final byte EMPTY       = 0;
+        private static final byte CHARACTERS  = 1;
+        private static final byte END         = 2;
+        private static final byte SEQUENCE    = 3;
+        private static final byte ALTERNATION = 4;
+        private static final byte REPETITION  = 5;
+        private static final byte ATOMIC      = 6;
+
+        private static final Term empty = new Term(EMPTY);
+
+        private final byte type;
+        private final List<Term> children = new ArrayList<>();
+        private int[] set;
+        private int min;
+        private int max;
+
+        private Term(byte type) {
+            this.type = type;
+        }
+
+        @NotNull
+        private static Term characters(@NotNull int[] set) {
+            final Term term = new Term(CHARACTERS);
+            term.set        = set;
+            return term;
+        }
+    }
+
+    private static final class Parser {
+        private static final int CASELESS  = 1;
+        private static final int DOT_ALL   = 2;
+        private static final int EXTENDED  = 4;
+        private static final int MULTILINE = 8;
+
+        private final String pattern;
+        private final List<String> properties = new ArrayList<>();
+        private int position = 0;
+        private int flags    = 0;
+
+        private Parser(@NotNull String pattern, @NotNull String modifiers) {
+            this.pattern = pattern;
+            for (final char modifier : modifiers.toCharArray()) {
+                this.flags |= this.flag(modifier);
+            }
+        }
+
+        private int flag(char modifier) {
+            switch (modifier) {
+                case 'i': return CASELESS;
+                case 's': return DOT_ALL;
+                case 'x': return EXTENDED;
+                case 'm': return MULTILINE;
+                default:  return 0;
+            }
+        }
+
+        @NotNull
+        private Term parse() {
+            final Term result = this.parseAlternation();
+            if (this.position < this.pattern.length()) {
+                throw GiveUp.instance;
+            }
+            return result;
+        }
+
+        private boolean hasMore() {
+            return this.position < this.pattern.length();
+        }
+
+        private char peek() {
+            return this.pattern.charAt(this.position);
+        }
+
+        private char next() {
+            if (!this.hasMore()) {
+                throw GiveUp.instance;
+            }
+            return this.pattern.charAt(this.position++);
+        }
+
+        private boolean consume(@NotNull String expected) {
+            if (this.pattern.startsWith(expected, this.position)) {
+                this.position += expected.length();
+                return true;
+            }
+            return false;
+        }
+
+        @NotNull
+        private Term parseAlternation() {
+            final Term first = this.parseSequence();
+            if (!this.hasMore() || this.peek() != '|') {
+                return first;
+            }
+            final Term alternation = new Term(Term.ALTERNATION);
+            alternation.children.add(first);
+            while (this.hasMore() && this.peek() == '|') {
+                ++this.position;
+                alternation.children.add(this.parseSequence());
+            }
+            return alternation;
+        }
+
+        @NotNull
+        private Term parseSequence() {
+            final Term sequence = new Term(Term.SEQUENCE);
+            while (true) {
+                this.skipExtendedWhitespaces();
+                if (!this.hasMore() || this.peek() == '|' || this.peek() == ')') {
+                    break;
+                }
+                final Term atom = this.parseAtom();
+                this.skipExtendedWhitespaces();
+                sequence.children.add(this.parseQuantifier(atom));
+            }
+            return sequence.children.size() == 1 ? sequence.children.get(0) : sequence;
+        }
+
+        private void skipExtendedWhitespaces() {
+            while ((this.flags & EXTENDED) != 0 && this.hasMore()) {
+                final char current = this.peek();
+                if (current == '#') {
+                    while (this.hasMore() && this.peek() != '\n') {
+                        ++this.position;
+                    }
+                } else if (Character.isWhitespace(current)) {
+                    ++this.position;
+                } else {
+                    break;
+                }
+            }
+        }
+
+        @NotNull
+        private Term parseQuantifier(@NotNull Term atom) {
+            if (!this.hasMore()) {
+                return atom;
+            }
+            int min, max;
+            final char current = this.peek();
+            if (current == '*' || current == '+' || current == '?') {
+                ++this.position;
+                min = current == '+' ? 1 : 0;
+                max = current == '?' ? 1 : -1;
+            } else if (current == '{' && this.isCountedQuantifier()) {
+                ++this.position;
+                min = this.parseNumber();
+                max = min;
+                if (this.consume(",")) {
+                    max = this.hasMore() && this.peek() == '}' ? -1 : this.parseNumber();
+                }
+                this.next();
+            } else {
+                return atom;
+            }
+            final boolean possessive = this.hasMore() && this.peek() == '+';
+            if (possessive || (this.hasMore() && this.peek() == '?')) {
+                ++this.position;
+            }
+            if (atom.type == Term.EMPTY || atom.type == Term.END) {
+                return atom;
+            }
+
+            /* large counters are approximated: the language gets only bigger */
+            final Term repetition = new Term(Term.REPETITION);
+            repetition.children.add(atom);
+            repetition.min = Math.min(min, 4);
+            repetition.max = max < 0 || max > MAX_REPETITIONS ? -1 : Math.max(max, repetition.min);
+            if (possessive) {
+                final Term atomic = new Term(Term.ATOMIC);
+                atomic.children.add(repetition);
+                return this.parseQuantifier(atomic);
+            }
+            return repetition;
+        }
+
+        private boolean isCountedQuantifier() {
+            int index = this.position + 1;
+            final int start = index;
+            while (index < this.pattern.length() && Character.isDigit(this.pattern.charAt(index))) {
+                ++index;
+            }
+            if (index == start) {
+                return false;
+            }
+            if (index < this.pattern.length() && this.pattern.charAt(index) == ',') {
+                ++index;
+                while (index < this.pattern.length() && Character.isDigit(this.pattern.charAt(index))) {
+                    ++index;
+                }
+            }
+            return index < this.pattern.length() && this.pattern.charAt(index) == '}';
+        }
+
+        private int parseNumber() {
+            int result = 0;
+            while (this.hasMore() && Character.isDigit(this.peek())) {
+                result = Math.min(result * 10 + (this.next() - '0'), 0xFFFF);
+            }
+            return result;
+        }
+
+        @NotNull
+        private Term parseAtom() {
+            final char current = this.next();
+            switch (current) {
+                case '(':
+                    return this.parseGroup();
+                case '[':
+                    return Term.characters(this.parseClass());
+                case '.':
+                    return Term.characters((this.flags & DOT_ALL) != 0 ? CharSet.complement(new int[0]) : CharSet.complement(CharSet.newLine));
+                case '^':
+                    return Term.empty;
+                case '$':
+                    return (this.flags & MULTILINE) != 0 ? Term.empty : new Term(Term.END);
+                case '\\':
+                    return this.parseEscape();
+                case '*':
+                case '+':
+                case '?':
+                    throw GiveUp.instance;
+                default:
+                    return Term.characters(this.literal(current));
+            }
+        }
+
+        @NotNull
+        private int[] literal(int code) {
+            final int[] set = CharSet.of(code);
+            return (this.flags & CASELESS) != 0 ? CharSet.caseless(set) : set;
+        }
+
+        @NotNull
+        private Term parseGroup() {
+            final int savedFlags = this.flags;
+            Term result;
+            if (this.consume("*")) {
+                throw GiveUp.instance;
+            } else if (this.consume("?")) {
+                if (this.consume(":") || this.consume("|")) {
+                    result = this.parseAlternation();
+                } else if (this.consume(">")) {
+                    result = new Term(Term.ATOMIC);
+                    result.children.add(this.parseAlternation());
+                } else if (this.consume("=") || this.consume("!") || this.consume("<=") || this.consume("<!")) {
+                    this.parseAlternation();
+                    result = Term.empty;
+                } else if (this.consume("#")) {
+                    while (this.hasMore() && this.peek() != ')') {
+                        ++this.position;
+                    }
+                    result = Term.empty;
+                } else if (this.consume("P<") || this.consume("<") || this.consume("'")) {
+                    while (this.hasMore() && Character.isLetterOrDigit(this.peek()) || this.hasMore() && this.peek() == '_') {
+                        ++this.position;
+                    }
+                    final char closing = this.next();
+                    if (closing != '>' && closing != '\'') {
+                        throw GiveUp.instance;
+                    }
+                    result = this.parseAlternation();
+                } else {
+                    /* inline modifiers: (?i) applies till the group end, (?i:...) to the group only */
+                    boolean enable = true;
+                    while (this.hasMore() && (Character.isLetter(this.peek()) || this.peek() == '-')) {
+                        final char modifier = this.next();
+                        if (modifier == '-') {
+                            enable = false;
+                        } else if ("imsxUXJn".indexOf(modifier) == -1) {
+                            throw GiveUp.instance;
+                        } else {
+                            this.flags = enable ? this.flags | this.flag(modifier) : this.flags & ~this.flag(modifier);
+                        }
+                    }
+                    if (this.consume(")")) {
+                        return Term.empty;
+                    } else if (!this.consume(":")) {
+                        throw GiveUp.instance;
+                    }
+                    result = this.parseAlternation();
+                }
+            } else {
+                result = this.parseAlternation();
+            }
+            if (this.next() != ')') {
+                throw GiveUp.instance;
+            }
+            this.flags = savedFlags;
+            return result;
+        }
+
+        @NotNull
+        private Term parseEscape() {
+            final char current = this.next();
+            switch (current) {
+                case 'b':
+                case 'B':
+                case 'A':
+                case 'G':
+                case 'K':
+                case 'E':
+                    return Term.empty;
+                case 'z':
+                case 'Z':
+                    return new Term(Term.END);
+                case 'Q': {
+                    final int end = this.pattern.indexOf("\\E", this.position);
+                    final String quoted = this.pattern.substring(this.position, end == -1 ? this.pattern.length() : end);
+                    this.position = end == -1 ? this.pattern.length() : end + 2;
+                    final Term sequence = new Term(Term.SEQUENCE);
+                    for (final char character : quoted.toCharArray()) {
+                        sequence.children.add(Term.characters(this.literal(character)));
+                    }
+                    return sequence;
+                }
+                case 'X':
+                case 'C':
+                    return Term.characters(CharSet.complement(new int[0]));
+                case 'N':
+                    return Term.characters(CharSet.complement(CharSet.newLine));
+                case 'R':
+                    return Term.characters(CharSet.union(CharSet.vertical, new int[]{0x0B, 0x0C}));
+                default:
+                    final int[] set = this.parseCharacterEscape(current, false);
+                    return Term.characters((this.flags & CASELESS) != 0 ? CharSet.caseless(set) : set);
+            }
+        }
+
+        /* escapes valid both inside and outside of character classes */
+        @NotNull
+        private int[] parseCharacterEscape(char current, boolean inClass) {
+            switch (current) {
+                case 'd': return CharSet.digits;
+                case 'D': return CharSet.complement(CharSet.digits);
+                case 'w': return CharSet.words;
+                case 'W': return CharSet.complement(CharSet.words);
+                case 's': return CharSet.spaces;
+                case 'S': return CharSet.complement(CharSet.spaces);
+                case 'h': return CharSet.horizontal;
+                case 'H': return CharSet.complement(CharSet.horizontal);
+                case 'v': return CharSet.vertical;
+                case 'V': return CharSet.complement(CharSet.vertical);
+                case 'p':
+                case 'P': {
+                    /* unicode properties are opaque: distinct from other classes, but consistent within the pattern */
+                    String name;
+                    if (this.consume("{")) {
+                        final int end = this.pattern.indexOf('}', this.position);
+                        if (end == -1) {
+                            throw GiveUp.instance;
+                        }
+                        name          = this.pattern.substring(this.position, end);
+                        this.position = end + 1;
+                    } else {
+                        name = String.valueOf(this.next());
+                    }
+                    final boolean negated = name.startsWith("^");
+                    name                  = negated ? name.substring(1) : name;
+                    int index             = this.properties.indexOf(name);
+                    if (index == -1) {
+                        if (this.properties.size() >= 255) {
+                            throw GiveUp.instance;
+                        }
+                        index = this.properties.size();
+                        this.properties.add(name);
+                    }
+                    final int[] set = CharSet.of(CharSet.MAX_CODE_POINT + 1 + index);
+                    return negated ^ current == 'P' ? CharSet.complement(set) : set;
+                }
+                default:
+                    return CharSet.of(this.parseCodeEscape(current, inClass));
+            }
+        }
+
+        private int parseCodeEscape(char current, boolean inClass) {
+            switch (current) {
+                case 't': return '\t';
+                case 'n': return '\n';
+                case 'r': return '\r';
+                case 'f': return '\f';
+                case 'e': return 0x1B;
+                case 'a': return 0x07;
+                case 'b':
+                    if (inClass) {
+                        return 0x08;
+                    }
+                    throw GiveUp.instance;
+                case '0': {
+                    int code = 0;
+                    for (int digits = 0; digits < 2 && this.hasMore() && this.peek() >= '0' && this.peek() <= '7'; ++digits) {
+                        code = code * 8 + (this.next() - '0');
+                    }
+                    return code;
+                }
+                case 'o':
+                    return this.parseBracedCode(8);
+                case 'x': {
+                    if (this.hasMore() && this.peek() == '{') {
+                        return this.parseBracedCode(16);
+                    }
+                    int code = 0;
+                    for (int digits = 0; digits < 2 && this.hasMore() && Character.digit(this.peek(), 16) >= 0; ++digits) {
+                        code = code * 16 + Character.digit(this.next(), 16);
+                    }
+                    return code;
+                }
+                case 'c':
+                    return Character.toUpperCase(this.next()) ^ 0x40;
+                default:
+                    /* back-references, subroutine calls and unknown escapes are not supported */
+                    if (Character.isLetterOrDigit(current)) {
+                        throw GiveUp.instance;
+                    }
+                    return current;
+            }
+        }
+
+        private int parseBracedCode(int radix) {
+            if (!this.consume("{")) {
+                throw GiveUp.instance;
+            }
+            int code = 0;
+            while (this.hasMore() && this.peek() != '}') {
+                final int digit = Character.digit(this.next(), radix);
+                if (digit < 0) {
+                    throw GiveUp.instance;
+                }
+                code = Math.min(code * radix + digit, CharSet.MAX_CODE_POINT);
+            }
+            this.next();
+            return code;
+        }
+
+        @NotNull
+        private int[] parseClass() {
+            final boolean negated = this.consume("^");
+            int[] result          = new int[0];
+            boolean first         = true;
+            while (true) {
+                char current = this.next();
+                if (current == ']' && !first) {
+                    break;
+                }
+                first = false;
+
+                int[] item;
+                int code = -1;
+                if (current == '[' && this.hasMore() && this.peek() == ':') {
+                    final int end = this.pattern.indexOf(":]", this.position);
+                    if (end == -1) {
+                        throw GiveUp.instance;
+                    }
+                    final String name = this.pattern.substring(this.position + 1, end);
+                    this.position     = end + 2;
+                    item              = this.posixClass(name.startsWith("^") ? name.substring(1) : name);
+                    item              = name.startsWith("^") ? CharSet.complement(item) : item;
+                } else if (current == '\\') {
+                    final char escaped = this.next();
+                    if (escaped == 'Q' || escaped == 'E') {
+                        throw GiveUp.instance;
+                    }
+                    item = this.parseCharacterEscape(escaped, true);
+                    code = item.length == 2 && item[0] == item[1] && "dDwWsShHvVpP".indexOf(escaped) == -1 ? item[0] : -1;
+                } else {
+                    code = current;
+                    item = CharSet.of(code);
+                }
+
+                /* ranges */
+                if (code != -1 && this.position + 1 < this.pattern.length() && this.peek() == '-' && this.pattern.charAt(this.position + 1) != ']') {
+                    ++this.position;
+                    current = this.next();
+                    int to  = current;
+                    if (current == '\\') {
+                        final int[] escaped = this.parseCharacterEscape(this.next(), true);
+                        if (escaped.length != 2 || escaped[0] != escaped[1]) {
+                            throw GiveUp.instance;
+                        }
+                        to = escaped[0];
+                    } else if (current == '[') {
+                        throw GiveUp.instance;
+                    }
+                    if (to < code) {
+                        throw GiveUp.instance;
+                    }
+                    item = new int[]{code, to};
+                }
+                result = CharSet.union(result, item);
+            }
+            result = (this.flags & CASELESS) != 0 ? CharSet.caseless(result) : result;
+            return negated ? CharSet.complement(result) : result;
+        }
+
+        @NotNull
+        private int[] posixClass(@NotNull String name) {
+            switch (name) {
+                case "alpha":  return new int[]{'A', 'Z', 'a', 'z'};
+                case "digit":  return CharSet.digits;
+                case "alnum":  return new int[]{'0', '9', 'A', 'Z', 'a', 'z'};
+                case "upper":  return new int[]{'A', 'Z'};
+                case "lower":  return new int[]{'a', 'z'};
+                case "space":  return CharSet.spaces;
+                case "blank":  return new int[]{'\t', '\t', ' ', ' '};
+                case "punct":  return new int[]{'!', '/', ':', '@', '[', '`', '{', '~'};
+                case "xdigit": return new int[]{'0', '9', 'A', 'F', 'a', 'f'};
+                case "word":   return CharSet.words;
+                case "cntrl":  return new int[]{0, 0x1F, 0x7F, 0x7F};
+                case "print":  return new int[]{' ', '~'};
+                case "graph":  return new int[]{'!', '~'};
+                case "ascii":  return new int[]{0, 0x7F};
+                default:       throw GiveUp.instance;
+            }
+        }
+    }
+
+    /* Thompson automaton, built backwards from the final node */
+    private static final class Nfa {
+        private static final byte EPSILON    = 0;
+        private static final byte CHARACTERS = 1;
+        private static final byte END        = 2;
+        private static final byte FINAL      = 3;
+
+        private byte[] kinds  = new byte[64];
+        private int[] first   = new int[64];
+        private int[] second  = new int[64];
+        private int[] regions = new int[64];
+        private int[][] sets  = new int[64][];
+        private int size      = 0;
+        private int lastRegion = 0;
+        private int start;
+
+        @NotNull
+        private static Nfa compile(@NotNull Term root) {
+            final Nfa nfa = new Nfa();
+            nfa.start     = nfa.build(root, nfa.add(FINAL, -1, -1, null, 0), 0);
+            return nfa;
+        }
+
+        private int add(byte kind, int first, int second, @Nullable int[] set, int region) {
+            if (this.size == MAX_NODES) {
+                throw GiveUp.instance;
+            }
+            if (this.size == this.kinds.length) {
+                final int capacity = this.size * 2;
+                this.kinds         = Arrays.copyOf(this.kinds, capacity);
+                this.first         = Arrays.copyOf(this.first, capacity);
+                this.second        = Arrays.copyOf(this.second, capacity);
+                this.regions       = Arrays.copyOf(this.regions, capacity);
+                this.sets          = Arrays.copyOf(this.sets, capacity);
+            }
+            this.kinds[this.size]   = kind;
+            this.first[this.size]   = first;
+            this.second[this.size]  = second;
+            this.sets[this.size]    = set;
+            this.regions[this.size] = region;
+            return this.size++;
+        }
+
+        /* returns the entry node of the term, matching continues with the next node */
+        private int build(@NotNull Term term, int next, int region) {
+            switch (term.type) {
+                case Term.EMPTY:
+                    return next;
+                case Term.CHARACTERS:
+                    return this.add(CHARACTERS, next, -1, term.set, region);
+                case Term.END:
+                    return this.add(END, next, -1, null, region);
+                case Term.SEQUENCE: {
+                    int entry = next;
+                    for (int index = term.children.size() - 1; index >= 0; --index) {
+                        entry = this.build(term.children.get(index), entry, region);
+                    }
+                    return entry;
+                }
+                case Term.ALTERNATION: {
+                    int entry = this.build(term.children.get(term.children.size() - 1), next, region);
+                    for (int index = term.children.size() - 2; index >= 0; --index) {
+                        entry = this.add(EPSILON, this.build(term.children.get(index), next, region), entry, null, region);
+                    }
+                    return entry;
+                }
+                case Term.ATOMIC:
+                    /* backtracking into atomic groups is not happening: the outermost group matters */
+                    return this.build(term.children.get(0), next, region == 0 ? ++this.lastRegion : region);
+                default: {
+                    final Term body = term.children.get(0);
+                    int entry;
+                    if (term.max == -1) {
+                        /* separate entry and loop nodes: iterations of nested loops are distinct epsilon-paths */
+                        final int loop   = this.add(EPSILON, -1, next, null, region);
+                        this.first[loop] = this.build(body, loop, region);
+                        entry            = term.min > 0 ? this.first[loop] : this.add(EPSILON, this.first[loop], next, null, region);
+                        for (int copy = 1; copy < term.min; ++copy) {
+                            entry = this.build(body, entry, region);
+                        }
+                    } else {
+                        entry = next;
+                        for (int copy = term.min; copy < term.max; ++copy) {
+                            entry = this.add(EPSILON, this.build(body, entry, region), next, null, region);
+                        }
+                        for (int copy = 0; copy < term.min; ++copy) {
+                            entry = this.build(body, entry, region);
+                        }
+                    }
+                    return entry;
+                }
+            }
+        }
+    }
+
+    /* epsilon-free automaton: state 0 is initial, other states are characters nodes (entered by reading them) */
+    private static final class Automaton {
+        private final List<String> properties;
+        private final int count;
+        private final int[][] sets;
+        private final int[] regions;
+        private final int[][] successors;
+        private final boolean[][] parallel;
+        private final boolean[] acceptsNow;
+        private final boolean[] acceptsAtEnd;
+        private final boolean[][] compatible;
+        private int work = 0;
+
+        private Automaton(@NotNull Nfa nfa, @NotNull List<String> properties) {
+            this.properties = properties;
+
+            final int[] states   = new int[nfa.size];
+            final int[] nodes    = new int[nfa.size + 1];
+            int count            = 1;
+            nodes[0]             = -1;
+            for (int node = 0; node < nfa.size; ++node) {
+                if (nfa.kinds[node] == Nfa.CHARACTERS) {
+                    if (count > MAX_STATES) {
+                        throw GiveUp.instance;
+                    }
+                    states[node]   = count;
+                    nodes[count++] = node;
+                }
+            }
+            this.count        = count;
+            this.sets         = new int[count][];
+            this.regions      = new int[count];
+            this.successors   = new int[count][];
+            this.parallel     = new boolean[count][];
+            this.acceptsNow   = new boolean[count];
+            this.acceptsAtEnd = new boolean[count];
+            this.compatible   = new boolean[count][count];
+
+            final int[] paths        = new int[count];
+            final boolean[] visiting = new boolean[nfa.size];
+            for (int state = 0; state < count; ++state) {
+                final int node = nodes[state];
+                if (node != -1) {
+                    this.sets[state]    = nfa.sets[node];
+                    this.regions[state] = nfa.regions[node];
+                }
+                Arrays.fill(paths, 0);
+                final boolean[] flags = new boolean[2];
+                this.collect(nfa, node == -1 ? nfa.start : nfa.first[node], states, paths, visiting, flags, false);
+                this.acceptsNow[state]   = flags[0];
+                this.acceptsAtEnd[state] = flags[1];
+
+                final TargetsCollector targets = new TargetsCollector();
+                for (int target = 1; target < count; ++target) {
+                    if (paths[target] > 0) {
+                        /* alternative paths inside an atomic group are not explored on backtracking */
+                        final boolean atomic = this.regions[state] != 0 && this.regions[state] == this.regions[target];
+                        targets.add(target, paths[target] > 1 && !atomic);
+                    }
+                }
+                this.successors[state] = targets.targets();
+                this.parallel[state]   = targets.parallel();
+            }
+            for (int one = 1; one < count; ++one) {
+                for (int two = one; two < count; ++two) {
+                    this.compatible[one][two] = this.compatible[two][one] = CharSet.intersects(this.sets[one], this.sets[two]);
+                }
+            }
+        }
+
+        /* counts simple epsilon-paths (capped at 2) to characters nodes, detects reachable final node */
+        private void collect(
+                @NotNull Nfa nfa,
+                int node,
+                @NotNull int[] states,
+                @NotNull int[] paths,
+                @NotNull boolean[] visiting,
+                @NotNull boolean[] flags,
+                boolean afterEnd
+        ) {
+            if (node == -1 || visiting[node] || ++this.work > MAX_PATHS_WORK) {
+                if (this.work > MAX_PATHS_WORK) {
+                    throw GiveUp.instance;
+                }
+                return;
+            }
+            switch (nfa.kinds[node]) {
+                case Nfa.CHARACTERS:
+                    if (!afterEnd) {
+                        paths[states[node]] = Math.min(2, paths[states[node]] + 1);
+                    }
+                    return;
+                case Nfa.FINAL:
+                    flags[afterEnd ? 1 : 0] = true;
+                    flags[1]                = true;
+                    return;
+                case Nfa.END:
+                    visiting[node] = true;
+                    this.collect(nfa, nfa.first[node], states, paths, visiting, flags, true);
+                    visiting[node] = false;
+                    return;
+                default:
+                    visiting[node] = true;
+                    this.collect(nfa, nfa.first[node], states, paths, visiting, flags, afterEnd);
+                    this.collect(nfa, nfa.second[node], states, paths, visiting, flags, afterEnd);
+                    visiting[node] = false;
+            }
+        }
+
+        private boolean isDivergenceAllowed(int one, int two) {
+            return one == two || this.regions[one] == 0 || this.regions[one] != this.regions[two];
+        }
+
+        @Nullable
+        private Result analyze() {
+            final Result exponential = this.findExponential();
+            if (exponential != null) {
+                return exponential;
+            }
+            final Result polynomial = this.findPolynomial();
+            return polynomial == null ? none : polynomial;
+        }
+
+        /* EDA: a product automaton component containing (p, p) and (q1, q2) where q1 != q2 */
+        @Nullable
+        private Result findExponential() {
+            final int size         = this.count;
+            final int[] index      = new int[size * size];
+            final int[] lowLink    = new int[size * size];
+            final boolean[] onStack = new boolean[size * size];
+            final int[] component  = new int[size * size];
+            final TIntStack stack  = new TIntStack();
+            final TIntStack calls  = new TIntStack();
+            final TIntStack edges  = new TIntStack();
+            int counter            = 0;
+            int components         = 0;
+
+            /* iterative Tarjan's algorithm over the product automaton reachable from (0, 0) */
+            index[0]   = lowLink[0] = ++counter;
+            onStack[0] = true;
+            stack.push(0);
+            calls.push(0);
+            edges.push(0);
+            while (!calls.isEmpty()) {
+                final int pair = calls.peek();
+                final int edge = edges.pop();
+                final int next = this.nextProductEdge(pair, edge);
+                if (next != -1) {
+                    edges.push(next + 1);
+                    final int target = this.productTarget(pair, next);
+                    if (index[target] == 0) {
+                        if (counter == MAX_PRODUCT_STATES) {
+                            throw GiveUp.instance;
+                        }
+                        index[target]   = lowLink[target] = ++counter;
+                        onStack[target] = true;
+                        stack.push(target);
+                        calls.push(target);
+                        edges.push(0);
+                    } else if (onStack[target]) {
+                        lowLink[pair] = Math.min(lowLink[pair], index[target]);
+                    }
+                    continue;
+                }
+                calls.pop();
+                if (lowLink[pair] == index[pair]) {
+                    ++components;
+                    int member;
+                    do {
+                        member            = stack.pop();
+                        onStack[member]   = false;
+                        component[member] = components;
+                    } while (member != pair);
+                }
+                if (!calls.isEmpty()) {
+                    final int parent = calls.peek();
+                    lowLink[parent]  = Math.min(lowLink[parent], lowLink[pair]);
+                }
+            }
+
+            /* components with diagonal and non-diagonal states or with a parallel transition */
+            for (int state = 1; state < size; ++state) {
+                final int diagonal = state * size + state;
+                if (index[diagonal] == 0) {
+                    continue;
+                }
+                for (int pair = 0; pair < size * size; ++pair) {
+                    if (index[pair] != 0 && component[pair] == component[diagonal] && pair / size != pair % size) {
+                        final String pump = this.findProductWord(diagonal, pair, component) + this.findProductWord(pair, diagonal, component);
+                        final Result result = this.confirm(state, pump, Integer.MAX_VALUE);
+                        if (result != null) {
+                            return result;
+                        }
+                        break;
+                    }
+                }
+                final int[] targets = this.successors[state];
+                for (int position = 0; position < targets.length; ++position) {
+                    final int target = targets[position] * size + targets[position];
+                    if (this.parallel[state][position] && index[target] != 0 && component[target] == component[diagonal]) {
+                        final String pump   = this.render(this.sets[targets[position]]) + this.findProductWord(target, diagonal, component);
+                        final Result result = this.confirm(state, pump, Integer.MAX_VALUE);
+                        if (result != null) {
+                            return result;
+                        }
+                    }
+                }
+            }
+            return null;
+        }
+
+        /* product edges are enumerated as positions in successors(one) x successors(two), -1 if no more edges */
+        private int nextProductEdge(int pair, int from) {
+            final int[] one = this.successors[pair / this.count];
+            final int[] two = this.successors[pair % this.count];
+            for (int edge = from; edge < one.length * two.length; ++edge) {
+                final int first  = one[edge / two.length];
+                final int second = two[edge % two.length];
+                if (this.compatible[first][second] && this.isDivergenceAllowed(first, second)) {
+                    return edge;
+                }
+            }
+            return -1;
+        }
+
+        private int productTarget(int pair, int edge) {
+            final int[] one = this.successors[pair / this.count];
+            final int[] two = this.successors[pair % this.count];
+            return one[edge / two.length] * this.count + two[edge % two.length];
+        }
+
+        /* BFS inside the product automaton component: the word read on the way */
+        @NotNull
+        private String findProductWord(int from, int to, @NotNull int[] component) {
+            final Map<Integer, Integer> parents = new HashMap<>();
+            final Deque<Integer> queue          = new ArrayDeque<>();
+            parents.put(from, -1);
+            queue.add(from);
+            boolean found = from == to;
+            while (!queue.isEmpty() && !found) {
+                final int pair = queue.poll();
+                for (int edge = this.nextProductEdge(pair, 0); edge != -1; edge = this.nextProductEdge(pair, edge + 1)) {
+                    final int target = this.productTarget(pair, edge);
+                    if (component[target] == component[from] && !parents.containsKey(target)) {
+                        parents.put(target, pair);
+                        queue.add(target);
+                        if (target == to) {
+                            found = true;
+                            break;
+                        }
+                    }
+                }
+            }
+            final StringBuilder word = new StringBuilder();
+            for (int pair = to; found && pair != from; pair = parents.get(pair)) {
+                word.insert(0, this.render(CharSet.intersection(this.sets[pair / this.count], this.sets[pair % this.count])));
+            }
+            return word.toString();
+        }
+
+        /* IDA: p != q, words w with p -w-> p, p -w-> q, q -w-> q; the degree is the longest chain of such pairs + 1 */
+        @Nullable
+        private Result findPolynomial() {
+            final int[] component    = this.findComponents();
+            final int components     = Arrays.stream(component).max().orElse(0) + 1;
+            final boolean[] looping  = new boolean[components];
+            final boolean[][] reach  = new boolean[components][components];
+            for (int state = 0; state < this.count; ++state) {
+                for (final int target : this.successors[state]) {
+                    reach[component[state]][component[target]] = true;
+                    looping[component[state]] |= component[state] == component[target];
+                }
+            }
+            /* components are numbered in reverse topological order: transitive closure from sinks */
+            int work = 0;
+            for (int one = 0; one < components; ++one) {
+                ProgressManager.checkCanceled();
+                reach[one][one] = true;
+                for (int two = one - 1; two >= 0; --two) {
+                    if (reach[one][two]) {
+                        if ((work += components) > MAX_PAIRS_WORK) {
+                            throw GiveUp.instance;
+                        }
+                        for (int three = 0; three < components; ++three) {
+                            reach[one][three] |= reach[two][three];
+                        }
+                    }
+                }
+            }
+
+            final int[] degrees   = new int[components];
+            final Result[] chains = new Result[components];
+            Result best           = null;
+            int triples           = 0;
+            for (int one = 0; one < components; ++one) {
+                if (!looping[one]) {
+                    continue;
+                }
+                ProgressManager.checkCanceled();
+                degrees[one] = 1;
+                for (int two = 0; two < one; ++two) {
+                    if (!looping[two] || !reach[one][two] || degrees[two] + 1 <= degrees[one]) {
+                        continue;
+                    }
+                    String pump = null;
+                    int from    = -1;
+                    for (int p = 1; p < this.count && pump == null; ++p) {
+                        for (int q = 1; q < this.count && pump == null; ++q) {
+                            if (++work > MAX_PAIRS_WORK) {
+                                throw GiveUp.instance;
+                            }
+                            if (component[p] == one && component[q] == two && this.isDivergenceAllowed(p, q)) {
+                                final int[] budget = {MAX_TRIPLE_STATES - triples};
+                                pump               = this.findTripleWord(p, q, component, reach, budget);
+                                triples            = MAX_TRIPLE_STATES - budget[0];
+                                from               = p;
+                            }
+                        }
+                    }
+                    if (pump != null) {
+                        final Result result = this.confirm(from, pump, degrees[two] + 1);
+                        if (result != null) {
+                            degrees[one] = degrees[two] + 1;
+                            chains[one]  = result;
+                        }
+                    }
+                }
+                if (chains[one] != null && (best == null || best.degree < degrees[one])) {
+                    best = new Result(degrees[one], chains[one].prefix, chains[one].pump, chains[one].suffix);
+                }
+            }
+            return best;
+        }
+
+        /* BFS in the triple product from (p, p, q) to (p, q, q) */
+        @Nullable
+        private String findTripleWord(int p, int q, @NotNull int[] component, @NotNull boolean[][] reach, @NotNull int[] budget) {
+            final long start  = ((long) p * this.count + p) * this.count + q;
+            final long target = ((long) p * this.count + q) * this.count + q;
+            final Map<Long, Long> parents = new HashMap<>();
+            final Deque<Long> queue       = new ArrayDeque<>();
+            parents.put(start, -1L);
+            queue.add(start);
+            while (!queue.isEmpty()) {
+                final long triple = queue.poll();
+                final int one     = (int) (triple / this.count / this.count);
+                final int two     = (int) (triple / this.count % this.count);
+                final int three   = (int) (triple % this.count);
+                for (final int first : this.successors[one]) {
+                    if (component[first] != component[p]) {
+                        continue;
+                    }
+                    for (final int second : this.successors[two]) {
+                        if (!this.compatible[first][second] || !reach[component[second]][component[q]]) {
+                            continue;
+                        }
+                        for (final int third : this.successors[three]) {
+                            if (component[third] != component[q] || !this.compatible[first][third] || !this.compatible[second][third]) {
+                                continue;
+                            }
+                            final long next = ((long) first * this.count + second) * this.count + third;
+                            if (parents.containsKey(next) || CharSet.pick(this.common(first, second, third)) == -1) {
+                                continue;
+                            }
+                            if (--budget[0] <= 0) {
+                                throw GiveUp.instance;
+                            }
+                            parents.put(next, triple);
+                            if (next == target) {
+                                final StringBuilder word = new StringBuilder();
+                                for (long current = next; current != start; current = parents.get(current)) {
+                                    final int a = (int) (current / this.count / this.count);
+                                    final int b = (int) (current / this.count % this.count);
+                                    final int c = (int) (current % this.count);
+                                    word.insert(0, this.render(this.common(a, b, c)));
+                                }
+                                return word.toString();
+                            }
+                            queue.add(next);
+                        }
+                    }
+                }
+            }
+            return null;
+        }
+
+        @NotNull
+        private int[] common(int one, int two, int three) {
+            return CharSet.intersection(CharSet.intersection(this.sets[one], this.sets[two]), this.sets[three]);
+        }
+
+        /* automaton strongly connected components, numbered in reverse topological order */
+        @NotNull
+        private int[] findComponents() {
+            final int[] index       = new int[this.count];
+            final int[] lowLink     = new int[this.count];
+            final boolean[] onStack = new boolean[this.count];
+            final int[] component   = new int[this.count];
+            final TIntStack stack   = new TIntStack();
+            final TIntStack calls   = new TIntStack();
+            final TIntStack edges   = new TIntStack();
+            int counter             = 0;
+            int components          = 0;
+            for (int root = 0; root < this.count; ++root) {
+                if (index[root] != 0) {
+                    continue;
+                }
+                index[root]   = lowLink[root] = ++counter;
+                onStack[root] = true;
+                stack.push(root);
+                calls.push(root);
+                edges.push(0);
+                while (!calls.isEmpty()) {
+                    final int state = calls.peek();
+                    final int edge  = edges.pop();
+                    if (edge < this.successors[state].length) {
+                        edges.push(edge + 1);
+                        final int target = this.successors[state][edge];
+                        if (index[target] == 0) {
+                            index[target]   = lowLink[target] = ++counter;
+                            onStack[target] = true;
+                            stack.push(target);
+                            calls.push(target);
+                            edges.push(0);
+                        } else if (onStack[target]) {
+                            lowLink[state] = Math.min(lowLink[state], index[target]);
+                        }
+                        continue;
+                    }
+                    calls.pop();
+                    if (lowLink[state] == index[state]) {
+                        int member;
+                        do {
+                            member            = stack.pop();
+                            onStack[member]   = false;
+                            component[member] = components;
+                        } while (member != state);
+                        ++components;
+                    }
+                    if (!calls.isEmpty()) {
+                        lowLink[calls.peek()] = Math.min(lowLink[calls.peek()], lowLink[state]);
+                    }
+                }
+            }
+            return component;
+        }
+
+        /* simulates prefix + pump * N + suffix: the match must not succeed, otherwise backtracking stops early */
+        @Nullable
+        private Result confirm(int state, @NotNull String pump, int degree) {
+            if (pump.isEmpty()) {
+                return null;
+            }
+            final String prefix = this.findPrefix(state);
+            if (prefix == null) {
+                return null;
+            }
+            BitSet current = new BitSet(this.count);
+            current.set(0);
+            if (!this.isFailing(current)) {
+                return null;
+            }
+            current = this.step(current, this.decode(prefix));
+            if (current == null) {
+                return null;
+            }
+            final Set<BitSet> seen = new HashSet<>();
+            for (int pumps = 0; seen.add(current); ++pumps) {
+                if (pumps == MAX_PUMPS || (current = this.step(current, this.decode(pump))) == null) {
+                    return null;
+                }
+            }
+
+            /* BFS for a suffix leading to no match */
+            final Map<BitSet, String> suffixes = new HashMap<>();
+            final Deque<BitSet> queue          = new ArrayDeque<>();
+            suffixes.put(current, "");
+            queue.add(current);
+            while (!queue.isEmpty() && suffixes.size() < MAX_SUBSETS) {
+                final BitSet subset = queue.poll();
+                boolean accepts     = false;
+                for (int member = subset.nextSetBit(0); member >= 0 && !accepts; member = subset.nextSetBit(member + 1)) {
+                    accepts = this.acceptsAtEnd[member];
+                }
+                if (!accepts) {
+                    return new Result(degree, prefix, pump, suffixes.get(subset));
+                }
+                for (final int code : this.getAlphabet(subset)) {
+                    final BitSet next = this.step(subset, new int[]{code});
+                    if (next != null && !suffixes.containsKey(next)) {
+                        suffixes.put(next, suffixes.get(subset) + this.render(CharSet.of(code)));
+                        queue.add(next);
+                    }
+                }
+            }
+            return null;
+        }
+
+        /* the subset after reading the codes, null if the match succeeds on the way */
+        @Nullable
+        private BitSet step(@NotNull BitSet from, @NotNull int[] codes) {
+            BitSet current = from;
+            for (final int code : codes) {
+                final BitSet next = new BitSet(this.count);
+                for (int member = current.nextSetBit(0); member >= 0; member = current.nextSetBit(member + 1)) {
+                    for (final int target : this.successors[member]) {
+                        if (CharSet.contains(this.sets[target], code)) {
+                            next.set(target);
+                        }
+                    }
+                }
+                if (!this.isFailing(next)) {
+                    return null;
+                }
+                current = next;
+            }
+            return current;
+        }
+
+        private boolean isFailing(@NotNull BitSet subset) {
+            for (int member = subset.nextSetBit(0); member >= 0; member = subset.nextSetBit(member + 1)) {
+                if (this.acceptsNow[member]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /* one representative per distinct outgoing transitions behaviour, including "nothing matches" */
+        @NotNull
+        private Set<Integer> getAlphabet(@NotNull BitSet subset) {
+            int[] covered = new int[0];
+            final Set<Integer> codes = new LinkedHashSet<>();
+            for (int member = subset.nextSetBit(0); member >= 0; member = subset.nextSetBit(member + 1)) {
+                for (final int target : this.successors[member]) {
+                    codes.add(CharSet.pick(this.sets[target]));
+                    covered = CharSet.union(covered, this.sets[target]);
+                }
+            }
+            final int uncovered = CharSet.pick(CharSet.intersection(CharSet.complement(covered), new int[]{0, CharSet.MAX_CODE_POINT}));
+            if (uncovered != -1) {
+                codes.add(uncovered);
+            }
+            return codes;
+        }
+
+        /* shortest word leading from the initial state to the state */
+        @Nullable
+        private String findPrefix(int state) {
+            final int[] parents = new int[this.count];
+            Arrays.fill(parents, -1);
+            final Deque<Integer> queue = new ArrayDeque<>();
+            parents[0] = 0;
+            queue.add(0);
+            while (!queue.isEmpty() && parents[state] == -1) {
+                final int current = queue.poll();
+                for (final int target : this.successors[current]) {
+                    if (parents[target] == -1) {
+                        parents[target] = current;
+                        queue.add(target);
+                    }
+                }
+            }
+            if (parents[state] == -1) {
+                return null;
+            }
+            final StringBuilder prefix = new StringBuilder();
+            for (int current = state; current != 0; current = parents[current]) {
+                prefix.insert(0, this.render(this.sets[current]));
+            }
+            return prefix.toString();
+        }
+
+        /* representative characters are rendered with escapes for non-printable characters and properties */
+        @NotNull
+        private String render(@NotNull int[] set) {
+            final int code = CharSet.pick(set);
+            if (code > CharSet.MAX_CODE_POINT) {
+                return "\\p{" + this.properties.get(code - CharSet.MAX_CODE_POINT - 1) + '}';
+            } else if (code == '\\') {
+                return "\\\\";
+            } else if (code >= ' ' && code <= '~') {
+                return String.valueOf((char) code);
+            }
+            return String.format(code > 0xFF ? "\\x{%X}" : "\\x%02X", code);
+        }
+
+        @NotNull
+        private int[] decode(@NotNull String word) {
+            final List<Integer> codes = new ArrayList<>();
+            for (int index = 0; index < word.length(); ++index) {
+                final char current = word.charAt(index);
+                if (current == '\\' && index + 1 < word.length()) {
+                    final char escaped = word.charAt(++index);
+                    if (escaped == 'p') {
+                        final int end = word.indexOf('}', index);
+                        codes.add(CharSet.MAX_CODE_POINT + 1 + this.properties.indexOf(word.substring(index + 2, end)));
+                        index = end;
+                    } else if (escaped == 'x' && word.charAt(index + 1) == '{') {
+                        final int end = word.indexOf('}', index);
+                        codes.add(Integer.parseInt(word.substring(index + 2, end), 16));
+                        index = end;
+                    } else if (escaped == 'x') {
+                        codes.add(Integer.parseInt(word.substring(index + 1, index + 3), 16));
+                        index += 2;
+                    } else {
+                        codes.add((int) escaped);
+                    }
+                } else {
+                    codes.add((int) current);
+                }
+            }
+            return codes.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    private static final class TargetsCollector {
+        private final List<Integer> targets  = new ArrayList<>();
+        private final List<Boolean> parallel = new ArrayList<>();
+
+        private void add(int target, boolean isParallel) {
+            this.targets.add(target);
+            this.parallel.add(isParallel);
+        }
+
+        @NotNull
+        private int[] targets() {
+            return this.targets.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        @NotNull
+        private boolean[] parallel() {
+            final boolean[] result = new boolean[this.parallel.size()];
+            for (int index = 0; index < result.length; ++index) {
+                result[index] = this.parallel.get(index);
+            }
+            return result;
+        }
+    }
+
+    private static final class TIntStack {
+        private int[] values = new int[64];
+        private int size     = 0;
+
+        private void push(int value) {
+            if (this.size == this.values.length) {
+                this.values = Arrays.copyOf(this.values, this.size * 2);
+            }
+            this.values[this.size++] = value;
+        }
+
+        private int pop() {
+            return this.values[--this.size];
+        }
+
+        private int peek() {
+            return this.values[this.size - 1];
+        }
+
+        private boolean isEmpty() {
+            return this.size == 0;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.explosiveStrategy;
+
+import com.intellij.codeInspection.ProblemHighlightType;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.jetbrains.php.lang.psi.elements.StringLiteralExpression;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.ReportingUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/*
+ * Recognize ambiguous patterns, e.g. ^(a|a)+$, ^(\w+\s?)+$ or ^\d*\d*\d*$.
+ * See details here: https://www.regular-expressions.info/catastrophic.html
+ *
+ * When a string can be matched by a pattern in several ways, the engine tries all of them before failing:
+ * the number of attempts grows exponentially (or polynomially) with the string length.
+ * Quadratic patterns (e.g. .*a.*b) are too common to be reported, cubic and above are.
+ */
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+final public class BacktrackingComplexityCheckStrategy {
+    private static final String messageExponential = "Exponential backtracking on '%s' + '%s' * N + '%s' might be exploited (ReDoS, Regular Expression Denial of Service).";
+    private static final String messagePolynomial  = "Polynomial (O(n^%s)) backtracking on '%s' + '%s' * N + '%s' might be exploited (ReDoS, Regular Expression Denial of Service).";
+
+    private static final int minimalDegree = 3;
+
+    static public void apply(
+            @Nullable String modifiers,
+            @NotNull String pattern,
+            @NotNull StringLiteralExpression target,
+            @NotNull ProblemsHolder holder
+    ) {
+        if (!pattern.isEmpty()) {
+            final BacktrackingAnalyzer.Result result = BacktrackingAnalyzer.analyze(unescape(pattern, target.isSingleQuote()), modifiers);
+            if (result != null && result.isVulnerable()) {
+                if (result.isExponential()) {
+                    holder.registerProblem(
+                            target,
+                            String.format(ReportingUtil.wrapReportedMessage(messageExponential), result.getPrefix(), result.getPump(), result.getSuffix()),
+                            ProblemHighlightType.GENERIC_ERROR
+                    );
+                } else if (result.getDegree() >= minimalDegree) {
+                    holder.registerProblem(
+                            target,
+                            String.format(ReportingUtil.wrapReportedMessage(messagePolynomial), result.getDegree(), result.getPrefix(), result.getPump(), result.getSuffix()),
+                            ProblemHighlightType.GENERIC_ERROR
+                    );
+                }
+            }
+        }
+    }
+
+    /* string literal escapes, which are affecting the pattern: `\\` and quotes */
+    @NotNull
+    private static String unescape(@NotNull String pattern, boolean isSingleQuote) {
+        if (pattern.indexOf('\\') == -1) {
+            return pattern;
+        }
+        final StringBuilder result = new StringBuilder(pattern.length());
+        final String escapable     = isSingleQuote ? "\\'" : "\\\"$";
+        for (int index = 0; index < pattern.length(); ++index) {
+            final char current = pattern.charAt(index);
+            if (current == '\\' && index + 1 < pattern.length() && escapable.indexOf(pattern.charAt(index + 1)) != -1) {
+                result.append(pattern.charAt(++index));
+            } else {
+                result.append(current);
+            }
+        }
+        return result.toString();
+    }
+}
@@ -45,7 +45,8 @@ final public class QuantifierCompoundsQuantifierCheckStrategy {
         regexOuterGroup   = Pattern.compile("(^|[^>])\\(([^()]+)\\)([+*])([^+]|$)");
     }
 
-    static public void apply(@NotNull String pattern, @NotNull StringLiteralExpression target, @NotNull ProblemsHolder holder) {
+    static public boolean apply(@NotNull String pattern, @NotNull StringLiteralExpression target, @NotNull ProblemsHolder holder) {
+        boolean result = false;
         if (!pattern.isEmpty()) {
             /* get rid of un-captured groups markers */
             String normalizedPattern = pattern.replaceAll("\\(\\?:", "(");
@@ -70,11 +71,13 @@ final public class QuantifierCompoundsQuantifierCheckStrategy {
                                     String.format(ReportingUtil.wrapReportedMessage(messagePattern), candidate, matcher.group(3)),
                                     ProblemHighlightType.GENERIC_ERROR
                             );
+                            result = true;
                             break;
                         }
                     }
                 }
             }
         }
+        return result;
     }
 }
@@ -7,11 +7,12 @@ import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiElementVisitor;
 import com.jetbrains.php.lang.psi.elements.*;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
-import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiTypesUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.CurlHandlesModelUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.PhpLanguageUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.PossibleValuesDiscoveryUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.ReportingUtil;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Set;
 
@@ -48,94 +49,46 @@ public class CurlSslServerSpoofingInspector extends LocalInspectionTool {
             public void visitPhpConstantReference(@NotNull ConstantReference reference) {
                 final String constantName = reference.getName();
                 if (constantName != null && constantName.startsWith("CURLOPT_")) {
-                    final PsiElement parent  = reference.getParent();
-                    final PsiElement context = parent == null ? null : parent.getParent();
-                    if (context != null) {
-                        final boolean isTarget = constantName.equals("CURLOPT_SSL_VERIFYHOST") || constantName.equals("CURLOPT_SSL_VERIFYPEER");
-                        if (isTarget) {
-                            this.analyze(context, constantName, reference);
+                    final boolean isTarget = constantName.equals("CURLOPT_SSL_VERIFYHOST") || constantName.equals("CURLOPT_SSL_VERIFYPEER");
+                    if (isTarget) {
+                        final PsiElement target = this.getOptionTarget(reference);
+                        if (target != null) {
+                            final CurlHandlesModelUtil.Option option = CurlHandlesModelUtil.getModel(reference).getOption(target);
+                            if (option != null && option.getName().equals(constantName)) {
+                                this.analyze(option);
+                            }
                         }
                     }
                 }
             }
 
-            private void analyze(@NotNull PsiElement parent, @NotNull String constantName, @NotNull ConstantReference constant) {
-                if (parent instanceof FunctionReference) {
-                    final FunctionReference call = (FunctionReference) parent;
-                    final String functionName    = call.getName();
-                    if (functionName != null && functionName.equals("curl_setopt")) {
-                        final PsiElement[] arguments = call.getParameters();
-                        if (arguments.length == 3) {
-                            final PsiElement value = arguments[2];
-                            if (value != null) {
-                                if (constantName.equals("CURLOPT_SSL_VERIFYHOST")) {
-                                    if (this.isHostVerifyDisabled(value)) {
-                                        holder.registerProblem(
-                                                parent,
-                                                ReportingUtil.wrapReportedMessage(messageVerifyHost),
-                                                ProblemHighlightType.GENERIC_ERROR
-                                        );
-                                    }
-                                } else if (constantName.equals("CURLOPT_SSL_VERIFYPEER")) {
-                                    if (this.isPeerVerifyDisabled(value)) {
-                                        holder.registerProblem(
-                                                parent,
-                                                ReportingUtil.wrapReportedMessage(messageVerifyPeer),
-                                                ProblemHighlightType.GENERIC_ERROR
-                                        );
-                                    }
-                                }
-                            }
-                        }
-                    }
-                } else if (parent instanceof ArrayHashElement && constant == ((ArrayHashElement) parent).getKey()) {
-                    final PsiElement value = ((ArrayHashElement) parent).getValue();
-                    if (value != null) {
-                        if (constantName.equals("CURLOPT_SSL_VERIFYHOST")) {
-                            if (this.isHostVerifyDisabled(value)) {
-                                holder.registerProblem(
-                                        parent,
-                                        ReportingUtil.wrapReportedMessage(messageVerifyHost),
-                                        ProblemHighlightType.GENERIC_ERROR
-                                );
-                            }
-                        } else if (constantName.equals("CURLOPT_SSL_VERIFYPEER")) {
-                            if (this.isPeerVerifyDisabled(value)) {
-                                holder.registerProblem(
-                                        parent,
-                                        ReportingUtil.wrapReportedMessage(messageVerifyPeer),
-                                        ProblemHighlightType.GENERIC_ERROR
-                                );
-                            }
-                        }
-                    }
-                } else if (parent instanceof ArrayAccessExpression) {
-                    PsiElement context = parent;
-                    while (context instanceof ArrayAccessExpression) {
-                        context = context.getParent();
-                    }
-                    if (OpenapiTypesUtil.isAssignment(context)) {
-                        final PsiElement value = ((AssignmentExpression) context).getValue();
-                        if (value != null) {
-                            if (constantName.equals("CURLOPT_SSL_VERIFYHOST")) {
-                                if (this.isHostVerifyDisabled(value)) {
-                                    holder.registerProblem(
-                                            context,
-                                            ReportingUtil.wrapReportedMessage(messageVerifyHost),
-                                            ProblemHighlightType.GENERIC_ERROR
-                                    );
-                                }
-                            } else if (constantName.equals("CURLOPT_SSL_VERIFYPEER")) {
-                                if (this.isPeerVerifyDisabled(value)) {
-                                    holder.registerProblem(
-                                            context,
-                                            ReportingUtil.wrapReportedMessage(messageVerifyPeer),
-                                            ProblemHighlightType.GENERIC_ERROR
-                                    );
-                                }
-                            }
-                        }
+            /* the element setting the option: a curl_setopt call, an array hash element or an assignment */
+            @Nullable
+            private PsiElement getOptionTarget(@NotNull ConstantReference reference) {
+                final PsiElement parent = reference.getParent();
+                PsiElement context      = parent == null ? null : parent.getParent();
+                while (context instanceof ArrayAccessExpression) {
+                    context = context.getParent();
+                }
+                return context;
+            }
+
+            private void analyze(@NotNull CurlHandlesModelUtil.Option option) {
+                final PsiElement value = option.getValue();
+                if (option.getName().equals("CURLOPT_SSL_VERIFYHOST")) {
+                    if (this.isHostVerifyDisabled(value)) {
+                        holder.registerProblem(
+                                option.getTarget(),
+                                ReportingUtil.wrapReportedMessage(messageVerifyHost),
+                                ProblemHighlightType.GENERIC_ERROR
+                        );
                     }
+                } else if (this.isPeerVerifyDisabled(value)) {
+                    holder.registerProblem(
+                            option.getTarget(),
+                            ReportingUtil.wrapReportedMessage(messageVerifyPeer),
+                            ProblemHighlightType.GENERIC_ERROR
+                    );
                 }
             }
 
@@ -5,11 +5,15 @@ import com.intellij.codeInspection.ProblemsHolder;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiElementVisitor;
 import com.jetbrains.php.lang.psi.elements.FunctionReference;
+import com.jetbrains.php.lang.psi.elements.MethodReference;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.ReportingUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.TaintAnalysisUtil;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Set;
+
 /*
  * This file is part of the Php Inspections (EA Extended) package.
  *
@@ -20,7 +24,8 @@ import org.jetbrains.annotations.NotNull;
  */
 
 public class NonSecureParseStrUsageInspector  extends BasePhpInspection {
-    private static final String message = "Please provide second parameter to not influence globals.";
+    private static final String message       = "Please provide second parameter to not influence globals.";
+    private static final String messageCallee = "Perhaps it's possible to overwrite variables with parse_str in the called function via: %s.";
 
     @NotNull
     @Override
@@ -50,6 +55,27 @@ public class NonSecureParseStrUsageInspector  extends BasePhpInspection {
                                 ProblemHighlightType.GENERIC_ERROR
                         );
                     }
+                } else {
+                    this.inspectCallee(reference);
+                }
+            }
+
+            @Override
+            public void visitPhpMethodReference(@NotNull MethodReference reference) {
+                this.inspectCallee(reference);
+            }
+
+            /* pattern: untrusted data reaching parse_str in user-defined functions */
+            private void inspectCallee(@NotNull FunctionReference reference) {
+                if (reference.getParameters().length > 0 && !this.isTestContext(reference)) {
+                    final Set<String> sources = TaintAnalysisUtil.getSourcesReachingSink(reference, TaintAnalysisUtil.SINK_PARSE_STR);
+                    if (!sources.isEmpty()) {
+                        holder.registerProblem(
+                                reference,
+                                String.format(ReportingUtil.wrapReportedMessage(messageCallee), String.join(", ", sources)),
+                                ProblemHighlightType.GENERIC_ERROR
+                        );
+                    }
                 }
             }
         };
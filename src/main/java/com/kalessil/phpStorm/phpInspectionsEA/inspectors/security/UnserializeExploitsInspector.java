@@ -5,19 +5,17 @@ import com.intellij.codeInspection.ProblemHighlightType;
 import com.intellij.codeInspection.ProblemsHolder;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiElementVisitor;
-import com.jetbrains.php.lang.psi.elements.ArrayAccessExpression;
 import com.jetbrains.php.lang.psi.elements.ArrayCreationExpression;
 import com.jetbrains.php.lang.psi.elements.FunctionReference;
-import com.jetbrains.php.lang.psi.elements.Variable;
+import com.jetbrains.php.lang.psi.elements.MethodReference;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.PhpLanguageLevel;
-import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiTypesUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.PhpLanguageUtil;
-import com.kalessil.phpStorm.phpInspectionsEA.utils.PossibleValuesDiscoveryUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.ReportingUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.TaintAnalysisUtil;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.*;
+import java.util.Set;
 
 /*
  * This file is part of the Php Inspections (EA Extended) package.
@@ -31,20 +29,7 @@ import java.util.*;
 public class UnserializeExploitsInspector extends LocalInspectionTool {
     private static final String messageUseSecondArgument = "Please specify classes allowed for unserialization in 2nd argument.";
     private static final String messagePattern           = "Perhaps it's possible to exploit the unserialize via: %e%.";
-
-    private final static Set<String> untrustedVars      = new HashSet<>();
-    private final static Set<String> untrustedFunctions = new HashSet<>();
-    static {
-        untrustedVars.add("_GET");
-        untrustedVars.add("_POST");
-        untrustedVars.add("_REQUEST");
-        untrustedVars.add("_FILES");
-        untrustedVars.add("_COOKIE");
-
-        untrustedFunctions.add("file_get_contents");
-        untrustedFunctions.add("base64_decode");
-        untrustedFunctions.add("urldecode");
-    }
+    private static final String messageCallee            = "Perhaps it's possible to exploit the unserialize in the called function via: %e%.";
 
     @NotNull
     @Override
@@ -62,6 +47,11 @@ public class UnserializeExploitsInspector extends LocalInspectionTool {
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
         return new BasePhpElementVisitor() {
+            @Override
+            public void visitPhpMethodReference(@NotNull MethodReference reference) {
+                this.inspectCallee(reference);
+            }
+
             @Override
             public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
                 final String functionName = reference.getName();
@@ -94,53 +84,32 @@ public class UnserializeExploitsInspector extends LocalInspectionTool {
                             );
                         }
                     }
+                } else {
+                    this.inspectCallee(reference);
                 }
             }
 
             private void inspectExploits(@NotNull ProblemsHolder holder, @NotNull PsiElement argument) {
-                final Set<PsiElement> values = PossibleValuesDiscoveryUtil.discover(argument);
-                if (!values.isEmpty()) {
-                    final List<String> reporting = new ArrayList<>();
-                    for (PsiElement value : values) {
-                        if (OpenapiTypesUtil.isFunctionReference(value)) {
-                            final FunctionReference call = (FunctionReference) value;
-                            final String functionName    = call.getName();
-                            if (functionName != null && untrustedFunctions.contains(functionName)) {
-                                reporting.add(functionName + "(...)");
-                            }
-                            continue;
-                        }
-
-                        /* extract array access variable */
-                        if (value instanceof ArrayAccessExpression) {
-                            PsiElement container = value;
-                            while (container instanceof ArrayAccessExpression) {
-                                container = ((ArrayAccessExpression) container).getValue();
-                            }
-                            if (container instanceof Variable) {
-                                value = container;
-                            }
-                        }
-
-                        if (value instanceof Variable && untrustedVars.contains(((Variable) value).getName())) {
-                            reporting.add(value.getText());
-                            // continue
-                        }
-
-                        /* other expressions are not supported currently */
-                    }
-                    values.clear();
+                final Set<String> sources = TaintAnalysisUtil.getSources(argument);
+                if (!sources.isEmpty()) {
+                    holder.registerProblem(
+                            argument,
+                            ReportingUtil.wrapReportedMessage(messagePattern.replace("%e%", String.join(", ", sources))),
+                            ProblemHighlightType.GENERIC_ERROR
+                    );
+                }
+            }
 
-                    /* got something for reporting */
-                    if (!reporting.isEmpty()) {
-                        /* sort reporting list to produce testable results */
-                        Collections.sort(reporting);
+            /* pattern: untrusted data reaching unserialize in user-defined functions */
+            private void inspectCallee(@NotNull FunctionReference reference) {
+                if (reference.getParameters().length > 0 && !this.isTestContext(reference)) {
+                    final Set<String> sources = TaintAnalysisUtil.getSourcesReachingSink(reference, TaintAnalysisUtil.SINK_UNSERIALIZE);
+                    if (!sources.isEmpty()) {
                         holder.registerProblem(
-                                argument,
-                                ReportingUtil.wrapReportedMessage(messagePattern.replace("%e%", String.join(", ", reporting))),
+                                reference,
+                                ReportingUtil.wrapReportedMessage(messageCallee.replace("%e%", String.join(", ", sources))),
                                 ProblemHighlightType.GENERIC_ERROR
                         );
-                        reporting.clear();
                     }
                 }
             }
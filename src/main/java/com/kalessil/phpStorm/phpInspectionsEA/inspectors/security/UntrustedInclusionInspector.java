@@ -1,15 +1,21 @@
 package com.kalessil.phpStorm.phpInspectionsEA.inspectors.security;
 
+import com.intellij.codeInspection.ProblemHighlightType;
 import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiElementVisitor;
+import com.jetbrains.php.lang.psi.elements.FunctionReference;
 import com.jetbrains.php.lang.psi.elements.Include;
+import com.jetbrains.php.lang.psi.elements.MethodReference;
 import com.jetbrains.php.lang.psi.elements.StringLiteralExpression;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.ExpressionSemanticUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.ReportingUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.TaintAnalysisUtil;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Set;
 import java.util.regex.Pattern;
 
 /*
@@ -22,7 +28,9 @@ import java.util.regex.Pattern;
  */
 
 public class UntrustedInclusionInspector extends BasePhpInspection {
-    private static final String message = "This relies on include_path and not guaranteed to load the right file. Concatenate with __DIR__ or use namespaces + class loading instead.";
+    private static final String message        = "This relies on include_path and not guaranteed to load the right file. Concatenate with __DIR__ or use namespaces + class loading instead.";
+    private static final String messageTainted = "Perhaps it's possible to include an arbitrary file via: %s.";
+    private static final String messageCallee  = "Perhaps it's possible to include an arbitrary file in the called function via: %s.";
 
     final static private Pattern absolutePathPattern;
     static {
@@ -48,7 +56,8 @@ public class UntrustedInclusionInspector extends BasePhpInspection {
         return new BasePhpElementVisitor() {
             @Override
             public void visitPhpInclude(@NotNull Include include) {
-                final StringLiteralExpression file = ExpressionSemanticUtil.resolveAsStringLiteral(include.getArgument());
+                final PsiElement argument          = include.getArgument();
+                final StringLiteralExpression file = ExpressionSemanticUtil.resolveAsStringLiteral(argument);
                 if (file != null) {
                     final String path = file.getContents();
                     if (!path.isEmpty() && !absolutePathPattern.matcher(path).matches()) {
@@ -57,6 +66,39 @@ public class UntrustedInclusionInspector extends BasePhpInspection {
                                 ReportingUtil.wrapReportedMessage(message)
                         );
                     }
+                } else if (argument != null) {
+                    final Set<String> sources = TaintAnalysisUtil.getSources(argument);
+                    if (!sources.isEmpty()) {
+                        holder.registerProblem(
+                                include,
+                                String.format(ReportingUtil.wrapReportedMessage(messageTainted), String.join(", ", sources)),
+                                ProblemHighlightType.GENERIC_ERROR
+                        );
+                    }
+                }
+            }
+
+            @Override
+            public void visitPhpMethodReference(@NotNull MethodReference reference) {
+                this.inspectCallee(reference);
+            }
+
+            @Override
+            public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
+                this.inspectCallee(reference);
+            }
+
+            /* pattern: untrusted data reaching inclusion in user-defined functions */
+            private void inspectCallee(@NotNull FunctionReference reference) {
+                if (reference.getParameters().length > 0) {
+                    final Set<String> sources = TaintAnalysisUtil.getSourcesReachingSink(reference, TaintAnalysisUtil.SINK_INCLUDE);
+                    if (!sources.isEmpty()) {
+                        holder.registerProblem(
+                                reference,
+                                String.format(ReportingUtil.wrapReportedMessage(messageCallee), String.join(", ", sources)),
+                                ProblemHighlightType.GENERIC_ERROR
+                        );
+                    }
                 }
             }
         };
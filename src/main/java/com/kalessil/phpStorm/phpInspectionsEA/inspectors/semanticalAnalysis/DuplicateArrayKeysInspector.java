@@ -5,18 +5,13 @@ import com.intellij.codeInspection.ProblemsHolder;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiElementVisitor;
 import com.jetbrains.php.lang.psi.elements.ArrayCreationExpression;
-import com.jetbrains.php.lang.psi.elements.ArrayHashElement;
-import com.jetbrains.php.lang.psi.elements.PhpPsiElement;
-import com.jetbrains.php.lang.psi.elements.StringLiteralExpression;
 import com.jetbrains.php.lang.psi.visitors.PhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.ArrayLiteralSummaryUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiEquivalenceUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.ReportingUtil;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /*
  * This file is part of the Php Inspections (EA Extended) package.
  *
@@ -47,34 +42,27 @@ public class DuplicateArrayKeysInspector extends BasePhpInspection {
         return new PhpElementVisitor() {
             @Override
             public void visitPhpArrayCreationExpression(@NotNull ArrayCreationExpression expression) {
-                final Map<String, PsiElement> processed = new HashMap<>();
-                for (final ArrayHashElement pair : expression.getHashElements()) {
-                    final PhpPsiElement key = pair.getKey();
-                    if (key instanceof StringLiteralExpression && key.getFirstPsiChild() == null) {
-                        final PsiElement value = pair.getValue();
-                        if (value != null) {
-                            final String literal = ((StringLiteralExpression) key).getContents();
-                            if (processed.containsKey(literal)) {
-                                final boolean isPairDuplicated = !(value instanceof ArrayCreationExpression) &&
-                                                                 OpenapiEquivalenceUtil.areEqual(value, processed.get(literal));
-                                if (isPairDuplicated) {
-                                    holder.registerProblem(
-                                            pair,
-                                            ReportingUtil.wrapReportedMessage(messageDuplicatePair),
-                                            ProblemHighlightType.LIKE_UNUSED_SYMBOL
-                                    );
-                                } else {
-                                    holder.registerProblem(
-                                            key,
-                                            ReportingUtil.wrapReportedMessage(messageDuplicateKey)
-                                    );
-                                }
-                            }
-                            processed.put(literal, value);
+                final ArrayLiteralSummaryUtil.Summary summary = ArrayLiteralSummaryUtil.getSummary(expression);
+                for (int position = 0; position < summary.size(); ++position) {
+                    final int duplicate = summary.getDuplicatedKeyPosition(position);
+                    if (duplicate >= 0) {
+                        final PsiElement value         = summary.getValue(position);
+                        final boolean isPairDuplicated = !(value instanceof ArrayCreationExpression) &&
+                                                         OpenapiEquivalenceUtil.areEqual(value, summary.getValue(duplicate));
+                        if (isPairDuplicated) {
+                            holder.registerProblem(
+                                    summary.getEntry(position),
+                                    ReportingUtil.wrapReportedMessage(messageDuplicatePair),
+                                    ProblemHighlightType.LIKE_UNUSED_SYMBOL
+                            );
+                        } else {
+                            holder.registerProblem(
+                                    summary.getKey(position),
+                                    ReportingUtil.wrapReportedMessage(messageDuplicateKey)
+                            );
                         }
                     }
                 }
-                processed.clear();
             }
         };
     }
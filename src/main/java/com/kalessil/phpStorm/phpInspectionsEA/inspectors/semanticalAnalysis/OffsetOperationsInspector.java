@@ -12,6 +12,7 @@ import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiResolveUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.ReportingUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.Types;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.hierarhy.ClassCapabilitiesUtil;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Arrays;
@@ -165,17 +166,19 @@ public class OffsetOperationsInspector extends BasePhpInspection {
             // now we are at point when analyzing classes only
             final List<PhpClass> classes = OpenapiResolveUtil.resolveClassesAndInterfacesByFQN(typeToCheck, index);
             for (final PhpClass clazz : classes) {
+                final int capabilities = ClassCapabilitiesUtil.getCapabilities(clazz);
+                /* magic properties: regular array index types can be applied */
+                if ((capabilities & (ClassCapabilitiesUtil.GET | ClassCapabilitiesUtil.SET)) != 0) {
+                    indexTypesSupported.add(Types.strString);
+                    indexTypesSupported.add(Types.strInteger);
+                    supportsOffsets = true;
+                }
                 /* custom offsets management, follow annotated types */
-                for (final String methodName : Arrays.asList("offsetGet", "offsetSet", "__get", "__set")) {
-                    final Method method = OpenapiResolveUtil.resolveMethod(clazz, methodName);
-                    if (method != null) {
-                        /* regular array index types can be applied */
-                        if (methodName.startsWith("__")) {
-                            indexTypesSupported.add(Types.strString);
-                            indexTypesSupported.add(Types.strInteger);
-                        }
-                        /* user-defined index types can be applied */
-                        else {
+                if ((capabilities & (ClassCapabilitiesUtil.OFFSET_GET | ClassCapabilitiesUtil.OFFSET_SET)) != 0) {
+                    for (final String methodName : Arrays.asList("offsetGet", "offsetSet")) {
+                        final Method method = OpenapiResolveUtil.resolveMethod(clazz, methodName);
+                        if (method != null) {
+                            /* user-defined index types can be applied */
                             final Parameter[] parameters = method.getParameters();
                             if (parameters.length > 0) {
                                 final PhpType type = OpenapiResolveUtil.resolveType(parameters[0], project);
@@ -183,8 +186,8 @@ public class OffsetOperationsInspector extends BasePhpInspection {
                                     type.filterUnknown().getTypes().forEach(t -> indexTypesSupported.add(Types.getType(t)));
                                 }
                             }
+                            supportsOffsets = true;
                         }
-                        supportsOffsets = true;
                     }
                 }
             }
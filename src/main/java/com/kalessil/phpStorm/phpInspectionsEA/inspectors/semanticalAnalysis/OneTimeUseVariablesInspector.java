@@ -61,6 +61,11 @@ public class OneTimeUseVariablesInspector extends BasePhpInspection {
         return "One-time use variables";
     }
 
+    @Override
+    protected boolean isFunctionLocal() {
+        return true;
+    }
+
     @Override
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
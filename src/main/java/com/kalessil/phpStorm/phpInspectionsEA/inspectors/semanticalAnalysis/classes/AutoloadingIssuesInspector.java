@@ -1,20 +1,21 @@
 package com.kalessil.phpStorm.phpInspectionsEA.inspectors.semanticalAnalysis.classes;
 
 import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiElementVisitor;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.indexing.FileBasedIndex;
 import com.jetbrains.php.lang.psi.PhpFile;
 import com.jetbrains.php.lang.psi.elements.PhpClass;
+import com.kalessil.phpStorm.phpInspectionsEA.indexers.ComposerAutoloadIndexer;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.NamedElementUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.ReportingUtil;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.HashSet;
-import java.util.List;
+import java.util.*;
 import java.util.regex.Pattern;
 
 /*
@@ -27,7 +28,8 @@ import java.util.regex.Pattern;
  */
 
 public class AutoloadingIssuesInspector extends BasePhpInspection {
-    private static final String message = "Class autoloading might be broken: file and class names are not identical.";
+    private static final String message          = "Class autoloading might be broken: file and class names are not identical.";
+    private static final String messageNamespace = "Class autoloading might be broken: according to composer.json autoload settings, the class should be '%s'.";
 
     final static private Pattern laravelMigration        = Pattern.compile("\\d{4}_\\d{2}_\\d{2}_\\d{6}_.+\\.php");
     private static final Collection<String> ignoredFiles = new HashSet<>();
@@ -77,11 +79,58 @@ public class AutoloadingIssuesInspector extends BasePhpInspection {
                                         ReportingUtil.wrapReportedMessage(message)
                                 );
                             }
+                        } else {
+                            /* check the namespace as per composer.json autoload settings */
+                            final List<String> expectedFqns = this.getExpectedFqns(file, clazz);
+                            if (!expectedFqns.isEmpty() && !expectedFqns.contains(clazz.getFQN())) {
+                                final PsiElement classNameNode = NamedElementUtil.getNameIdentifier(clazz);
+                                if (classNameNode != null) {
+                                    holder.registerProblem(
+                                            classNameNode,
+                                            String.format(ReportingUtil.wrapReportedMessage(messageNamespace), expectedFqns.get(0))
+                                    );
+                                }
+                            }
+                            expectedFqns.clear();
                         }
                     }
                     classes.clear();
                 }
             }
+
+            @NotNull
+            private List<String> getExpectedFqns(@NotNull PhpFile file, @NotNull PhpClass clazz) {
+                final List<String> result     = new ArrayList<>();
+                final VirtualFile virtualFile = file.getVirtualFile();
+                if (virtualFile != null) {
+                    final FileBasedIndex index          = FileBasedIndex.getInstance();
+                    final GlobalSearchScope scope       = GlobalSearchScope.allScope(holder.getProject());
+                    final LinkedList<String> namespaces = new LinkedList<>();
+                    /* find the closest autoloaded directory, collecting namespace parts on the way */
+                    VirtualFile directory = virtualFile.getParent();
+                    while (directory != null && result.isEmpty()) {
+                        for (final String mappings : index.getValues(ComposerAutoloadIndexer.identity, directory.getPath(), scope)) {
+                            for (final String mapping : mappings.split(";")) {
+                                final String[] parts = mapping.split(":", 2);
+                                if (parts[0].equals("classmap")) {
+                                    /* class maps are generated from the sources, any naming is fine */
+                                    result.clear();
+                                    return result;
+                                } else if (parts[0].equals("psr-4")) {
+                                    final String prefix = parts[1].isEmpty() || parts[1].endsWith("\\") ? parts[1] : parts[1] + '\\';
+                                    result.add('\\' + prefix + String.join("\\", namespaces) + (namespaces.isEmpty() ? "" : "\\") + clazz.getName());
+                                } else if (parts[0].equals("psr-0") && !namespaces.isEmpty() && clazz.getFQN().lastIndexOf('\\') > 0) {
+                                    result.add('\\' + String.join("\\", namespaces) + '\\' + clazz.getName());
+                                }
+                            }
+                        }
+                        namespaces.addFirst(directory.getName());
+                        directory = directory.getParent();
+                    }
+                    namespaces.clear();
+                }
+                return result;
+            }
         };
     }
 }
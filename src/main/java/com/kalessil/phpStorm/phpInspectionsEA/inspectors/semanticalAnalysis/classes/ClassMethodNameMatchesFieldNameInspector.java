@@ -13,6 +13,7 @@ import com.kalessil.phpStorm.phpInspectionsEA.utils.NamedElementUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiResolveUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.ReportingUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.Types;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.hierarhy.ClassMembersUsageUtil;
 import org.jetbrains.annotations.NotNull;
 
 /*
@@ -47,7 +48,7 @@ public class ClassMethodNameMatchesFieldNameInspector extends BasePhpInspection
             @Override
             public void visitPhpMethod(@NotNull Method method) {
                 final PhpClass clazz = method.getContainingClass();
-                if (clazz != null && !clazz.isInterface()) {
+                if (clazz != null && !clazz.isInterface() && ClassMembersUsageUtil.hasField(clazz, method.getName())) {
                     final Field field = OpenapiResolveUtil.resolveField(clazz, method.getName());
                     if (field != null) {
                         final PsiElement nameNode  = NamedElementUtil.getNameIdentifier(method);
@@ -15,6 +15,7 @@ import com.kalessil.phpStorm.phpInspectionsEA.utils.ExpressionSemanticUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.NamedElementUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiResolveUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.ReportingUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.hierarhy.ClassMembersUsageUtil;
 import org.jetbrains.annotations.NotNull;
 
 import javax.swing.*;
@@ -78,7 +79,9 @@ public class ClassOverridesFieldOfSuperClassInspector extends BasePhpInspection
 
                 final PhpClass parent     = OpenapiResolveUtil.resolveSuperClass(clazz);
                 final String ownFieldName = ownField.getName();
-                final Field parentField   = parent == null ? null : OpenapiResolveUtil.resolveField(parent, ownFieldName);
+                final Field parentField   = parent == null || !ClassMembersUsageUtil.hasField(parent, ownFieldName)
+                        ? null
+                        : OpenapiResolveUtil.resolveField(parent, ownFieldName);
                 if (parentField != null) {
                     final PhpClass parentFieldHolder = parentField.getContainingClass();
                     final PsiElement fieldNameNode   = NamedElementUtil.getNameIdentifier(ownField);
@@ -3,7 +3,13 @@ package com.kalessil.phpStorm.phpInspectionsEA.inspectors.semanticalAnalysis.cla
 import com.intellij.codeInspection.ProblemHighlightType;
 import com.intellij.codeInspection.ProblemsHolder;
 import com.intellij.psi.PsiElement;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
 import com.intellij.psi.PsiElementVisitor;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
 import com.jetbrains.php.lang.psi.elements.PhpClass;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
@@ -15,7 +21,9 @@ import org.jetbrains.annotations.NotNull;
 
 import javax.swing.*;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class LongInheritanceChainInspector extends BasePhpInspection {
     private static final String messagePattern = "Class has %c% parent classes, consider using appropriate design patterns.";
@@ -23,6 +31,8 @@ public class LongInheritanceChainInspector extends BasePhpInspection {
     // Inspection options.
     public int COMPLAIN_THRESHOLD = 3;
 
+    private static final Key<CachedValue<Map<String, Integer>>> CHAINS = Key.create("EA.LongInheritanceChain.CHAINS");
+
     private static final Set<String> showStoppers = new HashSet<>();
     static {
         /* for future people: controller classes must not appear here - deal with your debts! */
@@ -70,30 +80,23 @@ public class LongInheritanceChainInspector extends BasePhpInspection {
                     return;
                 }
 
-                PhpClass classToCheck = clazz;
-                PhpClass parent       = OpenapiResolveUtil.resolveSuperClass(classToCheck);
+                final PhpClass parent = OpenapiResolveUtil.resolveSuperClass(clazz);
                 /* false-positives: abstract class implementation */
-                if (null != parent && !classToCheck.isAbstract() && parent.isAbstract()) {
+                if (null != parent && !clazz.isAbstract() && parent.isAbstract()) {
                     return;
                 }
 
                 int parentsCount = 0;
                 /* in source code class CAN extend itself, PS will report it but data structure is incorrect still */
-                while (null != parent && clazz != parent) {
-                    classToCheck = parent;
-                    parent       = OpenapiResolveUtil.resolveSuperClass(classToCheck);
-                    ++parentsCount;
-
-                    if (null != parent) {
-                        /* show-stoppers: frameworks god classes */
-                        if (showStoppers.contains(parent.getFQN())) {
-                            ++parentsCount;
-                            break;
-                        }
-                        /* exceptions named according to DDD, check parents named with exception suffix */
-                        if (parent.getName().endsWith("Exception")) {
-                            return;
-                        }
+                if (null != parent && clazz != parent) {
+                    final Set<PhpClass> processed = new HashSet<>();
+                    processed.add(clazz);
+                    processed.add(parent);
+                    parentsCount = getChainLength(parent, processed);
+                    processed.clear();
+                    /* exceptions named according to DDD, check parents named with exception suffix */
+                    if (parentsCount < 0) {
+                        return;
                     }
                 }
 
@@ -108,6 +111,40 @@ public class LongInheritanceChainInspector extends BasePhpInspection {
         };
     }
 
+    /* chain length starting from the given class (including it), or -1 if there are exceptions in the chain */
+    private static int getChainLength(@NotNull PhpClass clazz, @NotNull Set<PhpClass> processed) {
+        final Project project             = clazz.getProject();
+        final Map<String, Integer> chains = CachedValuesManager.getManager(project).getCachedValue(
+                project,
+                CHAINS,
+                () -> CachedValueProvider.Result.create(
+                        new ConcurrentHashMap<String, Integer>(),
+                        PsiModificationTracker.OUT_OF_CODE_BLOCK_MODIFICATION_COUNT
+                ),
+                false
+        );
+
+        final String fqn = clazz.getFQN();
+        Integer result   = chains.get(fqn);
+        if (result == null) {
+            int length            = 1;
+            final PhpClass parent = OpenapiResolveUtil.resolveSuperClass(clazz);
+            if (null != parent && processed.add(parent)) {
+                if (showStoppers.contains(parent.getFQN())) {
+                    /* show-stoppers: frameworks god classes */
+                    length = 2;
+                } else if (parent.getName().endsWith("Exception")) {
+                    length = -1;
+                } else {
+                    final int parentLength = getChainLength(parent, processed);
+                    length                 = parentLength < 0 ? -1 : 1 + parentLength;
+                }
+            }
+            chains.put(fqn, result = length);
+        }
+        return result;
+    }
+
     public JComponent createOptionsPanel() {
         return OptionsComponent.create(component ->
                 component.addSpinner("Complain threshold:", COMPLAIN_THRESHOLD, (input) -> COMPLAIN_THRESHOLD = input)
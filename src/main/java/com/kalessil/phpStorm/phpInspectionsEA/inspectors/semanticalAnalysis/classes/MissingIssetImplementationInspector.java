@@ -12,6 +12,7 @@ import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiResolveUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.ReportingUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.Types;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.hierarhy.ClassCapabilitiesUtil;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Collection;
@@ -99,7 +100,7 @@ public class MissingIssetImplementationInspector extends BasePhpInspection {
                                 /* resolved class FQN might differ from what type states */
                                 if (clazz != null && !magicClasses.contains(clazz.getFQN())) {
                                     final boolean hasField = OpenapiResolveUtil.resolveField(clazz, parameterName) != null;
-                                    if (!hasField && OpenapiResolveUtil.resolveMethod(clazz, "__isset") == null) {
+                                    if (!hasField && !ClassCapabilitiesUtil.has(clazz, ClassCapabilitiesUtil.ISSET)) {
                                         holder.registerProblem(
                                                 parameter,
                                                 ReportingUtil.wrapReportedMessage(messagePattern.replace("%c%", type)),
@@ -8,6 +8,7 @@ import com.jetbrains.php.lang.psi.elements.*;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.PhpLanguageLevel;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.ArrayLiteralSummaryUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.NamedElementUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiResolveUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.ReportingUtil;
@@ -54,14 +55,10 @@ public class PropertyCanBeStaticInspector extends BasePhpInspection {
                             if (clazz != null) {
                                 final PhpClass parent = OpenapiResolveUtil.resolveSuperClass(clazz);
                                 if (parent == null || OpenapiResolveUtil.resolveField(parent, field.getName()) == null) {
-                                    int intArrayOrStringCount = 0;
-                                    for (final PsiElement entry : defaultValue.getChildren()) {
-                                        PhpPsiElement item = null;
-                                        if (entry instanceof ArrayHashElement) {
-                                            item = ((ArrayHashElement) entry).getValue();
-                                        } else if (entry instanceof PhpPsiElement){
-                                            item = ((PhpPsiElement) entry).getFirstPsiChild();
-                                        }
+                                    final ArrayLiteralSummaryUtil.Summary summary = ArrayLiteralSummaryUtil.getSummary((ArrayCreationExpression) defaultValue);
+                                    int intArrayOrStringCount                     = 0;
+                                    for (int position = 0; position < summary.size(); ++position) {
+                                        final PhpPsiElement item = summary.getValue(position);
                                         if (item instanceof ArrayCreationExpression || item instanceof StringLiteralExpression) {
                                             if (++intArrayOrStringCount == 3 && !this.isSuppressed(field)) {
                                                 final boolean canUseConstants = PhpLanguageLevel.get(holder.getProject()).atLeast(PhpLanguageLevel.PHP560);
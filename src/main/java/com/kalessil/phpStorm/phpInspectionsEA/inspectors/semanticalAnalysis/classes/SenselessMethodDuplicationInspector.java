@@ -6,12 +6,15 @@ import com.intellij.codeInspection.ProblemsHolder;
 import com.intellij.openapi.project.Project;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiElementVisitor;
+import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.indexing.FileBasedIndex;
 import com.jetbrains.php.lang.documentation.phpdoc.psi.PhpDocComment;
 import com.jetbrains.php.lang.psi.PhpPsiElementFactory;
 import com.jetbrains.php.lang.psi.elements.*;
 import com.jetbrains.php.lang.psi.resolve.types.PhpType;
 import com.kalessil.phpStorm.phpInspectionsEA.fixers.DropMethodFix;
+import com.kalessil.phpStorm.phpInspectionsEA.indexers.MethodFingerprintIndexer;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.*;
@@ -80,6 +83,10 @@ public class SenselessMethodDuplicationInspector extends BasePhpInspection {
                 if (parentBody == null || ExpressionSemanticUtil.countExpressionsInGroup(parentBody) != countExpressions) {
                     return;
                 }
+                /* structural fingerprints must match before we compare the bodies */
+                if (!this.hasSameFingerprint(body, parentMethod)) {
+                    return;
+                }
 
                 /* iterate and compare expressions */
                 PhpPsiElement ownExpression    = body.getFirstPsiChild();
@@ -132,6 +139,18 @@ public class SenselessMethodDuplicationInspector extends BasePhpInspection {
                 }
             }
 
+            private boolean hasSameFingerprint(@NotNull GroupStatement body, @NotNull Method parentMethod) {
+                final String parentFqn      = parentMethod.getFQN();
+                final List<String> matching = FileBasedIndex.getInstance().getValues(
+                        MethodFingerprintIndexer.identity,
+                        StructuralFingerprintUtil.getCachedHash(body),
+                        GlobalSearchScope.allScope(holder.getProject())
+                );
+                final boolean result = matching.stream().anyMatch(fqns -> Arrays.asList(fqns.split(";")).contains(parentFqn));
+                matching.clear();
+                return result;
+            }
+
             private Collection<String> getUsedReferences(@NotNull GroupStatement body) {
                 final Set<String> fqns = new HashSet<>();
                 for (final PhpReference reference : PsiTreeUtil.findChildrenOfAnyType(body, ClassReference.class, ConstantReference.class, FunctionReference.class)) {
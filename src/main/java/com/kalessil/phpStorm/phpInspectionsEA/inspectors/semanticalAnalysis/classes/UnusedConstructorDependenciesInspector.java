@@ -12,6 +12,7 @@ import com.kalessil.phpStorm.phpInspectionsEA.utils.ExpressionSemanticUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiResolveUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiTypesUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.ReportingUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.hierarhy.ClassMembersUsageUtil;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.*;
@@ -62,57 +63,26 @@ public class UnusedConstructorDependenciesInspector extends BasePhpInspection {
             }
 
             @NotNull
-            private Map<String, List<FieldReference>> getFieldReferences(@NotNull Method method, @NotNull Map<String, Field> privateFields) {
-                final Map<String, List<FieldReference>> filteredReferences = new HashMap<>();
-                if (!method.isAbstract()) {
-                    final Collection<FieldReference> references = PsiTreeUtil.findChildrenOfType(method, FieldReference.class);
-                    for (final FieldReference ref : references) {
-                        final String fieldName = ref.getName();
-                        if (fieldName != null && privateFields.containsKey(fieldName)) {
-                            final PsiElement resolved = OpenapiResolveUtil.resolveReference(ref);
-                            if (resolved instanceof Field && privateFields.containsValue(resolved)) {
-                                filteredReferences.computeIfAbsent(fieldName, k -> new ArrayList<>()).add(ref);
-                            }
-                        }
-                    }
-                    references.clear();
-                }
-                return filteredReferences;
-            }
-
-            @NotNull
-            private Map<String, List<FieldReference>> getMethodsFieldReferences(
-                    @NotNull PhpClass clazz,
+            private Map<String, List<FieldReference>> getFieldReferences(
+                    @NotNull ClassMembersUsageUtil.Summary summary,
+                    @NotNull Map<String, Field> privateFields,
                     @NotNull Method constructor,
-                    @NotNull Map<String, Field> privateFields
+                    boolean inConstructor
             ) {
                 final Map<String, List<FieldReference>> filteredReferences = new HashMap<>();
-
-                /* collect methods to inspect, incl. once from traits */
-                final List<Method> methodsToCheck = new ArrayList<>();
-                Collections.addAll(methodsToCheck, clazz.getOwnMethods());
-                for (final PhpClass trait : clazz.getTraits()) {
-                    Collections.addAll(methodsToCheck, trait.getOwnMethods());
-                }
-
-                /* find references */
-                for (final Method method : methodsToCheck) {
-                    if (method == constructor) {
-                        continue;
-                    }
-
-                    final Map<String, List<FieldReference>> innerReferences = getFieldReferences(method, privateFields);
-                    if (!innerReferences.isEmpty()) {
-                        /* merge method's scan results into common container */
-                        innerReferences.forEach((fieldName, references) -> {
-                            filteredReferences.computeIfAbsent(fieldName, name -> new ArrayList<>()).addAll(references);
-                            references.clear();
-                        });
-                        innerReferences.clear();
-                    }
-                }
-                methodsToCheck.clear();
-
+                /* the summary covers own and traits methods, references are grouped by the containing method */
+                privateFields.forEach((fieldName, field) ->
+                    summary.getFieldReferences(fieldName).forEach((method, references) -> {
+                        if ((method == constructor) == inConstructor) {
+                            for (final FieldReference ref : references) {
+                                final PsiElement resolved = OpenapiResolveUtil.resolveReference(ref);
+                                if (resolved instanceof Field && privateFields.containsValue(resolved)) {
+                                    filteredReferences.computeIfAbsent(fieldName, k -> new ArrayList<>()).add(ref);
+                                }
+                            }
+                        }
+                    })
+                );
                 return filteredReferences;
             }
 
@@ -139,10 +109,11 @@ public class UnusedConstructorDependenciesInspector extends BasePhpInspection {
                 }
 
                 /* === intensive part : extract references === */
-                final Map<String, List<FieldReference>> constructorsReferences = getFieldReferences(constructor, clazzPrivateFields);
+                final ClassMembersUsageUtil.Summary summary                    = ClassMembersUsageUtil.getSummary(clazz);
+                final Map<String, List<FieldReference>> constructorsReferences = getFieldReferences(summary, clazzPrivateFields, constructor, true);
                 if (!constructorsReferences.isEmpty()) {
                     /* constructor's references being identified */
-                    final Map<String, List<FieldReference>> otherReferences = getMethodsFieldReferences(clazz, constructor, clazzPrivateFields);
+                    final Map<String, List<FieldReference>> otherReferences = getFieldReferences(summary, clazzPrivateFields, constructor, false);
                     /* methods's references being identified, time to re-visit constructor's references */
                     constructorsReferences.forEach((fieldName, references) -> {
                         /* field is not used, report in constructor, IDE detects unused fields */
@@ -152,10 +123,8 @@ public class UnusedConstructorDependenciesInspector extends BasePhpInspection {
                                 this.doReport(holder, references);
                             }
                         }
-                        references.clear();
                     });
                     /* release references found in the methods */
-                    otherReferences.values().forEach(List::clear);
                     otherReferences.clear();
                     /* release references found in the constructor */
                     constructorsReferences.clear();
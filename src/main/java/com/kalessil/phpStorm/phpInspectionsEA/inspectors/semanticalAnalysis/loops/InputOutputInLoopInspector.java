@@ -0,0 +1,108 @@
+package com.kalessil.phpStorm.phpInspectionsEA.inspectors.semanticalAnalysis.loops;
+
+import com.intellij.codeInspection.ProblemHighlightType;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiElementVisitor;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.jetbrains.php.lang.psi.PhpFile;
+import com.jetbrains.php.lang.psi.elements.*;
+import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
+import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.InputOutputAnalysisUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiTypesUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.ReportingUtil;
+import org.jetbrains.annotations.NotNull;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+public class InputOutputInLoopInspector extends BasePhpInspection {
+    private static final String messageDirect   = "'%s(...)' is performing I/O in a loop (nesting depth %s), consider batching the operations (N+1 problem).";
+    private static final String messageIndirect = "'%s(...)' is performing I/O ('%s(...)') in a loop (nesting depth %s), consider batching the operations (N+1 problem).";
+
+    @NotNull
+    @Override
+    public String getShortName() {
+        return "InputOutputInLoopInspection";
+    }
+
+    @NotNull
+    @Override
+    public String getDisplayName() {
+        return "I/O operations in loop";
+    }
+
+    @Override
+    @NotNull
+    public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
+        return new BasePhpElementVisitor() {
+            @Override
+            public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
+                this.analyze(reference);
+            }
+
+            @Override
+            public void visitPhpMethodReference(@NotNull MethodReference reference) {
+                this.analyze(reference);
+            }
+
+            private void analyze(@NotNull FunctionReference reference) {
+                final String functionName = reference.getName();
+                if (functionName != null && !functionName.isEmpty()) {
+                    final int depth = this.getLoopsDepth(reference);
+                    if (depth > 0) {
+                        final InputOutputAnalysisUtil.Operation operation = InputOutputAnalysisUtil.getOperation(reference);
+                        if (operation != null) {
+                            /* ranking: I/O in nested loops is multiplied, hence more severe */
+                            final ProblemHighlightType level = depth > 1 ? ProblemHighlightType.GENERIC_ERROR_OR_WARNING : ProblemHighlightType.WEAK_WARNING;
+                            if (operation.getCallsDepth() == 0) {
+                                holder.registerProblem(
+                                        reference,
+                                        String.format(ReportingUtil.wrapReportedMessage(messageDirect), operation.getName(), depth),
+                                        level
+                                );
+                            } else {
+                                holder.registerProblem(
+                                        reference,
+                                        String.format(ReportingUtil.wrapReportedMessage(messageIndirect), functionName, operation.getName(), depth),
+                                        level
+                                );
+                            }
+                        }
+                    }
+                }
+            }
+
+            /* loops executing the expression repeatedly: foreach sources and for initializations are evaluated once */
+            private int getLoopsDepth(@NotNull PsiElement expression) {
+                int depth         = 0;
+                PsiElement parent = expression.getParent();
+                while (parent != null && !(parent instanceof PhpFile) && !(parent instanceof Function)) {
+                    if (OpenapiTypesUtil.isLoop(parent)) {
+                        boolean isEvaluatedOnce = false;
+                        if (parent instanceof ForeachStatement) {
+                            final PsiElement source = ((ForeachStatement) parent).getArray();
+                            isEvaluatedOnce         = source != null && PsiTreeUtil.isAncestor(source, expression, false);
+                        } else if (parent instanceof For) {
+                            for (final PsiElement initialization : ((For) parent).getInitialExpressions()) {
+                                if (isEvaluatedOnce = PsiTreeUtil.isAncestor(initialization, expression, false)) {
+                                    break;
+                                }
+                            }
+                        }
+                        depth += isEvaluatedOnce ? 0 : 1;
+                    }
+                    parent = parent.getParent();
+                }
+                return depth;
+            }
+        };
+    }
+}
@@ -0,0 +1,178 @@
+package com.kalessil.phpStorm.phpInspectionsEA.inspectors.semanticalAnalysis.loops;
+
+import com.intellij.codeInspection.LocalQuickFix;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.codeInspection.ProblemHighlightType;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.*;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.jetbrains.php.lang.psi.PhpPsiElementFactory;
+import com.jetbrains.php.lang.psi.elements.*;
+import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
+import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.LoopInvarianceUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.PurityAnalysisUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.ReportingUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Set;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+public class LoopInvariantCallsInspector extends BasePhpInspection {
+    private static final String message = "'%s(...)' is pure and its arguments are not modified in the loop, consider moving the call out of the loop.";
+
+    @NotNull
+    @Override
+    public String getShortName() {
+        return "LoopInvariantCallsInspection";
+    }
+
+    @NotNull
+    @Override
+    public String getDisplayName() {
+        return "Loop-invariant calls";
+    }
+
+    @Override
+    @NotNull
+    public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
+        return new BasePhpElementVisitor() {
+            @Override
+            public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
+                this.analyze(reference);
+            }
+
+            @Override
+            public void visitPhpMethodReference(@NotNull MethodReference reference) {
+                this.analyze(reference);
+            }
+
+            private void analyze(@NotNull FunctionReference reference) {
+                final String functionName = reference.getName();
+                if (functionName != null && !functionName.isEmpty()) {
+                    final PsiElement loop = LoopInvarianceUtil.getEnclosingLoop(reference);
+                    if (loop != null && !this.isTerminationCondition(reference, loop)) {
+                        final Set<String> modified = LoopInvarianceUtil.getModifiedVariables(loop);
+                        if (
+                            modified != null &&
+                            LoopInvarianceUtil.isInvariant(reference, modified) &&
+                            !this.isInsideInvariantCall(reference, loop, modified) &&
+                            this.isSafeToHoist(reference, loop)
+                        ) {
+                            holder.registerProblem(
+                                    reference,
+                                    String.format(ReportingUtil.wrapReportedMessage(message), functionName),
+                                    ProblemHighlightType.WEAK_WARNING,
+                                    loop.getParent() instanceof GroupStatement ? new HoistCallFix(holder.getProject(), loop, reference) : null
+                            );
+                        }
+                    }
+                }
+            }
+
+            /* pure non-throwing calls can be evaluated speculatively, throwing ones - only where the loop was evaluating them */
+            private boolean isSafeToHoist(@NotNull FunctionReference reference, @NotNull PsiElement loop) {
+                return !PurityAnalysisUtil.canThrow(reference) ||
+                       (LoopInvarianceUtil.isExecutedAtLeastOnce(loop) && LoopInvarianceUtil.isEvaluatedOnEachIteration(reference, loop));
+            }
+
+            /* calls in termination conditions are covered by CallableInLoopTerminationConditionInspector */
+            private boolean isTerminationCondition(@NotNull PsiElement expression, @NotNull PsiElement loop) {
+                if (loop instanceof For) {
+                    for (final PsiElement condition : ((For) loop).getConditionalExpressions()) {
+                        if (PsiTreeUtil.isAncestor(condition, expression, false)) {
+                            return true;
+                        }
+                    }
+                }
+                return false;
+            }
+
+            /* only the outermost invariant call is reported, e.g. `strlen(trim($string))` */
+            private boolean isInsideInvariantCall(@NotNull PsiElement expression, @NotNull PsiElement loop, @NotNull Set<String> modified) {
+                PsiElement parent = expression.getParent();
+                while (parent != null && parent != loop && !(parent instanceof Function)) {
+                    if (parent instanceof FunctionReference && LoopInvarianceUtil.isInvariant(parent, modified)) {
+                        return true;
+                    }
+                    parent = parent.getParent();
+                }
+                return false;
+            }
+        };
+    }
+
+    private static final class HoistCallFix implements LocalQuickFix {
+        private static final String title = "Move the call out of the loop";
+
+        private final SmartPsiElementPointer<PsiElement> loop;
+        private final SmartPsiElementPointer<FunctionReference> call;
+
+        HoistCallFix(@NotNull Project project, @NotNull PsiElement loop, @NotNull FunctionReference call) {
+            super();
+            final SmartPointerManager factory = SmartPointerManager.getInstance(project);
+
+            this.loop = factory.createSmartPsiElementPointer(loop);
+            this.call = factory.createSmartPsiElementPointer(call);
+        }
+
+        @NotNull
+        @Override
+        public String getName() {
+            return title;
+        }
+
+        @NotNull
+        @Override
+        public String getFamilyName() {
+            return title;
+        }
+
+        @Override
+        public void applyFix(@NotNull final Project project, @NotNull final ProblemDescriptor descriptor) {
+            final PsiElement loop        = this.loop.getElement();
+            final FunctionReference call = this.call.getElement();
+            if (loop == null || call == null || project.isDisposed()) {
+                return;
+            }
+
+            final String variableName  = this.getVariableName(call, loop);
+            final PsiElement statement = PhpPsiElementFactory.createStatement(project, String.format("%s = %s;", variableName, call.getText()));
+            final Variable variable    = PhpPsiElementFactory.createFromText(project, Variable.class, variableName);
+            if (variable != null) {
+                loop.getParent().addBefore(statement, loop);
+                call.replace(variable);
+            }
+        }
+
+        /* e.g. `$strlen` for `strlen(...)` and `$name` for `->getName()`, unique in the scope */
+        @NotNull
+        private String getVariableName(@NotNull FunctionReference call, @NotNull PsiElement loop) {
+            String base = String.valueOf(call.getName());
+            if (call instanceof MethodReference && base.length() > 3 && base.startsWith("get")) {
+                base = base.substring(3);
+            }
+            final StringBuilder name = new StringBuilder();
+            boolean upper            = false;
+            for (final char character : base.toCharArray()) {
+                if (character == '_') {
+                    upper = name.length() > 0;
+                } else {
+                    name.append(upper ? Character.toUpperCase(character) : (name.length() == 0 ? Character.toLowerCase(character) : character));
+                    upper = false;
+                }
+            }
+
+            return LoopInvarianceUtil.getHoistedVariableName(loop, name.length() == 0 ? "value" : name.toString());
+        }
+    }
+}
@@ -46,6 +46,11 @@ public class SuspiciousLoopInspector extends BasePhpInspection {
         return "Suspicious loop";
     }
 
+    @Override
+    protected boolean isFunctionLocal() {
+        return true;
+    }
+
     @Override
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
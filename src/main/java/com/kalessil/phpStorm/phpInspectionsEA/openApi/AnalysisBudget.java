@@ -0,0 +1,156 @@
+package com.kalessil.phpStorm.phpInspectionsEA.openApi;
+
+import com.intellij.codeInspection.ProblemHighlightType;
+import com.intellij.notification.NotificationDisplayType;
+import com.intellij.notification.NotificationGroup;
+import com.intellij.notification.NotificationType;
+import com.intellij.notification.Notifications;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiElementVisitor;
+import com.intellij.psi.PsiFile;
+import com.kalessil.phpStorm.phpInspectionsEA.EASettings;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.ReportingUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Per-file time budget of an inspection: once the time spent in the inspection visitor exceeds the budget,
+ * the rest of the file is not visited. Expensive loops can stop earlier by checking isExhausted().
+ */
+final public class AnalysisBudget {
+    private static final String messagePattern      = "The inspection '%s' has been stopped: the analysis budget (%dms) is exhausted for this file (%d times since the IDE start).";
+    private static final String notificationPattern = "The inspection '%s' has been stopped by the analysis budget (%dms) in '%s': its findings can be incomplete. Budgets are configured in the plugin settings.";
+
+    private static final NotificationGroup notifications = new NotificationGroup("Php Inspections (EA Extended): analysis budget", NotificationDisplayType.BALLOON, true);
+
+    private static final ThreadLocal<BudgetedVisitor> current = new ThreadLocal<>();
+    private static final Map<String, AtomicInteger> skipped   = new ConcurrentHashMap<>();
+
+    /* true if the inspection being executed in the current thread has exceeded its budget */
+    public static boolean isExhausted() {
+        final BudgetedVisitor visitor = current.get();
+        return visitor != null && visitor.isExhausted();
+    }
+
+    /* how many times the inspection has been stopped due to the budget exhaustion since the IDE start; reported and notified */
+    public static int getSkippedCount(@NotNull String shortName) {
+        final AtomicInteger counter = skipped.get(shortName);
+        return counter == null ? 0 : counter.get();
+    }
+
+    @NotNull
+    static PsiElementVisitor wrap(@NotNull BasePhpInspection inspection, @NotNull ProblemsHolder holder, @NotNull PsiElementVisitor visitor) {
+        final EASettings settings = EASettings.getInstance();
+        if (settings == null) {
+            return visitor;
+        }
+        /* tests are expecting complete results, independently of the machine speed: only explicit budgets apply */
+        final String name = inspection.getShortName();
+        final int budget  = ApplicationManager.getApplication().isUnitTestMode()
+                ? settings.getAnalysisBudgets().getOrDefault(name, 0)
+                : settings.getAnalysisBudget(name);
+        return budget <= 0 ? visitor : new BudgetedVisitor(inspection, holder, visitor, budget, settings.getReportBudgetExhaustion());
+    }
+
+    private static final class BudgetedVisitor extends PsiElementVisitor {
+        @NotNull
+        private final BasePhpInspection inspection;
+        @NotNull
+        private final ProblemsHolder holder;
+        @NotNull
+        private final PsiElementVisitor delegate;
+        private final int budget;
+        private final long limit;
+        private final boolean report;
+
+        private long spent;
+        private long started;
+        private boolean stopped;
+
+        private BudgetedVisitor(
+                @NotNull BasePhpInspection inspection,
+                @NotNull ProblemsHolder holder,
+                @NotNull PsiElementVisitor delegate,
+                int budget,
+                boolean report
+        ) {
+            this.inspection = inspection;
+            this.holder     = holder;
+            this.delegate   = delegate;
+            this.budget     = budget;
+            this.limit      = budget * 1_000_000L;
+            this.report     = report;
+        }
+
+        @Override
+        public void visitElement(@NotNull PsiElement element) {
+            if (!this.stopped) {
+                this.visit(element);
+            }
+        }
+
+        @Override
+        public void visitFile(@NotNull PsiFile file) {
+            if (!this.stopped) {
+                this.visit(file);
+            }
+        }
+
+        private void visit(@NotNull PsiElement element) {
+            final BudgetedVisitor previous = current.get();
+            current.set(this);
+            this.started = System.nanoTime();
+            try {
+                element.accept(this.delegate);
+            } finally {
+                this.spent  += System.nanoTime() - this.started;
+                this.started = 0;
+                current.set(previous);
+            }
+            if (this.spent > this.limit) {
+                this.stop();
+            }
+        }
+
+        private boolean isExhausted() {
+            return this.stopped || this.spent + (this.started == 0 ? 0 : System.nanoTime() - this.started) > this.limit;
+        }
+
+        private void stop() {
+            this.stopped = true;
+            final String name  = this.inspection.getShortName();
+            final int count    = skipped.computeIfAbsent(name, key -> new AtomicInteger()).incrementAndGet();
+            final PsiFile file = this.holder.getFile();
+            if (this.report) {
+                this.holder.registerProblem(
+                        file,
+                        String.format(ReportingUtil.wrapReportedMessage(messagePattern), this.inspection.getDisplayName(), this.budget, count),
+                        ProblemHighlightType.WEAK_WARNING
+                );
+            } else if (count == 1) {
+                /* not reported in the editor: let know once per inspection, otherwise the incomplete analysis is invisible */
+                Notifications.Bus.notify(
+                        notifications.createNotification(
+                                String.format(notificationPattern, this.inspection.getDisplayName(), this.budget, file.getName()),
+                                NotificationType.INFORMATION
+                        ),
+                        file.getProject()
+                );
+            }
+        }
+    }
+}
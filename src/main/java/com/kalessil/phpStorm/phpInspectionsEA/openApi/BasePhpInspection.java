@@ -1,6 +1,48 @@
 package com.kalessil.phpStorm.phpInspectionsEA.openApi;
 
+import com.intellij.analysis.AnalysisScope;
+import com.intellij.codeInspection.GlobalInspectionContext;
+import com.intellij.codeInspection.LocalInspectionToolSession;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiElementVisitor;
 import com.jetbrains.php.lang.inspections.PhpInspection;
+import org.jetbrains.annotations.NotNull;
 
 public abstract class BasePhpInspection extends PhpInspection {
+    /* function-local inspections only look inside function bodies, hence results are re-used for unchanged functions */
+    protected boolean isFunctionLocal() {
+        return false;
+    }
+
+    @NotNull
+    @Override
+    public PsiElementVisitor buildVisitor(@NotNull ProblemsHolder holder, boolean isOnTheFly, @NotNull LocalInspectionToolSession session) {
+        if (!isOnTheFly) {
+            BatchResolvePrecomputation.getInstance(holder.getProject()).fileStarted(holder.getFile());
+        }
+        /* performance findings are weighted by the imported execution profile, if any */
+        final ProblemsHolder weighted   = ExecutionProfile.weight(this, holder);
+        final PsiElementVisitor visitor = isOnTheFly && this.isFunctionLocal()
+                ? new FunctionLocalVisitor(this, weighted, isOnTheFly)
+                : this.buildVisitor(weighted, isOnTheFly);
+        /* in the editor one pathological file should not stall highlighting, hence the per-file budget */
+        return isOnTheFly ? AnalysisBudget.wrap(this, holder, visitor) : visitor;
+    }
+
+    /* batch mode only: resolve references and types of the inspected files ahead of the inspections */
+    @Override
+    public void initialize(@NotNull GlobalInspectionContext context) {
+        super.initialize(context);
+        final AnalysisScope scope = context.getRefManager().getScope();
+        if (scope != null) {
+            BatchResolvePrecomputation.getInstance(context.getProject()).start(scope);
+        }
+    }
+
+    @Override
+    public void cleanup(@NotNull Project project) {
+        BatchResolvePrecomputation.getInstance(project).stop();
+        super.cleanup(project);
+    }
 }
@@ -0,0 +1,215 @@
+package com.kalessil.phpStorm.phpInspectionsEA.openApi;
+
+import com.intellij.analysis.AnalysisScope;
+import com.intellij.concurrency.JobLauncher;
+import com.intellij.concurrency.SensitiveProgressWrapper;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.progress.EmptyProgressIndicator;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.util.ProgressIndicatorUtils;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.PsiRecursiveElementWalkingVisitor;
+import com.intellij.psi.PsiReference;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.jetbrains.php.lang.PhpFileType;
+import com.jetbrains.php.lang.psi.PhpFile;
+import com.jetbrains.php.lang.psi.elements.*;
+import com.jetbrains.php.lang.psi.resolve.types.PhpType;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiResolveUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.TestOnly;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Batch "Inspect Code" support: resolves references and types of the upcoming files in parallel read actions,
+ * ahead of the inspections. References are landing in the platform resolve cache, types are kept here.
+ * At most FILES_AHEAD files are precomputed before the inspections reach them, older results are dropped.
+ */
+public class BatchResolvePrecomputation {
+    private static final int FILES_AHEAD    = 32;
+    private static final int FILES_KEPT     = 2 * FILES_AHEAD;
+    private static final int TYPES_PER_FILE = 20_000;
+    private static final int CHUNK_SIZE     = 8;
+
+    @NotNull
+    private final Project project;
+    @NotNull
+    private final Map<PsiFile, Types> types = new ConcurrentHashMap<>();
+    @NotNull
+    private final Set<VirtualFile> started  = ConcurrentHashMap.newKeySet();
+    /* per run: released when the inspections reach a file or the precomputation is stopped */
+    @NotNull
+    private volatile Semaphore progress     = new Semaphore(0);
+    /* per run: released when the precomputation is waiting for the inspections or has been finished */
+    @NotNull
+    private volatile Semaphore idle         = new Semaphore(0);
+    /* the running precomputation, null in the on-the-fly mode */
+    @Nullable
+    private volatile ProgressIndicator indicator;
+
+    public BatchResolvePrecomputation(@NotNull Project project) {
+        this.project = project;
+    }
+
+    public static BatchResolvePrecomputation getInstance(@NotNull Project project) {
+        return ServiceManager.getService(project, BatchResolvePrecomputation.class);
+    }
+
+    /* precomputed type of the expression (a copy, so callers can modify it), null if not precomputed */
+    @Nullable
+    public static PhpType findType(@NotNull PhpTypedElement expression, @NotNull Project project) {
+        final BatchResolvePrecomputation instance = getInstance(project);
+        if (instance.indicator == null) {
+            return null;
+        }
+        final Types fileTypes = instance.types.get(expression.getContainingFile());
+        if (fileTypes == null || fileTypes.stamp != PsiModificationTracker.SERVICE.getInstance(project).getModificationCount()) {
+            return null;
+        }
+        final PhpType type = fileTypes.types.get(expression);
+        return type == null ? null : new PhpType().add(type);
+    }
+
+    public synchronized void start(@NotNull AnalysisScope scope) {
+        if (this.indicator != null) {
+            return;
+        }
+        final List<VirtualFile> files = new ArrayList<>();
+        ApplicationManager.getApplication().runReadAction(() -> scope.accept(file -> {
+            if (file.getFileType() == PhpFileType.INSTANCE) {
+                files.add(file);
+            }
+            return true;
+        }));
+        if (files.size() > 1) {
+            final ProgressIndicator current = (this.indicator = new EmptyProgressIndicator());
+            final Semaphore progress        = (this.progress = new Semaphore(0));
+            final Semaphore idle            = (this.idle = new Semaphore(0));
+            ApplicationManager.getApplication().executeOnPooledThread(() -> this.precompute(files, current, progress, idle));
+        }
+    }
+
+    public synchronized void stop() {
+        final ProgressIndicator current = this.indicator;
+        if (current != null) {
+            current.cancel();
+            this.indicator = null;
+            this.progress.release();
+        }
+        this.types.clear();
+        this.started.clear();
+    }
+
+    public void fileStarted(@NotNull PsiFile file) {
+        final VirtualFile virtualFile = file.getVirtualFile();
+        if (this.indicator != null && virtualFile != null) {
+            if (this.started.add(virtualFile)) {
+                this.progress.release();
+            }
+            /* the inspections reached the file: release results of files inspected earlier */
+            if (this.types.size() > FILES_KEPT) {
+                this.types.keySet().removeIf(candidate -> candidate != file && this.started.contains(candidate.getVirtualFile()));
+            }
+        }
+    }
+
+    private void precompute(
+            @NotNull List<VirtualFile> files,
+            @NotNull ProgressIndicator indicator,
+            @NotNull Semaphore progress,
+            @NotNull Semaphore idle
+    ) {
+        try {
+            for (int offset = 0; offset < files.size(); offset += CHUNK_SIZE) {
+                /* stay at most FILES_AHEAD files ahead of the inspections */
+                while (offset - this.started.size() >= FILES_AHEAD) {
+                    indicator.checkCanceled();
+                    idle.release();
+                    progress.acquire();
+                }
+                indicator.checkCanceled();
+                final List<VirtualFile> chunk = new ArrayList<>(files.subList(offset, Math.min(files.size(), offset + CHUNK_SIZE)));
+                chunk.removeIf(this.started::contains);
+                JobLauncher.getInstance().invokeConcurrentlyUnderProgress(chunk, indicator, true, false, file -> {
+                    /* gives way to write actions: the file is skipped then, inspections will resolve it themselves */
+                    ProgressIndicatorUtils.runInReadActionWithWriteActionPriority(() -> this.precompute(file, indicator), new SensitiveProgressWrapper(indicator));
+                    return !indicator.isCanceled();
+                });
+            }
+        } catch (final ProcessCanceledException | InterruptedException cancelled) {
+            /* the batch inspection has been finished or cancelled */
+        } finally {
+            idle.release();
+        }
+    }
+
+    /* waits until the precomputation is waiting for the inspections or has been finished */
+    @TestOnly
+    public boolean awaitIdle(long timeout, @NotNull TimeUnit unit) throws InterruptedException {
+        return this.idle.tryAcquire(timeout, unit);
+    }
+
+    private void precompute(@NotNull VirtualFile virtualFile, @NotNull ProgressIndicator indicator) {
+        if (this.project.isDisposed() || !virtualFile.isValid() || this.started.contains(virtualFile)) {
+            return;
+        }
+        final PsiFile file = PsiManager.getInstance(this.project).findFile(virtualFile);
+        if (file instanceof PhpFile) {
+            final Types fileTypes = new Types(PsiModificationTracker.SERVICE.getInstance(this.project).getModificationCount());
+            file.accept(new PsiRecursiveElementWalkingVisitor() {
+                @Override
+                public void visitElement(@NotNull PsiElement element) {
+                    if (element instanceof PhpReference) {
+                        OpenapiResolveUtil.resolveReference((PsiReference) element);
+                    }
+                    if (element instanceof Variable || element instanceof FunctionReference || element instanceof FieldReference) {
+                        final PhpType type = OpenapiResolveUtil.resolveType((PhpTypedElement) element, project);
+                        if (type != null) {
+                            fileTypes.types.put(element, type);
+                        }
+                        if (fileTypes.types.size() >= TYPES_PER_FILE) {
+                            this.stopWalking();
+                        }
+                    }
+                    super.visitElement(element);
+                }
+            });
+            /* a stopped precomputation must not publish anything: the next batch inspection would see stale types */
+            synchronized (this) {
+                if (this.indicator == indicator) {
+                    this.types.put(file, fileTypes);
+                }
+            }
+        }
+    }
+
+    private static final class Types {
+        private final long stamp;
+        @NotNull
+        private final Map<PsiElement, PhpType> types = new HashMap<>();
+
+        private Types(long stamp) {
+            this.stamp = stamp;
+        }
+    }
+}
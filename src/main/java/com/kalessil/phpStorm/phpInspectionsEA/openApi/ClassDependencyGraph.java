@@ -0,0 +1,500 @@
+package com.kalessil.phpStorm.phpInspectionsEA.openApi;
+
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.fileTypes.FileTypeManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileCopyEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileDeleteEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFilePropertyChangeEvent;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.PsiTreeChangeAdapter;
+import com.intellij.psi.PsiTreeChangeEvent;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.PathUtil;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.jetbrains.php.lang.PhpFileType;
+import com.jetbrains.php.lang.psi.PhpFile;
+import com.kalessil.phpStorm.phpInspectionsEA.indexers.ClassDependenciesIndexer;
+import gnu.trove.TIntArrayList;
+import gnu.trove.TObjectIntHashMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Project classes dependency graph, built from ClassDependenciesIndexer and maintained incrementally: modified, created,
+ * moved and deleted files are re-collected on the next query. Classes FQNs are interned into integer ids, edges are
+ * stored as int arrays per class definition. Afferent couplings and strongly connected components (dependency cycles)
+ * are computed in linear time on demand. Building the graph is walking the whole index: not for highlighting use.
+ */
+public class ClassDependencyGraph {
+    @NotNull
+    private final Project project;
+    @NotNull
+    private final Set<VirtualFile> dirty = new HashSet<>();
+    /* serializes the initial building, which is running without holding the graph monitor */
+    @NotNull
+    private final Object building        = new Object();
+    @Nullable
+    private Graph graph;
+
+    public ClassDependencyGraph(@NotNull Project project) {
+        this.project = project;
+
+        PsiManager.getInstance(project).addPsiTreeChangeListener(new PsiTreeChangeAdapter() {
+            @Override
+            public void childrenChanged(@NotNull PsiTreeChangeEvent event) {
+                invalidate(event.getFile());
+            }
+
+            @Override
+            public void childAdded(@NotNull PsiTreeChangeEvent event) {
+                invalidate(event.getFile());
+            }
+
+            @Override
+            public void childRemoved(@NotNull PsiTreeChangeEvent event) {
+                invalidate(event.getFile());
+            }
+
+            @Override
+            public void childReplaced(@NotNull PsiTreeChangeEvent event) {
+                invalidate(event.getFile());
+            }
+        }, project);
+        project.getMessageBus().connect(project).subscribe(VirtualFileManager.VFS_CHANGES, new BulkFileListener.Adapter() {
+            @Override
+            public void before(@NotNull List<? extends VFileEvent> events) {
+                for (final VFileEvent event : events) {
+                    final VirtualFile file = event.getFile();
+                    if (event instanceof VFileDeleteEvent && file != null && file.isValid() && file.isDirectory()) {
+                        /* files inside are not reachable after the deletion */
+                        invalidateKnown(file);
+                    }
+                }
+            }
+
+            @Override
+            public void after(@NotNull List<? extends VFileEvent> events) {
+                for (final VFileEvent event : events) {
+                    final VirtualFile file = event instanceof VFileCopyEvent ? ((VFileCopyEvent) event).findCreatedFile() : event.getFile();
+                    if (file != null && file.isValid() && file.isDirectory()) {
+                        /* directories created, copied, moved or renamed: only PHP files inside are matter */
+                        invalidateKnown(file);
+                        VfsUtilCore.iterateChildrenRecursively(file, null, child -> {
+                            if (!child.isDirectory() && child.getFileType() == PhpFileType.INSTANCE) {
+                                invalidate(child);
+                            }
+                            return true;
+                        });
+                    } else if (file != null && isPhpRelated(event)) {
+                        /* files changed, created, moved, renamed or deleted: re-collected one by one */
+                        invalidate(file);
+                    }
+                }
+            }
+        });
+    }
+
+    public static ClassDependencyGraph getInstance(@NotNull Project project) {
+        return ServiceManager.getService(project, ClassDependencyGraph.class);
+    }
+
+    /* number of distinct classes referenced by the class (its largest definition), -1 if the class is not known */
+    public int getEfferentCoupling(@NotNull String fqn) {
+        final Graph current = this.getGraph();
+        synchronized (this) {
+            final int id = current.ids.get(fqn);
+            return id == 0 || !current.isDefined(id) ? -1 : current.getEfferent(id);
+        }
+    }
+
+    /* FQNs of classes referenced by the class (all its definitions), null if the class is not known */
+    @Nullable
+    public List<String> getDependencies(@NotNull String fqn) {
+        final Graph current = this.getGraph();
+        synchronized (this) {
+            final int id = current.ids.get(fqn);
+            if (id == 0 || !current.isDefined(id)) {
+                return null;
+            }
+            final int[] edges         = current.getEdges(id);
+            final List<String> result = new ArrayList<>(edges.length);
+            for (final int target : edges) {
+                result.add(current.names.get(target));
+            }
+            return result;
+        }
+    }
+
+    /* number of project classes definitions referencing the class */
+    public int getAfferentCoupling(@NotNull String fqn) {
+        final Graph current = this.getGraph();
+        synchronized (this) {
+            final int id = current.ids.get(fqn);
+            return id == 0 ? 0 : current.getAfferent()[id];
+        }
+    }
+
+    /* Ce / (Ca + Ce): 0 for stable classes, 1 for unstable ones; -1 if the class is not known */
+    public double getInstability(@NotNull String fqn) {
+        final int efferent = this.getEfferentCoupling(fqn);
+        if (efferent < 0) {
+            return -1;
+        }
+        final int afferent = this.getAfferentCoupling(fqn);
+        return efferent + afferent == 0 ? 0 : (double) efferent / (efferent + afferent);
+    }
+
+    /* classes dependency cycles (strongly connected components with more than one class) */
+    @NotNull
+    public List<List<String>> getCycles() {
+        final Graph current = this.getGraph();
+        synchronized (this) {
+            final List<List<String>> cycles = new ArrayList<>();
+            for (final int[] component : current.getComponents()) {
+                if (component.length > 1) {
+                    final List<String> names = new ArrayList<>(component.length);
+                    for (final int id : component) {
+                        names.add(current.names.get(id));
+                    }
+                    Collections.sort(names);
+                    cycles.add(names);
+                }
+            }
+            return cycles;
+        }
+    }
+
+    /* FQNs of project classes (the ones defined in project files) */
+    @NotNull
+    public List<String> getClasses() {
+        final Graph current = this.getGraph();
+        synchronized (this) {
+            final List<String> result = new ArrayList<>();
+            for (int id = 1; id < current.names.size(); ++id) {
+                if (current.isDefined(id)) {
+                    result.add(current.names.get(id));
+                }
+            }
+            return result;
+        }
+    }
+
+    private synchronized void invalidate(@Nullable PsiFile file) {
+        if (file instanceof PhpFile) {
+            final VirtualFile virtualFile = file.getVirtualFile();
+            if (virtualFile != null) {
+                this.dirty.add(virtualFile);
+            }
+        }
+    }
+
+    private synchronized void invalidate(@NotNull VirtualFile file) {
+        this.dirty.add(file);
+    }
+
+    /* files of the graph located in the directory */
+    private synchronized void invalidateKnown(@NotNull VirtualFile directory) {
+        if (this.graph != null) {
+            for (final VirtualFile file : this.graph.classes.keySet()) {
+                if (VfsUtilCore.isAncestor(directory, file, true)) {
+                    this.dirty.add(file);
+                }
+            }
+        }
+    }
+
+    /* PHP files; names are checked, as deleted files are not valid anymore */
+    private static boolean isPhpRelated(@NotNull VFileEvent event) {
+        final FileTypeManager types = FileTypeManager.getInstance();
+        if (event instanceof VFilePropertyChangeEvent) {
+            final VFilePropertyChangeEvent change = (VFilePropertyChangeEvent) event;
+            if (!change.getPropertyName().equals(VirtualFile.PROP_NAME)) {
+                return false;
+            }
+            final Object oldName = change.getOldValue();
+            if (oldName instanceof String && types.getFileTypeByFileName((String) oldName) == PhpFileType.INSTANCE) {
+                return true;
+            }
+        }
+        return types.getFileTypeByFileName(PathUtil.getFileName(event.getPath())) == PhpFileType.INSTANCE;
+    }
+
+    @NotNull
+    private Graph getGraph() {
+        Graph current;
+        synchronized (this) {
+            current = this.graph;
+        }
+        if (current == null) {
+            synchronized (this.building) {
+                synchronized (this) {
+                    current = this.graph;
+                    if (current == null) {
+                        /* files modified from now on are re-collected once the graph is published */
+                        this.dirty.clear();
+                    }
+                }
+                if (current == null) {
+                    /* built aside and published only when complete: the indexes querying can be cancelled */
+                    final FileBasedIndex index    = FileBasedIndex.getInstance();
+                    final GlobalSearchScope scope = GlobalSearchScope.projectScope(this.project);
+                    final Graph target            = new Graph();
+                    for (final String fqn : index.getAllKeys(ClassDependenciesIndexer.identity, this.project)) {
+                        index.processValues(ClassDependenciesIndexer.identity, fqn, null, (file, value) -> {
+                            target.add(file, fqn, value);
+                            return true;
+                        }, scope);
+                    }
+                    synchronized (this) {
+                        this.graph = current = target;
+                    }
+                }
+            }
+        }
+        synchronized (this) {
+            if (!this.dirty.isEmpty()) {
+                final PsiManager manager      = PsiManager.getInstance(this.project);
+                final GlobalSearchScope scope = GlobalSearchScope.projectScope(this.project);
+                for (final VirtualFile file : this.dirty) {
+                    current.remove(file);
+                    final PsiFile psiFile = file.isValid() && scope.contains(file) ? manager.findFile(file) : null;
+                    if (psiFile instanceof PhpFile) {
+                        for (final Map.Entry<String, String> entry : ClassDependenciesIndexer.collect(psiFile).entrySet()) {
+                            current.add(file, entry.getKey(), entry.getValue());
+                        }
+                    }
+                }
+                this.dirty.clear();
+                /* names of removed classes and dependencies are piling up: re-intern the live ones from time to time */
+                if (current.isSparse()) {
+                    this.graph = current = current.compact();
+                }
+            }
+            return current;
+        }
+    }
+
+    private static final class Graph {
+        /* id 0 is reserved: TObjectIntHashMap returns it for missing keys */
+        private final TObjectIntHashMap<String> ids               = new TObjectIntHashMap<>();
+        private final List<String> names                          = new ArrayList<>(Collections.singletonList(null));
+        private final Map<VirtualFile, TIntArrayList> classes     = new HashMap<>();
+        private final Map<Integer, Map<VirtualFile, int[]>> edges = new HashMap<>();
+
+        /* definitions removed since the names were interned: the names may be not referenced anymore */
+        private int removed;
+
+        private int[][] adjacency;
+        private int[] afferent;
+        private List<int[]> components;
+
+        private int intern(@NotNull String fqn) {
+            int id = this.ids.get(fqn);
+            if (id == 0) {
+                id = this.names.size();
+                this.ids.put(fqn, id);
+                this.names.add(fqn);
+            }
+            return id;
+        }
+
+        private void add(@NotNull VirtualFile file, @NotNull String fqn, @NotNull String dependencies) {
+            final int id                = this.intern(fqn);
+            final TIntArrayList targets = new TIntArrayList();
+            for (final String dependency : dependencies.split(";")) {
+                if (!dependency.isEmpty()) {
+                    targets.add(this.intern(dependency));
+                }
+            }
+            /* the indexer joins dependencies of same-named classes in a file */
+            final int[] distinct = Arrays.stream(targets.toNativeArray()).distinct().toArray();
+            this.edges.computeIfAbsent(id, key -> new HashMap<>()).put(file, distinct);
+            this.classes.computeIfAbsent(file, key -> new TIntArrayList()).add(id);
+            this.reset();
+        }
+
+        private void remove(@NotNull VirtualFile file) {
+            final TIntArrayList defined = this.classes.remove(file);
+            if (defined != null) {
+                for (final int id : defined.toNativeArray()) {
+                    final Map<VirtualFile, int[]> perFile = this.edges.get(id);
+                    if (perFile != null) {
+                        perFile.remove(file);
+                        if (perFile.isEmpty()) {
+                            this.edges.remove(id);
+                        }
+                        ++this.removed;
+                    }
+                }
+                this.reset();
+            }
+        }
+
+        private void reset() {
+            this.adjacency  = null;
+            this.afferent   = null;
+            this.components = null;
+        }
+
+        private boolean isDefined(int id) {
+            return this.edges.containsKey(id);
+        }
+
+        private boolean isSparse() {
+            return this.removed > 1024 && 2 * this.removed > this.names.size();
+        }
+
+        /* a copy with only defined and referenced classes names interned */
+        @NotNull
+        private Graph compact() {
+            final Graph result = new Graph();
+            for (final Map.Entry<Integer, Map<VirtualFile, int[]>> entry : this.edges.entrySet()) {
+                final String fqn = this.names.get(entry.getKey());
+                for (final Map.Entry<VirtualFile, int[]> definition : entry.getValue().entrySet()) {
+                    final List<String> dependencies = new ArrayList<>(definition.getValue().length);
+                    for (final int target : definition.getValue()) {
+                        dependencies.add(this.names.get(target));
+                    }
+                    result.add(definition.getKey(), fqn, String.join(";", dependencies));
+                }
+            }
+            return result;
+        }
+
+        /* definitions are counted separately, same-named classes are not merging their dependencies */
+        private int getEfferent(int id) {
+            int result                            = 0;
+            final Map<VirtualFile, int[]> perFile = this.edges.get(id);
+            if (perFile != null) {
+                for (final int[] targets : perFile.values()) {
+                    result = Math.max(result, targets.length);
+                }
+            }
+            return result;
+        }
+
+        @NotNull
+        private int[] getEdges(int id) {
+            final int[][] all = this.getAdjacency();
+            return id < all.length && all[id] != null ? all[id] : new int[0];
+        }
+
+        /* distinct outgoing edges by class id, for reachability: definitions of a class in several files are united */
+        @NotNull
+        private int[][] getAdjacency() {
+            if (this.adjacency == null) {
+                final int[][] result = new int[this.names.size()][];
+                for (final Map.Entry<Integer, Map<VirtualFile, int[]>> entry : this.edges.entrySet()) {
+                    final Collection<int[]> perFile = entry.getValue().values();
+                    if (perFile.size() == 1) {
+                        result[entry.getKey()] = perFile.iterator().next();
+                    } else {
+                        result[entry.getKey()] = perFile.stream().flatMapToInt(Arrays::stream).distinct().sorted().toArray();
+                    }
+                }
+                this.adjacency = result;
+            }
+            return this.adjacency;
+        }
+
+        @NotNull
+        private int[] getAfferent() {
+            if (this.afferent == null) {
+                final int[] counts = new int[this.names.size()];
+                for (final Map.Entry<Integer, Map<VirtualFile, int[]>> entry : this.edges.entrySet()) {
+                    final int id = entry.getKey();
+                    for (final int[] targets : entry.getValue().values()) {
+                        for (final int target : targets) {
+                            if (target != id) {
+                                ++counts[target];
+                            }
+                        }
+                    }
+                }
+                this.afferent = counts;
+            }
+            return this.afferent;
+        }
+
+        /* Tarjan's algorithm, iterative to not overflow the stack on long dependency chains */
+        @NotNull
+        private List<int[]> getComponents() {
+            if (this.components != null) {
+                return this.components;
+            }
+            final int size            = this.names.size();
+            final int[] order         = new int[size];
+            final int[] lowLink       = new int[size];
+            final boolean[] onStack   = new boolean[size];
+            final int[] stack         = new int[size];
+            final int[] callStack     = new int[size];
+            final int[] edgePositions = new int[size];
+            final List<int[]> result  = new ArrayList<>();
+            int counter               = 0;
+            int stackSize             = 0;
+
+            for (final int root : this.edges.keySet()) {
+                if (order[root] != 0) {
+                    continue;
+                }
+                int depth = 0;
+                callStack[depth]     = root;
+                edgePositions[depth] = 0;
+                order[root]          = lowLink[root] = ++counter;
+                stack[stackSize++]   = root;
+                onStack[root]        = true;
+                while (depth >= 0) {
+                    final int node   = callStack[depth];
+                    final int[] next = this.getEdges(node);
+                    if (edgePositions[depth] < next.length) {
+                        final int target = next[edgePositions[depth]++];
+                        if (order[target] == 0) {
+                            ++depth;
+                            callStack[depth]     = target;
+                            edgePositions[depth] = 0;
+                            order[target]        = lowLink[target] = ++counter;
+                            stack[stackSize++]   = target;
+                            onStack[target]      = true;
+                        } else if (onStack[target]) {
+                            lowLink[node] = Math.min(lowLink[node], order[target]);
+                        }
+                        continue;
+                    }
+                    if (lowLink[node] == order[node]) {
+                        final TIntArrayList component = new TIntArrayList();
+                        int member;
+                        do {
+                            member          = stack[--stackSize];
+                            onStack[member] = false;
+                            component.add(member);
+                        } while (member != node);
+                        result.add(component.toNativeArray());
+                    }
+                    if (--depth >= 0) {
+                        final int parent = callStack[depth];
+                        lowLink[parent]  = Math.min(lowLink[parent], lowLink[node]);
+                    }
+                }
+            }
+            return (this.components = result);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.kalessil.phpStorm.phpInspectionsEA.openApi;
+
+import com.intellij.codeInspection.LocalInspectionEP;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.jetbrains.php.lang.psi.elements.Function;
+import com.kalessil.phpStorm.phpInspectionsEA.EASettings;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.ExecutionProfileUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Imported execution profile (Xdebug cachegrind, XHProf/Tideways JSON) of the project: inclusive costs of functions
+ * by FQN. While a profile is loaded, performance findings are weighted by the cost of the enclosing function: hot
+ * findings are boosted, findings in profiled functions below the threshold are suppressed. The profile lives in
+ * memory only, functions not present in it (not executed in the profiled scenario) are reported as usual.
+ */
+public class ExecutionProfile {
+    private static final String performanceGroup = "Performance";
+    private static final String pluginPackage    = "com.kalessil.phpStorm.phpInspectionsEA.";
+
+    /* performance-oriented inspections outside of the performance group */
+    private static final Set<String> additionalInspections = new HashSet<>(Collections.singletonList("ForeachInvariantsInspection"));
+    @Nullable
+    private static volatile Set<String> performanceInspections;
+
+    @Nullable
+    private volatile ExecutionProfileUtil.Profile profile;
+    @Nullable
+    private volatile String source;
+
+    public static ExecutionProfile getInstance(@NotNull Project project) {
+        return ServiceManager.getService(project, ExecutionProfile.class);
+    }
+
+    public void load(@NotNull String source, @NotNull ExecutionProfileUtil.Profile profile) {
+        this.source  = source;
+        this.profile = profile;
+    }
+
+    public void clear() {
+        this.profile = null;
+        this.source  = null;
+    }
+
+    public boolean isLoaded() {
+        return this.profile != null;
+    }
+
+    /* the imported file, for presentation purposes */
+    @Nullable
+    public String getSource() {
+        return this.source;
+    }
+
+    /* share of the total cost spent in the function (0..1), -1 if the function is not in the profile */
+    public double getShare(@NotNull String fqn) {
+        final ExecutionProfileUtil.Profile profile = this.profile;
+        if (profile == null || profile.getTotal() <= 0 || !profile.contains(fqn)) {
+            return -1;
+        }
+        return (double) profile.getCost(fqn) / profile.getTotal();
+    }
+
+    /* profiled functions by descending cost */
+    @NotNull
+    public List<String> getHottest(int limit) {
+        final ExecutionProfileUtil.Profile profile = this.profile;
+        if (profile == null) {
+            return Collections.emptyList();
+        }
+        final List<String> functions = new ArrayList<>(profile.getCosts().size());
+        profile.getCosts().forEachKey(functions::add);
+        functions.sort(Comparator.comparingLong((String fqn) -> profile.getCost(fqn)).reversed().thenComparing(Comparator.naturalOrder()));
+        return functions.size() > limit ? new ArrayList<>(functions.subList(0, limit)) : functions;
+    }
+
+    /* the profiled function the element belongs to: closures are attributed to the enclosing named function */
+    @Nullable
+    static public Function getProfiledFunction(@NotNull PsiElement element) {
+        Function function = PsiTreeUtil.getParentOfType(element, Function.class, false);
+        while (function != null && function.isClosure()) {
+            function = PsiTreeUtil.getParentOfType(function, Function.class, true);
+        }
+        return function;
+    }
+
+    static public boolean isPerformanceInspection(@NotNull String shortName) {
+        Set<String> names = performanceInspections;
+        if (names == null) {
+            names = new HashSet<>(additionalInspections);
+            for (final LocalInspectionEP extension : LocalInspectionEP.LOCAL_INSPECTION.getExtensions()) {
+                if (
+                    performanceGroup.equals(extension.groupDisplayName) &&
+                    extension.implementationClass != null && extension.implementationClass.startsWith(pluginPackage)
+                ) {
+                    names.add(extension.getShortName());
+                }
+            }
+            performanceInspections = names;
+        }
+        return names.contains(shortName);
+    }
+
+    /* performance inspections are reporting through the profile-weighted holder while a profile is loaded */
+    @NotNull
+    static ProblemsHolder weight(@NotNull BasePhpInspection inspection, @NotNull ProblemsHolder holder) {
+        final ExecutionProfile profile = getInstance(holder.getProject());
+        if (profile == null || !profile.isLoaded() || !isPerformanceInspection(inspection.getShortName())) {
+            return holder;
+        }
+        final EASettings settings = EASettings.getInstance();
+        return new ProfileWeightedHolder(
+                holder,
+                profile,
+                settings == null ? 0 : settings.getProfileSuppressionThreshold(),
+                settings == null ? 0 : settings.getProfileBoostThreshold()
+        );
+    }
+}
@@ -0,0 +1,193 @@
+package com.kalessil.phpStorm.phpInspectionsEA.openApi;
+
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
+import com.intellij.psi.*;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.jetbrains.php.lang.psi.elements.Function;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Re-uses problems reported by a function-local inspection for functions which body was not changed.
+ * Top-level functions and methods are inspected as a whole (including closures), everything else is
+ * delegated to the inspection visitor as usual. Changes inside functions are counted per function by a PSI
+ * listener, so other functions keep their results while one is being edited.
+ */
+final class FunctionLocalVisitor extends PsiElementVisitor {
+    private static final Key<Map<String, Results>> RESULTS = Key.create("EA.FunctionLocalVisitor.RESULTS");
+    private static final Key<AtomicLong> MODIFICATIONS     = Key.create("EA.FunctionLocalVisitor.MODIFICATIONS");
+    private static final Key<Boolean> LISTENING            = Key.create("EA.FunctionLocalVisitor.LISTENING");
+
+    @NotNull
+    private final BasePhpInspection inspection;
+    @NotNull
+    private final ProblemsHolder holder;
+    private final boolean isOnTheFly;
+    @Nullable
+    private PsiElementVisitor delegate;
+
+    FunctionLocalVisitor(@NotNull BasePhpInspection inspection, @NotNull ProblemsHolder holder, boolean isOnTheFly) {
+        this.inspection = inspection;
+        this.holder     = holder;
+        this.isOnTheFly = isOnTheFly;
+    }
+
+    @Override
+    public void visitElement(@NotNull PsiElement element) {
+        final Function scope = PsiTreeUtil.getParentOfType(element, Function.class);
+        if (scope == null) {
+            if (element instanceof Function) {
+                this.visitFunction((Function) element);
+            } else {
+                if (this.delegate == null) {
+                    this.delegate = this.inspection.buildVisitor(this.holder, this.isOnTheFly);
+                }
+                element.accept(this.delegate);
+            }
+        }
+    }
+
+    private void visitFunction(@NotNull Function function) {
+        final long stamp = this.getStamp(function);
+        Map<String, Results> cache = function.getUserData(RESULTS);
+        if (cache == null) {
+            function.putUserData(RESULTS, (cache = new ConcurrentHashMap<>()));
+        }
+
+        /* re-use previous results if possible: the body and the inspection settings are the same */
+        final String key     = this.inspection.getShortName();
+        final Results cached = cache.get(key);
+        if (cached != null && cached.inspection == this.inspection && cached.stamp == stamp && cached.isValid()) {
+            for (final ProblemDescriptor descriptor : cached.descriptors) {
+                this.holder.registerProblem(descriptor);
+            }
+            return;
+        }
+
+        /* inspect the function with a separate holder, so we can collect the reported problems */
+        final ProblemsHolder local      = new ProblemsHolder(this.holder.getManager(), this.holder.getFile(), this.isOnTheFly);
+        final PsiElementVisitor visitor = this.inspection.buildVisitor(local, this.isOnTheFly);
+        final boolean[] isComplete      = {true};
+        function.accept(new PsiRecursiveElementWalkingVisitor() {
+            @Override
+            public void visitElement(@NotNull PsiElement element) {
+                if (AnalysisBudget.isExhausted()) {
+                    isComplete[0] = false;
+                    this.stopWalking();
+                    return;
+                }
+                element.accept(visitor);
+                super.visitElement(element);
+            }
+        });
+        /* partial results (the analysis budget was exhausted) are reported, but not re-used */
+        final List<ProblemDescriptor> reported = local.getResults();
+        if (isComplete[0]) {
+            cache.put(key, new Results(this.inspection, stamp, reported.toArray(new ProblemDescriptor[reported.size()])));
+        }
+        for (final ProblemDescriptor descriptor : reported) {
+            this.holder.registerProblem(descriptor);
+        }
+    }
+
+    /* out of code block changes and changes inside the function, both are cheap counters */
+    private long getStamp(@NotNull Function function) {
+        final Project project     = function.getProject();
+        final long outOfCodeBlock = PsiModificationTracker.SERVICE.getInstance(project).getOutOfCodeBlockModificationCount();
+        final AtomicLong body     = function.getUserData(MODIFICATIONS);
+        if (project.getUserData(LISTENING) == null) {
+            listen(project);
+        }
+        return (outOfCodeBlock << 32) | ((body == null ? 0 : body.get()) & 0xFFFFFFFFL);
+    }
+
+    private static synchronized void listen(@NotNull Project project) {
+        if (project.getUserData(LISTENING) == null) {
+            project.putUserData(LISTENING, true);
+            PsiManager.getInstance(project).addPsiTreeChangeListener(new PsiTreeChangeAdapter() {
+                @Override
+                public void childrenChanged(@NotNull PsiTreeChangeEvent event) {
+                    modified(event.getParent());
+                }
+
+                @Override
+                public void childAdded(@NotNull PsiTreeChangeEvent event) {
+                    modified(event.getParent());
+                }
+
+                @Override
+                public void childRemoved(@NotNull PsiTreeChangeEvent event) {
+                    modified(event.getParent());
+                }
+
+                @Override
+                public void childReplaced(@NotNull PsiTreeChangeEvent event) {
+                    modified(event.getParent());
+                }
+
+                @Override
+                public void childMoved(@NotNull PsiTreeChangeEvent event) {
+                    modified(event.getOldParent());
+                    modified(event.getNewParent());
+                }
+            }, project);
+        }
+    }
+
+    /* the outermost function is the one getting inspected as a whole */
+    private static void modified(@Nullable PsiElement element) {
+        Function function = element instanceof Function ? (Function) element : PsiTreeUtil.getParentOfType(element, Function.class);
+        if (function != null) {
+            for (Function parent = PsiTreeUtil.getParentOfType(function, Function.class); parent != null; parent = PsiTreeUtil.getParentOfType(parent, Function.class)) {
+                function = parent;
+            }
+            AtomicLong counter = function.getUserData(MODIFICATIONS);
+            if (counter == null) {
+                function.putUserData(MODIFICATIONS, (counter = new AtomicLong()));
+            }
+            counter.incrementAndGet();
+        }
+    }
+
+    private static final class Results {
+        @NotNull
+        private final BasePhpInspection inspection;
+        private final long stamp;
+        @NotNull
+        private final ProblemDescriptor[] descriptors;
+
+        private Results(@NotNull BasePhpInspection inspection, long stamp, @NotNull ProblemDescriptor[] descriptors) {
+            this.inspection  = inspection;
+            this.stamp       = stamp;
+            this.descriptors = descriptors;
+        }
+
+        private boolean isValid() {
+            for (final ProblemDescriptor descriptor : this.descriptors) {
+                final PsiElement target = descriptor.getPsiElement();
+                if (target == null || !target.isValid()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
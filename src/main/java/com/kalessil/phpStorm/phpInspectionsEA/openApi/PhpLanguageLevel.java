@@ -1,11 +1,10 @@
 package com.kalessil.phpStorm.phpInspectionsEA.openApi;
 
 import com.intellij.openapi.project.Project;
-import com.jetbrains.php.config.PhpProjectConfigurationFacade;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 
-import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 /*
  * This file is part of the Php Inspections (EA Extended) package.
@@ -30,8 +29,12 @@ public enum PhpLanguageLevel {
     @NotNull
     private final String version;
 
-    @Nullable
-    static private PhpLanguageLevel current;
+    static private final Map<String, PhpLanguageLevel> byVersion = new HashMap<>();
+    static {
+        for (final PhpLanguageLevel level : values()) {
+            byVersion.put(level.getVersion(), level);
+        }
+    }
 
     PhpLanguageLevel(@NotNull String version) {
         this.version = version;
@@ -50,18 +53,13 @@ public enum PhpLanguageLevel {
         return this.compareTo(version) < 0;
     }
 
-    static public void set(@Nullable PhpLanguageLevel level) {
-        current = level;
+    @NotNull
+    static public PhpLanguageLevel from(@NotNull String version) {
+        return byVersion.getOrDefault(version, PHP740);
     }
 
+    @NotNull
     static public PhpLanguageLevel get(@NotNull Project project) {
-        if (current == null) {
-            final String version = PhpProjectConfigurationFacade.getInstance(project).getLanguageLevel().getVersionString();
-            return Arrays.stream(values())
-                    .filter(level -> level.getVersion().equals(version))
-                    .findFirst()
-                    .orElse(PHP740);
-        }
-        return current;
+        return ProjectConfigurationSnapshot.getInstance(project).getLanguageLevel();
     }
 }
@@ -0,0 +1,110 @@
+package com.kalessil.phpStorm.phpInspectionsEA.openApi;
+
+import com.intellij.codeInspection.*;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiElement;
+import com.jetbrains.php.lang.psi.elements.Function;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Weights reported problems by the execution profile: problems in functions below the suppression threshold are
+ * dropped, problems in functions at or above the boost threshold are reported as errors. Thresholds are in per mille
+ * of the total profiled cost, 0 disables them.
+ */
+final class ProfileWeightedHolder extends ProblemsHolder {
+    private static final String hotSuffix = " (hot path: %.1f%% of the profiled time)";
+
+    @NotNull
+    private final ProblemsHolder delegate;
+    @NotNull
+    private final ExecutionProfile profile;
+    private final int suppression;
+    private final int boost;
+
+    ProfileWeightedHolder(@NotNull ProblemsHolder delegate, @NotNull ExecutionProfile profile, int suppression, int boost) {
+        super(delegate.getManager(), delegate.getFile(), delegate.isOnTheFly());
+        this.delegate    = delegate;
+        this.profile     = profile;
+        this.suppression = suppression;
+        this.boost       = boost;
+    }
+
+    @Override
+    public void registerProblem(@NotNull ProblemDescriptor descriptor) {
+        final ProblemDescriptor weighted = this.weight(descriptor);
+        if (weighted != null) {
+            this.delegate.registerProblem(weighted);
+        }
+    }
+
+    @NotNull
+    @Override
+    public List<ProblemDescriptor> getResults() {
+        return this.delegate.getResults();
+    }
+
+    @Override
+    public int getResultCount() {
+        return this.delegate.getResultCount();
+    }
+
+    @Override
+    public boolean hasResults() {
+        return this.delegate.hasResults();
+    }
+
+    @Nullable
+    private ProblemDescriptor weight(@NotNull ProblemDescriptor descriptor) {
+        final PsiElement target = descriptor.getPsiElement();
+        final Function function = target == null ? null : ExecutionProfile.getProfiledFunction(target);
+        final double share      = function == null ? -1 : this.profile.getShare(function.getFQN());
+        if (share < 0) {
+            return descriptor;
+        }
+
+        final double perMille = share * 1000;
+        if (perMille < this.suppression) {
+            return null;
+        }
+        final boolean isBoostable = this.boost > 0 && perMille >= this.boost &&
+                                    descriptor.getHighlightType() != ProblemHighlightType.GENERIC_ERROR;
+        final PsiElement start    = descriptor.getStartElement();
+        final PsiElement end      = descriptor.getEndElement();
+        if (!isBoostable || start == null || end == null) {
+            return descriptor;
+        }
+
+        /* the range, end-of-line placement, tooltip and group are kept; hint actions are not exposed, so are dropped */
+        final QuickFix[] fixes         = descriptor.getFixes();
+        final LocalQuickFix[] local    = fixes == null
+                ? LocalQuickFix.EMPTY_ARRAY
+                : Arrays.stream(fixes).filter(fix -> fix instanceof LocalQuickFix).toArray(LocalQuickFix[]::new);
+        final TextRange range          = descriptor instanceof ProblemDescriptorBase ? ((ProblemDescriptorBase) descriptor).getTextRangeInElement() : null;
+        final ProblemDescriptor result = new ProblemDescriptorBase(
+                start,
+                end,
+                descriptor.getDescriptionTemplate() + String.format(hotSuffix, share * 100),
+                local,
+                ProblemHighlightType.GENERIC_ERROR,
+                descriptor.isAfterEndOfLine(),
+                range,
+                descriptor.showTooltip(),
+                this.isOnTheFly()
+        );
+        result.setProblemGroup(descriptor.getProblemGroup());
+        return result;
+    }
+}
@@ -0,0 +1,50 @@
+package com.kalessil.phpStorm.phpInspectionsEA.openApi;
+
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.ModificationTracker;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.jetbrains.php.config.PhpProjectConfigurationFacade;
+import org.jetbrains.annotations.NotNull;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Project-wide facts needed by inspections (the language level). The facts are collected once and dropped when
+ * the configured language level changes: the settings are tracked explicitly, as changing them is not guaranteed
+ * to modify any PSI (e.g. when no PHP files were parsed yet).
+ */
+public class ProjectConfigurationSnapshot {
+    @NotNull
+    private final CachedValue<PhpLanguageLevel> languageLevel;
+
+    public ProjectConfigurationSnapshot(@NotNull Project project) {
+        final PhpProjectConfigurationFacade facade = PhpProjectConfigurationFacade.getInstance(project);
+        final ModificationTracker settings         = () -> facade.getLanguageLevel().ordinal();
+        this.languageLevel = CachedValuesManager.getManager(project).createCachedValue(
+                () -> CachedValueProvider.Result.create(
+                        PhpLanguageLevel.from(facade.getLanguageLevel().getVersionString()),
+                        settings
+                ),
+                false
+        );
+    }
+
+    public static ProjectConfigurationSnapshot getInstance(@NotNull Project project) {
+        return ServiceManager.getService(project, ProjectConfigurationSnapshot.class);
+    }
+
+    @NotNull
+    public PhpLanguageLevel getLanguageLevel() {
+        return this.languageLevel.getValue();
+    }
+}
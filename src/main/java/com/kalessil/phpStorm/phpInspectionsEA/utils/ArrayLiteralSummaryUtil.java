@@ -0,0 +1,187 @@
+package com.kalessil.phpStorm.phpInspectionsEA.utils;
+
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.jetbrains.php.lang.psi.elements.ArrayCreationExpression;
+import com.jetbrains.php.lang.psi.elements.ArrayHashElement;
+import com.jetbrains.php.lang.psi.elements.PhpPsiElement;
+import com.jetbrains.php.lang.psi.elements.StringLiteralExpression;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Array literal entries, collected in one pass: key kinds and literal values, integer keys, duplicated keys
+ * and values. Entries are indexed by their position in the array literal.
+ */
+final public class ArrayLiteralSummaryUtil {
+    public static final byte KEY_NONE   = 0;
+    public static final byte KEY_STRING = 1;
+    public static final byte KEY_NUMBER = 2;
+    public static final byte KEY_OTHER  = 3;
+
+    @NotNull
+    public static Summary getSummary(@NotNull ArrayCreationExpression expression) {
+        return CachedValuesManager.getCachedValue(
+                expression,
+                () -> CachedValueProvider.Result.create(computeSummary(expression), PsiModificationTracker.MODIFICATION_COUNT)
+        );
+    }
+
+    @NotNull
+    private static Summary computeSummary(@NotNull ArrayCreationExpression expression) {
+        final PsiElement[] children              = expression.getChildren();
+        final Summary summary                    = new Summary(children);
+        final Map<String, Integer> lastPositions = new HashMap<>();
+
+        int lastInteger = Integer.MIN_VALUE;
+        for (int position = 0; position < children.length; ++position) {
+            final PsiElement entry = children[position];
+            if (entry instanceof ArrayHashElement) {
+                final PhpPsiElement key  = ((ArrayHashElement) entry).getKey();
+                summary.keys[position]   = key;
+                summary.values[position] = ((ArrayHashElement) entry).getValue();
+                if (key instanceof StringLiteralExpression && key.getFirstPsiChild() == null) {
+                    summary.kinds[position]    = KEY_STRING;
+                    summary.literals[position] = ((StringLiteralExpression) key).getContents().intern();
+                    summary.hasStringKeys      = true;
+                } else if (OpenapiTypesUtil.isNumber(key)) {
+                    summary.kinds[position]    = KEY_NUMBER;
+                    summary.literals[position] = key.getText().replaceAll("\\s+", "").intern();
+                } else {
+                    summary.kinds[position] = KEY_OTHER;
+                }
+            } else if (entry instanceof PhpPsiElement) {
+                summary.values[position] = ((PhpPsiElement) entry).getFirstPsiChild();
+            }
+
+            /* duplicated string keys: refer the last entry with the same key */
+            if (summary.kinds[position] == KEY_STRING && summary.values[position] != null) {
+                final Integer previous     = lastPositions.put(summary.literals[position], position);
+                summary.previous[position] = previous == null ? -1 : previous;
+            }
+
+            /* integer keys (in PHP sense, '01' is not an integer key) and their ordering */
+            if (summary.integerKeys) {
+                final Integer integer = toInteger(summary.kinds[position], summary.literals[position]);
+                if (integer == null) {
+                    summary.integerKeys = false;
+                } else {
+                    summary.integers[position] = integer;
+                    summary.increasingKeys     = summary.increasingKeys && integer >= lastInteger;
+                    lastInteger                = integer;
+                }
+            }
+        }
+        lastPositions.clear();
+
+        return summary;
+    }
+
+    @Nullable
+    private static Integer toInteger(byte kind, @Nullable String literal) {
+        if (literal == null || (kind == KEY_STRING && literal.length() > 1 && literal.charAt(0) == '0')) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(literal);
+        } catch (final NumberFormatException error) {
+            return null;
+        }
+    }
+
+    final public static class Summary {
+        private final PsiElement[] entries;
+        private final PhpPsiElement[] keys;
+        private final PhpPsiElement[] values;
+        private final byte[] kinds;
+        private final String[] literals;
+        private final int[] previous;
+        private final int[] integers;
+        private boolean hasStringKeys  = false;
+        private boolean integerKeys    = true;
+        private boolean increasingKeys = true;
+
+        private Summary(@NotNull PsiElement[] entries) {
+            final int size = entries.length;
+
+            this.entries  = entries;
+            this.keys     = new PhpPsiElement[size];
+            this.values   = new PhpPsiElement[size];
+            this.kinds    = new byte[size];
+            this.literals = new String[size];
+            this.previous = new int[size];
+            this.integers = new int[size];
+            Arrays.fill(this.previous, -1);
+        }
+
+        public int size() {
+            return this.kinds.length;
+        }
+
+        /* hash element or value-only entry */
+        @NotNull
+        public PsiElement getEntry(int position) {
+            return this.entries[position];
+        }
+
+        /* KEY_NONE for entries without keys, KEY_STRING only for string literals without injections */
+        public byte getKeyKind(int position) {
+            return this.kinds[position];
+        }
+
+        @Nullable
+        public PhpPsiElement getKey(int position) {
+            return this.keys[position];
+        }
+
+        /* string literal contents or number text (interned), null for other keys */
+        @Nullable
+        public String getLiteralKey(int position) {
+            return this.literals[position];
+        }
+
+        @Nullable
+        public PhpPsiElement getValue(int position) {
+            return this.values[position];
+        }
+
+        /* position of the last preceding entry with the same string key, -1 if none */
+        public int getDuplicatedKeyPosition(int position) {
+            return this.previous[position];
+        }
+
+        public boolean hasStringKeys() {
+            return this.hasStringKeys;
+        }
+
+        /* all entries have string literal or number keys, convertible to integers */
+        public boolean hasIntegerKeysOnly() {
+            return this.integerKeys && this.kinds.length > 0;
+        }
+
+        /* meaningful only if hasIntegerKeysOnly() */
+        public boolean hasIncreasingKeys() {
+            return this.increasingKeys;
+        }
+
+        /* meaningful only if hasIntegerKeysOnly() */
+        public int getIntegerKey(int position) {
+            return this.integers[position];
+        }
+    }
+}
@@ -0,0 +1,398 @@
+package com.kalessil.phpStorm.phpInspectionsEA.utils;
+
+import com.intellij.openapi.util.RecursionManager;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.jetbrains.php.lang.psi.elements.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * cURL handles configuration per scope (a function or a file top-level code): options set on each handle variable
+ * via curl_setopt, curl_setopt_array (with inline or local options arrays) and helper functions. Helpers are
+ * summarized by the options they are setting on handles passed as parameters or returned.
+ */
+final public class CurlHandlesModelUtil {
+    private final static Set<String> executions = new HashSet<>();
+    static {
+        executions.add("curl_exec");
+        executions.add("curl_multi_add_handle");
+    }
+
+    /* the model of the scope the element belongs to */
+    @NotNull
+    static public Model getModel(@NotNull PsiElement element) {
+        final Function function = ExpressionSemanticUtil.getScope(element);
+        final PsiElement scope  = function == null ? element.getContainingFile() : function;
+        return CachedValuesManager.getCachedValue(
+                scope,
+                () -> CachedValueProvider.Result.create(computeModel(scope), PsiModificationTracker.MODIFICATION_COUNT)
+        );
+    }
+
+    @NotNull
+    static private Model computeModel(@NotNull PsiElement scope) {
+        final Model model = new Model();
+
+        /* local options arrays: `$options = [...]` and `$options[CURLOPT_*] = ...` */
+        final Map<String, List<Option>> arrays       = new HashMap<>();
+        final Set<String> knownArrays                = new HashSet<>();
+        final List<FunctionReference> calls          = new ArrayList<>();
+        final List<AssignmentExpression> assignments = new ArrayList<>();
+        final Set<String> escaped                    = new HashSet<>();
+        final Set<String> returned                   = new HashSet<>();
+
+        for (final PsiElement element : PsiTreeUtil.findChildrenOfAnyType(scope, ConstantReference.class, FunctionReference.class, AssignmentExpression.class, PhpReturn.class, NewExpression.class, Function.class)) {
+            if (ExpressionSemanticUtil.getScope(element) != (scope instanceof Function ? scope : null)) {
+                continue;
+            }
+            if (element instanceof ConstantReference) {
+                collectOption((ConstantReference) element, model, arrays);
+            } else if (element instanceof FunctionReference) {
+                calls.add((FunctionReference) element);
+            } else if (element instanceof AssignmentExpression) {
+                assignments.add((AssignmentExpression) element);
+            } else if (element instanceof NewExpression) {
+                /* handles passed into constructors are configured by unknown code */
+                for (final PsiElement argument : ((NewExpression) element).getParameters()) {
+                    if (argument instanceof Variable) {
+                        escaped.add(((Variable) argument).getName());
+                    }
+                }
+            } else if (element instanceof Function) {
+                /* handles imported into closures are configured by unknown code */
+                final List<Variable> imported = ExpressionSemanticUtil.getUseListVariables((Function) element);
+                if (imported != null) {
+                    imported.forEach(variable -> escaped.add(variable.getName()));
+                }
+            } else {
+                final PsiElement value = ExpressionSemanticUtil.getReturnValue((PhpReturn) element);
+                if (value instanceof Variable) {
+                    returned.add(((Variable) value).getName());
+                }
+            }
+        }
+
+        /* helpers are summarized only for variables reaching curl_* functions afterwards, by the last such usage */
+        final Map<String, Integer> usages = new HashMap<>();
+        for (final FunctionReference call : calls) {
+            final String functionName    = call.getName();
+            final PsiElement[] arguments = call.getParameters();
+            if (functionName != null && functionName.startsWith("curl_") && arguments.length > 0 && OpenapiTypesUtil.isFunctionReference(call)) {
+                final PsiElement subject = arguments[functionName.equals("curl_multi_add_handle") && arguments.length > 1 ? 1 : 0];
+                if (subject instanceof Variable) {
+                    usages.merge(((Variable) subject).getName(), call.getTextOffset(), Math::max);
+                }
+            }
+        }
+
+        for (final AssignmentExpression assignment : assignments) {
+            final PsiElement container = assignment.getVariable();
+            final PsiElement value     = ExpressionSemanticUtil.getExpressionTroughParenthesis(assignment.getValue());
+            if (container instanceof Variable) {
+                final String name = ((Variable) container).getName();
+                if (value instanceof ArrayCreationExpression) {
+                    knownArrays.add(name);
+                } else if (value instanceof FunctionReference) {
+                    final String functionName = ((FunctionReference) value).getName();
+                    if ("curl_init".equals(functionName) && OpenapiTypesUtil.isFunctionReference(value)) {
+                        model.getOrCreate(name).creation = value;
+                    } else if (usages.getOrDefault(name, -1) > assignment.getTextOffset()) {
+                        final Summary summary = getSummary((FunctionReference) value);
+                        if (summary != null && summary.returned != null) {
+                            final Handle handle = model.getOrCreate(name);
+                            handle.creation     = value;
+                            handle.options.addAll(summary.returned);
+                        }
+                    }
+                }
+            }
+            if (value instanceof Variable) {
+                escaped.add(((Variable) value).getName());
+            }
+        }
+        assignments.clear();
+
+        for (final FunctionReference call : calls) {
+            final String functionName    = call.getName();
+            final PsiElement[] arguments = call.getParameters();
+            if (functionName == null || arguments.length == 0) {
+                continue;
+            }
+            final boolean isCurlFunction = functionName.startsWith("curl_") && OpenapiTypesUtil.isFunctionReference(call);
+            if (isCurlFunction) {
+                final PsiElement subject = arguments[functionName.equals("curl_multi_add_handle") && arguments.length > 1 ? 1 : 0];
+                if (!(subject instanceof Variable)) {
+                    continue;
+                }
+                final Handle handle = model.getOrCreate(((Variable) subject).getName());
+                if (executions.contains(functionName)) {
+                    handle.executions.add(call);
+                } else if (functionName.equals("curl_setopt_array") && arguments.length == 2) {
+                    final PsiElement options = ExpressionSemanticUtil.getExpressionTroughParenthesis(arguments[1]);
+                    if (options instanceof ArrayCreationExpression) {
+                        handle.options.addAll(model.getArrayOptions((ArrayCreationExpression) options));
+                    } else if (options instanceof Variable && isKnownArray(((Variable) options).getName(), knownArrays, arrays)) {
+                        final String name = ((Variable) options).getName();
+                        handle.options.addAll(arrays.getOrDefault(name, Collections.emptyList()));
+                        for (final Map.Entry<ArrayCreationExpression, List<Option>> entry : model.arrays.entrySet()) {
+                            final PsiElement parent = entry.getKey().getParent();
+                            if (OpenapiTypesUtil.isAssignment(parent)) {
+                                final PsiElement container = ((AssignmentExpression) parent).getVariable();
+                                if (container instanceof Variable && name.equals(((Variable) container).getName())) {
+                                    handle.options.addAll(entry.getValue());
+                                }
+                            }
+                        }
+                    } else {
+                        handle.isEscaped = true;
+                    }
+                }
+            } else {
+                /* handles passed into helpers: get options from the helper summary */
+                Summary summary = null;
+                for (int position = 0; position < arguments.length; ++position) {
+                    if (arguments[position] instanceof Variable) {
+                        final Handle handle = model.handles.get(((Variable) arguments[position]).getName());
+                        if (handle != null) {
+                            summary = summary == null ? getSummary(call) : summary;
+                            final List<Option> options = summary == null ? null : summary.parameters.get(position);
+                            if (options == null) {
+                                handle.isEscaped = true;
+                            } else {
+                                handle.options.addAll(options);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        calls.clear();
+
+        for (final Handle handle : model.handles.values()) {
+            handle.isEscaped  = handle.isEscaped || escaped.contains(handle.variable);
+            handle.isReturned = returned.contains(handle.variable);
+        }
+
+        return model;
+    }
+
+    static private boolean isKnownArray(@NotNull String name, @NotNull Set<String> knownArrays, @NotNull Map<String, List<Option>> arrays) {
+        return knownArrays.contains(name) || arrays.containsKey(name);
+    }
+
+    static private void collectOption(@NotNull ConstantReference reference, @NotNull Model model, @NotNull Map<String, List<Option>> arrays) {
+        final String name = reference.getName();
+        if (name == null || !name.startsWith("CURLOPT_")) {
+            return;
+        }
+        final PsiElement parent  = reference.getParent();
+        final PsiElement context = parent == null ? null : parent.getParent();
+        if (context instanceof FunctionReference) {
+            /* curl_setopt($handle, CURLOPT_*, $value) */
+            final FunctionReference call = (FunctionReference) context;
+            final PsiElement[] arguments = call.getParameters();
+            if (arguments.length == 3 && arguments[1] == reference && "curl_setopt".equals(call.getName())) {
+                final Option option = new Option(name, arguments[2], call);
+                model.add(option);
+                if (arguments[0] instanceof Variable) {
+                    model.getOrCreate(((Variable) arguments[0]).getName()).options.add(option);
+                }
+            }
+        } else if (context instanceof ArrayHashElement && reference == ((ArrayHashElement) context).getKey()) {
+            /* [CURLOPT_* => $value] */
+            final PsiElement value = ((ArrayHashElement) context).getValue();
+            final PsiElement array = context.getParent();
+            if (value != null && array instanceof ArrayCreationExpression) {
+                final Option option = new Option(name, value, context);
+                model.add(option);
+                model.arrays.computeIfAbsent((ArrayCreationExpression) array, key -> new ArrayList<>()).add(option);
+            }
+        } else if (context instanceof ArrayAccessExpression) {
+            /* $options[CURLOPT_*] = $value */
+            PsiElement assignment = context;
+            while (assignment instanceof ArrayAccessExpression) {
+                assignment = assignment.getParent();
+            }
+            if (OpenapiTypesUtil.isAssignment(assignment)) {
+                final PsiElement value = ((AssignmentExpression) assignment).getValue();
+                if (value != null) {
+                    final Option option = new Option(name, value, assignment);
+                    model.add(option);
+                    final PsiElement container = ((ArrayAccessExpression) context).getValue();
+                    if (container instanceof Variable && ((AssignmentExpression) assignment).getVariable() == context) {
+                        arrays.computeIfAbsent(((Variable) container).getName(), key -> new ArrayList<>()).add(option);
+                    }
+                }
+            }
+        }
+    }
+
+    @Nullable
+    static private Summary getSummary(@NotNull FunctionReference call) {
+        final PsiElement resolved = OpenapiResolveUtil.resolveReference(call);
+        if (resolved instanceof Function && ExpressionSemanticUtil.getGroupStatement((Function) resolved) != null) {
+            final Function function = (Function) resolved;
+            /* recursive calls are getting no summary */
+            return RecursionManager.doPreventingRecursion(function, false, () -> {
+                final Summary summary        = new Summary();
+                final Model model            = getModel(function);
+                final Parameter[] parameters = function.getParameters();
+                for (int position = 0; position < parameters.length; ++position) {
+                    /* handles passed further into unknown code are getting no options (null) */
+                    final Handle handle = model.handles.get(parameters[position].getName());
+                    summary.parameters.put(position, handle == null ? Collections.emptyList() : (handle.isEscaped ? null : handle.options));
+                }
+                for (final Handle handle : model.handles.values()) {
+                    if (handle.isReturned && !handle.isEscaped && handle.creation != null) {
+                        summary.returned = handle.options;
+                        break;
+                    }
+                }
+                return summary;
+            });
+        }
+        return null;
+    }
+
+    final public static class Option {
+        @NotNull
+        private final String name;
+        @NotNull
+        private final PsiElement value;
+        @NotNull
+        private final PsiElement target;
+
+        private Option(@NotNull String name, @NotNull PsiElement value, @NotNull PsiElement target) {
+            this.name   = name;
+            this.value  = value;
+            this.target = target;
+        }
+
+        /* the CURLOPT_* constant name */
+        @NotNull
+        public String getName() {
+            return this.name;
+        }
+
+        @NotNull
+        public PsiElement getValue() {
+            return this.value;
+        }
+
+        /* the curl_setopt call, the array hash element or the array element assignment */
+        @NotNull
+        public PsiElement getTarget() {
+            return this.target;
+        }
+    }
+
+    final public static class Handle {
+        @NotNull
+        private final String variable;
+        @NotNull
+        private final List<Option> options               = new ArrayList<>();
+        @NotNull
+        private final List<FunctionReference> executions = new ArrayList<>();
+        @Nullable
+        private PsiElement creation;
+        private boolean isEscaped  = false;
+        private boolean isReturned = false;
+
+        private Handle(@NotNull String variable) {
+            this.variable = variable;
+        }
+
+        /* curl_init(...) or a helper call returning a handle, null if the handle comes from outside (e.g. a parameter) */
+        @Nullable
+        public PsiElement getCreation() {
+            return this.creation;
+        }
+
+        /* false if the handle escapes the scope or gets options we can not see */
+        public boolean isComplete() {
+            return !this.isEscaped && !this.isReturned;
+        }
+
+        @NotNull
+        public List<Option> getOptions() {
+            return this.options;
+        }
+
+        @NotNull
+        public List<FunctionReference> getExecutions() {
+            return this.executions;
+        }
+
+        public boolean hasOption(@NotNull String... names) {
+            for (final Option option : this.options) {
+                for (final String name : names) {
+                    if (option.name.equals(name)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+
+    final public static class Model {
+        private final Map<PsiElement, Option> options                   = new LinkedHashMap<>();
+        private final Map<String, Handle> handles                       = new HashMap<>();
+        private final Map<ArrayCreationExpression, List<Option>> arrays = new HashMap<>();
+
+        private Model() {
+        }
+
+        @NotNull
+        private Handle getOrCreate(@NotNull String variable) {
+            return this.handles.computeIfAbsent(variable, Handle::new);
+        }
+
+        @NotNull
+        private List<Option> getArrayOptions(@NotNull ArrayCreationExpression array) {
+            return this.arrays.getOrDefault(array, Collections.emptyList());
+        }
+
+        /* all options set in the scope, including ones in arrays not bound to any handle */
+        @NotNull
+        public Collection<Option> getOptions() {
+            return this.options.values();
+        }
+
+        /* the option set by the element (a curl_setopt call, an array hash element or an assignment) */
+        @Nullable
+        public Option getOption(@NotNull PsiElement target) {
+            return this.options.get(target);
+        }
+
+        private void add(@NotNull Option option) {
+            this.options.putIfAbsent(option.target, option);
+        }
+
+        @Nullable
+        public Handle getHandle(@NotNull String variable) {
+            return this.handles.get(variable);
+        }
+    }
+
+    private static final class Summary {
+        private final Map<Integer, List<Option>> parameters = new HashMap<>();
+        @Nullable
+        private List<Option> returned;
+    }
+}
@@ -0,0 +1,280 @@
+package com.kalessil.phpStorm.phpInspectionsEA.utils;
+
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.jetbrains.php.lang.lexer.PhpTokenTypes;
+import com.jetbrains.php.lang.psi.elements.*;
+import com.kalessil.phpStorm.phpInspectionsEA.indexers.CallSitesIndexer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Static execution frequency model, for ranking findings when no execution profile is available. Functions are
+ * getting a frequency from the call-graph fan-in (name-based, from CallSitesIndexer) and from being an entry point
+ * (controller actions, console commands); elements are multiplied by the bounds of enclosing loops (for-loop counters
+ * with literal initial values and limits, count(...) and range(...) hints, 10 iterations otherwise). The numbers are
+ * relative weights, not predictions.
+ */
+final public class ExecutionFrequencyUtil {
+    private static final int defaultLoopBound = 10;
+    private static final int maxLoopBound     = 1000;
+    private static final int maxFanIn         = 100;
+    private static final int entryPointFactor = 10;
+
+    private static final Set<String> commandMethods = new HashSet<>(Arrays.asList("execute", "handle", "__invoke"));
+
+    /* weight of the reported problem, 0 if the problem is not bound to PSI anymore */
+    static public double getWeight(@NotNull ProblemDescriptor descriptor) {
+        final PsiElement target = descriptor.getPsiElement();
+        return target == null || !target.isValid() ? 0 : estimate(target);
+    }
+
+    /* estimated executions of the element: the enclosing function frequency and bounds of the enclosing loops */
+    static public double estimate(@NotNull PsiElement element) {
+        double result      = 1;
+        PsiElement current = element;
+        while (true) {
+            for (PsiElement loop = LoopInvarianceUtil.getEnclosingLoop(current); loop != null; loop = LoopInvarianceUtil.getEnclosingLoop(loop)) {
+                result *= getSummary(loop).getLoopBound();
+                current = loop;
+            }
+            final Function function = current instanceof Function ? (Function) current : PsiTreeUtil.getParentOfType(current, Function.class);
+            if (function == null) {
+                /* top-level code is executed once */
+                return result;
+            }
+            if (!function.isClosure()) {
+                return result * getSummary(function).getFrequency();
+            }
+            /* closures are mostly callbacks, e.g. of array_map(...) or usort(...) */
+            result *= defaultLoopBound;
+            current = function;
+        }
+    }
+
+    /* summary of a function or a loop, computed once per PSI modification */
+    @NotNull
+    static public Summary getSummary(@NotNull PsiElement functionOrLoop) {
+        if (DumbService.isDumb(functionOrLoop.getProject())) {
+            return computeSummary(functionOrLoop);
+        }
+        return CachedValuesManager.getCachedValue(
+                functionOrLoop,
+                () -> CachedValueProvider.Result.create(computeSummary(functionOrLoop), PsiModificationTracker.MODIFICATION_COUNT)
+        );
+    }
+
+    @NotNull
+    static private Summary computeSummary(@NotNull PsiElement functionOrLoop) {
+        if (functionOrLoop instanceof Function) {
+            final Function function = (Function) functionOrLoop;
+            return new Summary(getFanIn(function), isEntryPoint(function), 1);
+        }
+        final Integer bound = getLoopBound(functionOrLoop);
+        return new Summary(0, false, bound == null ? defaultLoopBound : (int) Math.max(1, Math.min(maxLoopBound, bound)));
+    }
+
+    /* call sites with the same name, calls by name are not resolved in the index */
+    static private int getFanIn(@NotNull Function function) {
+        final Project project = function.getProject();
+        final String name     = function.getName();
+        if (name.isEmpty() || DumbService.isDumb(project)) {
+            return 0;
+        }
+        int result = 0;
+        for (final Integer count : FileBasedIndex.getInstance().getValues(CallSitesIndexer.identity, name.toLowerCase(), GlobalSearchScope.allScope(project))) {
+            result += count;
+        }
+        return result;
+    }
+
+    /* controller actions and console commands are executed on each request/run */
+    static private boolean isEntryPoint(@NotNull Function function) {
+        if (function instanceof Method) {
+            final Method method  = (Method) function;
+            final PhpClass clazz = method.getContainingClass();
+            if (clazz != null && !method.isStatic() && !method.isAbstract()) {
+                final String methodName = method.getName();
+                if (clazz.getName().endsWith("Controller")) {
+                    return method.getAccess().isPublic() && (!methodName.startsWith("__") || methodName.equals("__invoke"));
+                }
+                if (commandMethods.contains(methodName.toLowerCase())) {
+                    final Set<PhpClass> processed = new HashSet<>();
+                    for (PhpClass current = clazz; current != null && processed.add(current); current = OpenapiResolveUtil.resolveSuperClass(current)) {
+                        if (current.getName().endsWith("Command")) {
+                            processed.clear();
+                            return true;
+                        }
+                    }
+                    processed.clear();
+                }
+            }
+        }
+        return false;
+    }
+
+    /* iterations hints: counters with literal initial value and limit, `count(<array literal>)`, `range(...)` with literal arguments */
+    @Nullable
+    static private Long getLoopBound(@NotNull PsiElement loop) {
+        if (loop instanceof ForeachStatement) {
+            return getIterationsCount(((ForeachStatement) loop).getArray());
+        } else if (loop instanceof For) {
+            final For statement              = (For) loop;
+            final Map<String, Long> counters = getCounters(statement);
+            for (final PsiElement condition : statement.getConditionalExpressions()) {
+                if (condition instanceof BinaryExpression) {
+                    final BinaryExpression binary = (BinaryExpression) condition;
+                    final IElementType operation  = binary.getOperationType();
+                    if (
+                        operation == PhpTokenTypes.opLESS || operation == PhpTokenTypes.opLESS_OR_EQUAL ||
+                        operation == PhpTokenTypes.opGREATER || operation == PhpTokenTypes.opGREATER_OR_EQUAL
+                    ) {
+                        /* `$i < limit` or `limit > $i`, where $i is stepped in the repeated expressions */
+                        final PsiElement left  = binary.getLeftOperand();
+                        final PsiElement right = binary.getRightOperand();
+                        final boolean isLeft   = left instanceof Variable && counters.containsKey(((Variable) left).getName());
+                        final boolean isRight  = right instanceof Variable && counters.containsKey(((Variable) right).getName());
+                        if (isLeft || isRight) {
+                            final String counter = ((Variable) (isLeft ? left : right)).getName();
+                            final Long initial   = LoopInvarianceUtil.getInitialValue(statement, counter);
+                            final Long limit     = getLimit(isLeft ? right : left);
+                            if (initial != null && limit != null) {
+                                final boolean inclusive = operation == PhpTokenTypes.opLESS_OR_EQUAL || operation == PhpTokenTypes.opGREATER_OR_EQUAL;
+                                return Math.abs(limit - initial) / counters.get(counter) + (inclusive ? 1 : 0);
+                            }
+                        }
+                        return null;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /* variables stepped in the repeated expressions: `++$i`, `$i--`, `$i += <literal>`, by the step size */
+    @NotNull
+    static private Map<String, Long> getCounters(@NotNull For loop) {
+        final Map<String, Long> result = new HashMap<>();
+        for (final PsiElement expression : loop.getRepeatedExpressions()) {
+            if (expression instanceof UnaryExpression) {
+                final UnaryExpression unary = (UnaryExpression) expression;
+                final PsiElement operation  = unary.getOperation();
+                final PsiElement variable   = unary.getValue();
+                if (
+                    variable instanceof Variable &&
+                    (OpenapiTypesUtil.is(operation, PhpTokenTypes.opINCREMENT) || OpenapiTypesUtil.is(operation, PhpTokenTypes.opDECREMENT))
+                ) {
+                    result.put(((Variable) variable).getName(), 1L);
+                }
+            } else if (expression instanceof SelfAssignmentExpression) {
+                final SelfAssignmentExpression assignment = (SelfAssignmentExpression) expression;
+                final PsiElement operation                = assignment.getOperation();
+                final PsiElement variable                 = assignment.getVariable();
+                final Long step                           = LoopInvarianceUtil.parseInteger(assignment.getValue());
+                if (
+                    variable instanceof Variable && step != null && step != 0 &&
+                    (OpenapiTypesUtil.is(operation, PhpTokenTypes.opPLUS_ASGN) || OpenapiTypesUtil.is(operation, PhpTokenTypes.opMINUS_ASGN))
+                ) {
+                    result.put(((Variable) variable).getName(), Math.abs(step));
+                }
+            }
+        }
+        return result;
+    }
+
+    @Nullable
+    static private Long getLimit(@Nullable PsiElement expression) {
+        final Long literal = LoopInvarianceUtil.parseInteger(expression);
+        if (literal != null) {
+            return literal;
+        } else if (OpenapiTypesUtil.isFunctionReference(expression)) {
+            final FunctionReference call = (FunctionReference) expression;
+            final String functionName    = call.getName();
+            final PsiElement[] arguments = call.getParameters();
+            if (functionName != null && (functionName.equals("count") || functionName.equals("sizeof")) && arguments.length == 1) {
+                return getIterationsCount(arguments[0]);
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    static private Long getIterationsCount(@Nullable PsiElement source) {
+        if (OpenapiTypesUtil.isFunctionReference(source)) {
+            final FunctionReference call = (FunctionReference) source;
+            final PsiElement[] arguments = call.getParameters();
+            if ("range".equals(call.getName()) && (arguments.length == 2 || arguments.length == 3)) {
+                final Long from = LoopInvarianceUtil.parseInteger(arguments[0]);
+                final Long to   = LoopInvarianceUtil.parseInteger(arguments[1]);
+                final Long step = arguments.length == 3 ? LoopInvarianceUtil.parseInteger(arguments[2]) : Long.valueOf(1);
+                if (from != null && to != null && step != null && step != 0) {
+                    return Math.abs(to - from) / Math.abs(step) + 1;
+                }
+            }
+            return null;
+        }
+
+        ArrayCreationExpression literal = null;
+        if (source instanceof ArrayCreationExpression) {
+            literal = (ArrayCreationExpression) source;
+        } else if (source instanceof Variable) {
+            final Set<PsiElement> values = PossibleValuesDiscoveryUtil.discover(source);
+            final PsiElement value       = values.size() == 1 ? values.iterator().next() : null;
+            values.clear();
+            literal = value instanceof ArrayCreationExpression ? (ArrayCreationExpression) value : null;
+        }
+        return literal == null ? null : (long) ArrayLiteralSummaryUtil.getSummary(literal).size();
+    }
+
+    final public static class Summary {
+        private final int fanIn;
+        private final boolean isEntryPoint;
+        private final int loopBound;
+
+        private Summary(int fanIn, boolean isEntryPoint, int loopBound) {
+            this.fanIn        = fanIn;
+            this.isEntryPoint = isEntryPoint;
+            this.loopBound    = loopBound;
+        }
+
+        /* functions: call sites with the same name */
+        public int getFanIn() {
+            return this.fanIn;
+        }
+
+        /* functions: controller actions and console commands */
+        public boolean isEntryPoint() {
+            return this.isEntryPoint;
+        }
+
+        /* loops: estimated iterations */
+        public int getLoopBound() {
+            return this.loopBound;
+        }
+
+        /* functions: relative executions count */
+        public double getFrequency() {
+            return (1 + Math.min(this.fanIn, maxFanIn)) * (this.isEntryPoint ? entryPointFactor : 1);
+        }
+    }
+}
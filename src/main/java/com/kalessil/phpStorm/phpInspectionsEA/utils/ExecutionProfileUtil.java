@@ -0,0 +1,205 @@
+package com.kalessil.phpStorm.phpInspectionsEA.utils;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import gnu.trove.TObjectLongHashMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Execution profiles parsing: Xdebug cachegrind files and XHProf/Tideways JSON exports are reduced to the inclusive
+ * cost (the first event, usually the wall time) of user functions, keyed by FQN as PhpStorm names them:
+ * `\Namespace\function` and `\Namespace\Class.method`. Internal functions, closures and includes are not collected.
+ */
+final public class ExecutionProfileUtil {
+    @NotNull
+    static public Profile parse(@NotNull Reader source) throws IOException {
+        final BufferedReader reader = source instanceof BufferedReader ? (BufferedReader) source : new BufferedReader(source);
+        reader.mark(1024);
+        int first;
+        do {
+            first = reader.read();
+        } while (first != -1 && Character.isWhitespace(first));
+        reader.reset();
+
+        return first == '{' ? parseXhprof(reader) : parseCachegrind(reader);
+    }
+
+    /* `fn=(id) name`, cost lines (positions and events), `calls=` followed by the inclusive cost of the call */
+    @NotNull
+    static private Profile parseCachegrind(@NotNull BufferedReader reader) throws IOException {
+        final Map<String, String> names = new HashMap<>();
+        final Map<String, Long> costs   = new HashMap<>();
+        int positions                   = 1;
+        String function                 = null;
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isEmpty()) {
+                continue;
+            }
+            final char first = line.charAt(0);
+            if (Character.isDigit(first) || first == '+' || first == '-' || first == '*') {
+                /* own cost of the function or, right after `calls=`, inclusive cost of the callee */
+                if (function != null) {
+                    final String[] parts = line.trim().split("\\s+");
+                    final long cost      = parts.length > positions ? parseCost(parts[positions]) : 0;
+                    costs.merge(function, cost, Long::sum);
+                }
+            } else if (line.startsWith("fn=")) {
+                function = resolveName(line.substring(3), names);
+            } else if (line.startsWith("cfn=")) {
+                resolveName(line.substring(4), names);
+            } else if (line.startsWith("positions:")) {
+                positions = Math.max(1, line.substring(10).trim().split("\\s+").length);
+            }
+        }
+        names.clear();
+
+        return new Profile(costs);
+    }
+
+    /* `(id) name` defines the compressed name, `(id)` references it */
+    @Nullable
+    static private String resolveName(@NotNull String specification, @NotNull Map<String, String> names) {
+        final String value = specification.trim();
+        if (value.startsWith("(")) {
+            final int end = value.indexOf(')');
+            if (end != -1) {
+                final String id   = value.substring(0, end + 1);
+                final String name = value.substring(end + 1).trim();
+                if (name.isEmpty()) {
+                    return names.get(id);
+                }
+                names.put(id, name);
+                return name;
+            }
+        }
+        return value;
+    }
+
+    /* `"parent==>child": {"ct": 1, "wt": 10, ...}`, the inclusive cost of a function is the sum over its callers */
+    @NotNull
+    static private Profile parseXhprof(@NotNull BufferedReader reader) throws IOException {
+        final Map<String, Long> costs = new HashMap<>();
+        final JsonReader json         = new JsonReader(reader);
+        json.beginObject();
+        while (json.hasNext()) {
+            final String key = json.nextName();
+            if (json.peek() != JsonToken.BEGIN_OBJECT) {
+                json.skipValue();
+            } else if (key.equals("profile")) {
+                /* Tideways-like exports are wrapping the XHProf data */
+                json.beginObject();
+                while (json.hasNext()) {
+                    readXhprofEntry(json, json.nextName(), costs);
+                }
+                json.endObject();
+            } else {
+                readXhprofEntry(json, key, costs);
+            }
+        }
+        json.endObject();
+
+        return new Profile(costs);
+    }
+
+    static private void readXhprofEntry(@NotNull JsonReader json, @NotNull String key, @NotNull Map<String, Long> costs) throws IOException {
+        if (json.peek() != JsonToken.BEGIN_OBJECT) {
+            json.skipValue();
+            return;
+        }
+        long cost = 0;
+        json.beginObject();
+        while (json.hasNext()) {
+            if (json.nextName().equals("wt") && json.peek() == JsonToken.NUMBER) {
+                cost = (long) json.nextDouble();
+            } else {
+                json.skipValue();
+            }
+        }
+        json.endObject();
+
+        final int separator = key.indexOf("==>");
+        costs.merge(separator == -1 ? key : key.substring(separator + 3), cost, Long::sum);
+    }
+
+    static private long parseCost(@NotNull String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException failure) {
+            return 0;
+        }
+    }
+
+    /* `App\Service->run`, `App\Service::create'1` or `App\Service::run@2` => `\App\Service.run`, null if not a user function */
+    @Nullable
+    static private String normalize(@NotNull String name) {
+        String result = name.trim();
+        if (result.isEmpty() || result.startsWith("php::") || result.contains("{") || result.contains("(")) {
+            return null;
+        }
+        if (result.matches("^(require|require_once|include|include_once|eval|run_init)::.*")) {
+            return null;
+        }
+
+        /* recursive calls: Xdebug and XHProf are naming nested invocations with a depth suffix */
+        result = result.replaceAll("('|@)\\d+$", "");
+        result = result.replace("->", ".").replace("::", ".");
+        return result.startsWith("\\") ? result : '\\' + result;
+    }
+
+    final public static class Profile {
+        private final TObjectLongHashMap<String> costs = new TObjectLongHashMap<>();
+        private final long total;
+
+        private Profile(@NotNull Map<String, Long> raw) {
+            long total = 0;
+            for (final Map.Entry<String, Long> entry : raw.entrySet()) {
+                final long cost = entry.getValue();
+                total           = Math.max(total, cost);
+                /* nested recursive invocations are included into the outermost one, hence the maximum */
+                final String fqn = normalize(entry.getKey());
+                if (fqn != null && (!this.costs.containsKey(fqn) || cost > this.costs.get(fqn))) {
+                    this.costs.put(fqn, cost);
+                }
+            }
+            this.costs.compact();
+            this.total = total;
+        }
+
+        /* inclusive cost of the function, 0 if it was not executed */
+        public long getCost(@NotNull String fqn) {
+            return this.costs.get(fqn);
+        }
+
+        /* inclusive cost of the entry point (the most expensive function) */
+        public long getTotal() {
+            return this.total;
+        }
+
+        public boolean contains(@NotNull String fqn) {
+            return this.costs.containsKey(fqn);
+        }
+
+        @NotNull
+        public TObjectLongHashMap<String> getCosts() {
+            return this.costs;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.kalessil.phpStorm.phpInspectionsEA.utils;
+
+import com.intellij.util.containers.SLRUMap;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Function;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Hand-written tokenizers for printf/scanf formats and DateInterval specifications.
+ * Results are immutable and cached by the literal content in bounded LRU maps, as the same formats
+ * (e.g. translations templates) are repeated all over a project.
+ */
+final public class FormatStringsUtil {
+    private static final SLRUMap<String, PrintfFormat> printfFormats         = new SLRUMap<>(512, 512);
+    private static final SLRUMap<String, Boolean> dateIntervalSpecifications = new SLRUMap<>(128, 128);
+
+    private static final String dateIntervalDateUnits = "YMDW";
+    private static final String dateIntervalTimeUnits = "HMS";
+
+    @NotNull
+    public static PrintfFormat parsePrintf(@NotNull String content) {
+        return getCached(printfFormats, content, FormatStringsUtil::tokenizePrintf);
+    }
+
+    public static boolean isValidDateIntervalSpecification(@NotNull String content) {
+        return getCached(dateIntervalSpecifications, content, FormatStringsUtil::tokenizeDateInterval);
+    }
+
+    @NotNull
+    private static <T> T getCached(@NotNull SLRUMap<String, T> cache, @NotNull String content, @NotNull Function<String, T> tokenizer) {
+        synchronized (cache) {
+            final T cached = cache.get(content);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        final T result = tokenizer.apply(content);
+        synchronized (cache) {
+            cache.put(content, result);
+        }
+        return result;
+    }
+
+    /* placeholders: %[position$][+-][padding][-][width][.precision]conversion, `%%` is an escaped percent sign */
+    @NotNull
+    private static PrintfFormat tokenizePrintf(@NotNull String content) {
+        final String format = content.indexOf('%') == -1 ? content : content.replace("%%", "");
+        if (hasInlineVariables(format)) {
+            return PrintfFormat.INLINE_VARIABLES;
+        }
+
+        int placeholders    = 0;
+        int withoutPosition = 0;
+        int maxPosition     = 0;
+        int percents        = 0;
+        final int length    = format.length();
+        /* `%*` (scanf suppressed assignment) is not a placeholder, but also not a pattern error */
+        for (int index = format.indexOf('%'); index != -1; index = format.indexOf('%', index + 1)) {
+            if (index + 1 >= length || format.charAt(index + 1) != '*') {
+                ++percents;
+            }
+        }
+        for (int index = 0; index < length; ++index) {
+            if (format.charAt(index) != '%') {
+                continue;
+            }
+
+            int cursor   = index + 1;
+            int position = -1;
+            /* position specifier */
+            final int digitsEnd = skipDigits(format, cursor);
+            if (digitsEnd < length && format.charAt(digitsEnd) == '$' && digitsEnd > cursor) {
+                position = parsePosition(format, cursor, digitsEnd);
+                cursor   = digitsEnd + 1;
+            } else if (cursor + 1 < length && format.charAt(cursor) == '*' && format.charAt(cursor + 1) == '$') {
+                position = 0;
+                cursor  += 2;
+            }
+            /* sign */
+            if (cursor < length && (format.charAt(cursor) == '+' || format.charAt(cursor) == '-')) {
+                ++cursor;
+            }
+            /* padding: space, zero or a custom one (quoted) */
+            if (cursor < length && (format.charAt(cursor) == ' ' || format.charAt(cursor) == '0')) {
+                ++cursor;
+            } else {
+                final int quote = cursor < length && format.charAt(cursor) == '\\' ? cursor + 1 : cursor;
+                if (quote + 1 < length && format.charAt(quote) == '\'' && !isLineTerminator(format.charAt(quote + 1))) {
+                    cursor = quote + 2;
+                }
+            }
+            /* alignment and width */
+            if (cursor < length && format.charAt(cursor) == '-') {
+                ++cursor;
+            }
+            cursor = skipDigits(format, cursor);
+            /* precision */
+            if (cursor < length && format.charAt(cursor) == '.') {
+                final int precisionEnd = skipDigits(format, cursor + 1);
+                if (precisionEnd > cursor + 1) {
+                    cursor = precisionEnd;
+                }
+            }
+            /* conversion */
+            if (cursor < length && "[sducoxXbgGeEfF".indexOf(format.charAt(cursor)) != -1) {
+                ++placeholders;
+                if (position > 0) {
+                    maxPosition = Math.max(maxPosition, position);
+                } else if (position < 0) {
+                    ++withoutPosition;
+                }
+                index = cursor;
+            }
+        }
+
+        return new PrintfFormat(placeholders, withoutPosition, maxPosition, percents);
+    }
+
+    /* `$name`, `${name}`, `$$name`: the format gets modified at runtime */
+    private static boolean hasInlineVariables(@NotNull String format) {
+        final int length = format.length();
+        for (int index = format.indexOf('$'); index != -1; index = format.indexOf('$', index + 1)) {
+            int cursor = index + 1;
+            if (cursor < length && format.charAt(cursor) == '{') {
+                ++cursor;
+            }
+            if (cursor < length && format.charAt(cursor) == '$') {
+                ++cursor;
+            }
+            if (cursor < length && isAsciiLetterOrDigit(format.charAt(cursor))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /* P[nY][nM][nD][nW][T[nH][nM][nS]] or PYYYY-MM-DDTHH:MM:SS */
+    private static boolean tokenizeDateInterval(@NotNull String content) {
+        final int length = content.length();
+        if (length == 0 || content.charAt(0) != 'P') {
+            return false;
+        }
+        if (length == 20 && isDateTimeAlikeInterval(content)) {
+            return true;
+        }
+
+        boolean isTimePart = false;
+        int lastUnit       = -1;
+        int cursor         = 1;
+        while (cursor < length) {
+            final char current = content.charAt(cursor);
+            if (current == 'T') {
+                /* the time part must follow the date one and start with a number */
+                if (isTimePart || cursor + 1 >= length || !isDigit(content.charAt(cursor + 1))) {
+                    return false;
+                }
+                isTimePart = true;
+                lastUnit   = -1;
+                ++cursor;
+                continue;
+            }
+            final int digitsEnd = skipDigits(content, cursor);
+            if (digitsEnd == cursor || digitsEnd >= length) {
+                return false;
+            }
+            final int unit = (isTimePart ? dateIntervalTimeUnits : dateIntervalDateUnits).indexOf(content.charAt(digitsEnd));
+            if (unit <= lastUnit) {
+                return false;
+            }
+            lastUnit = unit;
+            cursor   = digitsEnd + 1;
+        }
+        return true;
+    }
+
+    private static boolean isDateTimeAlikeInterval(@NotNull String content) {
+        final String shape = "P####-##-##T##:##:##";
+        for (int index = 1; index < shape.length(); ++index) {
+            final char expected = shape.charAt(index);
+            final char current  = content.charAt(index);
+            if (expected == '#' ? !isDigit(current) : expected != current) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int skipDigits(@NotNull String content, int from) {
+        final int length = content.length();
+        int cursor       = from;
+        while (cursor < length && isDigit(content.charAt(cursor))) {
+            ++cursor;
+        }
+        return cursor;
+    }
+
+    private static int parsePosition(@NotNull String content, int from, int to) {
+        int result = 0;
+        for (int index = from; index < to; ++index) {
+            result = result * 10 + (content.charAt(index) - '0');
+            if (result > 0xFFFF) {
+                return 0xFFFF;
+            }
+        }
+        return result;
+    }
+
+    private static boolean isDigit(char character) {
+        return character >= '0' && character <= '9';
+    }
+
+    private static boolean isAsciiLetterOrDigit(char character) {
+        return isDigit(character) || (character >= 'a' && character <= 'z') || (character >= 'A' && character <= 'Z');
+    }
+
+    private static boolean isLineTerminator(char character) {
+        return character == '\n' || character == '\r' || character == '\u0085' || character == '\u2028' || character == '\u2029';
+    }
+
+    final public static class PrintfFormat {
+        private static final PrintfFormat INLINE_VARIABLES = new PrintfFormat(0, 0, 0, 0);
+
+        private final int placeholders;
+        private final int withoutPosition;
+        private final int maxPosition;
+        private final int percents;
+
+        private PrintfFormat(int placeholders, int withoutPosition, int maxPosition, int percents) {
+            this.placeholders    = placeholders;
+            this.withoutPosition = withoutPosition;
+            this.maxPosition     = maxPosition;
+            this.percents        = percents;
+        }
+
+        /* formats with inline variables are modified at runtime and can not be analyzed */
+        public boolean hasInlineVariables() {
+            return this == INLINE_VARIABLES;
+        }
+
+        /* every percent sign (except escaped ones and suppressed assignments) starts a placeholder */
+        public boolean isValid() {
+            return this.placeholders == this.percents;
+        }
+
+        /* arguments consumed by the placeholders */
+        public int getArgumentsCount() {
+            return Math.max(this.withoutPosition, this.maxPosition);
+        }
+    }
+}
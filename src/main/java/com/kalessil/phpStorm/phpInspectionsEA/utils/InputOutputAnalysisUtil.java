@@ -0,0 +1,197 @@
+package com.kalessil.phpStorm.phpInspectionsEA.utils;
+
+import com.intellij.openapi.util.RecursionGuard;
+import com.intellij.openapi.util.RecursionManager;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.jetbrains.php.lang.psi.elements.*;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.hierarhy.InterfacesExtractUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Identifies I/O operations (database queries, remote calls, files access) performed by calls, either directly
+ * or inside the called functions. Every function gets a summary (the closest I/O operation it performs within the
+ * remaining calls depth), computed once per PSI modification and re-used at all call sites.
+ */
+final public class InputOutputAnalysisUtil {
+    /* helpers calling helpers performing I/O are still reported, deeper chains are not */
+    private static final int MAX_CALLS_DEPTH = 3;
+
+    private final static Set<String> functions             = new HashSet<>();
+    private final static Map<String, List<String>> methods = new HashMap<>();
+    static {
+        functions.add("mysql_query");
+        functions.add("mysqli_query");
+        functions.add("mysqli_real_query");
+        functions.add("mysqli_multi_query");
+        functions.add("mysqli_prepare");
+        functions.add("mysqli_stmt_execute");
+        functions.add("pg_query");
+        functions.add("pg_query_params");
+        functions.add("pg_prepare");
+        functions.add("pg_execute");
+        functions.add("curl_exec");
+        functions.add("file_get_contents");
+        functions.add("file_put_contents");
+        functions.add("file");
+        functions.add("fopen");
+        functions.add("readfile");
+        functions.add("parse_ini_file");
+        functions.add("simplexml_load_file");
+        functions.add("fsockopen");
+        functions.add("stream_socket_client");
+        functions.add("get_headers");
+        functions.add("gethostbyname");
+        functions.add("dns_get_record");
+
+        final List<String> doctrineRepositories = Arrays.asList(
+                "\\Doctrine\\ORM\\EntityRepository",
+                "\\Doctrine\\Common\\Persistence\\ObjectRepository",
+                "\\Doctrine\\Persistence\\ObjectRepository"
+        );
+        methods.put("query", Arrays.asList("\\PDO", "\\mysqli"));
+        methods.put("prepare", Arrays.asList("\\PDO", "\\mysqli"));
+        methods.put("exec", Collections.singletonList("\\PDO"));
+        methods.put("real_query", Collections.singletonList("\\mysqli"));
+        methods.put("multi_query", Collections.singletonList("\\mysqli"));
+        methods.put("execute", Arrays.asList("\\PDOStatement", "\\mysqli_stmt"));
+        methods.put("find", Arrays.asList(
+                "\\Doctrine\\ORM\\EntityManagerInterface",
+                "\\Doctrine\\Common\\Persistence\\ObjectManager",
+                "\\Doctrine\\Persistence\\ObjectManager",
+                doctrineRepositories.get(0),
+                doctrineRepositories.get(1),
+                doctrineRepositories.get(2)
+        ));
+        methods.put("findBy", doctrineRepositories);
+        methods.put("findOneBy", doctrineRepositories);
+        methods.put("findAll", doctrineRepositories);
+    }
+
+    /* the I/O operation performed by the call (e.g. PDO::query), directly or inside the called function */
+    @Nullable
+    static public Operation getOperation(@NotNull FunctionReference call) {
+        return getOperation(call, MAX_CALLS_DEPTH - 1);
+    }
+
+    /* callees are resolved only while the remaining depth allows, so the call graph is not walked beyond the limit */
+    @Nullable
+    static private Operation getOperation(@NotNull FunctionReference call, int remainingDepth) {
+        final String functionName = call.getName();
+        if (functionName == null) {
+            return null;
+        }
+
+        final PsiElement resolved;
+        if (call instanceof MethodReference) {
+            resolved = OpenapiResolveUtil.resolveReference((MethodReference) call);
+            if (resolved instanceof Method && methods.containsKey(functionName)) {
+                final PhpClass clazz = ((Method) resolved).getContainingClass();
+                if (clazz != null) {
+                    final List<String> candidates = methods.get(functionName);
+                    if (candidates.contains(clazz.getFQN())) {
+                        return new Operation(clazz.getFQN().substring(1) + "::" + functionName, 0);
+                    }
+                    for (final PhpClass parent : InterfacesExtractUtil.getCrawlInheritanceTree(clazz, true)) {
+                        if (candidates.contains(parent.getFQN())) {
+                            return new Operation(parent.getFQN().substring(1) + "::" + functionName, 0);
+                        }
+                    }
+                }
+            }
+        } else if (OpenapiTypesUtil.isFunctionReference(call)) {
+            if (functions.contains(functionName)) {
+                return new Operation(functionName, 0);
+            }
+            resolved = remainingDepth > 0 ? OpenapiResolveUtil.resolveReference(call) : null;
+        } else {
+            resolved = null;
+        }
+
+        if (remainingDepth > 0 && resolved instanceof Function) {
+            final Operation summary = getSummary((Function) resolved, remainingDepth - 1);
+            if (summary != null) {
+                return new Operation(summary.name, summary.callsDepth + 1);
+            }
+        }
+        return null;
+    }
+
+    /* summaries are cached per remaining depth: the closest operation reachable within the depth */
+    @Nullable
+    static private Operation getSummary(@NotNull Function function, int remainingDepth) {
+        final Map<Integer, Optional<Operation>> summaries = CachedValuesManager.getCachedValue(
+                function,
+                () -> CachedValueProvider.Result.create(new ConcurrentHashMap<>(), PsiModificationTracker.MODIFICATION_COUNT)
+        );
+        Optional<Operation> summary = summaries.get(remainingDepth);
+        if (summary == null) {
+            /* recursive calls are getting no summary, which stops the propagation; such results are not cached */
+            final RecursionGuard.StackStamp stamp = RecursionManager.markStack();
+            summary = Optional.ofNullable(RecursionManager.doPreventingRecursion(function, false, () -> computeSummary(function, remainingDepth)));
+            if (stamp.mayCacheNow()) {
+                summaries.put(remainingDepth, summary);
+            }
+        }
+        return summary.orElse(null);
+    }
+
+    @Nullable
+    static private Operation computeSummary(@NotNull Function function, int remainingDepth) {
+        Operation closest         = null;
+        final GroupStatement body = ExpressionSemanticUtil.getGroupStatement(function);
+        if (body != null) {
+            for (final FunctionReference call : PsiTreeUtil.findChildrenOfType(body, FunctionReference.class)) {
+                /* closures are getting own summaries */
+                if (ExpressionSemanticUtil.getScope(call) != function) {
+                    continue;
+                }
+                final Operation operation = getOperation(call, remainingDepth);
+                if (operation != null && (closest == null || operation.callsDepth < closest.callsDepth)) {
+                    closest = operation;
+                    if (closest.callsDepth == 0) {
+                        break;
+                    }
+                }
+            }
+        }
+        return closest;
+    }
+
+    final public static class Operation {
+        private final String name;
+        private final int callsDepth;
+
+        private Operation(@NotNull String name, int callsDepth) {
+            this.name       = name;
+            this.callsDepth = callsDepth;
+        }
+
+        /* e.g. `PDO::query` or `file_get_contents` */
+        @NotNull
+        public String getName() {
+            return this.name;
+        }
+
+        /* 0 if the call itself is the I/O operation, otherwise the number of calls in between */
+        public int getCallsDepth() {
+            return this.callsDepth;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.kalessil.phpStorm.phpInspectionsEA.utils;
+
+import com.jetbrains.php.lang.psi.resolve.types.PhpType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+final public class InternalFunctionsMetadata {
+    private static final Map<String, Entry> entries = new HashMap<>();
+    static {
+        /* return types overrides, some of them can be narrowed from arguments type */
+        entry("str_replace").returns(PhpType.STRING, PhpType.ARRAY).narrowedBy(2);
+        entry("str_ireplace").returns(PhpType.STRING, PhpType.ARRAY).narrowedBy(2);
+        entry("preg_replace").returns(PhpType.STRING, PhpType.ARRAY).narrowedBy(2);
+        entry("preg_replace_callback").returns(PhpType.STRING, PhpType.ARRAY).narrowedBy(2);
+        entry("substr_replace").returns(PhpType.STRING, PhpType.ARRAY).narrowedBy(0);
+        entry("preg_filter").returns(PhpType.STRING, PhpType.ARRAY).narrowedBy(2);
+        entry("preg_replace_callback_array").returns(PhpType.STRING, PhpType.ARRAY).narrowedBy(1);
+        entry("strstr").returns(PhpType.STRING, PhpType.BOOLEAN);
+
+        /* callbacks positions */
+        entry("call_user_func").callback(0);
+        entry("call_user_func_array").callback(0);
+        entry("array_filter").callback(1);
+        entry("array_map").callback(0);
+        entry("array_walk").callback(1);
+        entry("array_reduce").callback(1);
+
+        /* format patterns positions */
+        entry("printf").format(0);
+        entry("sprintf").format(0);
+        entry("sscanf").format(1);
+        entry("fprintf").format(1);
+        entry("fscanf").format(1);
+
+        /* https://github.com/php/php-src/blob/f2db305fa4e9bd7d04d567822687ec714aedcdb5/Zend/zend_compile.c#L3872 */
+        for (final String name : new String[] {
+            "array_slice", "assert", "boolval", "call_user_func", "call_user_func_array", "chr", "count", "defined",
+            "doubleval", "floatval", "func_get_args", "func_num_args", "get_called_class", "get_class", "gettype",
+            "in_array", "intval", "is_array", "is_bool", "is_double", "is_float", "is_int", "is_integer", "is_long",
+            "is_null", "is_object", "is_real", "is_resource", "is_string", "ord", "strlen", "strval", "function_exists",
+            "is_callable", "extension_loaded", "dirname", "constant", "define", "array_key_exists"
+        }) {
+            entry(name).specialized();
+        }
+
+        /* pure functions: the result depends on arguments only, no side effects */
+        for (final String name : new String[] {
+            "strlen", "mb_strlen", "count", "sizeof", "in_array", "array_key_exists", "array_keys", "array_values",
+            "array_flip", "array_search", "array_slice", "array_merge", "array_combine", "array_column", "array_unique",
+            "array_sum", "array_fill", "array_fill_keys", "range", "implode", "join", "explode", "str_repeat", "str_pad",
+            "str_replace", "substr", "mb_substr", "strpos", "stripos", "strrpos", "mb_strpos", "strtolower", "strtoupper",
+            "mb_strtolower", "mb_strtoupper", "ucfirst", "lcfirst", "ucwords", "trim", "ltrim", "rtrim", "sprintf",
+            "number_format", "htmlspecialchars", "preg_quote", "md5", "sha1", "crc32", "hash", "base64_encode",
+            "base64_decode", "abs", "max", "min", "floor", "ceil", "round", "sqrt", "pow", "intval", "floatval",
+            "strval", "boolval", "is_array", "is_string", "is_int", "is_float", "is_numeric", "is_bool", "is_null"
+        }) {
+            entry(name).pure();
+        }
+        /* pure functions throwing on arguments values, e.g. `array_combine(...)` with different sizes or `str_repeat(...)` with a negative count */
+        for (final String name : new String[] {
+            "array_combine", "array_fill", "range", "explode", "str_repeat", "str_pad", "sprintf", "max", "min", "hash",
+            "strpos", "stripos", "strrpos", "mb_strpos", "mb_strlen", "mb_substr", "mb_strtolower", "mb_strtoupper"
+        }) {
+            entry(name).throwing();
+        }
+
+        /* See also: http://php.net/manual/en/aliases.php */
+        entry("close").aliasOf("closedir");
+        entry("is_double").aliasOf("is_float");
+        entry("is_integer").aliasOf("is_int");
+        entry("is_long").aliasOf("is_int");
+        entry("is_real").aliasOf("is_float");
+        entry("sizeof").aliasOf("count");
+        entry("doubleval").aliasOf("floatval");
+        entry("fputs").aliasOf("fwrite");
+        entry("join").aliasOf("implode");
+        entry("key_exists").aliasOf("array_key_exists");
+        entry("chop").aliasOf("rtrim");
+        entry("ini_alter").aliasOf("ini_set");
+        entry("is_writeable").aliasOf("is_writable");
+        entry("pos").aliasOf("current");
+        entry("show_source").aliasOf("highlight_file");
+        entry("strchr").aliasOf("strstr");
+        entry("set_file_buffer").aliasOf("stream_set_write_buffer");
+        entry("session_commit").aliasOf("session_write_close");
+        entry("socket_getopt").aliasOf("socket_get_option");
+        entry("socket_setopt").aliasOf("socket_set_option");
+        entry("openssl_get_privatekey").aliasOf("openssl_pkey_get_private");
+        entry("posix_errno").aliasOf("posix_get_last_error");
+        entry("ldap_close").aliasOf("ldap_unbind");
+        entry("pcntl_errno").aliasOf("pcntl_get_last_error");
+        entry("ftp_quit").aliasOf("ftp_close");
+        entry("socket_set_blocking").aliasOf("stream_set_blocking");
+        entry("stream_register_wrapper").aliasOf("stream_wrapper_register");
+        entry("socket_set_timeout").aliasOf("stream_set_timeout");
+        entry("socket_get_status").aliasOf("stream_get_meta_data");
+        entry("diskfreespace").aliasOf("disk_free_space");
+        entry("odbc_do").aliasOf("odbc_exec");
+        entry("odbc_field_precision").aliasOf("odbc_field_len");
+        entry("recode").aliasOf("recode_string");
+        entry("mysqli_escape_string").aliasOf("mysqli_real_escape_string");
+        entry("mysqli_execute").aliasOf("mysqli_stmt_execute");
+        /* aliases covered by other inspections: rand -> mt_rand, srand -> mt_srand */
+
+        /* aliases affected by backward-incompatible changes */
+        entry("mysqli_bind_param").deprecated("This alias has been DEPRECATED as of PHP 5.3.0 and REMOVED as of PHP 5.4.0.");
+        entry("mysqli_bind_result").deprecated("This alias has been DEPRECATED as of PHP 5.3.0 and REMOVED as of PHP 5.4.0.");
+        entry("mysqli_client_encoding").deprecated("This alias has been DEPRECATED as of PHP 5.3.0 and REMOVED as of PHP 5.4.0.");
+        entry("mysqli_fetch").deprecated("This alias has been DEPRECATED as of PHP 5.3.0 and REMOVED as of PHP 5.4.0.");
+        entry("mysqli_param_count").deprecated("This alias has been DEPRECATED as of PHP 5.3.0 and REMOVED as of PHP 5.4.0.");
+        entry("mysqli_get_metadata").deprecated("This alias has been DEPRECATED as of PHP 5.3.0 and REMOVED as of PHP 5.4.0.");
+        entry("mysqli_send_long_data").deprecated("This alias has been DEPRECATED as of PHP 5.3.0 and REMOVED as of PHP 5.4.0.");
+        entry("ocifreecursor").deprecated("This alias has been DEPRECATED as of PHP 5.4.0. Relying on this alias is highly discouraged.");
+        entry("magic_quotes_runtime").deprecated("This alias has been DEPRECATED as of PHP 5.3.0 and REMOVED as of PHP 7.0.0.");
+    }
+
+    @NotNull
+    private static Entry entry(@NotNull String name) {
+        return entries.computeIfAbsent(name, key -> new Entry());
+    }
+
+    @Nullable
+    static public Entry get(@NotNull String functionName) {
+        return entries.get(functionName);
+    }
+
+    static public boolean isOpcodeSpecialized(@NotNull String functionName) {
+        final Entry entry = entries.get(functionName);
+        return entry != null && entry.specialized;
+    }
+
+    static public boolean isPure(@NotNull String functionName) {
+        final Entry entry = entries.get(functionName);
+        return entry != null && entry.pure;
+    }
+
+    static public boolean isThrowing(@NotNull String functionName) {
+        final Entry entry = entries.get(functionName);
+        return entry != null && entry.throwing;
+    }
+
+    static public int getCallbackPosition(@NotNull String functionName) {
+        final Entry entry = entries.get(functionName);
+        return entry == null ? -1 : entry.callbackPosition;
+    }
+
+    static public int getFormatPosition(@NotNull String functionName) {
+        final Entry entry = entries.get(functionName);
+        return entry == null ? -1 : entry.formatPosition;
+    }
+
+    @Nullable
+    static public String getAliasTarget(@NotNull String functionName) {
+        final Entry entry = entries.get(functionName);
+        return entry == null ? null : entry.aliasOf;
+    }
+
+    @Nullable
+    static public String getDeprecationMessage(@NotNull String functionName) {
+        final Entry entry = entries.get(functionName);
+        return entry == null ? null : entry.deprecation;
+    }
+
+    final public static class Entry {
+        @Nullable
+        private PhpType returnType;
+        @Nullable
+        private String aliasOf;
+        @Nullable
+        private String deprecation;
+        private int narrowingPosition = -1;
+        private int callbackPosition  = -1;
+        private int formatPosition    = -1;
+        private boolean specialized;
+        private boolean pure;
+        private boolean throwing;
+
+        private Entry() {
+        }
+
+        @NotNull
+        private Entry returns(@NotNull String ...types) {
+            this.returnType = new PhpType();
+            for (final String type : types) {
+                this.returnType.add(type);
+            }
+            return this;
+        }
+
+        @NotNull
+        private Entry narrowedBy(int position) {
+            this.narrowingPosition = position;
+            return this;
+        }
+
+        private void callback(int position) {
+            this.callbackPosition = position;
+        }
+
+        private void format(int position) {
+            this.formatPosition = position;
+        }
+
+        private void specialized() {
+            this.specialized = true;
+        }
+
+        private void pure() {
+            this.pure = true;
+        }
+
+        private void throwing() {
+            this.throwing = true;
+        }
+
+        private void aliasOf(@NotNull String original) {
+            this.aliasOf = original;
+        }
+
+        private void deprecated(@NotNull String message) {
+            this.deprecation = message;
+        }
+
+        @Nullable
+        public PhpType getReturnType() {
+            return this.returnType;
+        }
+
+        public int getNarrowingPosition() {
+            return this.narrowingPosition;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.kalessil.phpStorm.phpInspectionsEA.utils;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.progress.EmptyProgressIndicator;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.util.ProgressIndicatorUtils;
+import com.intellij.openapi.project.IndexNotReadyException;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.psi.*;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.jetbrains.php.PhpIndex;
+import com.jetbrains.php.lang.PhpFileType;
+import com.jetbrains.php.lang.psi.PhpFile;
+import com.jetbrains.php.lang.psi.elements.Constant;
+import com.jetbrains.php.lang.psi.elements.Function;
+import com.jetbrains.php.lang.psi.elements.Method;
+import com.jetbrains.php.lang.psi.elements.PhpClass;
+import com.jetbrains.php.lang.psi.elements.PhpDefine;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * In-memory tables of short names (lower-cased) of all known classes, interfaces, traits, functions and constants.
+ * Used for rejecting strings which can not be a known symbol before asking PhpIndex about them.
+ *
+ * The tables are built from PhpIndex in background (and again when project roots are changing), then maintained by
+ * deltas: modified and created PHP files are re-collected in background and their names are added. Queries are never
+ * waiting for it: while the tables are missing or outdated every name "might be known". Names of removed definitions
+ * are kept: the tables may only answer "might be known" for them, which PhpIndex lookups are resolving.
+ */
+final public class KnownNamesFilterUtil {
+    private static final Key<Names> NAMES = Key.create("EA.KnownNamesFilterUtil.NAMES");
+
+    /* false means the name definitely is not a known class/interface/trait, true - it might be one */
+    static public boolean mayBeClass(@NotNull Project project, @NotNull String fqn) {
+        return getNames(project).contains(getShortName(fqn), Kind.CLASS);
+    }
+
+    /* false means the name definitely is not a known function, true - it might be one */
+    static public boolean mayBeFunction(@NotNull Project project, @NotNull String fqn) {
+        return getNames(project).contains(getShortName(fqn), Kind.FUNCTION);
+    }
+
+    /* false means the name definitely is not a known constant, true - it might be one */
+    static public boolean mayBeConstant(@NotNull Project project, @NotNull String fqn) {
+        return getNames(project).contains(getShortName(fqn), Kind.CONSTANT);
+    }
+
+    @NotNull
+    static private String getShortName(@NotNull String fqn) {
+        return fqn.substring(fqn.lastIndexOf('\\') + 1).toLowerCase();
+    }
+
+    @NotNull
+    static private Names getNames(@NotNull Project project) {
+        Names names = project.getUserData(NAMES);
+        if (names == null) {
+            /* synchronized, as the tables are registering listeners */
+            synchronized (KnownNamesFilterUtil.class) {
+                names = project.getUserData(NAMES);
+                if (names == null) {
+                    project.putUserData(NAMES, names = new Names(project));
+                }
+            }
+        }
+        return names;
+    }
+
+    private enum Kind { CLASS, FUNCTION, CONSTANT }
+
+    private static final class Names {
+        @NotNull
+        private final Project project;
+        @NotNull
+        private final Set<VirtualFile> dirty      = ConcurrentHashMap.newKeySet();
+        @NotNull
+        private final AtomicBoolean refreshing    = new AtomicBoolean();
+        /* replaced as a whole on rebuilds, extended in place by deltas */
+        @Nullable
+        private volatile Tables tables;
+        private volatile boolean rebuildRequested = true;
+
+        private Names(@NotNull Project project) {
+            this.project = project;
+
+            PsiManager.getInstance(project).addPsiTreeChangeListener(new PsiTreeChangeAdapter() {
+                @Override
+                public void childrenChanged(@NotNull PsiTreeChangeEvent event) {
+                    invalidate(event.getFile());
+                }
+
+                @Override
+                public void childAdded(@NotNull PsiTreeChangeEvent event) {
+                    invalidate(event.getFile());
+                }
+
+                @Override
+                public void childReplaced(@NotNull PsiTreeChangeEvent event) {
+                    invalidate(event.getFile());
+                }
+            }, project);
+            project.getMessageBus().connect(project).subscribe(VirtualFileManager.VFS_CHANGES, new BulkFileListener.Adapter() {
+                @Override
+                public void after(@NotNull List<? extends VFileEvent> events) {
+                    for (final VFileEvent event : events) {
+                        final VirtualFile file = event.getFile();
+                        if (file != null && file.isValid()) {
+                            if (!file.isDirectory() && file.getFileType() == PhpFileType.INSTANCE) {
+                                dirty.add(file);
+                            } else if (file.isDirectory()) {
+                                /* directories created, moved or renamed: simply rebuild from the index */
+                                rebuildRequested = true;
+                            }
+                        }
+                    }
+                }
+            });
+        }
+
+        private boolean contains(@NotNull String shortName, @NotNull Kind kind) {
+            final Tables tables = this.tables;
+            final long stamp    = ProjectRootManager.getInstance(this.project).getModificationCount();
+            if (tables == null || tables.rootsStamp != stamp || this.rebuildRequested || !this.dirty.isEmpty()) {
+                /* outdated: refresh in background, meanwhile any name might be known */
+                this.scheduleRefresh();
+                return true;
+            }
+            return tables.get(kind).contains(shortName);
+        }
+
+        private void scheduleRefresh() {
+            if (this.refreshing.compareAndSet(false, true)) {
+                ApplicationManager.getApplication().executeOnPooledThread(() -> {
+                    try {
+                        /* gives way to write actions: the next query is scheduling the refresh again */
+                        ProgressIndicatorUtils.runInReadActionWithWriteActionPriority(this::refresh, new EmptyProgressIndicator());
+                    } catch (final ProcessCanceledException | IndexNotReadyException outdated) {
+                        /* the refresh has been cancelled or indexing is running: the next query retries */
+                    } finally {
+                        this.refreshing.set(false);
+                    }
+                });
+            }
+        }
+
+        private void refresh() {
+            if (this.project.isDisposed()) {
+                return;
+            }
+            final long stamp     = ProjectRootManager.getInstance(this.project).getModificationCount();
+            final Tables current = this.tables;
+            if (current == null || current.rootsStamp != stamp || this.rebuildRequested) {
+                this.rebuildRequested = false;
+                this.dirty.clear();
+                this.tables = this.rebuild(stamp);
+            } else {
+                final PsiManager manager = PsiManager.getInstance(this.project);
+                for (final VirtualFile file : new ArrayList<>(this.dirty)) {
+                    /* un-marked first: modifications made during collecting are marking the file again */
+                    this.dirty.remove(file);
+                    final PsiFile psiFile = file.isValid() ? manager.findFile(file) : null;
+                    if (psiFile instanceof PhpFile) {
+                        collect(current, psiFile);
+                    }
+                }
+            }
+        }
+
+        @NotNull
+        private Tables rebuild(long stamp) {
+            final Tables tables  = new Tables(stamp);
+            final PhpIndex index = PhpIndex.getInstance(this.project);
+            collect(tables.classes, index.getAllClassNames(null));
+            collect(tables.classes, index.getAllInterfaceNames());
+            collect(tables.classes, index.getAllTraitNames());
+            collect(tables.functions, index.getAllFunctionNames(null));
+            collect(tables.constants, index.getAllConstantNames(null));
+            return tables;
+        }
+
+        private void invalidate(@Nullable PsiFile file) {
+            if (file instanceof PhpFile) {
+                final VirtualFile virtualFile = file.getVirtualFile();
+                if (virtualFile != null) {
+                    this.dirty.add(virtualFile);
+                }
+            }
+        }
+
+        static private void collect(@NotNull Tables tables, @NotNull PsiFile file) {
+            for (final PhpClass clazz : PsiTreeUtil.findChildrenOfType(file, PhpClass.class)) {
+                tables.classes.add(clazz.getName().toLowerCase());
+            }
+            for (final Function function : PsiTreeUtil.findChildrenOfType(file, Function.class)) {
+                if (!(function instanceof Method) && !function.isClosure()) {
+                    tables.functions.add(function.getName().toLowerCase());
+                }
+            }
+            for (final Constant constant : PsiTreeUtil.findChildrenOfType(file, Constant.class)) {
+                tables.constants.add(constant.getName().toLowerCase());
+            }
+            for (final PhpDefine define : PsiTreeUtil.findChildrenOfType(file, PhpDefine.class)) {
+                tables.constants.add(define.getName().toLowerCase());
+            }
+        }
+
+        static private void collect(@NotNull Set<String> storage, @NotNull Collection<String> names) {
+            for (final String name : names) {
+                storage.add(name.toLowerCase());
+            }
+        }
+    }
+
+    private static final class Tables {
+        private final long rootsStamp;
+        private final Set<String> classes   = ConcurrentHashMap.newKeySet();
+        private final Set<String> functions = ConcurrentHashMap.newKeySet();
+        private final Set<String> constants = ConcurrentHashMap.newKeySet();
+
+        private Tables(long rootsStamp) {
+            this.rootsStamp = rootsStamp;
+        }
+
+        @NotNull
+        private Set<String> get(@NotNull Kind kind) {
+            return kind == Kind.CLASS ? this.classes : (kind == Kind.FUNCTION ? this.functions : this.constants);
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package com.kalessil.phpStorm.phpInspectionsEA.utils;
+
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiWhiteSpace;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.jetbrains.php.lang.lexer.PhpTokenTypes;
+import com.jetbrains.php.lang.parser.PhpElementTypes;
+import com.jetbrains.php.lang.psi.PhpFile;
+import com.jetbrains.php.lang.psi.elements.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Loop-invariance of expressions: loops are getting the set of variables modified in them (computed once per PSI
+ * modification), expressions built from constants, not modified variables and pure calls are loop-invariant.
+ */
+final public class LoopInvarianceUtil {
+    /* the variables can be modified in ways not traceable statically */
+    private final static Set<String> scopeModifiers = new HashSet<>(Arrays.asList(
+            "extract", "compact", "parse_str", "get_defined_vars", "eval"
+    ));
+
+    /* the innermost loop evaluating the expression repeatedly (foreach sources and for initializations are evaluated once) */
+    @Nullable
+    static public PsiElement getEnclosingLoop(@NotNull PsiElement expression) {
+        PsiElement parent = expression.getParent();
+        while (parent != null && !(parent instanceof PhpFile) && !(parent instanceof Function)) {
+            if (parent instanceof ForeachStatement) {
+                final PsiElement source = ((ForeachStatement) parent).getArray();
+                if (source == null || !PsiTreeUtil.isAncestor(source, expression, false)) {
+                    return parent;
+                }
+            } else if (parent instanceof For) {
+                boolean isEvaluatedOnce = false;
+                for (final PsiElement initialization : ((For) parent).getInitialExpressions()) {
+                    if (isEvaluatedOnce = PsiTreeUtil.isAncestor(initialization, expression, false)) {
+                        break;
+                    }
+                }
+                if (!isEvaluatedOnce) {
+                    return parent;
+                }
+            } else if (parent instanceof While || parent instanceof DoWhile) {
+                return parent;
+            }
+            parent = parent.getParent();
+        }
+        return null;
+    }
+
+    /* variables modified in the loop, null if the loop can not be analyzed (variable variables, references and co) */
+    @Nullable
+    static public Set<String> getModifiedVariables(@NotNull PsiElement loop) {
+        return CachedValuesManager.getCachedValue(
+                loop,
+                () -> CachedValueProvider.Result.create(computeModifiedVariables(loop), PsiModificationTracker.MODIFICATION_COUNT)
+        );
+    }
+
+    /* pure calls over loop-invariant values are loop-invariant themselves */
+    static public boolean isInvariant(@Nullable PsiElement expression, @NotNull Set<String> modified) {
+        if (expression instanceof ParenthesizedExpression) {
+            return isInvariant(((ParenthesizedExpression) expression).getArgument(), modified);
+        } else if (expression instanceof StringLiteralExpression) {
+            return ((StringLiteralExpression) expression).getFirstPsiChild() == null;
+        } else if (expression instanceof ConstantReference || OpenapiTypesUtil.isNumber(expression)) {
+            return true;
+        } else if (expression instanceof ClassConstantReference) {
+            return ((ClassConstantReference) expression).getClassReference() instanceof ClassReference;
+        } else if (expression instanceof Variable) {
+            final String variableName = ((Variable) expression).getName();
+            return !variableName.isEmpty() && !variableName.equals("GLOBALS") && !modified.contains(variableName);
+        } else if (expression instanceof ArrayAccessExpression) {
+            final ArrayAccessExpression access = (ArrayAccessExpression) expression;
+            final ArrayIndex index             = access.getIndex();
+            return index != null && isInvariant(index.getValue(), modified) && isInvariant(access.getValue(), modified);
+        } else if (expression instanceof ArrayCreationExpression) {
+            for (final PsiElement child : expression.getChildren()) {
+                if (child instanceof ArrayHashElement) {
+                    final ArrayHashElement pair = (ArrayHashElement) child;
+                    if (!isInvariant(pair.getKey(), modified) || !isInvariant(pair.getValue(), modified)) {
+                        return false;
+                    }
+                } else if (OpenapiTypesUtil.is(child, PhpElementTypes.ARRAY_VALUE) && !isInvariant(((PhpPsiElement) child).getFirstPsiChild(), modified)) {
+                    return false;
+                }
+            }
+            return true;
+        } else if (expression instanceof BinaryExpression) {
+            final BinaryExpression binary = (BinaryExpression) expression;
+            return isInvariant(binary.getLeftOperand(), modified) && isInvariant(binary.getRightOperand(), modified);
+        } else if (expression instanceof UnaryExpression) {
+            final UnaryExpression unary = (UnaryExpression) expression;
+            final PsiElement operation  = unary.getOperation();
+            return !OpenapiTypesUtil.is(operation, PhpTokenTypes.opINCREMENT) &&
+                   !OpenapiTypesUtil.is(operation, PhpTokenTypes.opDECREMENT) &&
+                   !OpenapiTypesUtil.is(operation, PhpTokenTypes.kwCLONE) &&
+                   isInvariant(unary.getValue(), modified);
+        } else if (expression instanceof TernaryExpression) {
+            final TernaryExpression ternary = (TernaryExpression) expression;
+            return isInvariant(ternary.getCondition(), modified) &&
+                   (ternary.isShort() || isInvariant(ternary.getTrueVariant(), modified)) &&
+                   isInvariant(ternary.getFalseVariant(), modified);
+        } else if (expression instanceof FunctionReference) {
+            final FunctionReference call = (FunctionReference) expression;
+            if (call instanceof MethodReference) {
+                final PsiElement base = ((MethodReference) call).getClassReference();
+                if (!(base instanceof ClassReference) && !(base instanceof Variable && isInvariant(base, modified))) {
+                    return false;
+                }
+            } else if (!OpenapiTypesUtil.isFunctionReference(call)) {
+                return false;
+            }
+            for (final PsiElement argument : call.getParameters()) {
+                if (!isInvariant(argument, modified)) {
+                    return false;
+                }
+            }
+            return PurityAnalysisUtil.isPure(call);
+        }
+        return false;
+    }
+
+    /* the expression is evaluated in each loop iteration: not in branches, short-circuit operands, nor after early exits */
+    static public boolean isEvaluatedOnEachIteration(@NotNull PsiElement expression, @NotNull PsiElement loop) {
+        PsiElement child  = expression;
+        PsiElement parent = expression.getParent();
+        while (parent != null && parent != loop) {
+            if (parent instanceof ElseIf || parent instanceof Else || parent instanceof PhpCase || parent instanceof Catch || parent instanceof Finally) {
+                return false;
+            } else if (parent instanceof If || parent instanceof TernaryExpression) {
+                final PsiElement condition = parent instanceof If ? ((If) parent).getCondition() : ((TernaryExpression) parent).getCondition();
+                if (condition == null || !PsiTreeUtil.isAncestor(condition, expression, false)) {
+                    return false;
+                }
+            } else if (parent instanceof BinaryExpression) {
+                final BinaryExpression binary = (BinaryExpression) parent;
+                final IElementType operation  = binary.getOperationType();
+                final boolean isShortCircuit  = operation == PhpTokenTypes.opCOALESCE ||
+                                                PhpTokenTypes.tsSHORT_CIRCUIT_AND_OPS.contains(operation) ||
+                                                PhpTokenTypes.tsSHORT_CIRCUIT_OR_OPS.contains(operation);
+                final PsiElement right        = binary.getRightOperand();
+                if (isShortCircuit && (right == null || PsiTreeUtil.isAncestor(right, expression, false))) {
+                    return false;
+                }
+            } else if (parent instanceof GroupStatement) {
+                for (PsiElement previous = child.getPrevSibling(); previous != null; previous = previous.getPrevSibling()) {
+                    if (PsiTreeUtil.findChildOfAnyType(previous, false, PhpBreak.class, PhpContinue.class, PhpReturn.class, PhpThrow.class) != null) {
+                        return false;
+                    }
+                }
+            }
+            child  = parent;
+            parent = parent.getParent();
+        }
+        if (loop instanceof For) {
+            for (final PsiElement repeated : ((For) loop).getRepeatedExpressions()) {
+                if (PsiTreeUtil.isAncestor(repeated, expression, false)) {
+                    return false;
+                }
+            }
+        }
+        return parent == loop;
+    }
+
+    /* do-while, `while (true)`, foreach over a non-empty array literal and for-loops with literal bounds satisfied initially */
+    static public boolean isExecutedAtLeastOnce(@NotNull PsiElement loop) {
+        if (loop instanceof DoWhile) {
+            return true;
+        } else if (loop instanceof While) {
+            return PhpLanguageUtil.isTrue(ExpressionSemanticUtil.getExpressionTroughParenthesis(((While) loop).getCondition()));
+        } else if (loop instanceof ForeachStatement) {
+            final PsiElement source = ((ForeachStatement) loop).getArray();
+            return source instanceof ArrayCreationExpression && ((ArrayCreationExpression) source).getFirstPsiChild() != null;
+        } else if (loop instanceof For) {
+            final For statement           = (For) loop;
+            final PsiElement[] conditions = statement.getConditionalExpressions();
+            if (conditions.length == 0) {
+                return true;
+            }
+            if (conditions.length == 1 && conditions[0] instanceof BinaryExpression) {
+                final BinaryExpression condition = (BinaryExpression) conditions[0];
+                final PsiElement left            = condition.getLeftOperand();
+                final Long limit                 = parseInteger(condition.getRightOperand());
+                final Long initial               = left instanceof Variable ? getInitialValue(statement, ((Variable) left).getName()) : null;
+                if (limit != null && initial != null) {
+                    final IElementType operation = condition.getOperationType();
+                    return (operation == PhpTokenTypes.opLESS && initial < limit) ||
+                           (operation == PhpTokenTypes.opLESS_OR_EQUAL && initial <= limit) ||
+                           (operation == PhpTokenTypes.opGREATER && initial > limit) ||
+                           (operation == PhpTokenTypes.opGREATER_OR_EQUAL && initial >= limit);
+                }
+            }
+        }
+        return false;
+    }
+
+    /* the integer literal assigned to the variable in the for-loop initialization */
+    @Nullable
+    static public Long getInitialValue(@NotNull For loop, @NotNull String variableName) {
+        for (final PsiElement initialization : loop.getInitialExpressions()) {
+            if (OpenapiTypesUtil.isAssignment(initialization)) {
+                final AssignmentExpression assignment = (AssignmentExpression) initialization;
+                final PsiElement variable             = assignment.getVariable();
+                if (variable instanceof Variable && variableName.equals(((Variable) variable).getName())) {
+                    return parseInteger(assignment.getValue());
+                }
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    static public Long parseInteger(@Nullable PsiElement expression) {
+        if (OpenapiTypesUtil.isNumber(expression)) {
+            try {
+                return Long.parseLong(expression.getText().replaceAll("[\\s_]+", ""));
+            } catch (NumberFormatException failure) {
+                return null;
+            }
+        } else if (expression instanceof UnaryExpression && OpenapiTypesUtil.is(((UnaryExpression) expression).getOperation(), PhpTokenTypes.opMINUS)) {
+            final Long value = parseInteger(((UnaryExpression) expression).getValue());
+            return value == null ? null : -value;
+        }
+        return null;
+    }
+
+    /* a variable name (with `$`) not used in the loop scope, for values moved in front of the loop */
+    @NotNull
+    static public String getHoistedVariableName(@NotNull PsiElement loop, @NotNull String name) {
+        final Function scope    = ExpressionSemanticUtil.getScope(loop);
+        final PsiElement holder = scope == null ? loop.getContainingFile() : scope;
+        final Set<String> used  = new HashSet<>();
+        PsiTreeUtil.findChildrenOfType(holder, Variable.class).forEach(variable -> used.add(variable.getName()));
+        String candidate = name;
+        for (int suffix = 1; used.contains(candidate); ++suffix) {
+            candidate = name + suffix;
+        }
+        used.clear();
+
+        return '$' + candidate;
+    }
+
+    @Nullable
+    static private Set<String> computeModifiedVariables(@NotNull PsiElement loop) {
+        final Set<String> modified = new HashSet<>();
+        final boolean analyzable   = PsiTreeUtil.processElements(loop, element -> {
+            if (element instanceof Variable) {
+                /* variable variables */
+                return !((Variable) element).getName().isEmpty();
+            } else if (element instanceof Include || OpenapiTypesUtil.is(element, PhpTokenTypes.kwGLOBAL)) {
+                return false;
+            } else if (element instanceof MultiassignmentExpression) {
+                for (final PhpPsiElement variable : ((MultiassignmentExpression) element).getVariables()) {
+                    addBaseVariable(variable, modified);
+                }
+            } else if (element instanceof AssignmentExpression) {
+                final AssignmentExpression assignment = (AssignmentExpression) element;
+                if (OpenapiTypesUtil.isAssignmentByReference(assignment)) {
+                    return false;
+                }
+                addBaseVariable(assignment.getVariable(), modified);
+            } else if (element instanceof UnaryExpression) {
+                final PsiElement operation = ((UnaryExpression) element).getOperation();
+                if (OpenapiTypesUtil.is(operation, PhpTokenTypes.opINCREMENT) || OpenapiTypesUtil.is(operation, PhpTokenTypes.opDECREMENT)) {
+                    addBaseVariable(((UnaryExpression) element).getValue(), modified);
+                }
+            } else if (element instanceof ForeachStatement) {
+                final Variable value = ((ForeachStatement) element).getValue();
+                if (value != null) {
+                    PsiElement previous = value.getPrevSibling();
+                    if (previous instanceof PsiWhiteSpace) {
+                        previous = previous.getPrevSibling();
+                    }
+                    if (OpenapiTypesUtil.is(previous, PhpTokenTypes.opBIT_AND)) {
+                        return false;
+                    }
+                }
+                ((ForeachStatement) element).getVariables().forEach(variable -> modified.add(variable.getName()));
+            } else if (element instanceof PhpUnset) {
+                for (final PhpPsiElement argument : ((PhpUnset) element).getArguments()) {
+                    addBaseVariable(argument, modified);
+                }
+            } else if (element instanceof Function) {
+                final List<Variable> uses = ExpressionSemanticUtil.getUseListVariables((Function) element);
+                if (uses != null) {
+                    uses.forEach(variable -> modified.add(variable.getName()));
+                }
+            } else if (element instanceof FunctionReference) {
+                final FunctionReference call = (FunctionReference) element;
+                final String functionName    = call.getName();
+                if (functionName != null && scopeModifiers.contains(functionName)) {
+                    return false;
+                }
+                /* impure calls might modify arguments (by reference) and objects they are called on */
+                if (!PurityAnalysisUtil.isPure(call)) {
+                    for (final PsiElement argument : call.getParameters()) {
+                        addBaseVariable(argument, modified);
+                    }
+                    if (call instanceof MethodReference) {
+                        addBaseVariable(((MethodReference) call).getClassReference(), modified);
+                    }
+                }
+            }
+            return true;
+        });
+        return analyzable ? modified : null;
+    }
+
+    static private void addBaseVariable(@Nullable PsiElement expression, @NotNull Set<String> modified) {
+        while (expression instanceof ArrayAccessExpression || expression instanceof FieldReference) {
+            expression = expression instanceof ArrayAccessExpression
+                    ? ((ArrayAccessExpression) expression).getValue()
+                    : ((FieldReference) expression).getClassReference();
+        }
+        if (expression instanceof Variable) {
+            modified.add(((Variable) expression).getName());
+        }
+    }
+}
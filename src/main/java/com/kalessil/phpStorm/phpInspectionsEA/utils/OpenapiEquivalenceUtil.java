@@ -6,6 +6,8 @@ import com.intellij.psi.PsiElement;
 import com.jetbrains.php.lang.psi.elements.Variable;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.*;
+
 /*
  * This file is part of the Php Inspections (EA Extended) package.
  *
@@ -29,7 +31,8 @@ final public class OpenapiEquivalenceUtil {
                     } else {
                         result = PsiEquivalenceUtil.areElementsEquivalent(first, second);
                     }
-                } else {
+                } else if (StructuralFingerprintUtil.getCachedFingerprint(first) == StructuralFingerprintUtil.getCachedFingerprint(second)) {
+                    /* different fingerprints are guaranteeing non-equivalence, same ones might be a collision */
                     result = PsiEquivalenceUtil.areElementsEquivalent(first, second) ||
                              first.getText().equals(second.getText());
                 }
@@ -42,4 +45,28 @@ final public class OpenapiEquivalenceUtil {
         }
         return result;
     }
+
+    /* groups equal expressions (keeping the original order), only expressions with the same fingerprint are compared */
+    @NotNull
+    public static <T extends PsiElement> List<List<T>> groupEqual(@NotNull Collection<T> expressions) {
+        final List<List<T>> result                = new ArrayList<>();
+        final Map<Long, List<List<T>>> candidates = new HashMap<>();
+        for (final T expression : expressions) {
+            final List<List<T>> groups = candidates.computeIfAbsent(
+                    StructuralFingerprintUtil.getCachedFingerprint(expression),
+                    key -> new ArrayList<>()
+            );
+            final List<T> group = groups.stream().filter(g -> areEqual(g.get(0), expression)).findFirst().orElse(null);
+            if (group == null) {
+                final List<T> newGroup = new ArrayList<>();
+                newGroup.add(expression);
+                groups.add(newGroup);
+                result.add(newGroup);
+            } else {
+                group.add(expression);
+            }
+        }
+        candidates.clear();
+        return result;
+    }
 }
@@ -11,6 +11,7 @@ import com.jetbrains.php.lang.lexer.PhpTokenTypes;
 import com.jetbrains.php.lang.psi.elements.*;
 import com.jetbrains.php.lang.psi.resolve.types.PhpType;
 import com.kalessil.phpStorm.phpInspectionsEA.inspectors.ifs.utils.ExpressionCostEstimateUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.openApi.BatchResolvePrecomputation;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -26,27 +27,6 @@ import java.util.*;
  */
 
 final public class OpenapiResolveUtil {
-    private static final Map<String, PhpType> functionReturnTypes = new HashMap<>();
-    private static final Map<String, Integer> functionToNarrow    = new HashMap<>();
-    static {
-        functionReturnTypes.put("str_replace", new PhpType().add(PhpType.STRING).add(PhpType.ARRAY));
-        functionReturnTypes.put("str_ireplace", new PhpType().add(PhpType.STRING).add(PhpType.ARRAY));
-        functionReturnTypes.put("preg_replace", new PhpType().add(PhpType.STRING).add(PhpType.ARRAY));
-        functionReturnTypes.put("preg_replace_callback", new PhpType().add(PhpType.STRING).add(PhpType.ARRAY));
-        functionReturnTypes.put("substr_replace", new PhpType().add(PhpType.STRING).add(PhpType.ARRAY));
-        functionReturnTypes.put("preg_filter", new PhpType().add(PhpType.STRING).add(PhpType.ARRAY));
-        functionReturnTypes.put("preg_replace_callback_array", new PhpType().add(PhpType.STRING).add(PhpType.ARRAY));
-        functionReturnTypes.put("strstr", new PhpType().add(PhpType.STRING).add(PhpType.BOOLEAN));
-
-        functionToNarrow.put("str_replace", 2);
-        functionToNarrow.put("str_ireplace", 2);
-        functionToNarrow.put("preg_replace", 2);
-        functionToNarrow.put("preg_replace_callback", 2);
-        functionToNarrow.put("substr_replace", 0);
-        functionToNarrow.put("preg_filter", 2);
-        functionToNarrow.put("preg_replace_callback_array", 1);
-    }
-
     @Nullable
     static public PsiElement resolveReference(@NotNull MethodReference reference) {
         PsiElement result = null;
@@ -115,7 +95,11 @@ final public class OpenapiResolveUtil {
 
     @Nullable
     static public PhpType resolveType(@NotNull PhpTypedElement expression, @NotNull Project project) {
-        PhpType result = null;
+        /* batch mode: the type might be already resolved ahead of the inspections */
+        PhpType result = BatchResolvePrecomputation.findType(expression, project);
+        if (result != null) {
+            return result;
+        }
         try {
             if (expression instanceof FunctionReference) {
                 /* resolve function and get it's type or fallback to empty type */
@@ -126,14 +110,15 @@ final public class OpenapiResolveUtil {
                         : new PhpType();
 
                 if (!result.isEmpty() && !(function instanceof Method)) {
-                    final String name = reference.getName();
+                    final String name                             = reference.getName();
+                    final InternalFunctionsMetadata.Entry details = name == null ? null : InternalFunctionsMetadata.get(name);
                     /* override signatures if we specified custom signatures */
-                    if (name != null && functionReturnTypes.containsKey(name)) {
-                        result = functionReturnTypes.get(name);
+                    if (details != null && details.getReturnType() != null) {
+                        result = details.getReturnType();
                     }
                     /* some of replacement function result can be narrowed from arguments type */
-                    if (name != null && functionToNarrow.containsKey(name)) {
-                        final int targetPosition     = functionToNarrow.get(name);
+                    if (details != null && details.getNarrowingPosition() >= 0) {
+                        final int targetPosition     = details.getNarrowingPosition();
                         final PsiElement[] arguments = reference.getParameters();
                         if (arguments.length > targetPosition && arguments[targetPosition] instanceof PhpTypedElement) {
                             final PhpType argumentType = resolveType((PhpTypedElement) arguments[targetPosition], project);
@@ -4,6 +4,7 @@ import com.intellij.psi.PsiElement;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.jetbrains.php.lang.lexer.PhpTokenTypes;
 import com.jetbrains.php.lang.psi.elements.*;
+import com.kalessil.phpStorm.phpInspectionsEA.openApi.AnalysisBudget;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.HashSet;
@@ -24,10 +25,15 @@ import java.util.stream.Stream;
 public class PossibleValuesDiscoveryUtil {
     @NotNull
     static public Set<PsiElement> discover(@NotNull PsiElement expression) {
-        final Set<PsiElement> processed      = new HashSet<>();
-        final Set<PsiElement> result         = discover(expression, processed);
-        final Set<PsiElement> filteredResult = result.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        final Set<PsiElement> processed = new HashSet<>();
+        final Set<PsiElement> result    = discover(expression, processed);
         processed.clear();
+        /* the discovery stopped by the analysis budget is incomplete: a partial set would mislead callers */
+        if (AnalysisBudget.isExhausted()) {
+            result.clear();
+            return new HashSet<>();
+        }
+        final Set<PsiElement> filteredResult = result.stream().filter(Objects::nonNull).collect(Collectors.toSet());
         result.clear();
         return filteredResult;
     }
@@ -37,9 +43,9 @@ public class PossibleValuesDiscoveryUtil {
         /* un-wrap parentheses to avoid false-positives */
         expression = ExpressionSemanticUtil.getExpressionTroughParenthesis(expression);
 
-        /* do not process same expressions multiple times */
+        /* do not process same expressions multiple times, nor continue when the analysis budget is exhausted */
         Set<PsiElement> result = new HashSet<>();
-        if (processed.contains(expression)) {
+        if (processed.contains(expression) || AnalysisBudget.isExhausted()) {
             return result;
         }
         processed.add(expression);
@@ -0,0 +1,185 @@
+package com.kalessil.phpStorm.phpInspectionsEA.utils;
+
+import com.intellij.openapi.util.RecursionManager;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.tree.TokenSet;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.jetbrains.php.lang.documentation.phpdoc.psi.PhpDocComment;
+import com.jetbrains.php.lang.lexer.PhpTokenTypes;
+import com.jetbrains.php.lang.psi.elements.*;
+import com.jetbrains.php.lang.psi.resolve.types.PhpType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Purity (no side effects, the result depends on arguments only) of calls: internal functions are looked up in
+ * InternalFunctionsMetadata, user functions are getting a summary computed once per PSI modification, methods
+ * are pure only when marked so in DocBlocks (their results depend on the objects state otherwise). Internal functions
+ * are pure only for scalar and array arguments, as objects can run user code (`__toString()`, `Countable`).
+ */
+final public class PurityAnalysisUtil {
+    private final static Set<String> pureTags       = new HashSet<>(Arrays.asList("@pure", "@psalm-pure", "@phpstan-pure"));
+    private final static Set<String> stateVariables = new HashSet<>(Arrays.asList(
+            "GLOBALS", "_GET", "_POST", "_REQUEST", "_COOKIE", "_FILES", "_SERVER", "_ENV", "_SESSION", "this"
+    ));
+    private final static Set<String> scalarTypes    = new HashSet<>(Arrays.asList(
+            Types.strString, Types.strInteger, Types.strFloat, Types.strBoolean, Types.strNull, Types.strNumber
+    ));
+    private final static TokenSet impureStatements  = TokenSet.create(
+            PhpTokenTypes.kwGLOBAL, PhpTokenTypes.kwSTATIC, PhpTokenTypes.kwECHO, PhpTokenTypes.kwPRINT, PhpTokenTypes.kwEXIT
+    );
+
+    static public boolean isPure(@NotNull FunctionReference call) {
+        final String functionName = call.getName();
+        if (functionName == null || functionName.isEmpty()) {
+            return false;
+        }
+        if (OpenapiTypesUtil.isFunctionReference(call) && InternalFunctionsMetadata.isPure(functionName)) {
+            /* objects might run user code: `__toString()` in `strlen(...)`/`implode(...)`, `Countable` in `count(...)` */
+            return hasScalarOrArrayArguments(call);
+        }
+        final PsiElement resolved = OpenapiResolveUtil.resolveReference(call);
+        if (resolved instanceof Method) {
+            return isMarkedPure((Method) resolved);
+        }
+        if (resolved instanceof Function && OpenapiTypesUtil.isFunctionReference(call)) {
+            final Boolean summary = getSummary((Function) resolved);
+            return summary != null && summary;
+        }
+        return false;
+    }
+
+    /* throwing calls are not safe to evaluate speculatively: `throw`, `@throws`, internals throwing on arguments values */
+    static public boolean canThrow(@NotNull PsiElement expression) {
+        return !PsiTreeUtil.processElements(expression, element -> {
+            if (element instanceof FunctionReference) {
+                return !canThrow((FunctionReference) element);
+            } else if (element instanceof BinaryExpression) {
+                final IElementType operation = ((BinaryExpression) element).getOperationType();
+                return operation != PhpTokenTypes.opDIV && operation != PhpTokenTypes.opREM;
+            }
+            return !(element instanceof PhpThrow) && !(element instanceof NewExpression);
+        });
+    }
+
+    static private boolean canThrow(@NotNull FunctionReference call) {
+        final String functionName = call.getName();
+        if (functionName == null || functionName.isEmpty()) {
+            return true;
+        }
+        if (OpenapiTypesUtil.isFunctionReference(call) && InternalFunctionsMetadata.isPure(functionName)) {
+            return InternalFunctionsMetadata.isThrowing(functionName);
+        }
+        final PsiElement resolved = OpenapiResolveUtil.resolveReference(call);
+        if (resolved instanceof Function) {
+            final Function function = (Function) resolved;
+            final Boolean summary   = CachedValuesManager.getCachedValue(
+                    function,
+                    () -> CachedValueProvider.Result.create(
+                            /* recursive functions are getting no summary, hence considered throwing */
+                            RecursionManager.doPreventingRecursion(function, false, () -> computeThrowing(function)),
+                            PsiModificationTracker.MODIFICATION_COUNT
+                    )
+            );
+            return summary == null || summary;
+        }
+        return true;
+    }
+
+    @NotNull
+    static private Boolean computeThrowing(@NotNull Function function) {
+        final PhpDocComment docBlock = function.getDocComment();
+        final GroupStatement body    = ExpressionSemanticUtil.getGroupStatement(function);
+        return body == null || (docBlock != null && docBlock.getTagElementsByName("@throws").length > 0) || canThrow(body);
+    }
+
+    static private boolean hasScalarOrArrayArguments(@NotNull FunctionReference call) {
+        for (final PsiElement argument : call.getParameters()) {
+            final PhpType type = argument instanceof PhpTypedElement
+                    ? OpenapiResolveUtil.resolveType((PhpTypedElement) argument, call.getProject())
+                    : null;
+            if (type == null || type.filterUnknown().isEmpty() || !type.getTypes().stream().allMatch(PurityAnalysisUtil::isScalarOrArray)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /* `string`, `int[]` and co; `mixed`, objects and arrays of objects are not */
+    static private boolean isScalarOrArray(@NotNull String type) {
+        if (type.endsWith("[]")) {
+            return isScalarOrArray(type.substring(0, type.length() - 2));
+        }
+        final String normalized = Types.getType(type);
+        return normalized.equals(Types.strArray) || scalarTypes.contains(normalized);
+    }
+
+    static private boolean isMarkedPure(@NotNull Function function) {
+        final PhpDocComment docBlock = function.getDocComment();
+        if (docBlock != null) {
+            for (final String tag : pureTags) {
+                if (docBlock.getTagElementsByName(tag).length > 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Nullable
+    static private Boolean getSummary(@NotNull Function function) {
+        return CachedValuesManager.getCachedValue(
+                function,
+                () -> CachedValueProvider.Result.create(
+                        /* recursive functions are getting no summary, hence considered impure */
+                        RecursionManager.doPreventingRecursion(function, false, () -> computeSummary(function)),
+                        PsiModificationTracker.MODIFICATION_COUNT
+                )
+        );
+    }
+
+    @NotNull
+    static private Boolean computeSummary(@NotNull Function function) {
+        if (isMarkedPure(function)) {
+            return true;
+        }
+        for (final Parameter parameter : function.getParameters()) {
+            if (parameter.isPassByRef()) {
+                return false;
+            }
+        }
+        final GroupStatement body = ExpressionSemanticUtil.getGroupStatement(function);
+        if (body == null) {
+            return false;
+        }
+        /* local variables only, no output, no global state, no objects creation, and pure calls */
+        return PsiTreeUtil.processElements(body, element -> {
+            if (element instanceof Function || element instanceof Include || element instanceof NewExpression || element instanceof FieldReference) {
+                return false;
+            } else if (element instanceof Variable) {
+                final String variableName = ((Variable) element).getName();
+                return !variableName.isEmpty() && !stateVariables.contains(variableName);
+            } else if (element instanceof FunctionReference) {
+                return isPure((FunctionReference) element);
+            }
+            return !impureStatements.contains(element.getNode().getElementType());
+        });
+    }
+}
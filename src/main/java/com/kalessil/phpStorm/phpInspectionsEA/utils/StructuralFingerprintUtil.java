@@ -0,0 +1,69 @@
+package com.kalessil.phpStorm.phpInspectionsEA.utils;
+
+import com.intellij.lang.ASTNode;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.PsiComment;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiRecursiveElementWalkingVisitor;
+import com.intellij.psi.PsiWhiteSpace;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import org.jetbrains.annotations.NotNull;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+final public class StructuralFingerprintUtil {
+    /* rolling hash over nodes types and tokens, whitespaces and comments are not affecting it */
+    public static int fingerprint(@NotNull PsiElement element) {
+        final FingerprintVisitor visitor = new FingerprintVisitor();
+        element.accept(visitor);
+        return visitor.hash;
+    }
+
+    /* fingerprint combined with the nodes count, cached until the next PSI modification */
+    public static long getCachedFingerprint(@NotNull PsiElement element) {
+        return CachedValuesManager.getCachedValue(
+                element,
+                () -> {
+                    final FingerprintVisitor visitor = new FingerprintVisitor();
+                    element.accept(visitor);
+                    final long fingerprint = ((long) visitor.count << 32) | (visitor.hash & 0xFFFFFFFFL);
+                    return CachedValueProvider.Result.create(fingerprint, PsiModificationTracker.MODIFICATION_COUNT);
+                }
+        );
+    }
+
+    /* the same value as fingerprint(...), taken from the cached fingerprint */
+    public static int getCachedHash(@NotNull PsiElement element) {
+        return (int) getCachedFingerprint(element);
+    }
+
+    private static final class FingerprintVisitor extends PsiRecursiveElementWalkingVisitor {
+        private int hash  = 0;
+        private int count = 0;
+
+        @Override
+        public void visitElement(@NotNull PsiElement element) {
+            if (!(element instanceof PsiWhiteSpace) && !(element instanceof PsiComment)) {
+                final ASTNode node = element.getNode();
+                if (node != null) {
+                    ++this.count;
+                    /* element type names are stable between IDE sessions, unlike their indexes */
+                    this.hash = 31 * this.hash + node.getElementType().toString().hashCode();
+                    if (node.getFirstChildNode() == null) {
+                        this.hash = 31 * this.hash + StringUtil.stringHashCode(node.getChars());
+                    }
+                }
+                super.visitElement(element);
+            }
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package com.kalessil.phpStorm.phpInspectionsEA.utils;
+
+import com.intellij.openapi.util.RecursionManager;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.jetbrains.php.lang.lexer.PhpTokenTypes;
+import com.jetbrains.php.lang.psi.elements.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Tracks untrusted data (request variables, decoded or downloaded content) across functions boundaries.
+ * Every function gets a summary (which parameters and sources are reaching the return value, which parameters
+ * are reaching sinks), computed once per modification of the files it was derived from and re-used at all call sites.
+ */
+final public class TaintAnalysisUtil {
+    public static final String SINK_UNSERIALIZE = "unserialize";
+    public static final String SINK_INCLUDE     = "include";
+    public static final String SINK_EXTRACT     = "extract";
+    public static final String SINK_PARSE_STR   = "parse_str";
+
+    private final static Set<String> untrustedVariables = new HashSet<>();
+    private final static Set<String> untrustedFunctions = new HashSet<>();
+    private final static Map<String, String> sinks      = new HashMap<>();
+    static {
+        untrustedVariables.add("_GET");
+        untrustedVariables.add("_POST");
+        untrustedVariables.add("_REQUEST");
+        untrustedVariables.add("_FILES");
+        untrustedVariables.add("_COOKIE");
+
+        untrustedFunctions.add("file_get_contents");
+        untrustedFunctions.add("base64_decode");
+        untrustedFunctions.add("urldecode");
+
+        sinks.put("unserialize", SINK_UNSERIALIZE);
+        sinks.put("extract", SINK_EXTRACT);
+        sinks.put("parse_str", SINK_PARSE_STR);
+        sinks.put("mb_parse_str", SINK_PARSE_STR);
+    }
+
+    /* sources the expression value might be derived from, e.g. "$_GET" or "file_get_contents(...)", sorted */
+    @NotNull
+    static public Set<String> getSources(@NotNull PsiElement expression) {
+        final Flow flow = new Flow();
+        collect(expression, null, flow, new HashSet<>());
+        return flow.sources;
+    }
+
+    /* sources passed by the call into arguments, which are reaching the sink inside the callee */
+    @NotNull
+    static public Set<String> getSourcesReachingSink(@NotNull FunctionReference call, @NotNull String sink) {
+        final Set<String> result     = new TreeSet<>();
+        final PsiElement[] arguments = call.getParameters();
+        final Summary summary        = arguments.length == 0 ? null : getSummary(call);
+        if (summary != null) {
+            for (final Map.Entry<Integer, Set<String>> entry : summary.sinks.entrySet()) {
+                final int position = entry.getKey();
+                if (position < arguments.length && entry.getValue().contains(sink)) {
+                    result.addAll(getSources(arguments[position]));
+                }
+            }
+        }
+        return result;
+    }
+
+    static private void collect(@Nullable PsiElement expression, @Nullable Function owner, @NotNull Flow flow, @NotNull Set<PsiElement> processed) {
+        expression = ExpressionSemanticUtil.getExpressionTroughParenthesis(expression);
+        if (expression == null || !processed.add(expression)) {
+            return;
+        }
+
+        if (expression instanceof Variable) {
+            final String variableName = ((Variable) expression).getName();
+            if (untrustedVariables.contains(variableName)) {
+                flow.sources.add('$' + variableName);
+            } else if (!variableName.isEmpty()) {
+                final Function scope = ExpressionSemanticUtil.getScope(expression);
+                if (scope != null) {
+                    final Parameter[] parameters = scope.getParameters();
+                    for (int position = 0; position < parameters.length; ++position) {
+                        if (parameters[position].getName().equals(variableName)) {
+                            /* parameters are tracked for the summarized function only */
+                            if (scope == owner) {
+                                flow.parameters.add(position);
+                            }
+                            collect(parameters[position].getDefaultValue(), owner, flow, processed);
+                            break;
+                        }
+                    }
+                }
+                /* file-level code is the scope for variables outside of functions */
+                final PsiElement container = scope == null ? expression.getContainingFile() : scope;
+                if (container != null) {
+                    collectAssignedValues(container, variableName, owner, flow, processed);
+                }
+            }
+        } else if (expression instanceof FieldReference) {
+            final FieldReference reference = (FieldReference) expression;
+            final String fieldName         = reference.getName();
+            final PsiElement resolved      = fieldName == null || fieldName.isEmpty() ? null : OpenapiResolveUtil.resolveReference(reference);
+            if (resolved instanceof Field) {
+                final Field field = (Field) resolved;
+                flow.files.add(field.getContainingFile());
+                /* properties without defaults are resolved to the property itself */
+                final PsiElement defaultValue = OpenapiResolveUtil.resolveDefaultValue(field);
+                if (defaultValue != null && !defaultValue.getText().endsWith(fieldName)) {
+                    collect(defaultValue, owner, flow, processed);
+                }
+                /* values assigned in the current method and in the constructor */
+                final PhpClass clazz       = field.getContainingClass();
+                final Function constructor = clazz == null ? null : clazz.getConstructor();
+                final Function scope       = ExpressionSemanticUtil.getScope(reference);
+                for (final Function method : new Function[]{scope, constructor}) {
+                    if (method != null) {
+                        flow.files.add(method.getContainingFile());
+                        collectAssignedValues(method, "->" + fieldName, owner, flow, processed);
+                    }
+                }
+            }
+        } else if (expression instanceof ConstantReference) {
+            final PsiElement resolved = PhpLanguageUtil.isBoolean(expression) || PhpLanguageUtil.isNull(expression)
+                    ? null
+                    : OpenapiResolveUtil.resolveReference((ConstantReference) expression);
+            if (resolved instanceof PhpDefine) {
+                flow.files.add(resolved.getContainingFile());
+                collect(((PhpDefine) resolved).getValue(), owner, flow, processed);
+            }
+        } else if (expression instanceof ArrayAccessExpression) {
+            collect(((ArrayAccessExpression) expression).getValue(), owner, flow, processed);
+        } else if (expression instanceof TernaryExpression) {
+            final TernaryExpression ternary = (TernaryExpression) expression;
+            collect(ternary.getTrueVariant(), owner, flow, processed);
+            collect(ternary.getFalseVariant(), owner, flow, processed);
+        } else if (expression instanceof BinaryExpression) {
+            final BinaryExpression binary = (BinaryExpression) expression;
+            if (binary instanceof ConcatenationExpression || binary.getOperationType() == PhpTokenTypes.opCOALESCE) {
+                collect(binary.getLeftOperand(), owner, flow, processed);
+                collect(binary.getRightOperand(), owner, flow, processed);
+            }
+        } else if (expression instanceof FunctionReference) {
+            final FunctionReference call = (FunctionReference) expression;
+            final String functionName    = call.getName();
+            if (functionName != null && OpenapiTypesUtil.isFunctionReference(call) && untrustedFunctions.contains(functionName)) {
+                flow.sources.add(functionName + "(...)");
+            } else {
+                final Summary summary = getSummary(call);
+                if (summary != null) {
+                    flow.files.addAll(summary.files);
+                    flow.sources.addAll(summary.sources);
+                    final PsiElement[] arguments = call.getParameters();
+                    for (final int position : summary.parameters) {
+                        if (position < arguments.length) {
+                            collect(arguments[position], owner, flow, processed);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    static private void collectAssignedValues(
+            @NotNull PsiElement scope,
+            @NotNull String key,
+            @Nullable Function owner,
+            @NotNull Flow flow,
+            @NotNull Set<PsiElement> processed
+    ) {
+        for (final PsiElement storedValue : getAssignedValues(scope).getOrDefault(key, Collections.emptyList())) {
+            collect(storedValue, owner, flow, processed);
+        }
+    }
+
+    /* values assigned in the scope (a function or a file), by variable name or `->field` for `$this->field` */
+    @NotNull
+    static private Map<String, List<PsiElement>> getAssignedValues(@NotNull PsiElement scope) {
+        return CachedValuesManager.getCachedValue(
+                scope,
+                () -> CachedValueProvider.Result.create(computeAssignedValues(scope), scope.getContainingFile())
+        );
+    }
+
+    @NotNull
+    static private Map<String, List<PsiElement>> computeAssignedValues(@NotNull PsiElement scope) {
+        final Map<String, List<PsiElement>> result = new HashMap<>();
+        final boolean isFile                       = scope instanceof PsiFile;
+        final PsiElement body                      = isFile ? scope : ExpressionSemanticUtil.getGroupStatement(scope);
+        if (body != null) {
+            for (final AssignmentExpression assignment : PsiTreeUtil.findChildrenOfType(body, AssignmentExpression.class)) {
+                /* file-level code: assignments inside functions are not in the scope */
+                if (isFile && ExpressionSemanticUtil.getScope(assignment) != null) {
+                    continue;
+                }
+                final PsiElement container = assignment.getVariable();
+                String key                 = null;
+                if (container instanceof Variable) {
+                    key = ((Variable) container).getName();
+                } else if (container instanceof FieldReference) {
+                    final FieldReference field = (FieldReference) container;
+                    final PsiElement base      = field.getClassReference();
+                    if (base instanceof Variable && ((Variable) base).getName().equals("this") && field.getName() != null) {
+                        key = "->" + field.getName();
+                    }
+                }
+                if (key != null) {
+                    PsiElement storedValue = assignment.getValue();
+                    while (storedValue != null && OpenapiTypesUtil.isAssignment(storedValue)) {
+                        storedValue = ((AssignmentExpression) storedValue).getValue();
+                    }
+                    if (storedValue != null) {
+                        result.computeIfAbsent(key, any -> new ArrayList<>()).add(storedValue);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    @Nullable
+    static private Summary getSummary(@NotNull FunctionReference call) {
+        final PsiElement resolved = OpenapiResolveUtil.resolveReference(call);
+        return resolved instanceof Function ? getSummary((Function) resolved) : null;
+    }
+
+    @Nullable
+    static private Summary getSummary(@NotNull Function function) {
+        return CachedValuesManager.getCachedValue(
+                function,
+                () -> {
+                    /* recursive calls are getting no summary, which stops the propagation */
+                    final Summary summary          = RecursionManager.doPreventingRecursion(function, false, () -> computeSummary(function));
+                    final Set<Object> dependencies = new HashSet<>();
+                    dependencies.add(function.getContainingFile());
+                    if (summary != null) {
+                        dependencies.addAll(summary.files);
+                    }
+                    /* declarations changes are affecting the resolved callees */
+                    dependencies.add(PsiModificationTracker.OUT_OF_CODE_BLOCK_MODIFICATION_COUNT);
+                    dependencies.remove(null);
+                    return CachedValueProvider.Result.create(summary, dependencies.toArray());
+                }
+        );
+    }
+
+    @NotNull
+    static private Summary computeSummary(@NotNull Function function) {
+        final Summary summary     = new Summary();
+        final GroupStatement body = ExpressionSemanticUtil.getGroupStatement(function);
+        if (body != null) {
+            for (final PsiElement element : PsiTreeUtil.findChildrenOfAnyType(body, PhpReturn.class, Include.class, FunctionReference.class)) {
+                /* closures are getting own summaries */
+                if (ExpressionSemanticUtil.getScope(element) != function) {
+                    continue;
+                }
+
+                if (element instanceof PhpReturn) {
+                    final Flow flow = new Flow();
+                    collect(ExpressionSemanticUtil.getReturnValue((PhpReturn) element), function, flow, new HashSet<>());
+                    summary.files.addAll(flow.files);
+                    summary.sources.addAll(flow.sources);
+                    summary.parameters.addAll(flow.parameters);
+                } else if (element instanceof Include) {
+                    recordSink(summary, function, ((Include) element).getArgument(), SINK_INCLUDE);
+                } else {
+                    final FunctionReference call = (FunctionReference) element;
+                    final String functionName    = call.getName();
+                    final PsiElement[] arguments = call.getParameters();
+                    if (functionName != null && OpenapiTypesUtil.isFunctionReference(call) && sinks.containsKey(functionName)) {
+                        /* only single-argument forms are insecure: no allowed classes, no extraction flags/target */
+                        if (arguments.length == 1) {
+                            recordSink(summary, function, arguments[0], sinks.get(functionName));
+                        }
+                    } else if (arguments.length > 0) {
+                        /* sinks reached in the callee are reached by the caller as well */
+                        final Summary callee = getSummary(call);
+                        if (callee != null) {
+                            summary.files.addAll(callee.files);
+                            for (final Map.Entry<Integer, Set<String>> entry : callee.sinks.entrySet()) {
+                                final int position = entry.getKey();
+                                if (position < arguments.length) {
+                                    for (final String sink : entry.getValue()) {
+                                        recordSink(summary, function, arguments[position], sink);
+                                    }
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return summary;
+    }
+
+    static private void recordSink(@NotNull Summary summary, @NotNull Function function, @Nullable PsiElement argument, @NotNull String sink) {
+        final Flow flow = new Flow();
+        collect(argument, function, flow, new HashSet<>());
+        summary.files.addAll(flow.files);
+        for (final int position : flow.parameters) {
+            summary.sinks.computeIfAbsent(position, key -> new HashSet<>()).add(sink);
+        }
+    }
+
+    private static final class Flow {
+        private final Set<String> sources     = new TreeSet<>();
+        private final Set<Integer> parameters = new HashSet<>();
+        /* files the flow was derived from, the summaries depend on them */
+        private final Set<PsiFile> files      = new HashSet<>();
+    }
+
+    private static final class Summary {
+        private final Set<String> sources             = new TreeSet<>();
+        private final Set<Integer> parameters         = new HashSet<>();
+        private final Map<Integer, Set<String>> sinks = new HashMap<>();
+        private final Set<PsiFile> files              = new HashSet<>();
+    }
+}
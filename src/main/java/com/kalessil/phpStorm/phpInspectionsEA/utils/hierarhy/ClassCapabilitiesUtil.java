@@ -0,0 +1,85 @@
+package com.kalessil.phpStorm.phpInspectionsEA.utils.hierarhy;
+
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.jetbrains.php.lang.psi.elements.PhpClass;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiResolveUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+final public class ClassCapabilitiesUtil {
+    public static final int TO_STRING    = 1;
+    public static final int GET          = 1 << 1;
+    public static final int SET          = 1 << 2;
+    public static final int ISSET        = 1 << 3;
+    public static final int UNSET        = 1 << 4;
+    public static final int CALL         = 1 << 5;
+    public static final int CALL_STATIC  = 1 << 6;
+    public static final int INVOKE       = 1 << 7;
+    public static final int OFFSET_GET   = 1 << 8;
+    public static final int OFFSET_SET   = 1 << 9;
+    public static final int ARRAY_ACCESS = 1 << 10;
+    public static final int COUNTABLE    = 1 << 11;
+    public static final int TRAVERSABLE  = 1 << 12;
+    public static final int STRINGABLE   = 1 << 13;
+
+    private static final Map<String, Integer> methods    = new HashMap<>();
+    private static final Map<String, Integer> interfaces = new HashMap<>();
+    static {
+        methods.put("__toString", TO_STRING);
+        methods.put("__get", GET);
+        methods.put("__set", SET);
+        methods.put("__isset", ISSET);
+        methods.put("__unset", UNSET);
+        methods.put("__call", CALL);
+        methods.put("__callStatic", CALL_STATIC);
+        methods.put("__invoke", INVOKE);
+        methods.put("offsetGet", OFFSET_GET);
+        methods.put("offsetSet", OFFSET_SET);
+
+        interfaces.put("\\ArrayAccess", ARRAY_ACCESS);
+        interfaces.put("\\Countable", COUNTABLE);
+        interfaces.put("\\Traversable", TRAVERSABLE);
+        interfaces.put("\\Stringable", STRINGABLE);
+    }
+
+    /* capabilities bitmask including inherited members, cached until the hierarchy changes */
+    public static int getCapabilities(@NotNull PhpClass clazz) {
+        return CachedValuesManager.getCachedValue(
+                clazz,
+                () -> CachedValueProvider.Result.create(computeCapabilities(clazz), PsiModificationTracker.OUT_OF_CODE_BLOCK_MODIFICATION_COUNT)
+        );
+    }
+
+    public static boolean has(@NotNull PhpClass clazz, int capabilities) {
+        return (getCapabilities(clazz) & capabilities) != 0;
+    }
+
+    private static int computeCapabilities(@NotNull PhpClass clazz) {
+        int result = 0;
+        for (final Map.Entry<String, Integer> method : methods.entrySet()) {
+            if (OpenapiResolveUtil.resolveMethod(clazz, method.getKey()) != null) {
+                result |= method.getValue();
+            }
+        }
+        for (final PhpClass parent : InterfacesExtractUtil.getCrawlInheritanceTree(clazz, true)) {
+            final Integer capability = interfaces.get(parent.getFQN());
+            if (capability != null) {
+                result |= capability;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,87 @@
+package com.kalessil.phpStorm.phpInspectionsEA.utils.hierarhy;
+
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.jetbrains.php.lang.psi.elements.*;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Members usage in the class own and traits methods, collected in one pass over the methods bodies:
+ * field references grouped by name and the containing method.
+ */
+final public class ClassMembersUsageUtil {
+    @NotNull
+    public static Summary getSummary(@NotNull PhpClass clazz) {
+        return CachedValuesManager.getCachedValue(
+                clazz,
+                () -> CachedValueProvider.Result.create(computeSummary(clazz), PsiModificationTracker.MODIFICATION_COUNT)
+        );
+    }
+
+    /* own and inherited properties lookup, cached until the hierarchy changes */
+    public static boolean hasField(@NotNull PhpClass clazz, @NotNull String name) {
+        return CachedValuesManager.getCachedValue(
+                clazz,
+                () -> {
+                    final Set<String> names = new HashSet<>();
+                    for (final Field field : clazz.getFields()) {
+                        if (!field.isConstant()) {
+                            names.add(field.getName());
+                        }
+                    }
+                    return CachedValueProvider.Result.create(names, PsiModificationTracker.OUT_OF_CODE_BLOCK_MODIFICATION_COUNT);
+                }
+        ).contains(name);
+    }
+
+    @NotNull
+    private static Summary computeSummary(@NotNull PhpClass clazz) {
+        final Summary summary = new Summary();
+        final List<Method> methods = new ArrayList<>();
+        Collections.addAll(methods, clazz.getOwnMethods());
+        for (final PhpClass trait : clazz.getTraits()) {
+            Collections.addAll(methods, trait.getOwnMethods());
+        }
+        for (final Method method : methods) {
+            if (method.isAbstract()) {
+                continue;
+            }
+            for (final FieldReference reference : PsiTreeUtil.findChildrenOfType(method, FieldReference.class)) {
+                final String name = reference.getName();
+                if (name != null && !name.isEmpty()) {
+                    summary.fieldReferences.computeIfAbsent(name, key -> new HashMap<>())
+                            .computeIfAbsent(method, key -> new ArrayList<>()).add(reference);
+                }
+            }
+        }
+        methods.clear();
+
+        return summary;
+    }
+
+    final public static class Summary {
+        private final Map<String, Map<Method, List<FieldReference>>> fieldReferences = new HashMap<>();
+
+        private Summary() {
+        }
+
+        /* references by name (not resolved, can belong to other classes), grouped by the containing method */
+        @NotNull
+        public Map<Method, List<FieldReference>> getFieldReferences(@NotNull String name) {
+            return this.fieldReferences.getOrDefault(name, Collections.emptyMap());
+        }
+    }
+}
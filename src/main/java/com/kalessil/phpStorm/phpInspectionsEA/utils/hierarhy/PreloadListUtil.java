@@ -0,0 +1,224 @@
+package com.kalessil.phpStorm.phpInspectionsEA.utils.hierarhy;
+
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.jetbrains.php.PhpIndex;
+import com.jetbrains.php.lang.psi.elements.ClassReference;
+import com.jetbrains.php.lang.psi.elements.PhpClass;
+import com.kalessil.phpStorm.phpInspectionsEA.openApi.ClassDependencyGraph;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Opcache preloading list: classes of the entry namespaces and everything they are referencing (transitively),
+ * ordered so that parents, interfaces and traits are compiled before the classes using them. Classes which can
+ * not be linked at preload time (unknown or ambiguous hierarchy members) are excluded with the reason.
+ */
+final public class PreloadListUtil {
+    private final static Set<String> relativeNames = new HashSet<>(Arrays.asList("\\self", "\\static", "\\parent"));
+
+    @NotNull
+    static public Result build(@NotNull Project project, @NotNull Collection<String> namespaces) {
+        final ClassDependencyGraph graph = ClassDependencyGraph.getInstance(project);
+        final PhpIndex index             = PhpIndex.getInstance(project);
+        final Result result              = new Result();
+
+        /* the closure: hierarchy members are required for linking, other references are preloaded when resolved */
+        final Map<String, PhpClass> classes   = new HashMap<>();
+        final Map<String, List<String>> links = new HashMap<>();
+        final Deque<String> queue             = new ArrayDeque<>();
+        for (final String fqn : graph.getClasses()) {
+            for (final String namespace : namespaces) {
+                if (fqn.startsWith(namespace)) {
+                    queue.add(fqn);
+                    break;
+                }
+            }
+        }
+        final Set<String> visited = new HashSet<>(queue);
+        while (!queue.isEmpty()) {
+            ProgressManager.checkCanceled();
+            final String fqn = queue.poll();
+
+            final PhpClass clazz = resolve(fqn, index, result);
+            if (clazz == null) {
+                continue;
+            }
+            classes.put(fqn, clazz);
+
+            final List<String> hierarchy = getHierarchy(clazz);
+            links.put(fqn, hierarchy);
+            final List<String> references = graph.getDependencies(fqn);
+            for (final String dependency : references == null ? getReferences(clazz) : references) {
+                if (!relativeNames.contains(dependency) && visited.add(dependency)) {
+                    queue.add(dependency);
+                }
+            }
+            for (final String dependency : hierarchy) {
+                if (visited.add(dependency)) {
+                    queue.add(dependency);
+                }
+            }
+        }
+
+        /* unknown hierarchy members are failing the linking, also of all classes extending the failed ones */
+        final Map<String, List<String>> dependents = new HashMap<>();
+        final Deque<String> failed                 = new ArrayDeque<>();
+        for (final Map.Entry<String, List<String>> entry : links.entrySet()) {
+            for (final String dependency : entry.getValue()) {
+                dependents.computeIfAbsent(dependency, key -> new ArrayList<>()).add(entry.getKey());
+                if (!classes.containsKey(dependency) && !result.internals.contains(dependency) && !result.failures.containsKey(dependency)) {
+                    result.failures.put(dependency, "unknown class");
+                }
+            }
+        }
+        failed.addAll(result.failures.keySet());
+        while (!failed.isEmpty()) {
+            final String fqn = failed.poll();
+            for (final String dependent : dependents.getOrDefault(fqn, Collections.emptyList())) {
+                if (!result.failures.containsKey(dependent)) {
+                    result.failures.put(dependent, String.format("depends on %s, which can not be linked", fqn));
+                    classes.remove(dependent);
+                    failed.add(dependent);
+                }
+            }
+        }
+        dependents.clear();
+
+        /* topological ordering (Kahn's algorithm), ties are resolved by names to keep the output stable */
+        final Map<String, Integer> pending        = new HashMap<>();
+        final Map<String, List<String>> followers = new HashMap<>();
+        for (final String fqn : classes.keySet()) {
+            int count = 0;
+            for (final String dependency : links.get(fqn)) {
+                if (classes.containsKey(dependency)) {
+                    followers.computeIfAbsent(dependency, key -> new ArrayList<>()).add(fqn);
+                    ++count;
+                }
+            }
+            pending.put(fqn, count);
+        }
+        final PriorityQueue<String> ready = new PriorityQueue<>();
+        for (final Map.Entry<String, Integer> entry : pending.entrySet()) {
+            if (entry.getValue() == 0) {
+                ready.add(entry.getKey());
+            }
+        }
+        final Set<VirtualFile> files = new LinkedHashSet<>();
+        while (!ready.isEmpty()) {
+            final String fqn = ready.poll();
+            result.classes.add(fqn);
+            files.add(classes.get(fqn).getContainingFile().getVirtualFile());
+            for (final String follower : followers.getOrDefault(fqn, Collections.emptyList())) {
+                if (pending.merge(follower, -1, Integer::sum) == 0) {
+                    ready.add(follower);
+                }
+            }
+        }
+        for (final Map.Entry<String, Integer> entry : pending.entrySet()) {
+            if (entry.getValue() > 0) {
+                result.failures.put(entry.getKey(), "circular inheritance");
+            }
+        }
+        result.files.addAll(files);
+
+        classes.clear();
+        links.clear();
+        pending.clear();
+        followers.clear();
+
+        return result;
+    }
+
+    /* the preloadable definition, null for internal and not resolved (or ambiguous) classes */
+    @Nullable
+    static private PhpClass resolve(@NotNull String fqn, @NotNull PhpIndex index, @NotNull Result result) {
+        final List<PhpClass> definitions = new ArrayList<>();
+        boolean isInternal               = false;
+        for (final PhpClass candidate : index.getAnyByFQN(fqn)) {
+            final PsiFile file            = candidate.getContainingFile();
+            final VirtualFile virtualFile = file == null ? null : file.getVirtualFile();
+            if (virtualFile != null && virtualFile.isInLocalFileSystem()) {
+                definitions.add(candidate);
+            } else {
+                /* stubs of internal classes, they are always available */
+                isInternal = true;
+            }
+        }
+        if (isInternal) {
+            result.internals.add(fqn);
+        } else if (definitions.size() > 1) {
+            result.failures.put(fqn, String.format("defined in %s files", definitions.size()));
+        } else if (definitions.size() == 1) {
+            return definitions.get(0);
+        }
+        return null;
+    }
+
+    /* parent class, interfaces and traits: the class can not be linked without them */
+    @NotNull
+    static private List<String> getHierarchy(@NotNull PhpClass clazz) {
+        final List<String> result = new ArrayList<>();
+        for (final ClassReference reference : clazz.getExtendsList().getReferenceElements()) {
+            result.add(reference.getFQN());
+        }
+        for (final ClassReference reference : clazz.getImplementsList().getReferenceElements()) {
+            result.add(reference.getFQN());
+        }
+        Collections.addAll(result, clazz.getTraitNames());
+        result.removeIf(fqn -> fqn == null || fqn.isEmpty());
+        return result;
+    }
+
+    /* same as collected by the dependencies index, for classes outside of the project (e.g. vendors) */
+    @NotNull
+    static private Set<String> getReferences(@NotNull PhpClass clazz) {
+        final Set<String> result = new HashSet<>();
+        for (final ClassReference reference : PsiTreeUtil.findChildrenOfType(clazz, ClassReference.class)) {
+            final String fqn = reference.getFQN();
+            if (fqn != null && !fqn.isEmpty()) {
+                result.add(fqn);
+            }
+        }
+        return result;
+    }
+
+    final public static class Result {
+        private final List<String> classes         = new ArrayList<>();
+        private final List<VirtualFile> files      = new ArrayList<>();
+        private final Set<String> internals        = new HashSet<>();
+        private final Map<String, String> failures = new TreeMap<>();
+
+        /* preloaded classes, in the linking order */
+        @NotNull
+        public List<String> getClasses() {
+            return this.classes;
+        }
+
+        /* files to compile, in the linking order */
+        @NotNull
+        public List<VirtualFile> getFiles() {
+            return this.files;
+        }
+
+        /* classes which would fail to link at preload time, with the reason */
+        @NotNull
+        public Map<String, String> getFailures() {
+            return this.failures;
+        }
+    }
+}
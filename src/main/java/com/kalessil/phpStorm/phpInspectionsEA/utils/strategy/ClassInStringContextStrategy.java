@@ -11,6 +11,7 @@ import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiResolveUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.ReportingUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.Types;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.TypesSemanticsUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.hierarhy.ClassCapabilitiesUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -61,7 +62,7 @@ final public class ClassInStringContextStrategy {
 
         /* check methods, error on first one violated requirements */
         for (final PhpClass clazz : listClasses) {
-            if (OpenapiResolveUtil.resolveMethod(clazz, "__toString") == null) {
+            if (!ClassCapabilitiesUtil.has(clazz, ClassCapabilitiesUtil.TO_STRING)) {
                 holder.registerProblem(
                         expression,
                         ReportingUtil.wrapReportedMessage(classHasNoToStringMessage.replace("%class%", clazz.getFQN())),
@@ -27,4 +27,12 @@ final public class UnqualifiedReferenceInspectorTest extends PhpCodeInsightFixtu
         myFixture.configureByFile("testData/fixtures/unqualified-function-refs-no-ns.php");
         myFixture.testHighlighting(true, false, true);
     }
+    public void testFindsCallbacksByCallbackName() {
+        PhpProjectConfigurationFacade.getInstance(myFixture.getProject()).setLanguageLevel(PhpLanguageLevel.PHP710);
+        final UnqualifiedReferenceInspector inspector = new UnqualifiedReferenceInspector();
+        inspector.REPORT_ALL_FUNCTIONS                = true;
+        myFixture.enableInspections(inspector);
+        myFixture.configureByFile("testData/fixtures/unqualified-function-refs-callbacks.php");
+        myFixture.testHighlighting(true, false, true);
+    }
 }
@@ -0,0 +1,16 @@
+package com.kalessil.phpStorm.phpInspectionsEA.api;
+
+import com.kalessil.phpStorm.phpInspectionsEA.PhpCodeInsightFixtureTestCase;
+import com.kalessil.phpStorm.phpInspectionsEA.inspectors.apiUsage.arrays.ArraySearchInLoopInspector;
+
+final public class ArraySearchInLoopInspectorTest extends PhpCodeInsightFixtureTestCase {
+    public void testIfFindsAllPatterns() {
+        myFixture.enableInspections(new ArraySearchInLoopInspector());
+        myFixture.configureByFile("testData/fixtures/api/array/array-search-in-loop.php");
+        myFixture.testHighlighting(true, false, true);
+
+        myFixture.getAllQuickFixes().forEach(fix -> myFixture.launchAction(fix));
+        myFixture.setTestDataPath(".");
+        myFixture.checkResultByFile("testData/fixtures/api/array/array-search-in-loop.fixed.php");
+    }
+}
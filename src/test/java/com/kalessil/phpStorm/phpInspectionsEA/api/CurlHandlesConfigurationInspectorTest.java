@@ -0,0 +1,12 @@
+package com.kalessil.phpStorm.phpInspectionsEA.api;
+
+import com.kalessil.phpStorm.phpInspectionsEA.PhpCodeInsightFixtureTestCase;
+import com.kalessil.phpStorm.phpInspectionsEA.inspectors.apiUsage.CurlHandlesConfigurationInspector;
+
+final public class CurlHandlesConfigurationInspectorTest extends PhpCodeInsightFixtureTestCase {
+    public void testIfFindsAllPatterns() {
+        myFixture.enableInspections(new CurlHandlesConfigurationInspector());
+        myFixture.configureByFile("testData/fixtures/api/curl-handles-configuration.php");
+        myFixture.testHighlighting(true, false, true);
+    }
+}
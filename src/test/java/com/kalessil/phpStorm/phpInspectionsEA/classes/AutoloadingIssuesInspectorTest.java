@@ -25,4 +25,15 @@ final public class AutoloadingIssuesInspectorTest extends PhpCodeInsightFixtureT
         myFixture.configureByFile("testData/fixtures/classes/brokenAutoloading/0000_00_00_000000_Version000000_.php");
         myFixture.testHighlighting(true, false, true);
     }
+
+    public void testComposerAutoloadMappings() {
+        myFixture.enableInspections(new AutoloadingIssuesInspector());
+        myFixture.copyFileToProject("testData/fixtures/classes/brokenAutoloading/composer/composer.json");
+        myFixture.configureByFile("testData/fixtures/classes/brokenAutoloading/composer/src/Valid/ValidNamespace.php");
+        myFixture.testHighlighting(true, false, true);
+        myFixture.configureByFile("testData/fixtures/classes/brokenAutoloading/composer/src/Invalid/InvalidNamespace.php");
+        myFixture.testHighlighting(true, false, true);
+        myFixture.configureByFile("testData/fixtures/classes/brokenAutoloading/composer/legacy/ClassMapped.php");
+        myFixture.testHighlighting(true, false, true);
+    }
 }
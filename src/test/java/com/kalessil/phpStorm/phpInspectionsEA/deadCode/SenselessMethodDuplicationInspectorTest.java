@@ -15,6 +15,11 @@ final public class SenselessMethodDuplicationInspectorTest extends PhpCodeInsigh
         myFixture.setTestDataPath(".");
         myFixture.checkResultByFile("testData/fixtures/deadCode/senseless-method-duplication.fixed.php");
     }
+    public void testNamespacedClasses() {
+        myFixture.enableInspections(new SenselessMethodDuplicationInspector());
+        myFixture.configureByFile("testData/fixtures/deadCode/senseless-method-duplication-namespaced.php");
+        myFixture.testHighlighting(true, false, true);
+    }
     public void testFalsePositives() {
         myFixture.enableInspections(new SenselessMethodDuplicationInspector());
         myFixture.configureByFile("testData/fixtures/deadCode/senseless-method-duplication-false-positives.php");
@@ -0,0 +1,59 @@
+package com.kalessil.phpStorm.phpInspectionsEA.internal.fixers;
+
+import com.intellij.codeInspection.*;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiElementVisitor;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiRecursiveElementWalkingVisitor;
+import com.jetbrains.php.config.PhpLanguageLevel;
+import com.jetbrains.php.config.PhpProjectConfigurationFacade;
+import com.kalessil.phpStorm.phpInspectionsEA.PhpCodeInsightFixtureTestCase;
+import com.kalessil.phpStorm.phpInspectionsEA.fixers.TextReplacementFix;
+import com.kalessil.phpStorm.phpInspectionsEA.inspectors.apiUsage.UnqualifiedReferenceInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final public class BatchFixesApplierTest extends PhpCodeInsightFixtureTestCase {
+    public void testFixesSeveralFiles() {
+        PhpProjectConfigurationFacade.getInstance(myFixture.getProject()).setLanguageLevel(PhpLanguageLevel.PHP710);
+        final UnqualifiedReferenceInspector inspector = new UnqualifiedReferenceInspector();
+        inspector.REPORT_ALL_FUNCTIONS                = true;
+
+        final PsiFile first  = myFixture.addFileToProject("first.php", "<?php\nnamespace First;\necho strlen('1'), strlen('12');\n");
+        final PsiFile second = myFixture.addFileToProject("second.php", "<?php\nnamespace Second;\necho strlen('123');\n");
+        final PsiFile third  = myFixture.addFileToProject("third.php", "<?php\nnamespace Third;\necho \\strlen('1234');\n");
+
+        final List<ProblemDescriptor> problems = new ArrayList<>();
+        for (final PsiFile file : new PsiFile[]{first, second, third}) {
+            final ProblemsHolder holder     = new ProblemsHolder(InspectionManager.getInstance(myFixture.getProject()), file, false);
+            final PsiElementVisitor visitor = inspector.buildVisitor(holder, false);
+            file.accept(new PsiRecursiveElementWalkingVisitor() {
+                @Override
+                public void visitElement(PsiElement element) {
+                    element.accept(visitor);
+                    super.visitElement(element);
+                }
+            });
+            problems.addAll(holder.getResults());
+        }
+        assertEquals(3, problems.size());
+
+        TextReplacementFix fix = null;
+        for (final QuickFix candidate : problems.get(0).getFixes()) {
+            if (candidate instanceof TextReplacementFix) {
+                fix = (TextReplacementFix) candidate;
+            }
+        }
+        assertNotNull(fix);
+        assertFalse(fix.startInWriteAction());
+
+        final List<PsiElement> processed = new ArrayList<>();
+        fix.applyFix(myFixture.getProject(), problems.toArray(new CommonProblemDescriptor[problems.size()]), processed, null);
+        assertEquals(3, processed.size());
+
+        assertEquals("<?php\nnamespace First;\necho \\strlen('1'), \\strlen('12');\n", first.getText());
+        assertEquals("<?php\nnamespace Second;\necho \\strlen('123');\n", second.getText());
+        assertEquals("<?php\nnamespace Third;\necho \\strlen('1234');\n", third.getText());
+    }
+}
@@ -0,0 +1,66 @@
+package com.kalessil.phpStorm.phpInspectionsEA.internal.openApi;
+
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiElementVisitor;
+import com.jetbrains.php.lang.psi.elements.ConstantReference;
+import com.kalessil.phpStorm.phpInspectionsEA.EASettings;
+import com.kalessil.phpStorm.phpInspectionsEA.PhpCodeInsightFixtureTestCase;
+import com.kalessil.phpStorm.phpInspectionsEA.openApi.AnalysisBudget;
+import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+final public class AnalysisBudgetTest extends PhpCodeInsightFixtureTestCase {
+    public void testExhaustedBudgetStopsTheInspection() {
+        final SlowInspection inspection = new SlowInspection();
+        final EASettings settings       = EASettings.getInstance();
+        final int skipped               = AnalysisBudget.getSkippedCount(inspection.getShortName());
+        settings.setAnalysisBudget(inspection.getShortName(), 1);
+        try {
+            myFixture.enableInspections(inspection);
+            myFixture.configureByText("budget.php", "<?php\necho FIRST;\necho SECOND;\necho THIRD;\n");
+            myFixture.doHighlighting();
+
+            /* the first constant exhausts the budget, the rest of the file is not visited */
+            assertEquals(1, inspection.visited.get());
+            assertEquals(skipped + 1, AnalysisBudget.getSkippedCount(inspection.getShortName()));
+        } finally {
+            settings.setAnalysisBudget(inspection.getShortName(), null);
+        }
+    }
+
+    private static final class SlowInspection extends BasePhpInspection {
+        private final AtomicInteger visited = new AtomicInteger();
+
+        @NotNull
+        @Override
+        public String getShortName() {
+            return "AnalysisBudgetTestInspection";
+        }
+
+        @NotNull
+        @Override
+        public String getDisplayName() {
+            return "Analysis budget test";
+        }
+
+        @NotNull
+        @Override
+        public PsiElementVisitor buildVisitor(@NotNull ProblemsHolder holder, boolean isOnTheFly) {
+            return new PsiElementVisitor() {
+                @Override
+                public void visitElement(@NotNull PsiElement element) {
+                    if (element instanceof ConstantReference) {
+                        visited.incrementAndGet();
+                        /* an expensive analysis, spinning until the budget is over */
+                        while (!AnalysisBudget.isExhausted()) {
+                            Thread.yield();
+                        }
+                    }
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.kalessil.phpStorm.phpInspectionsEA.internal.openApi;
+
+import com.intellij.analysis.AnalysisScope;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.jetbrains.php.lang.psi.elements.Variable;
+import com.kalessil.phpStorm.phpInspectionsEA.PhpCodeInsightFixtureTestCase;
+import com.kalessil.phpStorm.phpInspectionsEA.openApi.BatchResolvePrecomputation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+final public class BatchResolvePrecomputationTest extends PhpCodeInsightFixtureTestCase {
+    public void testStaysAheadOfInspections() throws InterruptedException {
+        final List<PsiFile> files = new ArrayList<>();
+        for (int index = 0; index < 40; ++index) {
+            files.add(myFixture.addFileToProject("file" + index + ".php", "<?php\n$value = " + index + ";\necho $value;\n"));
+        }
+        final BatchResolvePrecomputation precomputation = BatchResolvePrecomputation.getInstance(myFixture.getProject());
+        precomputation.start(new AnalysisScope(myFixture.getProject()));
+        try {
+            /* no files were inspected yet: the precomputation waits FILES_AHEAD files ahead */
+            assertTrue(precomputation.awaitIdle(10, TimeUnit.SECONDS));
+            assertEquals(32, this.getPrecomputed(files).size());
+
+            /* the inspections reached some of the files: the precomputation continues till the end */
+            this.getPrecomputed(files).stream().limit(8).forEach(precomputation::fileStarted);
+            assertTrue(precomputation.awaitIdle(10, TimeUnit.SECONDS));
+            assertEquals(40, this.getPrecomputed(files).size());
+        } finally {
+            precomputation.stop();
+        }
+        assertEquals(0, this.getPrecomputed(files).size());
+    }
+
+    public void testSingleFileIsNotPrecomputed() {
+        final PsiFile file = myFixture.addFileToProject("file.php", "<?php\n$value = 0;\necho $value;\n");
+        final BatchResolvePrecomputation precomputation = BatchResolvePrecomputation.getInstance(myFixture.getProject());
+        precomputation.start(new AnalysisScope(myFixture.getProject()));
+        try {
+            assertNull(BatchResolvePrecomputation.findType(PsiTreeUtil.findChildOfType(file, Variable.class), myFixture.getProject()));
+        } finally {
+            precomputation.stop();
+        }
+    }
+
+    private List<PsiFile> getPrecomputed(List<PsiFile> files) {
+        return files.stream()
+                .filter(file -> BatchResolvePrecomputation.findType(PsiTreeUtil.findChildOfType(file, Variable.class), myFixture.getProject()) != null)
+                .collect(Collectors.toList());
+    }
+}
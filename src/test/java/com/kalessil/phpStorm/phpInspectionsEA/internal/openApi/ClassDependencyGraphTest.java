@@ -0,0 +1,84 @@
+package com.kalessil.phpStorm.phpInspectionsEA.internal.openApi;
+
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiFile;
+import com.kalessil.phpStorm.phpInspectionsEA.PhpCodeInsightFixtureTestCase;
+import com.kalessil.phpStorm.phpInspectionsEA.openApi.ClassDependencyGraph;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+final public class ClassDependencyGraphTest extends PhpCodeInsightFixtureTestCase {
+    public void testCouplings() {
+        myFixture.addFileToProject("a.php", "<?php\nnamespace App;\nclass A extends B implements I { public function run(C $c) {} }\n");
+        myFixture.addFileToProject("b.php", "<?php\nnamespace App;\nclass B { public function run(C $c) {} }\n");
+        myFixture.addFileToProject("c.php", "<?php\nnamespace App;\nclass C {}\n");
+        myFixture.addFileToProject("i.php", "<?php\nnamespace App;\ninterface I {}\n");
+        final ClassDependencyGraph graph = ClassDependencyGraph.getInstance(myFixture.getProject());
+
+        assertEquals(3, graph.getEfferentCoupling("\\App\\A"));
+        assertEquals(1, graph.getEfferentCoupling("\\App\\B"));
+        assertEquals(0, graph.getEfferentCoupling("\\App\\C"));
+        assertEquals(-1, graph.getEfferentCoupling("\\App\\Unknown"));
+
+        assertEquals(0, graph.getAfferentCoupling("\\App\\A"));
+        assertEquals(1, graph.getAfferentCoupling("\\App\\B"));
+        assertEquals(2, graph.getAfferentCoupling("\\App\\C"));
+        assertEquals(1, graph.getAfferentCoupling("\\App\\I"));
+        assertEquals(0, graph.getAfferentCoupling("\\App\\Unknown"));
+
+        assertEquals(Arrays.asList("\\App\\B", "\\App\\C", "\\App\\I"), graph.getDependencies("\\App\\A"));
+        assertEquals(Arrays.asList("\\App\\C"), graph.getDependencies("\\App\\B"));
+        assertNull(graph.getDependencies("\\App\\Unknown"));
+    }
+
+    public void testModifiedFilesAreRecollected() {
+        final PsiFile file = myFixture.addFileToProject("b.php", "<?php\nnamespace App;\nclass B { public function run(C $c) {} }\n");
+        myFixture.addFileToProject("c.php", "<?php\nnamespace App;\nclass C {}\n");
+        final ClassDependencyGraph graph = ClassDependencyGraph.getInstance(myFixture.getProject());
+        assertEquals(Arrays.asList("\\App\\C"), graph.getDependencies("\\App\\B"));
+        assertEquals(1, graph.getAfferentCoupling("\\App\\C"));
+
+        final PsiDocumentManager documents = PsiDocumentManager.getInstance(myFixture.getProject());
+        final Document document            = documents.getDocument(file);
+        assertNotNull(document);
+        WriteCommandAction.runWriteCommandAction(myFixture.getProject(), () -> {
+            document.setText("<?php\nnamespace App;\nclass B { public function run() {} }\n");
+            documents.commitDocument(document);
+        });
+
+        assertEquals(0, graph.getEfferentCoupling("\\App\\B"));
+        assertEquals(0, graph.getAfferentCoupling("\\App\\C"));
+    }
+
+    public void testDefinitionsAreCountedSeparately() {
+        myFixture.addFileToProject("d1.php", "<?php\nnamespace App;\nclass D { public function run(A $a, B $b) {} }\n");
+        myFixture.addFileToProject("d2.php", "<?php\nnamespace App;\nclass D { public function run(A $a) {} }\n");
+        final ClassDependencyGraph graph = ClassDependencyGraph.getInstance(myFixture.getProject());
+
+        assertEquals(2, graph.getEfferentCoupling("\\App\\D"));
+        assertEquals(2, graph.getAfferentCoupling("\\App\\A"));
+        assertEquals(1, graph.getAfferentCoupling("\\App\\B"));
+    }
+
+    public void testDeletedFilesAreForgotten() {
+        final PsiFile file = myFixture.addFileToProject("b.php", "<?php\nnamespace App;\nclass B { public function run(C $c) {} }\n");
+        myFixture.addFileToProject("c.php", "<?php\nnamespace App;\nclass C {}\n");
+        final ClassDependencyGraph graph = ClassDependencyGraph.getInstance(myFixture.getProject());
+        assertEquals(1, graph.getAfferentCoupling("\\App\\C"));
+
+        WriteCommandAction.runWriteCommandAction(myFixture.getProject(), () -> {
+            try {
+                file.getVirtualFile().delete(this);
+            } catch (final IOException failure) {
+                fail(failure.getMessage());
+            }
+        });
+
+        assertEquals(-1, graph.getEfferentCoupling("\\App\\B"));
+        assertEquals(0, graph.getAfferentCoupling("\\App\\C"));
+        assertEquals(Arrays.asList("\\App\\C"), graph.getClasses());
+    }
+}
@@ -0,0 +1,54 @@
+package com.kalessil.phpStorm.phpInspectionsEA.internal.openApi;
+
+import com.intellij.codeInsight.daemon.impl.HighlightInfo;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.psi.PsiDocumentManager;
+import com.kalessil.phpStorm.phpInspectionsEA.PhpCodeInsightFixtureTestCase;
+import com.kalessil.phpStorm.phpInspectionsEA.inspectors.semanticalAnalysis.OneTimeUseVariablesInspector;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+final public class FunctionLocalVisitorTest extends PhpCodeInsightFixtureTestCase {
+    public void testEditedFunctionIsReinspected() {
+        final OneTimeUseVariablesInspector inspector = new OneTimeUseVariablesInspector();
+        inspector.ANALYZE_RETURN_STATEMENTS          = true;
+        myFixture.enableInspections(inspector);
+        myFixture.configureByText(
+                "test.php",
+                "<?php\n" +
+                "function first() {\n" +
+                "    $x = compute();\n" +
+                "    return $x;\n" +
+                "}\n" +
+                "function second() {\n" +
+                "    $y = compute();\n" +
+                "    return $y;\n" +
+                "}\n"
+        );
+        assertEquals(2, this.getProblems().size());
+        assertTrue(this.getProblems().contains("[EA] Variable $y is redundant."));
+
+        /* edit the second function only: the first one keeps its problem, the second one is re-inspected */
+        final PsiDocumentManager documents = PsiDocumentManager.getInstance(myFixture.getProject());
+        final Document document            = myFixture.getEditor().getDocument();
+        WriteCommandAction.runWriteCommandAction(myFixture.getProject(), () -> {
+            final String body = "$y = compute();\n    return $y;";
+            final int start   = document.getText().indexOf(body);
+            document.replaceString(start, start + body.length(), body.replace("$y", "$z"));
+            documents.commitDocument(document);
+        });
+        final List<String> problems = this.getProblems();
+        assertEquals(2, problems.size());
+        assertTrue(problems.contains("[EA] Variable $x is redundant."));
+        assertTrue(problems.contains("[EA] Variable $z is redundant."));
+    }
+
+    private List<String> getProblems() {
+        return myFixture.doHighlighting().stream()
+                .map(HighlightInfo::getDescription)
+                .filter(description -> description != null && description.startsWith("[EA] "))
+                .collect(Collectors.toList());
+    }
+}
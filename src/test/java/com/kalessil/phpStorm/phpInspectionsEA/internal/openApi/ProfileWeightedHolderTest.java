@@ -0,0 +1,31 @@
+package com.kalessil.phpStorm.phpInspectionsEA.internal.openApi;
+
+import com.kalessil.phpStorm.phpInspectionsEA.PhpCodeInsightFixtureTestCase;
+import com.kalessil.phpStorm.phpInspectionsEA.inspectors.apiUsage.strings.StrStrUsedAsStrPosInspector;
+import com.kalessil.phpStorm.phpInspectionsEA.openApi.ExecutionProfile;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.ExecutionProfileUtil;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+final public class ProfileWeightedHolderTest extends PhpCodeInsightFixtureTestCase {
+    public void testSuppressesAndBoostsByProfile() throws IOException {
+        final String xhprof = "{" +
+                "\"main()\": {\"ct\": 1, \"wt\": 10000}," +
+                "\"main()==>App\\\\hot\": {\"ct\": 1, \"wt\": 5000}," +
+                "\"main()==>App\\\\cold\": {\"ct\": 1, \"wt\": 5}" +
+                "}";
+        final ExecutionProfile profile = ExecutionProfile.getInstance(myFixture.getProject());
+        profile.load("profile.json", ExecutionProfileUtil.parse(new StringReader(xhprof)));
+        try {
+            myFixture.enableInspections(new StrStrUsedAsStrPosInspector());
+            myFixture.configureByFile("testData/fixtures/profile-weighted.php");
+            myFixture.testHighlighting(true, false, true);
+
+            /* the boosted problem keeps its quick-fix, the suppressed one is gone */
+            assertEquals(2, myFixture.getAllQuickFixes().size());
+        } finally {
+            profile.clear();
+        }
+    }
+}
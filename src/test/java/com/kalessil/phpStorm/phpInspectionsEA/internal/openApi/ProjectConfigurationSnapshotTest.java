@@ -0,0 +1,20 @@
+package com.kalessil.phpStorm.phpInspectionsEA.internal.openApi;
+
+import com.jetbrains.php.config.PhpProjectConfigurationFacade;
+import com.kalessil.phpStorm.phpInspectionsEA.PhpCodeInsightFixtureTestCase;
+import com.kalessil.phpStorm.phpInspectionsEA.openApi.PhpLanguageLevel;
+import com.kalessil.phpStorm.phpInspectionsEA.openApi.ProjectConfigurationSnapshot;
+
+final public class ProjectConfigurationSnapshotTest extends PhpCodeInsightFixtureTestCase {
+    public void testLanguageLevelChangesAreTracked() {
+        final PhpProjectConfigurationFacade facade  = PhpProjectConfigurationFacade.getInstance(myFixture.getProject());
+        final ProjectConfigurationSnapshot snapshot = ProjectConfigurationSnapshot.getInstance(myFixture.getProject());
+
+        facade.setLanguageLevel(com.jetbrains.php.config.PhpLanguageLevel.PHP550);
+        assertEquals(PhpLanguageLevel.PHP550, snapshot.getLanguageLevel());
+
+        /* no PSI is modified here: the cached level must be dropped by the settings change itself */
+        facade.setLanguageLevel(com.jetbrains.php.config.PhpLanguageLevel.PHP710);
+        assertEquals(PhpLanguageLevel.PHP710, snapshot.getLanguageLevel());
+    }
+}
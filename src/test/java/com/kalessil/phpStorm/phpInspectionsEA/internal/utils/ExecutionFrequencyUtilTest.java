@@ -0,0 +1,69 @@
+package com.kalessil.phpStorm.phpInspectionsEA.internal.utils;
+
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.jetbrains.php.lang.psi.elements.FunctionReference;
+import com.kalessil.phpStorm.phpInspectionsEA.PhpCodeInsightFixtureTestCase;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.ExecutionFrequencyUtil;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+final public class ExecutionFrequencyUtilTest extends PhpCodeInsightFixtureTestCase {
+    public void testEstimate() {
+        final PsiFile file = myFixture.configureByText(
+                "test.php",
+                "<?php\n" +
+                "class UserController {\n" +
+                "    public function listAction() {\n" +
+                "        foreach (range(1, 100) as $i) {\n" +
+                "            for ($j = 0; $j < 5; ++$j) { marker(); }\n" +
+                "        }\n" +
+                "    }\n" +
+                "}\n" +
+                "function helper() {\n" +
+                "    while (true) { marker(); }\n" +
+                "    array_map(function ($value) { return marker(); }, []);\n" +
+                "}\n" +
+                "helper();\n" +
+                "helper();\n" +
+                "marker();\n"
+        );
+        final List<FunctionReference> markers = PsiTreeUtil.findChildrenOfType(file, FunctionReference.class).stream()
+                .filter(reference -> "marker".equals(reference.getName()))
+                .collect(Collectors.toList());
+        assertEquals(4, markers.size());
+
+        /* controller action: 100 x 5 iterations, entry point */
+        assertEquals(5000.0, ExecutionFrequencyUtil.estimate(markers.get(0)), 0.001);
+        /* two call sites, loop with unknown bound and a callback */
+        assertEquals(30.0, ExecutionFrequencyUtil.estimate(markers.get(1)), 0.001);
+        assertEquals(30.0, ExecutionFrequencyUtil.estimate(markers.get(2)), 0.001);
+        /* top-level code */
+        assertEquals(1.0, ExecutionFrequencyUtil.estimate(markers.get(3)), 0.001);
+    }
+
+    public void testLoopBounds() {
+        final PsiFile file = myFixture.configureByText(
+                "test.php",
+                "<?php\n" +
+                "for ($i = $n; $i > 0; --$i) { marker(); }\n" +
+                "for ($i = 10; $i >= -10; $i -= 2) { marker(); }\n" +
+                "for ($i = 0, $j = 0; $j < 500; ++$i) { marker(); }\n" +
+                "for ($i = 5; 50 > $i; $i++) { marker(); }\n"
+        );
+        final List<FunctionReference> markers = PsiTreeUtil.findChildrenOfType(file, FunctionReference.class).stream()
+                .filter(reference -> "marker".equals(reference.getName()))
+                .collect(Collectors.toList());
+        assertEquals(4, markers.size());
+
+        /* the initial value is unknown */
+        assertEquals(10.0, ExecutionFrequencyUtil.estimate(markers.get(0)), 0.001);
+        /* a negative limit and a step */
+        assertEquals(11.0, ExecutionFrequencyUtil.estimate(markers.get(1)), 0.001);
+        /* the limit is not applied to the stepped variable */
+        assertEquals(10.0, ExecutionFrequencyUtil.estimate(markers.get(2)), 0.001);
+        /* the limit on the left side */
+        assertEquals(45.0, ExecutionFrequencyUtil.estimate(markers.get(3)), 0.001);
+    }
+}
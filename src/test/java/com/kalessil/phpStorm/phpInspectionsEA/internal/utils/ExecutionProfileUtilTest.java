@@ -0,0 +1,73 @@
+package com.kalessil.phpStorm.phpInspectionsEA.internal.utils;
+
+import com.kalessil.phpStorm.phpInspectionsEA.PhpCodeInsightFixtureTestCase;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.ExecutionProfileUtil;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+final public class ExecutionProfileUtilTest extends PhpCodeInsightFixtureTestCase {
+    public void testParseCachegrind() throws IOException {
+        final String cachegrind = String.join("\n",
+                "version: 1",
+                "creator: xdebug 2.9.0",
+                "cmd: /app/index.php",
+                "positions: line",
+                "",
+                "events: Time Memory",
+                "",
+                "fl=(1) php:internal",
+                "fn=(1) php::strlen",
+                "1 5 0",
+                "",
+                "fl=(2) /app/src/Service.php",
+                "fn=(2) App\\Service->normalize",
+                "10 20 0",
+                "cfl=(1)",
+                "cfn=(1)",
+                "calls=1 0 0",
+                "11 5 0",
+                "",
+                "fl=(2)",
+                "fn=(3) App\\Service::run",
+                "20 10 0",
+                "cfl=(2)",
+                "cfn=(2)",
+                "calls=1 0 0",
+                "21 25 0",
+                "",
+                "fl=(3) /app/index.php",
+                "fn=(4) {main}",
+                "1 5 0",
+                "cfl=(2)",
+                "cfn=(3)",
+                "calls=1 0 0",
+                "2 35 0",
+                ""
+        );
+        final ExecutionProfileUtil.Profile profile = ExecutionProfileUtil.parse(new StringReader(cachegrind));
+
+        assertEquals(40, profile.getTotal());
+        assertEquals(35, profile.getCost("\\App\\Service.run"));
+        assertEquals(25, profile.getCost("\\App\\Service.normalize"));
+        assertEquals(2, profile.getCosts().size());
+        assertFalse(profile.contains("\\php.strlen"));
+    }
+
+    public void testParseXhprof() throws IOException {
+        final String xhprof = "{" +
+                "\"main()\": {\"ct\": 1, \"wt\": 100}," +
+                "\"main()==>App\\\\Service::run\": {\"ct\": 1, \"wt\": 60}," +
+                "\"main()==>run_init::app/bootstrap.php\": {\"ct\": 1, \"wt\": 10}," +
+                "\"App\\\\Service::run==>App\\\\fib\": {\"ct\": 1, \"wt\": 40}," +
+                "\"App\\\\fib==>App\\\\fib@1\": {\"ct\": 3, \"wt\": 30}," +
+                "\"App\\\\Service::run==>{closure}\": {\"ct\": 2, \"wt\": 5}" +
+                "}";
+        final ExecutionProfileUtil.Profile profile = ExecutionProfileUtil.parse(new StringReader(xhprof));
+
+        assertEquals(100, profile.getTotal());
+        assertEquals(60, profile.getCost("\\App\\Service.run"));
+        assertEquals(40, profile.getCost("\\App\\fib"));
+        assertEquals(2, profile.getCosts().size());
+    }
+}
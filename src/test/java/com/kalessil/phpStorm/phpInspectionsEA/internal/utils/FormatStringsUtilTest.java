@@ -0,0 +1,40 @@
+package com.kalessil.phpStorm.phpInspectionsEA.internal.utils;
+
+import com.kalessil.phpStorm.phpInspectionsEA.PhpCodeInsightFixtureTestCase;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.FormatStringsUtil;
+
+final public class FormatStringsUtilTest extends PhpCodeInsightFixtureTestCase {
+    public void testParsePrintf() {
+        assertEquals(2, FormatStringsUtil.parsePrintf("%%%d%d").getArgumentsCount());
+        assertEquals(1, FormatStringsUtil.parsePrintf("%*s %s").getArgumentsCount());
+        assertEquals(1, FormatStringsUtil.parsePrintf("%1$'.-9d %1$'.-9d %s").getArgumentsCount());
+        assertEquals(3, FormatStringsUtil.parsePrintf("%3$'.5s %1$'.5s").getArgumentsCount());
+        assertEquals(1, FormatStringsUtil.parsePrintf("%'%10d").getArgumentsCount());
+        assertEquals(1, FormatStringsUtil.parsePrintf("%+-05.2f").getArgumentsCount());
+
+        assertTrue(FormatStringsUtil.parsePrintf("%[^]]").isValid());
+        assertTrue(FormatStringsUtil.parsePrintf("100%%").isValid());
+        assertFalse(FormatStringsUtil.parsePrintf("%").isValid());
+        assertFalse(FormatStringsUtil.parsePrintf("%y %s").isValid());
+
+        assertTrue(FormatStringsUtil.parsePrintf("%s $name").hasInlineVariables());
+        assertTrue(FormatStringsUtil.parsePrintf("%s ${name}").hasInlineVariables());
+        assertFalse(FormatStringsUtil.parsePrintf("%s $").hasInlineVariables());
+    }
+
+    public void testIsValidDateIntervalSpecification() {
+        assertTrue(FormatStringsUtil.isValidDateIntervalSpecification("P"));
+        assertTrue(FormatStringsUtil.isValidDateIntervalSpecification("P1Y2M3DT4H5M6S"));
+        assertTrue(FormatStringsUtil.isValidDateIntervalSpecification("P2W"));
+        assertTrue(FormatStringsUtil.isValidDateIntervalSpecification("PT36H"));
+        assertTrue(FormatStringsUtil.isValidDateIntervalSpecification("P0000-00-00T00:00:01"));
+
+        assertFalse(FormatStringsUtil.isValidDateIntervalSpecification(""));
+        assertFalse(FormatStringsUtil.isValidDateIntervalSpecification("28D"));
+        assertFalse(FormatStringsUtil.isValidDateIntervalSpecification("PT"));
+        assertFalse(FormatStringsUtil.isValidDateIntervalSpecification("PT28D"));
+        assertFalse(FormatStringsUtil.isValidDateIntervalSpecification("P28D1Y"));
+        assertFalse(FormatStringsUtil.isValidDateIntervalSpecification("P1YT1HT1M"));
+        assertFalse(FormatStringsUtil.isValidDateIntervalSpecification("PT00:00:01"));
+    }
+}
@@ -0,0 +1,55 @@
+package com.kalessil.phpStorm.phpInspectionsEA.internal.utils;
+
+import com.kalessil.phpStorm.phpInspectionsEA.PhpCodeInsightFixtureTestCase;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.hierarhy.PreloadListUtil;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+final public class PreloadListUtilTest extends PhpCodeInsightFixtureTestCase {
+    public void testLinkingOrder() {
+        myFixture.addFileToProject("src/Service.php", "<?php\nnamespace App;\nclass Service extends Base {}\n");
+        myFixture.addFileToProject("src/Base.php", "<?php\nnamespace App;\nabstract class Base implements Contract { use Helper; }\n");
+        myFixture.addFileToProject("src/Contract.php", "<?php\nnamespace App;\ninterface Contract {}\n");
+        myFixture.addFileToProject("src/Helper.php", "<?php\nnamespace App;\ntrait Helper {}\n");
+
+        final PreloadListUtil.Result result = PreloadListUtil.build(myFixture.getProject(), Collections.singletonList("\\App\\"));
+        final List<String> classes          = result.getClasses();
+        assertEquals(4, classes.size());
+        assertTrue(classes.indexOf("\\App\\Contract") < classes.indexOf("\\App\\Base"));
+        assertTrue(classes.indexOf("\\App\\Helper") < classes.indexOf("\\App\\Base"));
+        assertTrue(classes.indexOf("\\App\\Base") < classes.indexOf("\\App\\Service"));
+        assertEquals(4, result.getFiles().size());
+        assertTrue(result.getFailures().isEmpty());
+    }
+
+    public void testFailures() {
+        myFixture.addFileToProject("src/Duplicate.php", "<?php\nnamespace App;\nclass Duplicate {}\n");
+        myFixture.addFileToProject("legacy/Duplicate.php", "<?php\nnamespace App;\nclass Duplicate {}\n");
+        myFixture.addFileToProject("src/Child.php", "<?php\nnamespace App;\nclass Child extends Duplicate {}\n");
+        myFixture.addFileToProject("src/GrandChild.php", "<?php\nnamespace App;\nclass GrandChild extends Child {}\n");
+        myFixture.addFileToProject("src/Orphan.php", "<?php\nnamespace App;\nclass Orphan implements \\Missing\\Contract {}\n");
+        myFixture.addFileToProject("src/Valid.php", "<?php\nnamespace App;\nclass Valid {}\n");
+
+        final PreloadListUtil.Result result = PreloadListUtil.build(myFixture.getProject(), Collections.singletonList("\\App\\"));
+        final Map<String, String> failures  = result.getFailures();
+        assertEquals("defined in 2 files", failures.get("\\App\\Duplicate"));
+        assertEquals("depends on \\App\\Duplicate, which can not be linked", failures.get("\\App\\Child"));
+        assertEquals("depends on \\App\\Child, which can not be linked", failures.get("\\App\\GrandChild"));
+        assertEquals("unknown class", failures.get("\\Missing\\Contract"));
+        assertEquals("depends on \\Missing\\Contract, which can not be linked", failures.get("\\App\\Orphan"));
+        assertEquals(Collections.singletonList("\\App\\Valid"), result.getClasses());
+    }
+
+    public void testCircularInheritance() {
+        myFixture.addFileToProject("src/First.php", "<?php\nnamespace App;\nclass First extends Second {}\n");
+        myFixture.addFileToProject("src/Second.php", "<?php\nnamespace App;\nclass Second extends First {}\n");
+        myFixture.addFileToProject("src/Valid.php", "<?php\nnamespace App;\nclass Valid {}\n");
+
+        final PreloadListUtil.Result result = PreloadListUtil.build(myFixture.getProject(), Collections.singletonList("\\App\\"));
+        assertEquals("circular inheritance", result.getFailures().get("\\App\\First"));
+        assertEquals("circular inheritance", result.getFailures().get("\\App\\Second"));
+        assertEquals(Collections.singletonList("\\App\\Valid"), result.getClasses());
+    }
+}
@@ -34,6 +34,11 @@ final public class NotOptimalRegularExpressionsInspectorTest extends PhpCodeInsi
         myFixture.configureByFile("testData/fixtures/regularExpressions/quantifier-compounds-quantifier.php");
         myFixture.testHighlighting(true, false, true);
     }
+    public void testBacktrackingComplexity() {
+        myFixture.enableInspections(new NotOptimalRegularExpressionsInspector());
+        myFixture.configureByFile("testData/fixtures/regularExpressions/backtracking-complexity.php");
+        myFixture.testHighlighting(true, false, true);
+    }
     public void testSenselessIgnoreCaseModifier() {
         myFixture.enableInspections(new NotOptimalRegularExpressionsInspector());
         myFixture.configureByFile("testData/fixtures/regularExpressions/senseless-i-modifier.php");
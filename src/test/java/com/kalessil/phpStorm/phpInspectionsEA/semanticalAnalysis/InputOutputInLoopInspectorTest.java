@@ -0,0 +1,12 @@
+package com.kalessil.phpStorm.phpInspectionsEA.semanticalAnalysis;
+
+import com.kalessil.phpStorm.phpInspectionsEA.PhpCodeInsightFixtureTestCase;
+import com.kalessil.phpStorm.phpInspectionsEA.inspectors.semanticalAnalysis.loops.InputOutputInLoopInspector;
+
+final public class InputOutputInLoopInspectorTest extends PhpCodeInsightFixtureTestCase {
+    public void testIfFindsAllPatterns() {
+        myFixture.enableInspections(new InputOutputInLoopInspector());
+        myFixture.configureByFile("testData/fixtures/semanticalAnalysis/io-in-loops.php");
+        myFixture.testHighlighting(true, false, true);
+    }
+}
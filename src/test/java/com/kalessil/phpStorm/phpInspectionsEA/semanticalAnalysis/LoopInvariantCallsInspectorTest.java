@@ -0,0 +1,16 @@
+package com.kalessil.phpStorm.phpInspectionsEA.semanticalAnalysis;
+
+import com.kalessil.phpStorm.phpInspectionsEA.PhpCodeInsightFixtureTestCase;
+import com.kalessil.phpStorm.phpInspectionsEA.inspectors.semanticalAnalysis.loops.LoopInvariantCallsInspector;
+
+final public class LoopInvariantCallsInspectorTest extends PhpCodeInsightFixtureTestCase {
+    public void testIfFindsAllPatterns() {
+        myFixture.enableInspections(new LoopInvariantCallsInspector());
+        myFixture.configureByFile("testData/fixtures/semanticalAnalysis/loop-invariant-calls.php");
+        myFixture.testHighlighting(true, false, true);
+
+        myFixture.getAllQuickFixes().forEach(fix -> myFixture.launchAction(fix));
+        myFixture.setTestDataPath(".");
+        myFixture.checkResultByFile("testData/fixtures/semanticalAnalysis/loop-invariant-calls.fixed.php");
+    }
+}
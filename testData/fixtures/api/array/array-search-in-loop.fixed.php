@@ -0,0 +1,49 @@
+<?php
+
+/**
+ * @param string[] $names
+ * @param int[] $ids
+ * @param int[] $allowedIds
+ * @param string[] $allowedNames
+ */
+function cases_holder(array $names, array $ids, array $allowedIds, array $allowedNames) {
+    $allowed = ['first', 'second'];
+    $allowedFlipped = array_flip($allowed);
+    foreach ($names as $name) {
+        if (isset($allowedFlipped[$name])) {}
+        if (!isset($allowedFlipped[$name])) {}
+    }
+
+    $allowedIdsFlipped = array_flip($allowedIds);
+    foreach ($ids as $id) {
+        if (isset($allowedIdsFlipped[$id])) {}
+    }
+
+    $allowedNamesFlipped = array_flip($allowedNames);
+    $flipped = array_flip(['a', 'b']);
+    foreach ($names as $name) {
+        if (isset($allowedNamesFlipped[$name])) {}
+        if (isset($flipped[$name])) {}
+    }
+}
+
+/**
+ * @param string[] $names
+ * @param string[] $allowedNames
+ */
+function false_positives_holder(array $names, array $allowedNames, array $mixed, $needle) {
+    foreach ($names as $name) {
+        if (in_array($name, $allowedNames)) {}
+        if (in_array($name, ['1', '2'])) {}
+        if (in_array($name, $mixed)) {}
+        if (in_array($needle, $allowedNames)) {}
+        if (array_search($name, $allowedNames, true)) {}
+    }
+    foreach ($names as $name) {
+        if (in_array($name, $allowedNames, true)) {}
+        $allowedNames[] = $name;
+    }
+    foreach ($mixed as $value) {
+        if (in_array($value, ['a', 'b'])) {}
+    }
+}
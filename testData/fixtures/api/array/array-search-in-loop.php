@@ -0,0 +1,45 @@
+<?php
+
+/**
+ * @param string[] $names
+ * @param int[] $ids
+ * @param int[] $allowedIds
+ * @param string[] $allowedNames
+ */
+function cases_holder(array $names, array $ids, array $allowedIds, array $allowedNames) {
+    $allowed = ['first', 'second'];
+    foreach ($names as $name) {
+        if (<warning descr="[EA] 'in_array(...)' scans the same array in every iteration, consider flipping it before the loop and using 'isset(...)' instead.">in_array($name, $allowed)</warning>) {}
+        if (!<warning descr="[EA] 'in_array(...)' scans the same array in every iteration, consider flipping it before the loop and using 'isset(...)' instead.">in_array($name, $allowed, true)</warning>) {}
+    }
+
+    foreach ($ids as $id) {
+        if (false !== <warning descr="[EA] 'array_search(...)' scans the same array in every iteration, consider flipping it before the loop and using 'isset(...)' instead.">array_search($id, $allowedIds)</warning>) {}
+    }
+
+    foreach ($names as $name) {
+        if (<warning descr="[EA] 'in_array(...)' scans the same array in every iteration, consider flipping it before the loop and using 'isset(...)' instead.">in_array($name, $allowedNames, true)</warning>) {}
+        if (<warning descr="[EA] 'in_array(...)' scans the same array in every iteration, consider flipping it before the loop and using 'isset(...)' instead.">in_array($name, ['a', 'b'])</warning>) {}
+    }
+}
+
+/**
+ * @param string[] $names
+ * @param string[] $allowedNames
+ */
+function false_positives_holder(array $names, array $allowedNames, array $mixed, $needle) {
+    foreach ($names as $name) {
+        if (in_array($name, $allowedNames)) {}
+        if (in_array($name, ['1', '2'])) {}
+        if (in_array($name, $mixed)) {}
+        if (in_array($needle, $allowedNames)) {}
+        if (array_search($name, $allowedNames, true)) {}
+    }
+    foreach ($names as $name) {
+        if (in_array($name, $allowedNames, true)) {}
+        $allowedNames[] = $name;
+    }
+    foreach ($mixed as $value) {
+        if (in_array($value, ['a', 'b'])) {}
+    }
+}
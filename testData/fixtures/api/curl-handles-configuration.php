@@ -0,0 +1,97 @@
+<?php
+
+function configure_timeouts($handle) {
+    curl_setopt($handle, CURLOPT_TIMEOUT, 10);
+}
+
+function create_handle($url) {
+    $handle = curl_init($url);
+    curl_setopt_array($handle, [CURLOPT_RETURNTRANSFER => true, CURLOPT_TIMEOUT_MS => 500]);
+    return $handle;
+}
+
+function cases_holder_missing_timeout($url) {
+    $handle = curl_init($url);
+    curl_setopt($handle, CURLOPT_RETURNTRANSFER, true);
+    return <warning descr="[EA] The cURL handle has no CURLOPT_TIMEOUT (or CURLOPT_TIMEOUT_MS) set, a slow peer can block the worker.">curl_exec($handle)</warning>;
+}
+
+function cases_holder_missing_timeout_multi($url, $multi) {
+    $handle = curl_init($url);
+    <warning descr="[EA] The cURL handle has no CURLOPT_TIMEOUT (or CURLOPT_TIMEOUT_MS) set, a slow peer can block the worker.">curl_multi_add_handle($multi, $handle)</warning>;
+}
+
+function cases_holder_keep_alive_in_loop(array $urls) {
+    $handle = curl_init();
+    curl_setopt($handle, CURLOPT_TIMEOUT, 10);
+    curl_setopt($handle, CURLOPT_FORBID_REUSE, true);
+    foreach ($urls as $url) {
+        curl_setopt($handle, CURLOPT_URL, $url);
+        <warning descr="[EA] Connections reuse is disabled (CURLOPT_FORBID_REUSE) for a handle executed in a loop, each iteration opens a new connection.">curl_exec($handle)</warning>;
+    }
+}
+
+function cases_holder_timeout_set_directly($url) {
+    $handle = curl_init($url);
+    curl_setopt($handle, CURLOPT_TIMEOUT, 10);
+    curl_setopt($handle, CURLOPT_FORBID_REUSE, true);
+    return curl_exec($handle);
+}
+
+function cases_holder_timeout_set_via_arrays($url) {
+    $first = curl_init($url);
+    curl_setopt_array($first, [CURLOPT_RETURNTRANSFER => true, CURLOPT_TIMEOUT => 10]);
+    curl_exec($first);
+
+    $options                  = [CURLOPT_RETURNTRANSFER => true];
+    $options[CURLOPT_TIMEOUT] = 10;
+    $second                   = curl_init($url);
+    curl_setopt_array($second, $options);
+    curl_exec($second);
+}
+
+function cases_holder_timeout_set_via_helpers($url) {
+    $first = curl_init($url);
+    configure_timeouts($first);
+    curl_exec($first);
+
+    $second = create_handle($url);
+    curl_exec($second);
+}
+
+function cases_holder_unknown_configuration($url, $configurator, $options, $external) {
+    $first = curl_init($url);
+    $configurator->configure($first);
+    curl_exec($first);
+
+    $second = curl_init($url);
+    curl_setopt_array($second, $options);
+    curl_exec($second);
+
+    curl_exec($external);
+}
+
+function create_handle_without_timeout($url) {
+    $handle = curl_init($url);
+    curl_setopt($handle, CURLOPT_RETURNTRANSFER, true);
+    return $handle;
+}
+
+function cases_holder_missing_timeout_via_helper($url) {
+    $handle = create_handle_without_timeout($url);
+    return <warning descr="[EA] The cURL handle has no CURLOPT_TIMEOUT (or CURLOPT_TIMEOUT_MS) set, a slow peer can block the worker.">curl_exec($handle)</warning>;
+}
+
+class CurlClient {
+    public function __construct($handle) {}
+}
+
+function cases_holder_escaping_handles($url, array $callbacks) {
+    $first  = curl_init($url);
+    $client = new CurlClient($first);
+    curl_exec($first);
+
+    $second      = curl_init($url);
+    $callbacks[] = function () use ($second) { curl_setopt($second, CURLOPT_TIMEOUT, 10); };
+    curl_exec($second);
+}
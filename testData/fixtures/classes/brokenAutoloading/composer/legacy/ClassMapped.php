@@ -0,0 +1,7 @@
+<?php
+
+namespace Any\Legacy;
+
+class ClassMapped
+{
+}
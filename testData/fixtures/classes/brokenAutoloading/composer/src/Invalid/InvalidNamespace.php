@@ -0,0 +1,7 @@
+<?php
+
+namespace Vendor\Package\Valid;
+
+class <warning descr="[EA] Class autoloading might be broken: according to composer.json autoload settings, the class should be '\Vendor\Package\Invalid\InvalidNamespace'.">InvalidNamespace</warning>
+{
+}
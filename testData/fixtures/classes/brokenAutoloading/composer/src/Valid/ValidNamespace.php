@@ -0,0 +1,7 @@
+<?php
+
+namespace Vendor\Package\Valid;
+
+class ValidNamespace
+{
+}
@@ -0,0 +1,39 @@
+<?php
+
+namespace Vendor\Package {
+
+    class ParentClass {
+        protected function method()
+        {
+            echo rtrim('');
+            return 1;
+        }
+    }
+
+    class ChildClass extends ParentClass {
+        protected function <weak_warning descr="[EA] 'method' method can be dropped, as it identical to parent's one.">method</weak_warning>()
+        {
+            echo rtrim('');
+            return 1;
+        }
+    }
+
+    if (!class_exists('\Vendor\Package\ConditionalParent')) {
+        class ConditionalParent {
+            protected function method()
+            {
+                echo trim('');
+                return 2;
+            }
+        }
+    }
+
+    class ConditionalChild extends ConditionalParent {
+        public function <weak_warning descr="[EA] 'method' method should call parent's one instead of duplicating code.">method</weak_warning>()
+        {
+            echo trim('');
+            return 2;
+        }
+    }
+
+}
@@ -0,0 +1,18 @@
+<?php
+
+namespace App;
+
+function hot($where)
+{
+    if (<error descr="[EA] 'strpos($where, 'what') !== false' should be used instead (saves memory). (hot path: 50.0% of the profiled time)">strstr($where, 'what')</error>) {}
+}
+
+function cold($where)
+{
+    if (strstr($where, 'what')) {}
+}
+
+function unprofiled($where)
+{
+    if (<warning descr="[EA] 'strpos($where, 'what') !== false' should be used instead (saves memory).">strstr($where, 'what')</warning>) {}
+}
@@ -0,0 +1,29 @@
+<?php
+
+    preg_match(<error descr="[EA] Exponential backtracking on 'a' + 'aa' * N + '0' might be exploited (ReDoS, Regular Expression Denial of Service).">'/^(a|a)+$/'</error>, '');
+    preg_match(<error descr="[EA] Exponential backtracking on 'a' + 'a' * N + '-' might be exploited (ReDoS, Regular Expression Denial of Service).">'/^(\w+\s?)+$/'</error>, '');
+    preg_match(<error descr="[EA] Exponential backtracking on 'a' + 'a' * N + '' might be exploited (ReDoS, Regular Expression Denial of Service).">'/^([a-z0-9]+[._-]?)+@example\.com$/'</error>, '');
+    preg_match(<error descr="[EA] Polynomial (O(n^3)) backtracking on '0' + '0' * N + 'a' might be exploited (ReDoS, Regular Expression Denial of Service).">'/^\d*\d*\d*$/'</error>, '');
+
+    /* nested alternations with overlapping branches: exponential (EDA) and polynomial (IDA) ambiguity */
+    preg_match(<error descr="[EA] Exponential backtracking on 'c' + 'ac' * N + '0' might be exploited (ReDoS, Regular Expression Denial of Service).">'/^(?:(?:a|b)|(?:a|c))+$/'</error>, '');
+    preg_match(<error descr="[EA] Polynomial (O(n^3)) backtracking on 'a' + 'a' * N + '0' might be exploited (ReDoS, Regular Expression Denial of Service).">'/^(?:a|b)*(?:a|c)*(?:a|d)*$/'</error>, '');
+
+    /* lookarounds are approximated as empty strings */
+    preg_match(<error descr="[EA] Exponential backtracking on 'a' + 'aa' * N + '0' might be exploited (ReDoS, Regular Expression Denial of Service).">'/^(?=a)(a|a)+$/'</error>, '');
+    preg_match(<error descr="[EA] Exponential backtracking on 'a' + 'a' * N + '-' might be exploited (ReDoS, Regular Expression Denial of Service).">'/^(?<!-)(\w+\s?)+$/'</error>, '');
+
+    /* false-positives: unambiguous, atomic, quadratic and always matching patterns */
+    preg_match('/^(a|b)+$/', '');
+    preg_match('/^(?>a+)+$/', '');
+    preg_match('/^(a++)+$/', '');
+    preg_match('/^\d*\d*$/', '');
+    preg_match('/^(a|a)+/', '');
+    preg_match('/^(\d+)\1+$/', '');
+
+    /* false-positives: back-references and recursion are not supported */
+    preg_match('/^(?<word>a|a)+\k<word>$/', '');
+    preg_match('/^(a|a(?R))+$/', '');
+
+    /* false-positives: the analysis budget is exhausted (too many states), no result */
+    preg_match('/^(a|a)+(?:(?:b{16}){16}){2}$/', '');
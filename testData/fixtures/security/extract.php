@@ -2,4 +2,24 @@
 
     <error descr="[EA] Please provide second parameter to clearly state intended behaviour.">extract</error> ([]);
 
-    extract([], EXTR_OVERWRITE);
\ No newline at end of file
+    extract([], EXTR_OVERWRITE);
+
+    class ExtractCrossFunctionFlows
+    {
+        private function import($values)
+        {
+            <error descr="[EA] Please provide second parameter to clearly state intended behaviour.">extract</error>($values);
+        }
+
+        private function importSafely($values)
+        {
+            extract($values, EXTR_SKIP);
+        }
+
+        public function method()
+        {
+            <error descr="[EA] Perhaps it's possible to overwrite variables with extract in the called function via: $_POST.">$this->import($_POST)</error>;
+            $this->importSafely($_POST);
+            $this->import(['trusted' => 1]);
+        }
+    }
\ No newline at end of file
@@ -5,4 +5,26 @@
 
     /* valid */
     parse_str('', $_GET);
-    mb_parse_str('', $_GET);
\ No newline at end of file
+    mb_parse_str('', $_GET);
+
+    class ParseStrCrossFunctionFlows
+    {
+        private function import($query)
+        {
+            <error descr="[EA] Please provide second parameter to not influence globals.">parse_str</error>($query);
+        }
+
+        private function importSafely($query)
+        {
+            parse_str($query, $result);
+            return $result;
+        }
+
+        public function method()
+        {
+            <error descr="[EA] Perhaps it's possible to overwrite variables with parse_str in the called function via: $_GET.">$this->import($_GET['query'])</error>;
+            <error descr="[EA] Perhaps it's possible to overwrite variables with parse_str in the called function via: file_get_contents(...).">$this->import(file_get_contents('php://input'))</error>;
+            $this->importSafely($_GET['query']);
+            $this->import('trusted=1');
+        }
+    }
\ No newline at end of file
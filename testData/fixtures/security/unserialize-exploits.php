@@ -34,4 +34,47 @@ class UnserializeExploits
         $string = $_SERVER['index'];
         unserialize($string);
     }
-}
\ No newline at end of file
+
+    private function readPayload()
+    {
+        return $_POST['payload'];
+    }
+
+    private function restore($payload)
+    {
+        return unserialize($payload);
+    }
+
+    public function CrossFunctionFlows()
+    {
+        unserialize(<error descr="[EA] Perhaps it's possible to exploit the unserialize via: $_POST.">$this->readPayload()</error>);
+        <error descr="[EA] Perhaps it's possible to exploit the unserialize in the called function via: $_COOKIE.">$this->restore($_COOKIE['index'])</error>;
+        <error descr="[EA] Perhaps it's possible to exploit the unserialize in the called function via: $_POST.">$this->restore($this->readPayload())</error>;
+        $this->restore($_SESSION['index']);
+    }
+}
+
+define('UNTRUSTED_PAYLOAD', $_COOKIE['payload']);
+
+class UnserializeExploitsSources
+{
+    private $payload;
+
+    public function __construct()
+    {
+        $this->payload = $_POST['payload'];
+    }
+
+    public function FieldReferences()
+    {
+        unserialize(<error descr="[EA] Perhaps it's possible to exploit the unserialize via: $_POST.">$this->payload</error>);
+    }
+
+    public function DefaultValues($payload = UNTRUSTED_PAYLOAD)
+    {
+        unserialize(<error descr="[EA] Perhaps it's possible to exploit the unserialize via: $_COOKIE.">$payload</error>);
+    }
+}
+
+$payload = $_GET['payload'];
+unserialize(<error descr="[EA] Perhaps it's possible to exploit the unserialize via: $_GET.">$payload</error>);
@@ -15,6 +15,13 @@
         <error descr="[EA] This relies on include_path and not guaranteed to load the right file. Concatenate with __DIR__ or use namespaces + class loading instead.">include $file</error>;
     }
 
+    function functionWithParametrizedInclusion ($file) {
+        include __DIR__ . '/' . $file;
+    }
+    <error descr="[EA] Perhaps it's possible to include an arbitrary file via: $_GET.">include __DIR__ . '/' . $_GET['file']</error>;
+    <error descr="[EA] Perhaps it's possible to include an arbitrary file in the called function via: $_REQUEST.">functionWithParametrizedInclusion($_REQUEST['file'])</error>;
+    functionWithParametrizedInclusion('file.php');
+
     /* false-positives */
     include __DIR__.'file.php';
     include '/file.php';
@@ -0,0 +1,43 @@
+<?php
+
+namespace Doctrine\ORM {
+    class EntityRepository {
+        public function find($id) { return null; }
+    }
+}
+
+namespace {
+    function load_user(\PDO $pdo, $id) {
+        return $pdo->query("SELECT * FROM users WHERE id = $id");
+    }
+    function load_user_indirectly(\PDO $pdo, $id) {
+        return load_user($pdo, $id);
+    }
+    function recursive_function($value) {
+        return $value > 0 ? recursive_function($value - 1) : $value;
+    }
+
+    function cases_holder(\PDO $pdo, \Doctrine\ORM\EntityRepository $repository, array $ids, $handle) {
+        foreach ($ids as $id) {
+            <weak_warning descr="[EA] 'PDO::query(...)' is performing I/O in a loop (nesting depth 1), consider batching the operations (N+1 problem).">$pdo->query('...')</weak_warning>;
+            <weak_warning descr="[EA] 'Doctrine\ORM\EntityRepository::find(...)' is performing I/O in a loop (nesting depth 1), consider batching the operations (N+1 problem).">$repository->find($id)</weak_warning>;
+            <weak_warning descr="[EA] 'file_get_contents(...)' is performing I/O in a loop (nesting depth 1), consider batching the operations (N+1 problem).">file_get_contents($id)</weak_warning>;
+            <weak_warning descr="[EA] 'load_user(...)' is performing I/O ('PDO::query(...)') in a loop (nesting depth 1), consider batching the operations (N+1 problem).">load_user($pdo, $id)</weak_warning>;
+            <weak_warning descr="[EA] 'load_user_indirectly(...)' is performing I/O ('PDO::query(...)') in a loop (nesting depth 1), consider batching the operations (N+1 problem).">load_user_indirectly($pdo, $id)</weak_warning>;
+
+            while ($id-- > 0) {
+                <warning descr="[EA] 'curl_exec(...)' is performing I/O in a loop (nesting depth 2), consider batching the operations (N+1 problem).">curl_exec($handle)</warning>;
+            }
+        }
+
+        /* false-positives: evaluated once, closures, no I/O */
+        foreach ($pdo->query('...') as $row) {}
+        for ($statement = $pdo->query('...'); $statement; $statement = null) {}
+        foreach ($ids as $id) {
+            $callback = function () use ($pdo) { return $pdo->query('...'); };
+            recursive_function($id);
+            strlen($id);
+        }
+        $pdo->query('...');
+    }
+}
@@ -0,0 +1,101 @@
+<?php
+
+class Entity {
+    /** @pure */
+    public function getName() { return 'name'; }
+    public function setName($name) {}
+}
+
+function pure_helper($value) { return $value * 2; }
+function impure_helper($value) { echo $value; return $value; }
+
+function cases_holder_foreach(string $needle) {
+    foreach ([1, 2, 3] as $item) {
+        if ($item > <weak_warning descr="[EA] 'strlen(...)' is pure and its arguments are not modified in the loop, consider moving the call out of the loop.">strlen($needle)</weak_warning>) {}
+    }
+}
+
+function cases_holder_while(string $needle) {
+    $i = 0;
+    while (true) {
+        if (<weak_warning descr="[EA] 'in_array(...)' is pure and its arguments are not modified in the loop, consider moving the call out of the loop.">in_array($needle, ['a', 'b'])</weak_warning>) { break; }
+        $i++;
+    }
+}
+
+function cases_holder_nested(array $items) {
+    do {
+        $result = <weak_warning descr="[EA] 'pure_helper(...)' is pure and its arguments are not modified in the loop, consider moving the call out of the loop.">pure_helper(count($items))</weak_warning>;
+    } while ($result < 0);
+}
+
+function cases_holder_methods(array $items, Entity $entity) {
+    for ($i = 0; $i < 3; ++$i) {
+        $items[$i]->label = <weak_warning descr="[EA] 'getName(...)' is pure and its arguments are not modified in the loop, consider moving the call out of the loop.">$entity->getName()</weak_warning>;
+    }
+}
+
+function false_positives_holder(array $items, $needle, Entity $entity, $handle) {
+    foreach ($items as $item) {
+        if (strlen($item) > 0) {}
+    }
+    foreach ($items as $item) {
+        if (count($items) > 0) { $items[] = $item; }
+    }
+    foreach ($items as $item) {
+        impure_helper($needle);
+    }
+    foreach ($items as $item) {
+        $entity->setName($item);
+        echo $entity->getName();
+    }
+    for ($i = 0; $i < count($items); $i++) {}
+    while ($line = fgets($handle)) {
+        echo trim($line);
+    }
+    foreach ($items as $item) {
+        $callback = function () use ($needle) { return strlen($needle); };
+    }
+    foreach (array_keys($items) as $key) {}
+}
+
+function cases_holder_speculative_foreach(string $needle, array $keys) {
+    foreach ($keys as $key) {
+        $length = <weak_warning descr="[EA] 'strlen(...)' is pure and its arguments are not modified in the loop, consider moving the call out of the loop.">strlen($needle)</weak_warning>;
+    }
+}
+
+function cases_holder_speculative_branch(string $needle) {
+    foreach ([1, 2, 3] as $item) {
+        if ($item) { $length = <weak_warning descr="[EA] 'strlen(...)' is pure and its arguments are not modified in the loop, consider moving the call out of the loop.">strlen($needle)</weak_warning>; }
+    }
+}
+
+function cases_holder_throwing(array $keys, array $values) {
+    do {
+        $combined = <weak_warning descr="[EA] 'array_combine(...)' is pure and its arguments are not modified in the loop, consider moving the call out of the loop.">array_combine($keys, $values)</weak_warning>;
+    } while ($combined);
+}
+
+function false_positives_holder_conditional(array $keys, array $values, int $count, \Countable $collection, Entity $entity) {
+    foreach ([1, 2, 3] as $item) {
+        if ($item) { $line = str_repeat('-', $count); }
+        if ($item && str_repeat('-', $count)) {}
+        $line = $item ? str_repeat('-', $count) : '';
+        $line = $item ?? str_repeat('-', $count);
+    }
+    while (true) {
+        if ($count) { break; }
+        $line = str_repeat('-', $count);
+    }
+    for ($i = 3; $i < 0; ++$i) {
+        $line = str_repeat('-', $count);
+    }
+    foreach ($keys as $key) {
+        $combined = array_combine($keys, $values);
+    }
+    do {
+        $size   = count($collection);
+        $length = strlen($entity);
+    } while ($size && $length);
+}
@@ -0,0 +1,15 @@
+<?php
+
+namespace {
+    function my_function() {}
+}
+
+namespace Unqualified\References {
+    echo \array_map(<weak_warning descr="[EA] Using '\my_function' would enable some of opcode optimizations.">'my_function'</weak_warning>, []);
+    echo \array_filter([], <weak_warning descr="[EA] Using '\my_function' would enable some of opcode optimizations.">'my_function'</weak_warning>);
+
+    /* the callback is looked up, not the function receiving it */
+    echo \array_map('not_existing_function', []);
+    echo \array_filter([], 'not_existing_function');
+    echo \call_user_func('not_existing_function');
+}